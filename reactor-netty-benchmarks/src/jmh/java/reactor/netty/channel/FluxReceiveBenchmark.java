@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.channel;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.netty.Connection;
+import reactor.netty.ConnectionObserver;
+
+/**
+ * Measures {@link FluxReceive} delivering inbound {@link ByteBuf} to a subscriber, either with unbounded
+ * demand (fast path) or with a bounded demand that goes through the receiver queue.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FluxReceiveBenchmark {
+
+	@Param({"1", "64", "1024"})
+	int items;
+
+	/**
+	 * Demand requested by the subscriber on each round, {@code 0} means unbounded.
+	 */
+	@Param({"0", "32"})
+	int demand;
+
+	EmbeddedChannel channel;
+	ChannelOperations<?, ?> ops;
+	ByteBuf payload;
+
+	@Setup
+	public void setup() {
+		channel = new EmbeddedChannel();
+		ops = new ChannelOperations<>(Connection.from(channel), ConnectionObserver.emptyListener());
+		payload = ByteBufAllocator.DEFAULT.directBuffer()
+		                                  .writeBytes("{\"id\":42,\"name\":\"reactor-netty\"}\n".getBytes(StandardCharsets.UTF_8));
+	}
+
+	@TearDown
+	public void tearDown() {
+		channel.finishAndReleaseAll();
+		payload.release();
+	}
+
+	@Benchmark
+	public void receive(Blackhole bh) {
+		FluxReceive receive = new FluxReceive(ops);
+		receive.subscribe(new ReceiveSubscriber(bh, demand));
+		for (int i = 0; i < items; i++) {
+			receive.onInboundNext(payload.retainedSlice());
+		}
+		receive.onInboundComplete();
+	}
+
+	static final class ReceiveSubscriber extends BaseSubscriber<Object> {
+
+		final Blackhole bh;
+		final int demand;
+
+		int received;
+
+		ReceiveSubscriber(Blackhole bh, int demand) {
+			this.bh = bh;
+			this.demand = demand;
+		}
+
+		@Override
+		protected void hookOnSubscribe(Subscription subscription) {
+			subscription.request(demand == 0 ? Long.MAX_VALUE : demand);
+		}
+
+		@Override
+		protected void hookOnNext(Object value) {
+			bh.consume(value);
+			if (demand != 0 && ++received == demand) {
+				received = 0;
+				request(demand);
+			}
+		}
+	}
+}
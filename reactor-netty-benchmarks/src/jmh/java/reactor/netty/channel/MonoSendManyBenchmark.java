@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.channel;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+import reactor.util.annotation.Nullable;
+
+/**
+ * Measures {@link MonoSendMany} writing a stream of small {@link ByteBuf} to an {@link EmbeddedChannel},
+ * either flushing on each item or relying on the write batching.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MonoSendManyBenchmark {
+
+	@Param({"1", "64", "1024"})
+	int items;
+
+	@Param({"true", "false"})
+	boolean flushOnEach;
+
+	EmbeddedChannel channel;
+	ByteBuf payload;
+	Flux<ByteBuf> source;
+	Predicate<ByteBuf> flushPredicate;
+
+	@Setup
+	public void setup() {
+		//use an extra handler so that the writes go through the pipeline
+		channel = new EmbeddedChannel(new ChannelHandlerAdapter() {});
+		payload = ByteBufAllocator.DEFAULT.directBuffer()
+		                                  .writeBytes("{\"id\":42,\"name\":\"reactor-netty\"}\n".getBytes(StandardCharsets.UTF_8));
+		source = Flux.range(0, items)
+		             .map(i -> payload.retainedSlice());
+		boolean flush = flushOnEach;
+		flushPredicate = b -> flush;
+	}
+
+	@TearDown
+	public void tearDown() {
+		drain(null);
+		channel.finishAndReleaseAll();
+		payload.release();
+	}
+
+	@Benchmark
+	public void sendByteBuf(Blackhole bh) {
+		MonoSendMany.byteBufSource(source, channel, flushPredicate)
+		            .subscribe();
+		//run the scheduled flush
+		channel.runPendingTasks();
+		drain(bh);
+	}
+
+	void drain(@Nullable Blackhole bh) {
+		Object msg;
+		while ((msg = channel.readOutbound()) != null) {
+			if (bh != null) {
+				bh.consume(msg);
+			}
+			ReferenceCountUtil.release(msg);
+		}
+	}
+}
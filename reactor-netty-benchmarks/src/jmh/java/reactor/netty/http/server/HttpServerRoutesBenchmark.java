@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.server;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.cookie.ServerCookieDecoder;
+import io.netty.handler.codec.http.cookie.ServerCookieEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.ReactorNetty;
+import reactor.netty.http.logging.ReactorNettyHttpMessageLogFactory;
+
+import static reactor.netty.http.server.HttpServerFormDecoderProvider.DEFAULT_FORM_DECODER_SPEC;
+
+/**
+ * Measures {@link DefaultHttpServerRoutes} selecting the handler for a request among {@code routes}
+ * {@link HttpPredicate} templates and resolving one path parameter, with and without the compiled route tree.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class HttpServerRoutesBenchmark {
+
+	@Param({"10", "300"})
+	int routes;
+
+	/**
+	 * Which route the request targets: the first registered, the last registered or none.
+	 */
+	@Param({"first", "last", "none"})
+	String target;
+
+	@Param({"false", "true"})
+	boolean compiled;
+
+	EmbeddedChannel channel;
+	DefaultHttpServerRoutes httpServerRoutes;
+	HttpServerOperations ops;
+
+	@Setup
+	public void setup() {
+		httpServerRoutes = new DefaultHttpServerRoutes();
+		httpServerRoutes.compiled(compiled);
+		for (int i = 0; i < routes; i++) {
+			httpServerRoutes.get("/api/v1/service" + i + "/items/{id}", (req, res) -> {
+				String id = req.param("id");
+				return id != null ? Mono.empty() : res.sendNotFound();
+			});
+		}
+
+		String uri;
+		switch (target) {
+			case "first":
+				uri = "/api/v1/service0/items/42?expand=true";
+				break;
+			case "last":
+				uri = "/api/v1/service" + (routes - 1) + "/items/42?expand=true";
+				break;
+			default:
+				uri = "/api/v1/unknown/items/42?expand=true";
+		}
+
+		channel = new EmbeddedChannel();
+		ops = new HttpServerOperations(
+				Connection.from(channel),
+				ConnectionObserver.emptyListener(),
+				new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, uri),
+				null,
+				null,
+				ServerCookieDecoder.STRICT,
+				ServerCookieEncoder.STRICT,
+				DEFAULT_FORM_DECODER_SPEC,
+				ReactorNettyHttpMessageLogFactory.INSTANCE,
+				null,
+				false,
+				ZonedDateTime.now(ReactorNetty.ZONE_ID_SYSTEM));
+	}
+
+	@TearDown
+	public void tearDown() {
+		channel.finishAndReleaseAll();
+	}
+
+	@Benchmark
+	public Publisher<Void> route() {
+		return httpServerRoutes.apply(ops, ops);
+	}
+}
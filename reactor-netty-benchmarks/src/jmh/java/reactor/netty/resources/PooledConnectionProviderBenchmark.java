@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.resources;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Measures request/response exchanges over a loopback {@link HttpServer}, each one acquiring a keep-alive
+ * connection from {@link PooledConnectionProvider} and releasing it back once the response is received.
+ * The client runs on its own event loops so that the pool can be sharded per event loop.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class PooledConnectionProviderBenchmark {
+
+	@Param({"1", "16"})
+	int maxConnections;
+
+	@Param({"false", "true"})
+	boolean eventLoopAffinity;
+
+	DisposableServer server;
+	ConnectionProvider provider;
+	LoopResources loops;
+	HttpClient client;
+
+	@Setup
+	public void setup() {
+		server =
+				HttpServer.create()
+				          .host("127.0.0.1")
+				          .port(0)
+				          .handle((req, res) -> res.sendString(Mono.just("OK")))
+				          .bindNow();
+
+		provider =
+				ConnectionProvider.builder("benchmark")
+				                  .maxConnections(maxConnections)
+				                  .pendingAcquireMaxCount(-1)
+				                  .eventLoopAffinity(eventLoopAffinity)
+				                  .build();
+
+		loops = LoopResources.create("benchmark-client", 4, true);
+
+		client =
+				HttpClient.create(provider)
+				          .runOn(loops)
+				          .host("127.0.0.1")
+				          .port(server.port());
+	}
+
+	@TearDown
+	public void tearDown() {
+		provider.disposeLater()
+		        .block(Duration.ofSeconds(5));
+		loops.disposeLater()
+		     .block(Duration.ofSeconds(5));
+		server.disposeNow();
+	}
+
+	@Benchmark
+	public Integer acquireAndRelease() {
+		return client.get()
+		             .uri("/")
+		             .responseSingle((res, bytes) -> bytes.thenReturn(res.status().code()))
+		             .block();
+	}
+}
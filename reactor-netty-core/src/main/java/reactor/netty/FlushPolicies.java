@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The built-in {@link FlushPolicy} implementations.
+ *
+ * @since 1.1.3
+ */
+final class FlushPolicies {
+
+	static long toNanos(Duration maxDelay) {
+		Objects.requireNonNull(maxDelay, "maxDelay");
+		if (maxDelay.isNegative() || maxDelay.isZero()) {
+			throw new IllegalArgumentException("maxDelay must be strictly positive");
+		}
+		return maxDelay.toNanos();
+	}
+
+	abstract static class CountingFlushPolicy implements FlushPolicy {
+
+		final LongAdder flushCount = new LongAdder();
+		final LongAdder flushedBytes = new LongAdder();
+		final long maxDelayNanos;
+
+		CountingFlushPolicy(long maxDelayNanos) {
+			this.maxDelayNanos = maxDelayNanos;
+		}
+
+		@Override
+		public long flushCount() {
+			return flushCount.sum();
+		}
+
+		@Override
+		public long flushedBytes() {
+			return flushedBytes.sum();
+		}
+
+		void record(long bytes) {
+			flushCount.increment();
+			flushedBytes.add(bytes);
+		}
+	}
+
+	static final class BytesFlushPolicy extends CountingFlushPolicy {
+
+		final int threshold;
+
+		BytesFlushPolicy(int threshold, long maxDelayNanos) {
+			super(maxDelayNanos);
+			this.threshold = threshold;
+		}
+
+		@Override
+		public Flusher newFlusher() {
+			return new BytesFlusher(this);
+		}
+
+		@Override
+		public String toString() {
+			return "BytesFlushPolicy{threshold=" + threshold + ", maxDelayNanos=" + maxDelayNanos + '}';
+		}
+	}
+
+	static final class BytesFlusher implements FlushPolicy.Flusher {
+
+		final BytesFlushPolicy parent;
+
+		BytesFlusher(BytesFlushPolicy parent) {
+			this.parent = parent;
+		}
+
+		@Override
+		public boolean flushOnWrite(long pendingBytes, int pendingMessages) {
+			return pendingBytes >= parent.threshold;
+		}
+
+		@Override
+		public boolean flushOnIdle(long pendingBytes, int pendingMessages) {
+			return false;
+		}
+
+		@Override
+		public long maxDelayNanos() {
+			return parent.maxDelayNanos;
+		}
+
+		@Override
+		public void onFlush(long bytes, int messages, boolean delayed) {
+			parent.record(bytes);
+		}
+	}
+
+	static final class AdaptiveFlushPolicy extends CountingFlushPolicy {
+
+		/**
+		 * Below this batch size, the messages are flushed once the currently available messages are written.
+		 */
+		static final int MIN_BATCH_SIZE = 256;
+
+		final int maxBytes;
+
+		AdaptiveFlushPolicy(int maxBytes, long maxDelayNanos) {
+			super(maxDelayNanos);
+			this.maxBytes = maxBytes;
+		}
+
+		@Override
+		public Flusher newFlusher() {
+			return new AdaptiveFlusher(this);
+		}
+
+		@Override
+		public String toString() {
+			return "AdaptiveFlushPolicy{maxBytes=" + maxBytes + ", maxDelayNanos=" + maxDelayNanos + '}';
+		}
+	}
+
+	static final class AdaptiveFlusher implements FlushPolicy.Flusher {
+
+		final AdaptiveFlushPolicy parent;
+
+		/**
+		 * The current batch size, {@code 0} when flushing once the currently available messages are written.
+		 */
+		long batchSize;
+		long lastFlushNanos;
+		boolean grow;
+
+		AdaptiveFlusher(AdaptiveFlushPolicy parent) {
+			this.parent = parent;
+			this.lastFlushNanos = System.nanoTime() - parent.maxDelayNanos;
+		}
+
+		@Override
+		public boolean flushOnWrite(long pendingBytes, int pendingMessages) {
+			if (batchSize > 0 && pendingBytes >= batchSize) {
+				// the batch is filled before the source is drained, sustained load
+				grow = true;
+				return true;
+			}
+			return false;
+		}
+
+		@Override
+		public boolean flushOnIdle(long pendingBytes, int pendingMessages) {
+			if (batchSize == 0) {
+				// the previous flush is recent, start batching
+				grow = System.nanoTime() - lastFlushNanos < parent.maxDelayNanos;
+				return true;
+			}
+			return false;
+		}
+
+		@Override
+		public long maxDelayNanos() {
+			return parent.maxDelayNanos;
+		}
+
+		@Override
+		public void onFlush(long bytes, int messages, boolean delayed) {
+			parent.record(bytes);
+			if (delayed) {
+				batchSize >>>= 1;
+				if (batchSize < AdaptiveFlushPolicy.MIN_BATCH_SIZE) {
+					batchSize = 0;
+				}
+			}
+			else if (grow) {
+				batchSize = Math.min(parent.maxBytes, Math.max(AdaptiveFlushPolicy.MIN_BATCH_SIZE, bytes << 1));
+			}
+			grow = false;
+			lastFlushNanos = System.nanoTime();
+		}
+	}
+
+	private FlushPolicies() {
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty;
+
+import java.time.Duration;
+
+import org.reactivestreams.Publisher;
+
+/**
+ * A policy deciding when the messages written by {@link NettyOutbound#send(Publisher, FlushPolicy)} and
+ * {@link NettyOutbound#sendObject(Publisher, FlushPolicy)} are flushed.
+ * <p>
+ * Whatever the policy, the messages are flushed when the flush predicate matches, when the channel becomes
+ * unwritable and when the sequence terminates. Without a policy, the messages are flushed once
+ * the currently available messages are written.
+ * <p>
+ * The built-in policies count the flushes and the flushed bytes of all send operations using them,
+ * see {@link #flushCount()} and {@link #flushedBytes()}.
+ *
+ * @since 1.1.3
+ */
+public interface FlushPolicy {
+
+	/**
+	 * A policy that flushes once the currently available messages are written while the messages arrive
+	 * at a low rate, and that batches up to {@code maxBytes} when the messages arrive at a sustained rate.
+	 * The batch size grows while flushes are triggered by the batch size or follow each other within
+	 * {@code maxDelay}, and shrinks when the batch is flushed because {@code maxDelay} elapsed.
+	 *
+	 * @param maxBytes the maximum number of bytes in a batch
+	 * @param maxDelay the maximum time a written message waits for a flush
+	 * @return a new adaptive {@link FlushPolicy}
+	 */
+	static FlushPolicy adaptive(int maxBytes, Duration maxDelay) {
+		if (maxBytes <= 0) {
+			throw new IllegalArgumentException("maxBytes must be strictly positive");
+		}
+		return new FlushPolicies.AdaptiveFlushPolicy(maxBytes, FlushPolicies.toNanos(maxDelay));
+	}
+
+	/**
+	 * A policy that flushes when the written messages reach {@code threshold} bytes, or when
+	 * {@code maxDelay} elapsed since the first message that was not flushed.
+	 *
+	 * @param threshold the number of written bytes that triggers a flush
+	 * @param maxDelay the maximum time a written message waits for a flush
+	 * @return a new byte threshold {@link FlushPolicy}
+	 */
+	static FlushPolicy bytes(int threshold, Duration maxDelay) {
+		if (threshold <= 0) {
+			throw new IllegalArgumentException("threshold must be strictly positive");
+		}
+		return new FlushPolicies.BytesFlushPolicy(threshold, FlushPolicies.toNanos(maxDelay));
+	}
+
+	/**
+	 * A policy that flushes when {@code maxDelay} elapsed since the first message that was not flushed.
+	 * The delay is measured by a timer on the event loop of the channel.
+	 *
+	 * @param maxDelay the maximum time a written message waits for a flush
+	 * @return a new max delay {@link FlushPolicy}
+	 */
+	static FlushPolicy maxDelay(Duration maxDelay) {
+		return new FlushPolicies.BytesFlushPolicy(Integer.MAX_VALUE, FlushPolicies.toNanos(maxDelay));
+	}
+
+	/**
+	 * Create the {@link Flusher} of a send operation.
+	 *
+	 * @return a new {@link Flusher}
+	 */
+	Flusher newFlusher();
+
+	/**
+	 * Return the number of flushes performed by the send operations using this policy.
+	 * Default to {@code 0} - the flushes are not counted.
+	 *
+	 * @return the number of flushes
+	 */
+	default long flushCount() {
+		return 0;
+	}
+
+	/**
+	 * Return the number of bytes flushed by the send operations using this policy,
+	 * {@code flushedBytes() / flushCount()} gives the average number of bytes per flush.
+	 * Default to {@code 0} - the flushed bytes are not counted.
+	 *
+	 * @return the number of flushed bytes
+	 */
+	default long flushedBytes() {
+		return 0;
+	}
+
+	/**
+	 * The flush decisions of one send operation. All methods are invoked on the event loop of the channel.
+	 * The pending bytes and messages are the ones written since the last flush, messages with unknown size
+	 * count for {@code 0} bytes.
+	 */
+	interface Flusher {
+
+		/**
+		 * Invoked after a message is written.
+		 *
+		 * @param pendingBytes the bytes written since the last flush
+		 * @param pendingMessages the messages written since the last flush
+		 * @return {@code true} to flush now
+		 */
+		boolean flushOnWrite(long pendingBytes, int pendingMessages);
+
+		/**
+		 * Invoked when all currently available messages are written and some of them are not flushed.
+		 *
+		 * @param pendingBytes the bytes written since the last flush
+		 * @param pendingMessages the messages written since the last flush
+		 * @return {@code true} to flush now, {@code false} to wait for more messages or for {@link #maxDelayNanos()}
+		 */
+		boolean flushOnIdle(long pendingBytes, int pendingMessages);
+
+		/**
+		 * Return the maximum time in nanoseconds a written message waits for a flush.
+		 * When {@code 0} or negative, the messages are flushed once all currently available messages are written.
+		 *
+		 * @return the maximum time in nanoseconds a written message waits for a flush
+		 */
+		long maxDelayNanos();
+
+		/**
+		 * Invoked after the pending messages are flushed.
+		 *
+		 * @param bytes the flushed bytes
+		 * @param messages the flushed messages
+		 * @param delayed {@code true} if the flush is triggered because {@link #maxDelayNanos()} elapsed
+		 */
+		void onFlush(long bytes, int messages, boolean delayed);
+	}
+}
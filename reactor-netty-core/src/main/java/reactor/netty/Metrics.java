@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2019-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -103,6 +103,18 @@ public class Metrics {
 	 */
 	public static final String BYTE_BUF_ALLOCATOR_PREFIX = "reactor.netty.bytebuf.allocator";
 
+	/**
+	 * Name prefix that will be used for the SniSslProviderCache's metrics
+	 * registered in Micrometer's global registry
+	 */
+	public static final String SNI_CACHE_PREFIX = "reactor.netty.sni.cache";
+
+	/**
+	 * Name prefix that will be used for the metrics of the offloaded TLS private key operations
+	 * registered in Micrometer's global registry
+	 */
+	public static final String TLS_PRIVATE_KEY_PREFIX = "reactor.netty.tls.private.key";
+
 
 	// Metrics
 	/**
@@ -125,11 +137,21 @@ public class Metrics {
 	 */
 	public static final String TLS_HANDSHAKE_TIME = ".tls.handshake.time";
 
+	/**
+	 * The number of the successful TLS handshakes, resumed or full
+	 */
+	public static final String TLS_SESSION_RESUMPTION = ".tls.session.resumption";
+
 	/**
 	 * Time spent for connecting to the remote address
 	 */
 	public static final String CONNECT_TIME = ".connect.time";
 
+	/**
+	 * Time spent by a connection attempt when racing the resolved addresses of the remote address
+	 */
+	public static final String CONNECT_ATTEMPT_TIME = ".connect.attempt.time";
+
 	/**
 	 * Time spent in consuming incoming data
 	 */
@@ -162,6 +184,11 @@ public class Metrics {
 	 */
 	public static final String ADDRESS_RESOLVER = ".address.resolver";
 
+	/**
+	 * The number of the address resolver cache lookups and refreshes
+	 */
+	public static final String ADDRESS_RESOLVER_CACHE = ".address.resolver.cache";
+
 
 	// PooledConnectionProvider Metrics
 	/**
@@ -194,6 +221,11 @@ public class Metrics {
 	 */
 	public static final String MAX_PENDING_CONNECTIONS = ".max.pending.connections";
 
+	/**
+	 * The current limit of connections when the allocation strategy adapts it
+	 */
+	public static final String CONNECTION_LIMIT = ".connection.limit";
+
 	/**
 	 * The number of the active HTTP/2 streams
 	 */
@@ -205,6 +237,35 @@ public class Metrics {
 	public static final String PENDING_STREAMS = ".pending.streams";
 
 
+	// SniSslProviderCache Metrics
+	/**
+	 * The number of the lookups of SslProvider by SNI host name
+	 */
+	public static final String LOOKUPS = ".lookups";
+
+	/**
+	 * Time spent for loading an SslProvider
+	 */
+	public static final String LOAD_TIME = ".load.time";
+
+	/**
+	 * The number of the cached SslProviders
+	 */
+	public static final String ENTRIES = ".entries";
+
+
+	// TLS private key operations Metrics
+	/**
+	 * Time spent for a private key operation
+	 */
+	public static final String OPERATION_TIME = ".operation.time";
+
+	/**
+	 * The number of the private key operations that are waiting for the executor
+	 */
+	public static final String PENDING_OPERATIONS = ".pending.operations";
+
+
 	// ByteBufAllocator Metrics
 	/**
 	 * The number of bytes reserved by heap buffer allocator
@@ -262,12 +323,55 @@ public class Metrics {
 	 */
 	public static final String PENDING_TASKS = ".pending.tasks";
 
+	/**
+	 * Time that a task waits on an event loop, from its submission until it starts
+	 *
+	 * @since 1.1.3
+	 */
+	public static final String TASK_WAIT_TIME = ".task.wait.time";
+
+	/**
+	 * The ratio of time that an event loop spends in processing I/O and tasks
+	 *
+	 * @since 1.1.3
+	 */
+	public static final String BUSY_RATIO = ".busy.ratio";
+
+	/**
+	 * Time that an event loop is unable to run tasks, recorded when longer than the stall threshold
+	 *
+	 * @since 1.1.3
+	 */
+	public static final String STALL_TIME = ".stall.time";
+
 	// HttpServer Metrics
 	/**
 	 * The number of active HTTP/2 streams
 	 */
 	public static final String STREAMS_ACTIVE = ".streams.active";
 
+	/**
+	 * The ratio between the size of the response body before and after the compression
+	 */
+	public static final String COMPRESSION_RATIO = ".compression.ratio";
+
+	/**
+	 * Time spent in compressing the response body
+	 */
+	public static final String COMPRESSION_TIME = ".compression.time";
+
+
+	// HttpClient Metrics
+	/**
+	 * Amount of the compressed data received, in bytes
+	 */
+	public static final String DATA_RECEIVED_COMPRESSED = ".data.received.compressed";
+
+	/**
+	 * Amount of the data received after the decompression, in bytes
+	 */
+	public static final String DATA_RECEIVED_DECOMPRESSED = ".data.received.decompressed";
+
 	// Tags
 	public static final String LOCAL_ADDRESS = "local.address";
 
@@ -277,6 +381,8 @@ public class Metrics {
 
 	public static final String STATUS = "status";
 
+	public static final String ADDRESS_FAMILY = "address.family";
+
 	public static final String METHOD = "method";
 
 	public static final String ID = "id";
@@ -291,6 +397,29 @@ public class Metrics {
 
 	public static final String UNKNOWN = "UNKNOWN";
 
+	/**
+	 * The URI tag value used when the maximum number of distinct URI tag values is reached.
+	 *
+	 * @since 1.1.3
+	 */
+	public static final String OVERFLOW = "OVERFLOW";
+
+	public static final String CANCELLED = "CANCELLED";
+
+	public static final String HIT = "HIT";
+
+	public static final String MISS = "MISS";
+
+	public static final String STALE = "STALE";
+
+	public static final String REFRESH = "REFRESH";
+
+	public static final String REFRESH_ERROR = "REFRESH_ERROR";
+
+	public static final String RESUMED = "RESUMED";
+
+	public static final String FULL = "FULL";
+
 	@Nullable
 	public static Observation currentObservation(ContextView contextView) {
 		if (contextView.hasKey(OBSERVATION_KEY)) {
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2021 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2011-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -36,6 +36,21 @@ public interface NettyInbound {
 	 */
 	ByteBufFlux receive();
 
+	/**
+	 * A {@link Flux} extension that allows for extra decoding operators, emitting the bytes received
+	 * during a read cycle as a single {@link io.netty.buffer.ByteBuf}, a {@link io.netty.buffer.CompositeByteBuf}
+	 * when several buffers are received. A batch is emitted when the read cycle completes
+	 * ({@link io.netty.channel.ChannelInboundHandler#channelReadComplete}) or before the inbound terminates.
+	 * This reduces the number of signals when the data is received as many small buffers.
+	 * Default to {@link #receive()} - each received buffer is a batch.
+	 *
+	 * @return a new {@link ByteBufFlux}
+	 * @since 1.1.3
+	 */
+	default ByteBufFlux receiveBatched() {
+		return receive();
+	}
+
 
 	/**
 	 * a {@literal Object} inbound {@link Flux}
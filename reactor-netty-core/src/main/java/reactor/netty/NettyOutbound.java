@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2021 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2011-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -100,6 +100,42 @@ public interface NettyOutbound extends Publisher<Void> {
 	 */
 	NettyOutbound send(Publisher<? extends ByteBuf> dataStream, Predicate<ByteBuf> predicate);
 
+	/**
+	 * Sends data to the peer, listens for any error on write and closes on terminal signal
+	 * (complete|error). The writes are flushed according to the given {@link FlushPolicy}.
+	 * <p>Note: Nesting any send* method is not supported.</p>
+	 *
+	 * @param dataStream the dataStream publishing OUT items to write on this channel
+	 * @param flushPolicy the {@link FlushPolicy} deciding when the writes are flushed
+	 *
+	 * @return A new {@link NettyOutbound} to append further send. It will emit a complete
+	 * signal successful sequence write (e.g. after "flush") or any error during write.
+	 * @since 1.1.3
+	 */
+	default NettyOutbound send(Publisher<? extends ByteBuf> dataStream, FlushPolicy flushPolicy) {
+		return send(dataStream, ReactorNetty.PREDICATE_BB_FLUSH, flushPolicy);
+	}
+
+	/**
+	 * Sends data to the peer, listens for any error on write and closes on terminal signal
+	 * (complete|error). The writes are flushed according to the given {@link FlushPolicy}
+	 * and when the predicate returns true.
+	 * By default, the {@link FlushPolicy} is ignored, it is applied by the connection based implementations.
+	 * <p>Note: Nesting any send* method is not supported.</p>
+	 *
+	 * @param dataStream the dataStream publishing OUT items to write on this channel
+	 * @param predicate that returns true if explicit flush operation is needed after that buffer
+	 * @param flushPolicy the {@link FlushPolicy} deciding when the writes are flushed
+	 *
+	 * @return A new {@link NettyOutbound} to append further send. It will emit a complete
+	 * signal successful sequence write (e.g. after "flush") or any error during write.
+	 * @since 1.1.3
+	 */
+	default NettyOutbound send(Publisher<? extends ByteBuf> dataStream, Predicate<ByteBuf> predicate,
+			FlushPolicy flushPolicy) {
+		return send(dataStream, predicate);
+	}
+
 	/**
 	 * Sends bytes to the peer, listens for any error on write and closes on terminal
 	 * signal (complete|error). If more than one publisher is attached (multiple calls to
@@ -260,6 +296,43 @@ public interface NettyOutbound extends Publisher<Void> {
 	 */
 	NettyOutbound sendObject(Publisher<?> dataStream, Predicate<Object> predicate);
 
+	/**
+	 * Sends an object through Netty pipeline. If type of {@link Publisher}, sends all signals,
+	 * flushing according to the given {@link FlushPolicy}. Write occur in FIFO sequence.
+	 * <p>Note: Nesting any send* method is not supported.</p>
+	 *
+	 * @param dataStream the dataStream publishing items to write on this channel
+	 * or a simple pojo supported by configured Netty handlers
+	 * @param flushPolicy the {@link FlushPolicy} deciding when the writes are flushed
+	 *
+	 * @return A Publisher to signal successful sequence write (e.g. after "flush") or any
+	 * error during write
+	 * @since 1.1.3
+	 */
+	default NettyOutbound sendObject(Publisher<?> dataStream, FlushPolicy flushPolicy) {
+		return sendObject(dataStream, ReactorNetty.PREDICATE_FLUSH, flushPolicy);
+	}
+
+	/**
+	 * Sends an object through Netty pipeline. If type of {@link Publisher}, sends all signals,
+	 * flushing according to the given {@link FlushPolicy} and when the predicate returns true.
+	 * Write occur in FIFO sequence.
+	 * By default, the {@link FlushPolicy} is ignored, it is applied by the connection based implementations.
+	 * <p>Note: Nesting any send* method is not supported.</p>
+	 *
+	 * @param dataStream the dataStream publishing items to write on this channel
+	 * or a simple pojo supported by configured Netty handlers
+	 * @param predicate that returns true if explicit flush operation is needed after that object
+	 * @param flushPolicy the {@link FlushPolicy} deciding when the writes are flushed
+	 *
+	 * @return A Publisher to signal successful sequence write (e.g. after "flush") or any
+	 * error during write
+	 * @since 1.1.3
+	 */
+	default NettyOutbound sendObject(Publisher<?> dataStream, Predicate<Object> predicate, FlushPolicy flushPolicy) {
+		return sendObject(dataStream, predicate);
+	}
+
 	/**
 	 * Sends data to the peer, listens for any error on write and closes on terminal signal
 	 * (complete|error).
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2011-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,6 +31,7 @@ import io.netty.channel.ChannelInboundHandler;
  * -> proxy handler ? [ProxyHandler]
  * -> ssl log ? [SslLoggingHandler]
  * -> ssl handler ? [SslHandler]
+ * -> ssl record sizer ? [SslRecordSizer]
  * -> log ? [LoggingHandler]
  * -> ssl reader ? [SslReader]
  * -> channel metrics ? [ChannelMetricsHandler]
@@ -57,6 +58,7 @@ import io.netty.channel.ChannelInboundHandler;
  * -> non ssl redirect detector ? [NonSslRedirectDetector]
  * -> ssl log ? [SslLoggingHandler]
  * -> ssl handler ? [SslHandler]
+ * -> ssl record sizer ? [SslRecordSizer]
  * -> log ? [LoggingHandler]
  * -> ssl reader ? [SslReader]
  * -> channel metrics ? [ChannelMetricsHandler]
@@ -125,6 +127,7 @@ public interface NettyPipeline {
 	String SslHandler            = LEFT + "sslHandler";
 	String SslLoggingHandler     = LEFT + "sslLoggingHandler";
 	String SslReader             = LEFT + "sslReader";
+	String SslRecordSizer        = LEFT + "sslRecordSizer";
 	String TlsMetricsHandler     = LEFT + "tlsMetricsHandler";
 	String WsCompressionHandler  = LEFT + "wsCompressionHandler";
 	String WsFrameAggregator     = LEFT + "wsFrameAggregator";
@@ -55,6 +55,7 @@ import reactor.core.publisher.BaseSubscriber;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.SignalType;
+import reactor.netty.internal.util.BypassableHandler;
 import reactor.pool.AllocationStrategy;
 import reactor.pool.PoolBuilder;
 import reactor.pool.introspection.SamplingAllocationStrategy;
@@ -192,6 +193,47 @@ public final class ReactorNetty {
 	 * By default, it is disabled.
 	 */
 	public static final String ACCESS_LOG_ENABLED = "reactor.netty.http.server.accessLogEnabled";
+	/**
+	 * Specifies the maximum number of distinct URI tag values of the built-in Micrometer integration of the Http Server,
+	 * the requests with other URI tag values are recorded with the {@code OVERFLOW} URI tag value.
+	 * Fallback - 1000.
+	 *
+	 * @since 1.1.3
+	 */
+	public static final String HTTP_SERVER_MAX_URI_TAGS = "reactor.netty.http.server.maxUriTags";
+
+
+	/**
+	 * Specifies the interval (milliseconds) at which the amounts of the data received and sent, accumulated on each
+	 * event loop, are published to Micrometer. Accumulating the amounts on the event loops removes the contention
+	 * between them, the published metrics are up to the interval late and have no percentiles and histogram buckets.
+	 * Fallback - the amounts are recorded immediately.
+	 *
+	 * @since 1.1.3
+	 */
+	public static final String METRICS_ACCUMULATION_INTERVAL = "reactor.netty.metrics.accumulationInterval";
+	/**
+	 * Specifies the interval (milliseconds) at which a probe task is submitted to each event loop with enabled metrics,
+	 * in order to measure the task wait time, the busy ratio and the stalls of the event loop.
+	 * Fallback - the event loops are not probed.
+	 *
+	 * @since 1.1.3
+	 */
+	public static final String EVENT_LOOP_PROBE_INTERVAL = "reactor.netty.metrics.eventLoopProbeInterval";
+	/**
+	 * Specifies the time (milliseconds) after which an event loop that has not run the probe task is considered stalled.
+	 * Fallback - 100 milliseconds.
+	 *
+	 * @since 1.1.3
+	 */
+	public static final String EVENT_LOOP_STALL_THRESHOLD = "reactor.netty.metrics.eventLoopStallThreshold";
+	/**
+	 * Specifies whether the stack of a stalled event loop will be sampled and logged once per stall.
+	 * Fallback - the stack is not sampled.
+	 *
+	 * @since 1.1.3
+	 */
+	public static final String EVENT_LOOP_STALL_STACK_SAMPLING = "reactor.netty.metrics.eventLoopStallStackSampling";
 
 	/**
 	 *  Specifies the zone id used by the access log
@@ -444,8 +486,10 @@ public final class ReactorNetty {
 			return true;
 		}
 		ChannelPipeline p = c.channel().pipeline();
+		ChannelHandler compressionHandler = p.get(NettyPipeline.CompressionHandler);
 		return p.get(SslHandler.class) != null  ||
-				p.get(NettyPipeline.CompressionHandler) != null ||
+				(compressionHandler != null &&
+						!(compressionHandler instanceof BypassableHandler && ((BypassableHandler) compressionHandler).isBypassed())) ||
 				(!(c.channel().eventLoop() instanceof NioEventLoop) &&
 						!"file".equals(file.toUri().getScheme()));
 	}
@@ -778,11 +822,23 @@ public final class ReactorNetty {
 			return then(source.send(dataStream, predicate));
 		}
 
+		@Override
+		public NettyOutbound send(Publisher<? extends ByteBuf> dataStream, Predicate<ByteBuf> predicate,
+				FlushPolicy flushPolicy) {
+			return then(source.send(dataStream, predicate, flushPolicy));
+		}
+
 		@Override
 		public NettyOutbound sendObject(Publisher<?> dataStream, Predicate<Object> predicate) {
 			return then(source.sendObject(dataStream, predicate));
 		}
 
+		@Override
+		public NettyOutbound sendObject(Publisher<?> dataStream, Predicate<Object> predicate,
+				FlushPolicy flushPolicy) {
+			return then(source.sendObject(dataStream, predicate, flushPolicy));
+		}
+
 		@Override
 		public NettyOutbound sendObject(Object message) {
 			return then(source.sendObject(message),
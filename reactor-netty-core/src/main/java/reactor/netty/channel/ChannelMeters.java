@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2022-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -48,6 +48,66 @@ public enum ChannelMeters implements MeterDocumentation {
 		}
 	},
 
+	/**
+	 * Time spent by a connection attempt when racing the resolved addresses of the remote address.
+	 */
+	CONNECT_ATTEMPT_TIME {
+		@Override
+		public String getName() {
+			return "%s";
+		}
+
+		@Override
+		public KeyName[] getKeyNames() {
+			return ConnectAttemptTimeMeterTags.values();
+		}
+
+		@Override
+		public Meter.Type getType() {
+			return Meter.Type.TIMER;
+		}
+	},
+
+	/**
+	 * Number of the successful TLS handshakes that resumed a cached TLS session or were full handshakes.
+	 */
+	TLS_SESSION_RESUMPTION {
+		@Override
+		public String getName() {
+			return "%s";
+		}
+
+		@Override
+		public KeyName[] getKeyNames() {
+			return TlsSessionResumptionMeterTags.values();
+		}
+
+		@Override
+		public Meter.Type getType() {
+			return Meter.Type.COUNTER;
+		}
+	},
+
+	/**
+	 * Number of the address resolver cache lookups and refreshes.
+	 */
+	ADDRESS_RESOLVER_CACHE {
+		@Override
+		public String getName() {
+			return "%s";
+		}
+
+		@Override
+		public KeyName[] getKeyNames() {
+			return AddressResolverCacheMeterTags.values();
+		}
+
+		@Override
+		public Meter.Type getType() {
+			return Meter.Type.COUNTER;
+		}
+	},
+
 	/**
 	 * Amount of the data received, in bytes.
 	 */
@@ -141,6 +201,55 @@ public enum ChannelMeters implements MeterDocumentation {
 		}
 	}
 
+	public enum TlsSessionResumptionMeterTags implements KeyName {
+
+		/**
+		 * STATUS (RESUMED/FULL).
+		 */
+		STATUS {
+			@Override
+			public String asString() {
+				return "status";
+			}
+		}
+	}
+
+	public enum AddressResolverCacheMeterTags implements KeyName {
+
+		/**
+		 * STATUS.
+		 */
+		STATUS {
+			@Override
+			public String asString() {
+				return "status";
+			}
+		}
+	}
+
+	public enum ConnectAttemptTimeMeterTags implements KeyName {
+
+		/**
+		 * Address family (IPv4/IPv6).
+		 */
+		ADDRESS_FAMILY {
+			@Override
+			public String asString() {
+				return "address.family";
+			}
+		},
+
+		/**
+		 * STATUS.
+		 */
+		STATUS {
+			@Override
+			public String asString() {
+				return "status";
+			}
+		}
+	}
+
 	public enum ConnectionsTotalMeterTags implements KeyName {
 
 		/**
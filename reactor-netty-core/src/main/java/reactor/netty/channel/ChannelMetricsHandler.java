@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2019-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,11 +20,14 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelOutboundHandlerAdapter;
 import io.netty.channel.ChannelPromise;
+import io.netty.handler.ssl.ReferenceCountedOpenSslEngine;
 import io.netty.handler.ssl.SslHandler;
 import reactor.util.annotation.Nullable;
 
 import java.net.SocketAddress;
 import java.time.Duration;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLSession;
 
 import static reactor.netty.Metrics.ERROR;
 import static reactor.netty.Metrics.SUCCESS;
@@ -91,20 +94,43 @@ public class ChannelMetricsHandler extends AbstractChannelMetricsHandler {
 		@Override
 		public void channelActive(ChannelHandlerContext ctx) {
 			long tlsHandshakeTimeStart = System.nanoTime();
-			ctx.pipeline().get(SslHandler.class)
-					.handshakeFuture()
+			long tlsHandshakeStartMillis = System.currentTimeMillis();
+			SslHandler sslHandler = ctx.pipeline().get(SslHandler.class);
+			sslHandler.handshakeFuture()
 					.addListener(f -> {
 						ctx.pipeline().remove(this);
-						recordTlsHandshakeTime(ctx, tlsHandshakeTimeStart, f.isSuccess() ? SUCCESS : ERROR);
+						recordTlsHandshakeTime(ctx, tlsHandshakeTimeStart, f.isSuccess() ? SUCCESS : ERROR,
+								f.isSuccess() && isSessionResumed(sslHandler, tlsHandshakeStartMillis));
 					});
 			ctx.fireChannelActive();
 		}
 
-		protected void recordTlsHandshakeTime(ChannelHandlerContext ctx, long tlsHandshakeTimeStart, String status) {
+		protected void recordTlsHandshakeTime(ChannelHandlerContext ctx, long tlsHandshakeTimeStart, String status, boolean resumed) {
 			recorder.recordTlsHandshakeTime(
 					ctx.channel().remoteAddress(),
 					Duration.ofNanos(System.nanoTime() - tlsHandshakeTimeStart),
-					status);
+					status,
+					resumed);
+		}
+
+		/**
+		 * Returns {@code true} when the TLS session was created before the handshake started,
+		 * i.e. a cached TLS session was resumed.
+		 * OpenSSL/BoringSSL engines report the session creation time in whole seconds, a session created
+		 * by the current handshake may then look older than the handshake. For these engines the creation time
+		 * is compared with the beginning of the second in which the handshake started, a session resumed
+		 * within the same second in which it was created is counted as a full handshake.
+		 */
+		static boolean isSessionResumed(SslHandler sslHandler, long tlsHandshakeStartMillis) {
+			SSLEngine engine = sslHandler.engine();
+			SSLSession session = engine.getSession();
+			if (session == null) {
+				return false;
+			}
+			if (engine instanceof ReferenceCountedOpenSslEngine) {
+				return session.getCreationTime() < tlsHandshakeStartMillis - tlsHandshakeStartMillis % 1000;
+			}
+			return session.getCreationTime() < tlsHandshakeStartMillis;
 		}
 	}
 }
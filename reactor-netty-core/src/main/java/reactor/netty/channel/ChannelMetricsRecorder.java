@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2019-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -57,6 +57,21 @@ public interface ChannelMetricsRecorder {
 	 */
 	void recordTlsHandshakeTime(SocketAddress remoteAddress, Duration time, String status);
 
+	/**
+	 * Records the time that is spent for TLS handshake and whether the handshake resumed
+	 * a cached TLS session or was a full handshake, see {@link reactor.netty.tcp.SslProvider.Builder#sessionCache(int, Duration)}.
+	 * By default, delegates to {@link #recordTlsHandshakeTime(SocketAddress, Duration, String)}.
+	 *
+	 * @param remoteAddress The remote peer
+	 * @param time the time in nanoseconds that is spent for TLS handshake
+	 * @param status the status of the operation
+	 * @param resumed {@code true} if a cached TLS session was resumed, {@code false} otherwise
+	 * @since 1.1.3
+	 */
+	default void recordTlsHandshakeTime(SocketAddress remoteAddress, Duration time, String status, boolean resumed) {
+		recordTlsHandshakeTime(remoteAddress, time, status);
+	}
+
 	/**
 	 * Records the time that is spent for connecting to the remote address
 	 * Relevant only when on the client
@@ -67,6 +82,19 @@ public interface ChannelMetricsRecorder {
 	 */
 	void recordConnectTime(SocketAddress remoteAddress, Duration time, String status);
 
+	/**
+	 * Records the time that is spent by a connection attempt when racing the resolved addresses
+	 * of the remote address, see {@link reactor.netty.transport.ClientTransport#happyEyeballs(Duration)}.
+	 * The status is {@link reactor.netty.Metrics#CANCELLED} when another attempt succeeded first.
+	 * Relevant only when on the client
+	 *
+	 * @param remoteAddress The resolved remote address of the connection attempt
+	 * @param time the time in nanoseconds that is spent by the connection attempt
+	 * @param status the status of the operation
+	 * @since 1.1.3
+	 */
+	default void recordConnectAttemptTime(SocketAddress remoteAddress, Duration time, String status) { }
+
 	/**
 	 * Records the time that is spent for resolving the remote address
 	 * Relevant only when on the client
@@ -77,6 +105,21 @@ public interface ChannelMetricsRecorder {
 	 */
 	void recordResolveAddressTime(SocketAddress remoteAddress, Duration time, String status);
 
+	/**
+	 * Increments the number of the lookups and the refreshes of the address resolver cache, see
+	 * {@link reactor.netty.transport.NameResolverProvider.NameResolverSpec#serveStale(Duration)} and
+	 * {@link reactor.netty.transport.NameResolverProvider.NameResolverSpec#prefetch(double)}.
+	 * The status is one of {@link reactor.netty.Metrics#HIT}, {@link reactor.netty.Metrics#STALE},
+	 * {@link reactor.netty.Metrics#MISS}, {@link reactor.netty.Metrics#REFRESH} or
+	 * {@link reactor.netty.Metrics#REFRESH_ERROR}.
+	 * Relevant only when on the client
+	 *
+	 * @param hostname the host name
+	 * @param status the status of the operation
+	 * @since 1.1.3
+	 */
+	default void incrementAddressResolverCacheCount(String hostname, String status) { }
+
 	/**
 	 * Records a just accepted server connection
 	 *
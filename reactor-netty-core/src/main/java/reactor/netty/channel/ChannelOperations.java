@@ -41,6 +41,7 @@ import reactor.netty.ByteBufFlux;
 import reactor.netty.ChannelOperationsId;
 import reactor.netty.Connection;
 import reactor.netty.ConnectionObserver;
+import reactor.netty.FlushPolicy;
 import reactor.netty.FutureMono;
 import reactor.netty.NettyInbound;
 import reactor.netty.NettyOutbound;
@@ -283,6 +284,12 @@ public class ChannelOperations<INBOUND extends NettyInbound, OUTBOUND extends Ne
 		                                                          .alloc());
 	}
 
+	@Override
+	public ByteBufFlux receiveBatched() {
+		return ByteBufFlux.fromInbound(inbound.batched(), connection.channel()
+		                                                           .alloc());
+	}
+
 	@Override
 	public NettyOutbound send(Publisher<? extends ByteBuf> dataStream, Predicate<ByteBuf> predicate) {
 		requireNonNull(predicate, "predicate");
@@ -296,6 +303,17 @@ public class ChannelOperations<INBOUND extends NettyInbound, OUTBOUND extends Ne
 		return then(MonoSendMany.byteBufSource(dataStream, channel(), predicate));
 	}
 
+	@Override
+	public NettyOutbound send(Publisher<? extends ByteBuf> dataStream, Predicate<ByteBuf> predicate,
+			FlushPolicy flushPolicy) {
+		requireNonNull(predicate, "predicate");
+		requireNonNull(flushPolicy, "flushPolicy");
+		if (!channel().isActive() || dataStream instanceof Mono) {
+			return send(dataStream, predicate);
+		}
+		return then(MonoSendMany.byteBufSource(dataStream, channel(), predicate, flushPolicy));
+	}
+
 	@Override
 	public NettyOutbound sendObject(Publisher<?> dataStream, Predicate<Object> predicate) {
 		requireNonNull(predicate, "predicate");
@@ -309,6 +327,16 @@ public class ChannelOperations<INBOUND extends NettyInbound, OUTBOUND extends Ne
 		return then(MonoSendMany.objectSource(dataStream, channel(), predicate));
 	}
 
+	@Override
+	public NettyOutbound sendObject(Publisher<?> dataStream, Predicate<Object> predicate, FlushPolicy flushPolicy) {
+		requireNonNull(predicate, "predicate");
+		requireNonNull(flushPolicy, "flushPolicy");
+		if (!channel().isActive() || dataStream instanceof Mono) {
+			return sendObject(dataStream, predicate);
+		}
+		return then(MonoSendMany.objectSource(dataStream, channel(), predicate, flushPolicy));
+	}
+
 	@Override
 	public NettyOutbound sendObject(Object message) {
 		if (!channel().isActive()) {
@@ -411,6 +439,15 @@ public class ChannelOperations<INBOUND extends NettyInbound, OUTBOUND extends Ne
 		inbound.onInboundNext(msg);
 	}
 
+	/**
+	 * React on inbound read cycle completion ({@link ChannelHandlerContext#fireChannelReadComplete()})
+	 *
+	 * @since 1.1.3
+	 */
+	protected void onInboundReadComplete() {
+		inbound.onInboundReadComplete();
+	}
+
 	/**
 	 * React on inbound cancel (receive() subscriber cancelled)
 	 */
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2011-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -136,6 +136,20 @@ final class ChannelOperationsHandler extends ChannelInboundHandlerAdapter {
 		}
 	}
 
+	@Override
+	final public void channelReadComplete(ChannelHandlerContext ctx) {
+		try {
+			ChannelOperations<?, ?> ops = ChannelOperations.get(ctx.channel());
+			if (ops != null) {
+				ops.onInboundReadComplete();
+			}
+		}
+		catch (Throwable err) {
+			exceptionCaught(ctx, err);
+		}
+		ctx.fireChannelReadComplete();
+	}
+
 	@Override
 	final public void exceptionCaught(ChannelHandlerContext ctx, Throwable err) {
 		Connection connection = Connection.from(ctx.channel());
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2021-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -135,14 +135,15 @@ final class ContextAwareChannelMetricsHandler extends AbstractChannelMetricsHand
 		}
 
 		@Override
-		protected void recordTlsHandshakeTime(ChannelHandlerContext ctx, long tlsHandshakeTimeStart, String status) {
+		protected void recordTlsHandshakeTime(ChannelHandlerContext ctx, long tlsHandshakeTimeStart, String status, boolean resumed) {
 			Connection connection = Connection.from(ctx.channel());
 			if (connection instanceof ConnectionObserver) {
 				((ContextAwareChannelMetricsRecorder) recorder).recordTlsHandshakeTime(
 						((ConnectionObserver) connection).currentContext(),
 						ctx.channel().remoteAddress(),
 						Duration.ofNanos(System.nanoTime() - tlsHandshakeTimeStart),
-						status);
+						status,
+						resumed);
 			}
 		}
 	}
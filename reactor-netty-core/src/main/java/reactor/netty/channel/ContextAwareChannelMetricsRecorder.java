@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2021-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -76,6 +76,23 @@ public abstract class ContextAwareChannelMetricsRecorder implements ChannelMetri
 	 */
 	public abstract void recordTlsHandshakeTime(ContextView contextView, SocketAddress remoteAddress, Duration time, String status);
 
+	/**
+	 * Records the time that is spent for TLS handshake and whether the handshake resumed
+	 * a cached TLS session or was a full handshake.
+	 * By default, delegates to {@link #recordTlsHandshakeTime(ContextView, SocketAddress, Duration, String)}.
+	 *
+	 * @param contextView The current {@link ContextView} associated with the Mono/Flux pipeline
+	 * @param remoteAddress The remote peer
+	 * @param time The time in nanoseconds that is spent for TLS handshake
+	 * @param status The status of the operation
+	 * @param resumed {@code true} if a cached TLS session was resumed, {@code false} otherwise
+	 * @since 1.1.3
+	 */
+	public void recordTlsHandshakeTime(ContextView contextView, SocketAddress remoteAddress, Duration time, String status,
+			boolean resumed) {
+		recordTlsHandshakeTime(contextView, remoteAddress, time, status);
+	}
+
 	@Override
 	public void incrementErrorsCount(SocketAddress remoteAddress) {
 		incrementErrorsCount(Context.empty(), remoteAddress);
@@ -100,4 +117,9 @@ public abstract class ContextAwareChannelMetricsRecorder implements ChannelMetri
 	public void recordTlsHandshakeTime(SocketAddress remoteAddress, Duration time, String status) {
 		recordTlsHandshakeTime(Context.empty(), remoteAddress, time, status);
 	}
+
+	@Override
+	public void recordTlsHandshakeTime(SocketAddress remoteAddress, Duration time, String status, boolean resumed) {
+		recordTlsHandshakeTime(Context.empty(), remoteAddress, time, status, resumed);
+	}
 }
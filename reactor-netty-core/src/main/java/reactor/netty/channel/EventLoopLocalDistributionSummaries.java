@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.channel;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Statistic;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.TimeWindowMax;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.FastThreadLocal;
+import reactor.netty.ReactorNetty;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Accumulates the amounts recorded on {@link Summary} instances in a structure that is local to
+ * an event loop and written only by it. The accumulated count, total amount and maximum amount are merged
+ * into the {@link Summary} instances by a task that is scheduled on the same event loop every
+ * {@link #ACCUMULATION_INTERVAL} milliseconds, so that the recording does not contend with the other event loops
+ * and the publication costs a constant time per {@link Summary}, regardless of the number of the recorded amounts.
+ * <p>A {@link Summary} on which nothing has been recorded since the previous publication is removed,
+ * so that the summaries of the closed connections are not kept on the event loop.
+ *
+ * @since 1.1.3
+ */
+final class EventLoopLocalDistributionSummaries implements Runnable {
+
+	static final Logger log = Loggers.getLogger(EventLoopLocalDistributionSummaries.class);
+
+	/**
+	 * The interval in milliseconds at which the accumulated amounts are published,
+	 * {@code 0} when the amounts are recorded immediately.
+	 */
+	static final long ACCUMULATION_INTERVAL =
+			Long.parseLong(System.getProperty(ReactorNetty.METRICS_ACCUMULATION_INTERVAL, "0"));
+
+	static final FastThreadLocal<EventLoopLocalDistributionSummaries> INSTANCE = new FastThreadLocal<>();
+
+	/**
+	 * Records the amount on the accumulator of the event loop, the publication is scheduled on the event loop
+	 * the first time an amount is recorded. This method must be invoked on the event loop.
+	 *
+	 * @param executor the event loop
+	 * @param interval the interval in milliseconds at which the accumulated amounts are published
+	 * @param summary the {@link Summary} on which the amount is published
+	 * @param amount the amount
+	 */
+	static void record(EventExecutor executor, long interval, Summary summary, long amount) {
+		EventLoopLocalDistributionSummaries summaries = INSTANCE.getIfExists();
+		if (summaries == null) {
+			summaries = new EventLoopLocalDistributionSummaries();
+			INSTANCE.set(summaries);
+			executor.scheduleAtFixedRate(summaries, interval, interval, TimeUnit.MILLISECONDS);
+		}
+		summaries.record(summary, amount);
+	}
+
+	final Map<Summary, Accumulator> accumulators = new IdentityHashMap<>();
+
+	void record(Summary summary, long amount) {
+		Accumulator accumulator = accumulators.get(summary);
+		if (accumulator == null) {
+			accumulator = new Accumulator();
+			accumulators.put(summary, accumulator);
+		}
+		accumulator.record(amount);
+	}
+
+	@Override
+	public void run() {
+		Iterator<Map.Entry<Summary, Accumulator>> it = accumulators.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<Summary, Accumulator> e = it.next();
+			try {
+				if (!e.getValue().publish(e.getKey())) {
+					it.remove();
+				}
+			}
+			catch (RuntimeException ex) {
+				if (log.isWarnEnabled()) {
+					log.warn("Exception caught while publishing metrics.", ex);
+				}
+			}
+		}
+	}
+
+	static final class Accumulator {
+
+		long count;
+		long total;
+		long max;
+
+		void record(long amount) {
+			if (count == 0 || amount > max) {
+				max = amount;
+			}
+			count++;
+			total += amount;
+		}
+
+		/**
+		 * Publishes the accumulated amounts.
+		 *
+		 * @param summary the {@link Summary} on which the amounts are published
+		 * @return {@code false} when nothing has been accumulated since the previous publication
+		 */
+		boolean publish(Summary summary) {
+			if (count == 0) {
+				return false;
+			}
+			summary.publish(count, total, max);
+			count = 0;
+			total = 0;
+			max = 0;
+			return true;
+		}
+	}
+
+	/**
+	 * The amounts merged from the accumulators of all event loops. They are exposed with a
+	 * {@link Meter.Type#DISTRIBUTION_SUMMARY} meter that has the count, the total amount and the maximum amount
+	 * of a {@link io.micrometer.core.instrument.DistributionSummary}, but no percentiles and histogram buckets.
+	 */
+	static final class Summary {
+
+		final LongAdder count = new LongAdder();
+		final LongAdder total = new LongAdder();
+		final TimeWindowMax max;
+
+		Summary(Clock clock) {
+			this.max = new TimeWindowMax(clock, DistributionStatisticConfig.DEFAULT);
+		}
+
+		/**
+		 * Returns a builder for the meter exposing this summary.
+		 *
+		 * @param name the name of the meter
+		 * @return a builder for the meter exposing this summary
+		 */
+		Meter.Builder meter(String name) {
+			DoubleSupplier max = this.max::poll;
+			return Meter.builder(name, Meter.Type.DISTRIBUTION_SUMMARY, Arrays.asList(
+					new Measurement(count::doubleValue, Statistic.COUNT),
+					new Measurement(total::doubleValue, Statistic.TOTAL),
+					new Measurement(max, Statistic.MAX)));
+		}
+
+		void publish(long count, long total, long max) {
+			this.count.add(count);
+			this.total.add(total);
+			this.max.record(max);
+		}
+	}
+}
@@ -17,6 +17,8 @@ package reactor.netty.channel;
 
 import java.nio.channels.ClosedChannelException;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
@@ -24,6 +26,7 @@ import java.util.function.IntConsumer;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufHolder;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.EventLoop;
 import io.netty.util.ReferenceCountUtil;
@@ -53,6 +56,8 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 	boolean                        receiverFastpath;
 	long                           receiverDemand;
 	Queue<Object>                  receiverQueue;
+	boolean                        receiverBatched;
+	List<ByteBuf>                  receiverBatch;
 
 	boolean needRead = true;
 
@@ -144,19 +149,34 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 
 	@Override
 	public void subscribe(CoreSubscriber<? super Object> s) {
+		subscribe(s, false);
+	}
+
+	/**
+	 * Return a view of this inbound delivering the bytes received during a read cycle
+	 * as a single {@link ByteBuf}, a {@link CompositeByteBuf} when several buffers are received.
+	 *
+	 * @return a view of this inbound delivering the bytes received during a read cycle as a single {@link ByteBuf}
+	 */
+	final Flux<Object> batched() {
+		return new BatchedReceive(this);
+	}
+
+	final void subscribe(CoreSubscriber<? super Object> s, boolean batched) {
 		if (eventLoop.inEventLoop()) {
-			startReceiver(s);
+			startReceiver(s, batched);
 		}
 		else {
-			eventLoop.execute(() -> startReceiver(s));
+			eventLoop.execute(() -> startReceiver(s, batched));
 		}
 	}
 
-	final void startReceiver(CoreSubscriber<? super Object> s) {
+	final void startReceiver(CoreSubscriber<? super Object> s, boolean batched) {
 		if (once == 0 && ONCE.compareAndSet(this, 0, 1)) {
 			if (log.isDebugEnabled()) {
 				log.debug(format(channel, "{}: subscribing inbound receiver"), this);
 			}
+			receiverBatched = batched;
 			if (inboundDone && getPending() == 0) {
 				if (inboundError != null) {
 					Operators.error(s, inboundError);
@@ -214,6 +234,7 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 	}
 
 	final void cleanQueue(@Nullable Queue<Object> q) {
+		releaseBatch();
 		if (q != null) {
 			Object o;
 			while ((o = q.poll()) != null) {
@@ -364,6 +385,19 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 			return;
 		}
 
+		if (receiverBatched) {
+			if (msg instanceof ByteBuf || msg instanceof ByteBufHolder) {
+				addToBatch(msg);
+				return;
+			}
+			// preserve the ordering, the messages that cannot be batched are delivered as is
+			onInboundReadComplete();
+		}
+
+		receiveNext(msg);
+	}
+
+	final void receiveNext(Object msg) {
 		if (receiverFastpath && receiver != null) {
 			try {
 				if (logLeakDetection.isDebugEnabled()) {
@@ -404,10 +438,68 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 		}
 	}
 
+	final void addToBatch(Object msg) {
+		ByteBuf buf;
+		if (msg instanceof ByteBuf) {
+			buf = (ByteBuf) msg;
+		}
+		else {
+			buf = ((ByteBufHolder) msg).content().retain();
+			ReferenceCountUtil.release(msg);
+		}
+		if (!buf.isReadable()) {
+			buf.release();
+			return;
+		}
+		List<ByteBuf> batch = receiverBatch;
+		if (batch == null) {
+			batch = new ArrayList<>();
+			receiverBatch = batch;
+		}
+		batch.add(buf);
+	}
+
+	final void onInboundReadComplete() {
+		List<ByteBuf> batch = receiverBatch;
+		if (batch == null || batch.isEmpty()) {
+			return;
+		}
+		if (inboundDone || isCancelled()) {
+			releaseBatch();
+			return;
+		}
+		if (batch.size() == 1) {
+			ByteBuf buf = batch.get(0);
+			batch.clear();
+			receiveNext(buf);
+		}
+		else {
+			CompositeByteBuf buf = channel.alloc().compositeBuffer(batch.size());
+			buf.addComponents(true, batch);
+			batch.clear();
+			receiveNext(buf);
+		}
+	}
+
+	final void releaseBatch() {
+		List<ByteBuf> batch = receiverBatch;
+		if (batch != null && !batch.isEmpty()) {
+			for (ByteBuf buf : batch) {
+				if (log.isDebugEnabled()) {
+					log.debug(format(channel, "{}: dropping frame {}"), this, parent.asDebugLogMessage(buf));
+				}
+				ReferenceCountUtil.release(buf);
+			}
+			batch.clear();
+		}
+	}
+
 	final void onInboundComplete() {
 		if (inboundDone) {
 			return;
 		}
+		// deliver the bytes received before the completion
+		onInboundReadComplete();
 		inboundDone = true;
 		if (receiverFastpath) {
 			CoreSubscriber<?> receiver = this.receiver;
@@ -434,6 +526,8 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 			}
 			return;
 		}
+		// deliver the bytes received before the error
+		onInboundReadComplete();
 		CoreSubscriber<?> receiver = this.receiver;
 		this.inboundDone = true;
 		if (channel.isActive()) {
@@ -525,6 +619,20 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 				']';
 	}
 
+	static final class BatchedReceive extends Flux<Object> {
+
+		final FluxReceive parent;
+
+		BatchedReceive(FluxReceive parent) {
+			this.parent = parent;
+		}
+
+		@Override
+		public void subscribe(CoreSubscriber<? super Object> actual) {
+			parent.subscribe(actual, true);
+		}
+	}
+
 	static final AtomicReferenceFieldUpdater<FluxReceive, IntConsumer> CANCEL =
 			AtomicReferenceFieldUpdater.newUpdater(FluxReceive.class,
 					IntConsumer.class,
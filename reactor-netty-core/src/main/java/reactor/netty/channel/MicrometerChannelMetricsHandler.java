@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2022-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,6 +31,7 @@ import reactor.util.context.ContextView;
 
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.Objects;
 import java.util.function.Supplier;
 
 import static reactor.netty.Metrics.CONNECT_TIME;
@@ -59,10 +60,24 @@ import static reactor.netty.channel.ConnectObservations.ConnectTimeLowCardinalit
 public final class MicrometerChannelMetricsHandler extends AbstractChannelMetricsHandler {
 
 	final MicrometerChannelMetricsRecorder recorder;
+	// The interval at which the amounts accumulated on the event loop are published, 0 when they are recorded immediately
+	final long accumulationInterval;
+
+	// The meters of the last remote address, used when the amounts are accumulated on the event loop
+	SocketAddress dataReceivedAddress;
+	EventLoopLocalDistributionSummaries.Summary dataReceived;
+	SocketAddress dataSentAddress;
+	EventLoopLocalDistributionSummaries.Summary dataSent;
 
 	MicrometerChannelMetricsHandler(MicrometerChannelMetricsRecorder recorder, @Nullable SocketAddress remoteAddress, boolean onServer) {
+		this(recorder, remoteAddress, onServer, EventLoopLocalDistributionSummaries.ACCUMULATION_INTERVAL);
+	}
+
+	MicrometerChannelMetricsHandler(MicrometerChannelMetricsRecorder recorder, @Nullable SocketAddress remoteAddress,
+			boolean onServer, long accumulationInterval) {
 		super(remoteAddress, onServer);
 		this.recorder = recorder;
+		this.accumulationInterval = accumulationInterval;
 	}
 
 	@Override
@@ -79,6 +94,48 @@ public final class MicrometerChannelMetricsHandler extends AbstractChannelMetric
 		return recorder;
 	}
 
+	@Override
+	public void channelInactive(ChannelHandlerContext ctx) {
+		// The amounts already recorded are still published, the accumulator removes the meters once idle
+		dataReceivedAddress = null;
+		dataReceived = null;
+		dataSentAddress = null;
+		dataSent = null;
+		super.channelInactive(ctx);
+	}
+
+	@Override
+	protected void recordRead(ChannelHandlerContext ctx, SocketAddress address, long bytes) {
+		if (accumulationInterval <= 0) {
+			super.recordRead(ctx, address, bytes);
+			return;
+		}
+
+		if (dataReceived == null || !Objects.equals(address, dataReceivedAddress)) {
+			dataReceived = recorder.getAccumulatedDataReceived(address);
+			dataReceivedAddress = address;
+		}
+		if (dataReceived != null) {
+			EventLoopLocalDistributionSummaries.record(ctx.executor(), accumulationInterval, dataReceived, bytes);
+		}
+	}
+
+	@Override
+	protected void recordWrite(ChannelHandlerContext ctx, SocketAddress address, long bytes) {
+		if (accumulationInterval <= 0) {
+			super.recordWrite(ctx, address, bytes);
+			return;
+		}
+
+		if (dataSent == null || !Objects.equals(address, dataSentAddress)) {
+			dataSent = recorder.getAccumulatedDataSent(address);
+			dataSentAddress = address;
+		}
+		if (dataSent != null) {
+			EventLoopLocalDistributionSummaries.record(ctx.executor(), accumulationInterval, dataSent, bytes);
+		}
+	}
+
 	// ConnectMetricsHandler is Observation.Context and ChannelOutboundHandler in order to reduce allocations,
 	// this is invoked on every connection establishment
 	// This handler is not shared and as such it is different object per connection.
@@ -259,12 +316,17 @@ public final class MicrometerChannelMetricsHandler extends AbstractChannelMetric
 			observation = Observation.createNotStarted(recorder.name() + TLS_HANDSHAKE_TIME, this, OBSERVATION_REGISTRY);
 			parentContextView = updateChannelContext(ctx.channel(), observation);
 			observation.start();
-			ctx.pipeline().get(SslHandler.class)
-					.handshakeFuture()
+			long tlsHandshakeStartMillis = System.currentTimeMillis();
+			SslHandler sslHandler = ctx.pipeline().get(SslHandler.class);
+			sslHandler.handshakeFuture()
 					.addListener(f -> {
 						ctx.pipeline().remove(this);
 						status = f.isSuccess() ? SUCCESS : ERROR;
 						observation.stop();
+						if (f.isSuccess()) {
+							recorder.incrementTlsSessionResumptionCount(
+									ChannelMetricsHandler.TlsMetricsHandler.isSessionResumed(sslHandler, tlsHandshakeStartMillis));
+						}
 
 						ReactorNetty.setChannelContext(ctx.channel(), parentContextView);
 						parentContextView = null;
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2019-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,14 +24,21 @@ import io.micrometer.core.instrument.noop.NoopMeter;
 import reactor.netty.internal.util.MapUtils;
 import reactor.util.annotation.Nullable;
 
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.time.Duration;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.LongAdder;
 
+import static reactor.netty.Metrics.ADDRESS_FAMILY;
 import static reactor.netty.Metrics.ADDRESS_RESOLVER;
+import static reactor.netty.Metrics.ADDRESS_RESOLVER_CACHE;
 import static reactor.netty.Metrics.CONNECTIONS_TOTAL;
+import static reactor.netty.Metrics.CONNECT_ATTEMPT_TIME;
 import static reactor.netty.Metrics.CONNECT_TIME;
 import static reactor.netty.Metrics.DATA_RECEIVED;
 import static reactor.netty.Metrics.DATA_SENT;
@@ -39,7 +46,12 @@ import static reactor.netty.Metrics.ERRORS;
 import static reactor.netty.Metrics.REGISTRY;
 import static reactor.netty.Metrics.REMOTE_ADDRESS;
 import static reactor.netty.Metrics.STATUS;
+import static reactor.netty.Metrics.FULL;
+import static reactor.netty.Metrics.RESUMED;
+import static reactor.netty.Metrics.SUCCESS;
 import static reactor.netty.Metrics.TLS_HANDSHAKE_TIME;
+import static reactor.netty.Metrics.TLS_SESSION_RESUMPTION;
+import static reactor.netty.Metrics.UNKNOWN;
 
 /**
  * A {@link ChannelMetricsRecorder} implementation for integration with Micrometer.
@@ -52,14 +64,24 @@ public class MicrometerChannelMetricsRecorder implements ChannelMetricsRecorder
 
 	final ConcurrentMap<String, DistributionSummary> dataSentCache = new ConcurrentHashMap<>();
 
+	final ConcurrentMap<String, EventLoopLocalDistributionSummaries.Summary> accumulatedDataReceivedCache = new ConcurrentHashMap<>();
+
+	final ConcurrentMap<String, EventLoopLocalDistributionSummaries.Summary> accumulatedDataSentCache = new ConcurrentHashMap<>();
+
 	final ConcurrentMap<String, Counter> errorsCache = new ConcurrentHashMap<>();
 
 	final ConcurrentMap<MeterKey, Timer> connectTimeCache = new ConcurrentHashMap<>();
 
+	final ConcurrentMap<MeterKey, Timer> connectAttemptTimeCache = new ConcurrentHashMap<>();
+
 	final ConcurrentMap<MeterKey, Timer> tlsHandshakeTimeCache = new ConcurrentHashMap<>();
 
+	final ConcurrentMap<String, Counter> tlsSessionResumptionCache = new ConcurrentHashMap<>();
+
 	final ConcurrentMap<MeterKey, Timer> addressResolverTimeCache = new ConcurrentHashMap<>();
 
+	final ConcurrentMap<String, Counter> addressResolverCacheCache = new ConcurrentHashMap<>();
+
 	final ConcurrentMap<String, LongAdder> totalConnectionsCache = new ConcurrentHashMap<>();
 
 	final LongAdder totalConnectionsAdder = new LongAdder();
@@ -100,6 +122,31 @@ public class MicrometerChannelMetricsRecorder implements ChannelMetricsRecorder
 		}
 	}
 
+	@Nullable
+	final EventLoopLocalDistributionSummaries.Summary getAccumulatedDataReceived(SocketAddress remoteAddress) {
+		String address = reactor.netty.Metrics.formatSocketAddress(remoteAddress);
+		return MapUtils.computeIfAbsent(accumulatedDataReceivedCache, address,
+				key -> registerAccumulated(name + DATA_RECEIVED, ChannelMeters.DATA_RECEIVED.getBaseUnit(), address));
+	}
+
+	@Nullable
+	final EventLoopLocalDistributionSummaries.Summary getAccumulatedDataSent(SocketAddress remoteAddress) {
+		String address = reactor.netty.Metrics.formatSocketAddress(remoteAddress);
+		return MapUtils.computeIfAbsent(accumulatedDataSentCache, address,
+				key -> registerAccumulated(name + DATA_SENT, ChannelMeters.DATA_SENT.getBaseUnit(), address));
+	}
+
+	@Nullable
+	final EventLoopLocalDistributionSummaries.Summary registerAccumulated(String meterName, String baseUnit, String address) {
+		EventLoopLocalDistributionSummaries.Summary summary = new EventLoopLocalDistributionSummaries.Summary(REGISTRY.config().clock());
+		Meter meter = filter(summary.meter(meterName)
+		                            .baseUnit(baseUnit)
+		                            .tags(ChannelMeters.ChannelMetersTags.URI.asString(), protocol,
+		                                  ChannelMeters.ChannelMetersTags.REMOTE_ADDRESS.asString(), address)
+		                            .register(REGISTRY));
+		return meter != null ? summary : null;
+	}
+
 	@Override
 	public void incrementErrorsCount(SocketAddress remoteAddress) {
 		String address = reactor.netty.Metrics.formatSocketAddress(remoteAddress);
@@ -122,6 +169,25 @@ public class MicrometerChannelMetricsRecorder implements ChannelMetricsRecorder
 		}
 	}
 
+	@Override
+	public void recordTlsHandshakeTime(SocketAddress remoteAddress, Duration time, String status, boolean resumed) {
+		recordTlsHandshakeTime(remoteAddress, time, status);
+		if (SUCCESS.equals(status)) {
+			incrementTlsSessionResumptionCount(resumed);
+		}
+	}
+
+	final void incrementTlsSessionResumptionCount(boolean resumed) {
+		String status = resumed ? RESUMED : FULL;
+		Counter c = MapUtils.computeIfAbsent(tlsSessionResumptionCache, status,
+				key -> filter(Counter.builder(name + TLS_SESSION_RESUMPTION)
+				                     .tags(STATUS, status)
+				                     .register(REGISTRY)));
+		if (c != null) {
+			c.increment();
+		}
+	}
+
 	@Nullable
 	public final Timer getTlsHandshakeTimer(String name, String address, String status) {
 		MeterKey meterKey = new MeterKey(null, address, null, status);
@@ -149,6 +215,23 @@ public class MicrometerChannelMetricsRecorder implements ChannelMetricsRecorder
 						.register(REGISTRY)));
 	}
 
+	@Override
+	public void recordConnectAttemptTime(SocketAddress remoteAddress, Duration time, String status) {
+		Timer timer = getConnectAttemptTimer(name + CONNECT_ATTEMPT_TIME, addressFamily(remoteAddress), status);
+		if (timer != null) {
+			timer.record(time);
+		}
+	}
+
+	@Nullable
+	final Timer getConnectAttemptTimer(String name, String addressFamily, String status) {
+		MeterKey meterKey = new MeterKey(null, addressFamily, null, status);
+		return MapUtils.computeIfAbsent(connectAttemptTimeCache, meterKey,
+				key -> filter(Timer.builder(name)
+						.tags(ADDRESS_FAMILY, addressFamily, STATUS, status)
+						.register(REGISTRY)));
+	}
+
 	@Override
 	public void recordResolveAddressTime(SocketAddress remoteAddress, Duration time, String status) {
 		String address = reactor.netty.Metrics.formatSocketAddress(remoteAddress);
@@ -167,6 +250,17 @@ public class MicrometerChannelMetricsRecorder implements ChannelMetricsRecorder
 						.register(REGISTRY)));
 	}
 
+	@Override
+	public void incrementAddressResolverCacheCount(String hostname, String status) {
+		Counter c = MapUtils.computeIfAbsent(addressResolverCacheCache, status,
+				key -> filter(Counter.builder(name + ADDRESS_RESOLVER_CACHE)
+				                     .tags(STATUS, status)
+				                     .register(REGISTRY)));
+		if (c != null) {
+			c.increment();
+		}
+	}
+
 	@Override
 	public void recordServerConnectionOpened(SocketAddress serverAddress) {
 		LongAdder totalConnectionAdder = getTotalConnectionsAdder(serverAddress);
@@ -213,4 +307,17 @@ public class MicrometerChannelMetricsRecorder implements ChannelMetricsRecorder
 					return gauge != null ? totalConnectionsAdder : null;
 				});
 	}
+
+	static String addressFamily(SocketAddress remoteAddress) {
+		if (remoteAddress instanceof InetSocketAddress) {
+			InetAddress address = ((InetSocketAddress) remoteAddress).getAddress();
+			if (address instanceof Inet4Address) {
+				return "IPv4";
+			}
+			if (address instanceof Inet6Address) {
+				return "IPv6";
+			}
+		}
+		return UNKNOWN;
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2019-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -43,6 +43,7 @@ import io.netty.util.IllegalReferenceCountException;
 import io.netty.util.ReferenceCountUtil;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
+import io.netty.util.concurrent.ScheduledFuture;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscription;
 import reactor.core.CoreSubscriber;
@@ -50,6 +51,7 @@ import reactor.core.Exceptions;
 import reactor.core.Fuseable;
 import reactor.core.Scannable;
 import reactor.core.publisher.Operators;
+import reactor.netty.FlushPolicy;
 import reactor.util.annotation.Nullable;
 import reactor.util.concurrent.Queues;
 import reactor.util.context.Context;
@@ -76,25 +78,41 @@ final class MonoSendMany<I, O> extends MonoSend<I, O> implements Scannable {
 	static MonoSendMany<ByteBuf, ByteBuf> byteBufSource(Publisher<? extends ByteBuf> source,
 			Channel channel,
 			Predicate<ByteBuf> predicate) {
-		return new MonoSendMany<>(source, channel, predicate, TRANSFORMATION_FUNCTION_BB, CONSUMER_NOCHECK_CLEANUP, SIZE_OF_BB);
+		return byteBufSource(source, channel, predicate, null);
+	}
+
+	static MonoSendMany<ByteBuf, ByteBuf> byteBufSource(Publisher<? extends ByteBuf> source,
+			Channel channel,
+			Predicate<ByteBuf> predicate,
+			@Nullable FlushPolicy flushPolicy) {
+		return new MonoSendMany<>(source, channel, predicate, flushPolicy, TRANSFORMATION_FUNCTION_BB, CONSUMER_NOCHECK_CLEANUP, SIZE_OF_BB);
 	}
 
 	static MonoSendMany<?, ?> objectSource(Publisher<?> source, Channel channel, Predicate<Object> predicate) {
-		return new MonoSendMany<>(source, channel, predicate, TRANSFORMATION_FUNCTION, CONSUMER_NOCHECK_CLEANUP, SIZE_OF);
+		return objectSource(source, channel, predicate, null);
+	}
+
+	static MonoSendMany<?, ?> objectSource(Publisher<?> source, Channel channel, Predicate<Object> predicate,
+			@Nullable FlushPolicy flushPolicy) {
+		return new MonoSendMany<>(source, channel, predicate, flushPolicy, TRANSFORMATION_FUNCTION, CONSUMER_NOCHECK_CLEANUP, SIZE_OF);
 	}
 
 	final Publisher<? extends I> source;
 	final Predicate<I> predicate;
+	@Nullable
+	final FlushPolicy flushPolicy;
 
 	MonoSendMany(Publisher<? extends I> source,
 			Channel channel,
 			Predicate<I> predicate,
+			@Nullable FlushPolicy flushPolicy,
 			Function<? super I, ? extends O> transformer,
 			Consumer<? super I> sourceCleanup,
 			ToIntFunction<O> sizeOf) {
 		super(channel, transformer, sourceCleanup, sizeOf);
 		this.source = Objects.requireNonNull(source, "source publisher cannot be null");
 		this.predicate = Objects.requireNonNull(predicate, "predicate cannot be null");
+		this.flushPolicy = flushPolicy;
 	}
 
 	@Override
@@ -125,6 +143,8 @@ final class MonoSendMany<I, O> extends MonoSend<I, O> implements Scannable {
 		final CoreSubscriber<? super Void> actual;
 		final Context                      actualContext;
 		final Runnable                     asyncFlush;
+		final FlushPolicy.Flusher          flusher;
+		final Runnable                     delayedFlush;
 
 
 		@SuppressWarnings("unused")
@@ -142,6 +162,11 @@ final class MonoSendMany<I, O> extends MonoSend<I, O> implements Scannable {
 
 		int nextRequest;
 
+		// written but not flushed, maintained only with a flush policy
+		long               unflushedBytes;
+		int                unflushedMessages;
+		ScheduledFuture<?> flushTimer;
+
 		SendManyInner(MonoSendMany<I, O> parent, CoreSubscriber<? super Void> actual) {
 			this.parent = parent;
 			this.actual = actual;
@@ -151,6 +176,8 @@ final class MonoSendMany<I, O> extends MonoSend<I, O> implements Scannable {
 			this.eventLoop = ctx.channel().eventLoop();
 
 			this.asyncFlush = new AsyncFlush();
+			this.flusher = parent.flushPolicy != null ? parent.flushPolicy.newFlusher() : null;
+			this.delayedFlush = flusher != null ? new DelayedFlush() : null;
 
 			//TODO should also cleanup on complete operation (ChannelOperation.OnTerminate) ?
 			ctx.channel()
@@ -302,8 +329,7 @@ final class MonoSendMany<I, O> extends MonoSend<I, O> implements Scannable {
 						if (encodedMessage == null) {
 							if (parent.predicate.test(sourceMessage)) {
 								nextRequest++;
-								needFlush = false;
-								ctx.flush();
+								flush(false);
 							}
 							continue;
 						}
@@ -320,9 +346,18 @@ final class MonoSendMany<I, O> extends MonoSend<I, O> implements Scannable {
 						//"FutureReturnValueIgnored" this is deliberate
 						ctx.write(encodedMessage, this);
 
+						if (flusher != null) {
+							if (readableBytes > 0) {
+								unflushedBytes += readableBytes;
+							}
+							unflushedMessages++;
+						}
+
 						if (parent.predicate.test(sourceMessage) || !ctx.channel().isWritable() || readableBytes > ctx.channel().bytesBeforeUnwritable()) {
-							needFlush = false;
-							ctx.flush();
+							flush(false);
+						}
+						else if (flusher != null && flusher.flushOnWrite(unflushedBytes, unflushedMessages)) {
+							flush(false);
 						}
 						else {
 							needFlush = true;
@@ -330,8 +365,15 @@ final class MonoSendMany<I, O> extends MonoSend<I, O> implements Scannable {
 					}
 
 					if (needFlush && pending != 0) {
-						needFlush = false;
-						eventLoop.execute(asyncFlush);
+						if (flusher == null || terminalSignal != null || flusher.maxDelayNanos() <= 0 ||
+								flusher.flushOnIdle(unflushedBytes, unflushedMessages)) {
+							needFlush = false;
+							eventLoop.execute(asyncFlush);
+						}
+						else if (flushTimer == null) {
+							// the pending messages are flushed by the flush policy at the latest when the timer fires
+							flushTimer = eventLoop.schedule(delayedFlush, flusher.maxDelayNanos(), TimeUnit.NANOSECONDS);
+						}
 					}
 
 					if (Operators.cancelledSubscription() == s) {
@@ -344,6 +386,8 @@ final class MonoSendMany<I, O> extends MonoSend<I, O> implements Scannable {
 						   .closeFuture()
 						   .removeListener(this);
 
+						cancelFlushTimer();
+
 						Throwable t = terminalSignal;
 						if (t == Completion.INSTANCE) {
 							actual.onComplete();
@@ -400,6 +444,25 @@ final class MonoSendMany<I, O> extends MonoSend<I, O> implements Scannable {
 			}
 		}
 
+		void flush(boolean delayed) {
+			needFlush = false;
+			if (flusher != null && unflushedMessages != 0) {
+				flusher.onFlush(unflushedBytes, unflushedMessages, delayed);
+				unflushedBytes = 0;
+				unflushedMessages = 0;
+				cancelFlushTimer();
+			}
+			ctx.flush();
+		}
+
+		void cancelFlushTimer() {
+			ScheduledFuture<?> flushTimer = this.flushTimer;
+			if (flushTimer != null) {
+				this.flushTimer = null;
+				flushTimer.cancel(false);
+			}
+		}
+
 		boolean checkTerminated() {
 			return pending == 0 && terminalSignal != null;
 		}
@@ -786,7 +849,22 @@ final class MonoSendMany<I, O> extends MonoSend<I, O> implements Scannable {
 			@Override
 			public void run() {
 				if (pending != 0) {
-					ctx.flush();
+					if (flusher != null) {
+						flush(false);
+					}
+					else {
+						ctx.flush();
+					}
+				}
+			}
+		}
+
+		final class DelayedFlush implements Runnable {
+			@Override
+			public void run() {
+				flushTimer = null;
+				if (pending != 0 && unflushedMessages != 0) {
+					flush(true);
 				}
 			}
 		}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.internal.util;
+
+/**
+ * A {@link io.netty.channel.ChannelHandler} that stays in the pipeline of a persistent connection and is bypassed
+ * for some of the message exchanges, e.g. the compression handler when the current response is not compressed.
+ * <p><strong>Note:</strong> This interface is for internal use only. It can be removed at any time.
+ *
+ * @since 1.1.3
+ */
+public interface BypassableHandler {
+
+	/**
+	 * Returns whether the handler passes the messages of the current exchange through without transforming them.
+	 *
+	 * @return true if the handler is bypassed for the current exchange
+	 */
+	boolean isBypassed();
+}
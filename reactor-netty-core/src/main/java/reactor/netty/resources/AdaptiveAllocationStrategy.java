@@ -0,0 +1,406 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.resources;
+
+import reactor.pool.InstrumentedPool;
+import reactor.pool.PoolConfig;
+import reactor.util.annotation.Nullable;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * {@link ConnectionProvider.AllocationStrategy} with a connection limit that adapts to the remote host
+ * following an additive increase/multiplicative decrease (AIMD) policy:
+ * <ul>
+ *     <li>when an acquire waits for a connection longer than the configured acquire time threshold,
+ *     the limit is increased by one</li>
+ *     <li>when the time between the acquire and the release of a connection exceeds the average of this time
+ *     multiplied by the configured latency tolerance, the remote host is considered congested and the limit is
+ *     multiplied by the configured backoff ratio, at most once per average time</li>
+ *     <li>when a connection is released while less than half of the limit is in use, the limit is decreased by one</li>
+ * </ul>
+ * The pool of a slow remote host thus grows to keep up with the demand, while the pool of a fast remote host shrinks.
+ * The limit is always between the minimum and the maximum number of connections.
+ * When the limit decreases, the connections above the limit are not closed, they are not replaced once
+ * they are closed or evicted.
+ * <p>Each connection pool works with its own copy of the strategy. The current limit is exported with
+ * the {@code reactor.netty.connection.provider.connection.limit} gauge when the metrics are enabled.
+ * <p><strong>Note:</strong> This strategy is applicable for HTTP/1.1 connection pools.
+ *
+ * @since 1.1.3
+ */
+public final class AdaptiveAllocationStrategy implements ConnectionProvider.AllocationStrategy<AdaptiveAllocationStrategy> {
+
+	public interface Builder {
+
+		/**
+		 * Build a new {@link AdaptiveAllocationStrategy}
+		 *
+		 * @return a new {@link AdaptiveAllocationStrategy}
+		 */
+		AdaptiveAllocationStrategy build();
+
+		/**
+		 * Configures the acquire time above which the limit is increased.
+		 * Only the acquires served by an already established connection are taken into account.
+		 * Default to {@code 1ms}.
+		 *
+		 * @param acquireTimeThreshold the acquire time above which the limit is increased
+		 * @return {@code this}
+		 */
+		Builder acquireTimeThreshold(Duration acquireTimeThreshold);
+
+		/**
+		 * Configures the ratio applied to the limit when the remote host is considered congested.
+		 * Default to {@code 0.9}.
+		 *
+		 * @param backoffRatio the ratio applied to the limit, in the range {@code [0.5, 1)}
+		 * @return {@code this}
+		 */
+		Builder backoffRatio(double backoffRatio);
+
+		/**
+		 * Configures the initial limit.
+		 * Default to {@code 10}, within the minimum and the maximum number of connections.
+		 *
+		 * @param initialLimit the initial limit
+		 * @return {@code this}
+		 */
+		Builder initialLimit(int initialLimit);
+
+		/**
+		 * Configures the ratio of a latency sample to the average latency above which the remote host
+		 * is considered congested.
+		 * Default to {@code 2}.
+		 *
+		 * @param latencyTolerance the ratio of a latency sample to the average latency, greater than {@code 1}
+		 * @return {@code this}
+		 */
+		Builder latencyTolerance(double latencyTolerance);
+
+		/**
+		 * Configures the maximum number of live connections to keep in the pool, the upper bound of the limit.
+		 * Default to {@link ConnectionProvider#DEFAULT_POOL_MAX_CONNECTIONS}.
+		 *
+		 * @param maxConnections the maximum number of live connections to keep in the pool
+		 * @return {@code this}
+		 */
+		Builder maxConnections(int maxConnections);
+
+		/**
+		 * Configures the minimum number of live connections to keep in the pool (can be the best effort).
+		 * The lower bound of the limit is the minimum number of connections, at least {@code 1}.
+		 * Default to {@code 0}.
+		 *
+		 * @param minConnections the minimum number of live connections to keep in the pool
+		 * @return {@code this}
+		 */
+		Builder minConnections(int minConnections);
+	}
+
+	/**
+	 * Creates a builder for {@link AdaptiveAllocationStrategy}.
+	 *
+	 * @return a new {@link AdaptiveAllocationStrategy.Builder}
+	 */
+	public static AdaptiveAllocationStrategy.Builder builder() {
+		return new AdaptiveAllocationStrategy.Build();
+	}
+
+	@Override
+	public AdaptiveAllocationStrategy copy() {
+		return new AdaptiveAllocationStrategy(this);
+	}
+
+	@Override
+	public int estimatePermitCount() {
+		return Math.max(0, limit - GRANTED.get(this));
+	}
+
+	@Override
+	public int getPermits(int desired) {
+		if (desired < 0) {
+			return 0;
+		}
+
+		for (;;) {
+			int granted = GRANTED.get(this);
+			int available = Math.max(0, limit - granted);
+			int target = granted < minConnections ? Math.max(desired, minConnections - granted) : desired;
+			target = Math.min(target, available);
+
+			if (GRANTED.compareAndSet(this, granted, granted + target)) {
+				return target;
+			}
+		}
+	}
+
+	/**
+	 * Returns the current limit of connections.
+	 *
+	 * @return the current limit of connections
+	 */
+	public int limit() {
+		return limit;
+	}
+
+	@Override
+	public int permitGranted() {
+		return GRANTED.get(this);
+	}
+
+	@Override
+	public int permitMinimum() {
+		return minConnections;
+	}
+
+	@Override
+	public int permitMaximum() {
+		return maxConnections;
+	}
+
+	@Override
+	public void returnPermits(int returned) {
+		for (;;) {
+			int granted = GRANTED.get(this);
+			if (granted - returned < 0) {
+				throw new IllegalArgumentException("Too many permits returned: returned=" + returned +
+						", would bring to " + (granted - returned) + "/" + maxConnections);
+			}
+			if (GRANTED.compareAndSet(this, granted, granted - returned)) {
+				return;
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "AdaptiveAllocationStrategy{" +
+				"limit=" + limit +
+				", minConnections=" + minConnections +
+				", maxConnections=" + maxConnections +
+				", acquireTimeThreshold=" + acquireTimeThresholdNanos + "ns" +
+				", backoffRatio=" + backoffRatio +
+				", latencyTolerance=" + latencyTolerance +
+				'}';
+	}
+
+	/**
+	 * Invoked when an acquire is served by an already established connection.
+	 *
+	 * @param acquireTimeNanos the time between the acquire and the delivery of the connection
+	 */
+	void recordAcquireTime(long acquireTimeNanos) {
+		if (acquireTimeNanos > acquireTimeThresholdNanos) {
+			for (;;) {
+				int l = limit;
+				if (l >= maxConnections || LIMIT.compareAndSet(this, l, l + 1)) {
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Invoked when a connection is released.
+	 *
+	 * @param latencyNanos the time between the acquire and the release of the connection
+	 * @param acquired the number of connections still in use
+	 */
+	void recordLatency(long latencyNanos, int acquired) {
+		long average = updateAverageLatency(latencyNanos);
+		int l = limit;
+		if (l <= minLimit) {
+			return;
+		}
+
+		if (latencyNanos > average * latencyTolerance) {
+			long now = System.nanoTime();
+			long lastDecrease = lastDecreaseNanos;
+			// decrease at most once per average latency, the in-flight samples reflect the same congestion
+			if (now - lastDecrease >= average && LAST_DECREASE.compareAndSet(this, lastDecrease, now)) {
+				LIMIT.compareAndSet(this, l, Math.max(minLimit, (int) (l * backoffRatio)));
+			}
+		}
+		else if (acquired < l >> 1) {
+			LIMIT.compareAndSet(this, l, l - 1);
+		}
+	}
+
+	long updateAverageLatency(long latencyNanos) {
+		for (;;) {
+			long average = averageLatencyNanos;
+			long newAverage = average == 0 ? latencyNanos :
+					average + (long) ((latencyNanos - average) * LATENCY_SMOOTHING);
+			if (AVERAGE_LATENCY.compareAndSet(this, average, newAverage)) {
+				return newAverage;
+			}
+		}
+	}
+
+	/**
+	 * Returns the {@link AdaptiveAllocationStrategy} of the pool if configured.
+	 *
+	 * @param pool the connection pool
+	 * @return the {@link AdaptiveAllocationStrategy} of the pool or {@code null}
+	 */
+	@Nullable
+	static AdaptiveAllocationStrategy of(InstrumentedPool<?> pool) {
+		PoolConfig<?> config = pool.config();
+		reactor.pool.AllocationStrategy strategy = config != null ? config.allocationStrategy() : null;
+		if (strategy instanceof PooledConnectionProvider.PoolFactory.DelegatingAllocationStrategy &&
+				((PooledConnectionProvider.PoolFactory.DelegatingAllocationStrategy) strategy).delegate instanceof AdaptiveAllocationStrategy) {
+			return (AdaptiveAllocationStrategy) ((PooledConnectionProvider.PoolFactory.DelegatingAllocationStrategy) strategy).delegate;
+		}
+		return null;
+	}
+
+	/**
+	 * The weight of a latency sample in the average latency.
+	 */
+	static final double LATENCY_SMOOTHING = 0.05;
+
+	final long acquireTimeThresholdNanos;
+	final double backoffRatio;
+	final int initialLimit;
+	final double latencyTolerance;
+	final int maxConnections;
+	final int minConnections;
+	final int minLimit;
+
+	volatile int limit;
+	static final AtomicIntegerFieldUpdater<AdaptiveAllocationStrategy> LIMIT =
+			AtomicIntegerFieldUpdater.newUpdater(AdaptiveAllocationStrategy.class, "limit");
+
+	volatile int granted;
+	static final AtomicIntegerFieldUpdater<AdaptiveAllocationStrategy> GRANTED =
+			AtomicIntegerFieldUpdater.newUpdater(AdaptiveAllocationStrategy.class, "granted");
+
+	volatile long averageLatencyNanos;
+	static final AtomicLongFieldUpdater<AdaptiveAllocationStrategy> AVERAGE_LATENCY =
+			AtomicLongFieldUpdater.newUpdater(AdaptiveAllocationStrategy.class, "averageLatencyNanos");
+
+	volatile long lastDecreaseNanos;
+	static final AtomicLongFieldUpdater<AdaptiveAllocationStrategy> LAST_DECREASE =
+			AtomicLongFieldUpdater.newUpdater(AdaptiveAllocationStrategy.class, "lastDecreaseNanos");
+
+	AdaptiveAllocationStrategy(Build build) {
+		this.acquireTimeThresholdNanos = build.acquireTimeThreshold.toNanos();
+		this.backoffRatio = build.backoffRatio;
+		this.latencyTolerance = build.latencyTolerance;
+		this.maxConnections = build.maxConnections;
+		this.minConnections = build.minConnections;
+		this.minLimit = Math.max(1, build.minConnections);
+		this.initialLimit = Math.min(maxConnections, Math.max(minLimit, build.initialLimit));
+		LIMIT.lazySet(this, this.initialLimit);
+		LAST_DECREASE.lazySet(this, System.nanoTime());
+	}
+
+	AdaptiveAllocationStrategy(AdaptiveAllocationStrategy copy) {
+		this.acquireTimeThresholdNanos = copy.acquireTimeThresholdNanos;
+		this.backoffRatio = copy.backoffRatio;
+		this.latencyTolerance = copy.latencyTolerance;
+		this.maxConnections = copy.maxConnections;
+		this.minConnections = copy.minConnections;
+		this.minLimit = copy.minLimit;
+		this.initialLimit = copy.initialLimit;
+		LIMIT.lazySet(this, this.initialLimit);
+		LAST_DECREASE.lazySet(this, System.nanoTime());
+	}
+
+	static final class Build implements Builder {
+		static final Duration DEFAULT_ACQUIRE_TIME_THRESHOLD = Duration.ofMillis(1);
+		static final double DEFAULT_BACKOFF_RATIO = 0.9;
+		static final int DEFAULT_INITIAL_LIMIT = 10;
+		static final double DEFAULT_LATENCY_TOLERANCE = 2;
+		static final int DEFAULT_MAX_CONNECTIONS = ConnectionProvider.DEFAULT_POOL_MAX_CONNECTIONS;
+		static final int DEFAULT_MIN_CONNECTIONS = 0;
+
+		Duration acquireTimeThreshold = DEFAULT_ACQUIRE_TIME_THRESHOLD;
+		double backoffRatio = DEFAULT_BACKOFF_RATIO;
+		int initialLimit = DEFAULT_INITIAL_LIMIT;
+		double latencyTolerance = DEFAULT_LATENCY_TOLERANCE;
+		int maxConnections = DEFAULT_MAX_CONNECTIONS;
+		int minConnections = DEFAULT_MIN_CONNECTIONS;
+
+		@Override
+		public AdaptiveAllocationStrategy build() {
+			if (minConnections > maxConnections) {
+				throw new IllegalArgumentException("minConnections (" + minConnections + ")" +
+						" must be less than or equal to maxConnections (" + maxConnections + ")");
+			}
+			return new AdaptiveAllocationStrategy(this);
+		}
+
+		@Override
+		public Builder acquireTimeThreshold(Duration acquireTimeThreshold) {
+			Objects.requireNonNull(acquireTimeThreshold, "acquireTimeThreshold");
+			if (acquireTimeThreshold.isNegative()) {
+				throw new IllegalArgumentException("acquireTimeThreshold must be positive");
+			}
+			this.acquireTimeThreshold = acquireTimeThreshold;
+			return this;
+		}
+
+		@Override
+		public Builder backoffRatio(double backoffRatio) {
+			if (backoffRatio < 0.5 || backoffRatio >= 1) {
+				throw new IllegalArgumentException("backoffRatio must be between 0.5 (inclusive) and 1 (exclusive)");
+			}
+			this.backoffRatio = backoffRatio;
+			return this;
+		}
+
+		@Override
+		public Builder initialLimit(int initialLimit) {
+			if (initialLimit < 1) {
+				throw new IllegalArgumentException("initialLimit must be strictly positive");
+			}
+			this.initialLimit = initialLimit;
+			return this;
+		}
+
+		@Override
+		public Builder latencyTolerance(double latencyTolerance) {
+			if (latencyTolerance <= 1) {
+				throw new IllegalArgumentException("latencyTolerance must be greater than 1");
+			}
+			this.latencyTolerance = latencyTolerance;
+			return this;
+		}
+
+		@Override
+		public Builder maxConnections(int maxConnections) {
+			if (maxConnections < 1) {
+				throw new IllegalArgumentException("maxConnections must be strictly positive");
+			}
+			this.maxConnections = maxConnections;
+			return this;
+		}
+
+		@Override
+		public Builder minConnections(int minConnections) {
+			if (minConnections < 0) {
+				throw new IllegalArgumentException("minConnections must be positive or zero");
+			}
+			this.minConnections = minConnections;
+			return this;
+		}
+	}
+}
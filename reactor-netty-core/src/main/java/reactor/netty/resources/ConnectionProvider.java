@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2018-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -199,6 +199,22 @@ public interface ConnectionProvider extends Disposable {
 			@Nullable Supplier<? extends SocketAddress> remoteAddress,
 			@Nullable AddressResolverGroup<?> resolverGroup);
 
+	/**
+	 * Create the connection pools of the remote hosts configured with
+	 * {@link ConnectionPoolSpec#minIdleConnections(int)} via {@link Builder#forRemoteHost(SocketAddress, Consumer)}
+	 * and establish their minimum number of idle connections.
+	 * <p>
+	 * This method has {@code NOOP} default implementation.
+	 * {@link ConnectionProvider} implementations may decide to provide more specific implementation.
+	 *
+	 * @param config the transport configuration
+	 * @param resolverGroup the resolver which will resolve the address of the unresolved named address
+	 * @return a {@link Mono} representing the completion of the warmup
+	 * @since 1.1.3
+	 */
+	default Mono<Void> warmup(TransportConfig config, AddressResolverGroup<?> resolverGroup) {
+		return Mono.empty();
+	}
 
 	/**
 	 * Dispose all connection pools for the specified remote address.
@@ -510,6 +526,7 @@ public interface ConnectionProvider extends Disposable {
 
 		Duration evictionInterval       = EVICT_IN_BACKGROUND_DISABLED;
 		int      maxConnections         = DEFAULT_POOL_MAX_CONNECTIONS;
+		int      minIdleConnections;
 		int      pendingAcquireMaxCount = PENDING_ACQUIRE_MAX_COUNT_NOT_SPECIFIED;
 		Duration pendingAcquireTimeout  = Duration.ofMillis(DEFAULT_POOL_ACQUIRE_TIMEOUT);
 		Duration maxIdleTime;
@@ -520,6 +537,7 @@ public interface ConnectionProvider extends Disposable {
 		BiFunction<Runnable, Duration, Disposable> pendingAcquireTimer;
 		AllocationStrategy<?> allocationStrategy;
 		BiPredicate<Connection, ConnectionMetadata> evictionPredicate;
+		boolean  eventLoopAffinity;
 
 		/**
 		 * Returns {@link ConnectionPoolSpec} new instance with default properties.
@@ -536,6 +554,7 @@ public interface ConnectionProvider extends Disposable {
 		ConnectionPoolSpec(ConnectionPoolSpec<SPEC> copy) {
 			this.evictionInterval = copy.evictionInterval;
 			this.maxConnections = copy.maxConnections;
+			this.minIdleConnections = copy.minIdleConnections;
 			this.pendingAcquireMaxCount = copy.pendingAcquireMaxCount;
 			this.pendingAcquireTimeout = copy.pendingAcquireTimeout;
 			this.maxIdleTime = copy.maxIdleTime;
@@ -546,6 +565,7 @@ public interface ConnectionProvider extends Disposable {
 			this.pendingAcquireTimer = copy.pendingAcquireTimer;
 			this.allocationStrategy = copy.allocationStrategy;
 			this.evictionPredicate = copy.evictionPredicate;
+			this.eventLoopAffinity = copy.eventLoopAffinity;
 		}
 
 		/**
@@ -582,6 +602,33 @@ public interface ConnectionProvider extends Disposable {
 			return get();
 		}
 
+		/**
+		 * Set the options to use for configuring {@link ConnectionProvider} minimum idle connections per connection pool.
+		 * The connection pool establishes the minimum number of connections with the first acquire and
+		 * replaces in the background the connections that are closed or evicted, e.g. because of
+		 * {@link #maxIdleTime(Duration)} or {@link #maxLifeTime(Duration)}.
+		 * In combination with {@link Builder#forRemoteHost(SocketAddress, Consumer)}, the connections to
+		 * the configured remote hosts are established in advance with
+		 * {@link reactor.netty.transport.ClientTransport#warmup()}.
+		 * Consider {@link #evictInBackground(Duration)} so that the connections are evicted and replaced
+		 * before they are acquired.
+		 * <p><strong>Note:</strong> This configuration is not applicable when a custom
+		 * {@link #allocationStrategy(AllocationStrategy)} is configured.
+		 * Default to {@code 0}.
+		 *
+		 * @param minIdleConnections the minimum number of connections (per connection pool) kept by the pool
+		 * @return {@literal this}
+		 * @throws IllegalArgumentException if minIdleConnections is negative
+		 * @since 1.1.3
+		 */
+		public final SPEC minIdleConnections(int minIdleConnections) {
+			if (minIdleConnections < 0) {
+				throw new IllegalArgumentException("Min idle connections value must be positive");
+			}
+			this.minIdleConnections = minIdleConnections;
+			return get();
+		}
+
 		/**
 		 * Set the options to use for configuring {@link ConnectionProvider} the maximum number of registered
 		 * requests for acquire to keep in a pending queue
@@ -791,6 +838,26 @@ public interface ConnectionProvider extends Disposable {
 			return get();
 		}
 
+		/**
+		 * Configure the pool so that each event loop owns a shard of the pool, i.e. a connection is always used
+		 * on the event loop that created it and acquire/release don't cross threads.
+		 * An acquire is served by the shard of the caller event loop first. When this shard has neither an idle
+		 * connection nor room for a new one, an idle connection is taken from another shard.
+		 * The maximum number of connections and of pending acquire requests are split among the shards,
+		 * the metrics are registered per shard with the pool id suffixed with the shard index.
+		 * <p><strong>Note:</strong> This configuration is applicable only for HTTP/1.1 connection pools
+		 * without a custom {@link #allocationStrategy(AllocationStrategy)}.
+		 * Default to {@code false}.
+		 *
+		 * @param eventLoopAffinity true enables one pool shard per event loop; false disables it
+		 * @return {@literal this}
+		 * @since 1.1.3
+		 */
+		public final SPEC eventLoopAffinity(boolean eventLoopAffinity) {
+			this.eventLoopAffinity = eventLoopAffinity;
+			return get();
+		}
+
 		@Override
 		@SuppressWarnings("unchecked")
 		public SPEC get() {
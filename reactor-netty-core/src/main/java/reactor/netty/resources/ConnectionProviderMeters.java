@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2022-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -47,6 +47,26 @@ enum ConnectionProviderMeters implements MeterDocumentation {
 		}
 	},
 
+	/**
+	 * The current limit of connections of the connection pool when {@link AdaptiveAllocationStrategy} is configured.
+	 */
+	CONNECTION_LIMIT {
+		@Override
+		public String getName() {
+			return "reactor.netty.connection.provider.connection.limit";
+		}
+
+		@Override
+		public KeyName[] getKeyNames() {
+			return ConnectionProviderMetersTags.values();
+		}
+
+		@Override
+		public Meter.Type getType() {
+			return Meter.Type.GAUGE;
+		}
+	},
+
 	/**
 	 * The number of the idle connections in the connection pool.
 	 */
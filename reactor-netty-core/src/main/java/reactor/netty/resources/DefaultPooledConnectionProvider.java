@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2020-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -93,6 +93,10 @@ final class DefaultPooledConnectionProvider extends PooledConnectionProvider<Def
 			PoolFactory<PooledConnection> poolFactory,
 			SocketAddress remoteAddress,
 			AddressResolverGroup<?> resolverGroup) {
+		if (poolFactory.eventLoopAffinity && poolFactory.allocationStrategy == null) {
+			return EventLoopShardedPool.create(config.loopResources().onClient(config.isPreferNative()), poolFactory,
+					shardFactory -> new PooledConnectionAllocator(config, shardFactory, remoteAddress, resolverGroup).pool);
+		}
 		return new PooledConnectionAllocator(config, poolFactory, remoteAddress, resolverGroup).pool;
 	}
 
@@ -102,6 +106,8 @@ final class DefaultPooledConnectionProvider extends PooledConnectionProvider<Def
 
 	static final class DisposableAcquire
 			implements ConnectionObserver, Runnable, CoreSubscriber<PooledRef<PooledConnection>>, Disposable {
+		final long acquireStartNanos;
+		final AdaptiveAllocationStrategy allocationStrategy;
 		final Disposable.Composite cancellations;
 		final Context currentContext;
 		final ConnectionObserver obs;
@@ -121,6 +127,8 @@ final class DefaultPooledConnectionProvider extends PooledConnectionProvider<Def
 				InstrumentedPool<PooledConnection> pool,
 				MonoSink<Connection> sink,
 				Context currentContext) {
+			this.allocationStrategy = AdaptiveAllocationStrategy.of(pool);
+			this.acquireStartNanos = allocationStrategy != null ? System.nanoTime() : 0;
 			this.cancellations = Disposables.composite();
 			this.currentContext = currentContext;
 			this.obs = obs;
@@ -132,6 +140,8 @@ final class DefaultPooledConnectionProvider extends PooledConnectionProvider<Def
 		}
 
 		DisposableAcquire(DisposableAcquire parent) {
+			this.allocationStrategy = parent.allocationStrategy;
+			this.acquireStartNanos = parent.acquireStartNanos;
 			this.cancellations = parent.cancellations;
 			this.currentContext = parent.currentContext;
 			this.obs = parent.obs;
@@ -169,6 +179,16 @@ final class DefaultPooledConnectionProvider extends PooledConnectionProvider<Def
 			PooledConnection pooledConnection = value.poolable();
 			pooledConnection.pooledRef = pooledRef;
 
+			if (allocationStrategy != null) {
+				long now = System.nanoTime();
+				// the acquire time of a new connection reflects the connection establishment, not the pool capacity
+				if (value.metadata().acquireCount() > 1) {
+					allocationStrategy.recordAcquireTime(now - acquireStartNanos);
+				}
+				pooledConnection.allocationStrategy = allocationStrategy;
+				pooledConnection.acquiredNanos = now;
+			}
+
 			Channel c = pooledConnection.channel;
 
 			if (!currentContext.isEmpty()) {
@@ -375,6 +395,9 @@ final class DefaultPooledConnectionProvider extends PooledConnectionProvider<Def
 
 		PooledRef<PooledConnection> pooledRef;
 
+		AdaptiveAllocationStrategy allocationStrategy;
+		long acquiredNanos;
+
 		PooledConnection(Channel channel, InstrumentedPool<PooledConnection> pool) {
 			this.channel = channel;
 			this.onTerminate = Sinks.unsafe().empty();
@@ -399,6 +422,12 @@ final class DefaultPooledConnectionProvider extends PooledConnectionProvider<Def
 			}
 
 			if (newState == State.DISCONNECTING) {
+				AdaptiveAllocationStrategy allocationStrategy = this.allocationStrategy;
+				if (allocationStrategy != null) {
+					this.allocationStrategy = null;
+					allocationStrategy.recordLatency(System.nanoTime() - acquiredNanos, pool.metrics().acquiredSize() - 1);
+				}
+
 				if (!isPersistent() && channel.isActive()) {
 					// Will be released by closeFuture
 					// "FutureReturnValueIgnored" this is deliberate
@@ -526,8 +555,6 @@ final class DefaultPooledConnectionProvider extends PooledConnectionProvider<Def
 		final class PooledConnectionInitializer extends ChannelInitializer<Channel> implements CoreSubscriber<Channel> {
 			final MonoSink<PooledConnection> sink;
 
-			PooledConnection pooledConnection;
-
 			PooledConnectionInitializer(MonoSink<PooledConnection> sink) {
 				this.sink = sink;
 			}
@@ -540,8 +567,6 @@ final class DefaultPooledConnectionProvider extends PooledConnectionProvider<Def
 
 				PooledConnection pooledConnection = new PooledConnection(ch, pool);
 
-				this.pooledConnection = pooledConnection;
-
 				ch.attr(OWNER).compareAndSet(null, new PendingConnectionObserver(Context.of(sink.contextView())));
 				ch.pipeline().remove(this);
 				ch.pipeline()
@@ -562,7 +587,9 @@ final class DefaultPooledConnectionProvider extends PooledConnectionProvider<Def
 
 			@Override
 			public void onNext(Channel channel) {
-				sink.success(pooledConnection);
+				// When the resolved addresses are raced, this initializer is added to the channel of every attempt,
+				// emit the connection bound to the channel that connected and not the one initialized last
+				sink.success(Connection.from(channel).as(PooledConnection.class));
 			}
 
 			@Override
@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.resources;
+
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.pool.InstrumentedPool;
+import reactor.pool.PoolConfig;
+import reactor.pool.PooledRef;
+import reactor.pool.decorators.GracefulShutdownInstrumentedPool;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static reactor.netty.resources.PooledConnectionProvider.CONTEXT_CALLER_EVENTLOOP;
+
+/**
+ * An {@link InstrumentedPool} made of one shard per event loop. Each shard is a regular pool whose connections
+ * are created on the event loop owning the shard.
+ * <p>
+ * An acquire is served by the shard of the caller event loop. When this shard has neither an idle connection
+ * nor room for a new one, an idle connection is stolen from another shard, otherwise a new connection is created
+ * in a shard that has room for it. When all shards are exhausted, the acquire is pending in the shard of the caller.
+ * <p>
+ * The maximum number of connections and of pending acquires are split among the shards.
+ *
+ * @param <T> the poolable resource
+ * @since 1.1.3
+ */
+final class EventLoopShardedPool<T extends Connection> implements InstrumentedPool<T>, InstrumentedPool.PoolMetrics {
+
+	/**
+	 * Create a sharded pool for the event loops of {@code group}, or a single pool if the group has no event loops
+	 * or only one connection is allowed.
+	 *
+	 * @param group the client {@link EventLoopGroup}
+	 * @param poolFactory the {@link PooledConnectionProvider.PoolFactory} of the pool
+	 * @param shardFactory the function creating a shard from the {@link PooledConnectionProvider.PoolFactory}
+	 * of this shard
+	 * @param <T> the poolable resource
+	 * @return the new pool
+	 */
+	static <T extends Connection> InstrumentedPool<T> create(
+			EventLoopGroup group,
+			PooledConnectionProvider.PoolFactory<T> poolFactory,
+			Function<PooledConnectionProvider.PoolFactory<T>, InstrumentedPool<T>> shardFactory) {
+		List<EventLoop> eventLoops = new ArrayList<>();
+		for (EventExecutor executor : group) {
+			if (executor instanceof EventLoop) {
+				eventLoops.add((EventLoop) executor);
+			}
+		}
+
+		int shardCount = Math.min(eventLoops.size(), poolFactory.maxConnections);
+		if (shardCount <= 1) {
+			return shardFactory.apply(poolFactory);
+		}
+
+		@SuppressWarnings("unchecked")
+		InstrumentedPool<T>[] shards = new InstrumentedPool[shardCount];
+		for (int i = 0; i < shardCount; i++) {
+			shards[i] = shardFactory.apply(poolFactory.shard(
+					split(poolFactory.maxConnections, shardCount, i),
+					split(poolFactory.minIdleConnections, shardCount, i),
+					poolFactory.pendingAcquireMaxCount == -1 ? -1 :
+							Math.max(1, split(poolFactory.pendingAcquireMaxCount, shardCount, i))));
+		}
+		return new EventLoopShardedPool<>(eventLoops.toArray(new EventLoop[0]), shards);
+	}
+
+	static int split(int total, int shardCount, int shard) {
+		return total / shardCount + (shard < total % shardCount ? 1 : 0);
+	}
+
+	/**
+	 * All event loops of the group, the event loop at index {@code i < shards.length} owns the shard {@code i}.
+	 */
+	final EventLoop[] eventLoops;
+	final InstrumentedPool<T>[] shards;
+	final AtomicInteger next = new AtomicInteger();
+
+	EventLoopShardedPool(EventLoop[] eventLoops, InstrumentedPool<T>[] shards) {
+		this.eventLoops = eventLoops;
+		this.shards = shards;
+	}
+
+	@Override
+	public Mono<PooledRef<T>> acquire() {
+		return acquireInternal(null);
+	}
+
+	@Override
+	public Mono<PooledRef<T>> acquire(Duration timeout) {
+		return acquireInternal(timeout);
+	}
+
+	Mono<PooledRef<T>> acquireInternal(@Nullable Duration timeout) {
+		return Mono.deferContextual(ctx -> {
+			int index = select(ctx);
+			InstrumentedPool<T> shard = shards[index];
+			EventLoop eventLoop = eventLoops[index];
+			// new connections are created on the event loop owning the shard
+			return (timeout != null ? shard.acquire(timeout) : shard.acquire())
+					.contextWrite(c -> c.put(CONTEXT_CALLER_EVENTLOOP, eventLoop));
+		});
+	}
+
+	@Override
+	public PoolConfig<T> config() {
+		return shards[0].config();
+	}
+
+	/**
+	 * Dispose the shards gracefully when they support it.
+	 *
+	 * @param disposeTimeout the graceful shutdown timeout
+	 * @return a {@link Mono} completing when all shards are disposed
+	 */
+	Mono<Void> disposeGracefully(Duration disposeTimeout) {
+		return Flux.fromArray(shards)
+		           .flatMap(shard -> {
+		               if (shard instanceof GracefulShutdownInstrumentedPool) {
+		                   return ((GracefulShutdownInstrumentedPool<T>) shard).disposeGracefully(disposeTimeout);
+		               }
+		               return shard.disposeLater();
+		           })
+		           .then();
+	}
+
+	@Override
+	public Mono<Void> disposeLater() {
+		return Flux.fromArray(shards)
+		           .flatMap(InstrumentedPool::disposeLater)
+		           .then();
+	}
+
+	@Override
+	public boolean isDisposed() {
+		for (InstrumentedPool<T> shard : shards) {
+			if (!shard.isDisposed()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public PoolMetrics metrics() {
+		return this;
+	}
+
+	@Override
+	public Mono<Integer> warmup() {
+		// the connections of a shard are created on the event loop that owns it
+		return Flux.range(0, shards.length)
+		           .flatMap(i -> shards[i].warmup()
+		                                  .contextWrite(ctx -> ctx.put(CONTEXT_CALLER_EVENTLOOP, eventLoops[i])))
+		           .reduce(0, Integer::sum);
+	}
+
+	@Override
+	public int acquiredSize() {
+		int size = 0;
+		for (InstrumentedPool<T> shard : shards) {
+			size += shard.metrics().acquiredSize();
+		}
+		return size;
+	}
+
+	@Override
+	public int allocatedSize() {
+		int size = 0;
+		for (InstrumentedPool<T> shard : shards) {
+			size += shard.metrics().allocatedSize();
+		}
+		return size;
+	}
+
+	@Override
+	public int idleSize() {
+		int size = 0;
+		for (InstrumentedPool<T> shard : shards) {
+			size += shard.metrics().idleSize();
+		}
+		return size;
+	}
+
+	@Override
+	public int pendingAcquireSize() {
+		int size = 0;
+		for (InstrumentedPool<T> shard : shards) {
+			size += shard.metrics().pendingAcquireSize();
+		}
+		return size;
+	}
+
+	@Override
+	public long secondsSinceLastInteraction() {
+		long seconds = Long.MAX_VALUE;
+		for (InstrumentedPool<T> shard : shards) {
+			seconds = Math.min(seconds, shard.metrics().secondsSinceLastInteraction());
+		}
+		return seconds;
+	}
+
+	@Override
+	public int getMaxAllocatedSize() {
+		long size = 0;
+		for (InstrumentedPool<T> shard : shards) {
+			size += shard.metrics().getMaxAllocatedSize();
+		}
+		return (int) Math.min(size, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public int getMaxPendingAcquireSize() {
+		long size = 0;
+		for (InstrumentedPool<T> shard : shards) {
+			size += shard.metrics().getMaxPendingAcquireSize();
+		}
+		return (int) Math.min(size, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Select the shard serving the acquire: the shard of the caller event loop if it has an idle connection
+	 * or room for a new one, otherwise a shard with an idle connection, otherwise a shard with room
+	 * for a new connection, otherwise the shard of the caller event loop.
+	 *
+	 * @param ctx the acquire context
+	 * @return the index of the shard
+	 */
+	int select(ContextView ctx) {
+		int local = localShard(ctx.getOrDefault(CONTEXT_CALLER_EVENTLOOP, null));
+		if (hasIdle(shards[local]) || canAllocate(shards[local])) {
+			return local;
+		}
+
+		for (int i = 1; i < shards.length; i++) {
+			int index = (local + i) % shards.length;
+			if (hasIdle(shards[index])) {
+				if (log.isDebugEnabled()) {
+					log.debug("Shard [{}] exhausted, acquiring an idle connection from shard [{}]", local, index);
+				}
+				return index;
+			}
+		}
+
+		for (int i = 1; i < shards.length; i++) {
+			int index = (local + i) % shards.length;
+			if (canAllocate(shards[index])) {
+				if (log.isDebugEnabled()) {
+					log.debug("Shard [{}] exhausted, allocating a new connection in shard [{}]", local, index);
+				}
+				return index;
+			}
+		}
+		return local;
+	}
+
+	int localShard(@Nullable EventLoop eventLoop) {
+		if (eventLoop != null) {
+			for (int i = 0; i < eventLoops.length; i++) {
+				if (eventLoops[i] == eventLoop) {
+					return i % shards.length;
+				}
+			}
+		}
+		// the caller is not on an event loop of the group
+		return (next.getAndIncrement() & Integer.MAX_VALUE) % shards.length;
+	}
+
+	static boolean hasIdle(InstrumentedPool<?> shard) {
+		return shard.metrics().idleSize() > 0;
+	}
+
+	static boolean canAllocate(InstrumentedPool<?> shard) {
+		PoolMetrics metrics = shard.metrics();
+		return metrics.pendingAcquireSize() == 0 && metrics.allocatedSize() < metrics.getMaxAllocatedSize();
+	}
+
+	static final Logger log = Loggers.getLogger(EventLoopShardedPool.class);
+}
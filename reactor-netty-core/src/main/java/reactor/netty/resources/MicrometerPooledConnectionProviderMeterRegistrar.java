@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2019-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,6 +25,7 @@ import reactor.pool.InstrumentedPool;
 
 import static reactor.netty.Metrics.REGISTRY;
 import static reactor.netty.resources.ConnectionProviderMeters.ACTIVE_CONNECTIONS;
+import static reactor.netty.resources.ConnectionProviderMeters.CONNECTION_LIMIT;
 import static reactor.netty.resources.ConnectionProviderMeters.ConnectionProviderMetersTags.ID;
 import static reactor.netty.resources.ConnectionProviderMeters.ConnectionProviderMetersTags.NAME;
 import static reactor.netty.resources.ConnectionProviderMeters.ConnectionProviderMetersTags.REMOTE_ADDRESS;
@@ -78,6 +79,14 @@ final class MicrometerPooledConnectionProviderMeterRegistrar {
 		     .register(REGISTRY);
 	}
 
+	void registerConnectionLimit(String poolName, String id, SocketAddress remoteAddress, AdaptiveAllocationStrategy strategy) {
+		String addressAsString = Metrics.formatSocketAddress(remoteAddress);
+		Tags tags = Tags.of(ID.asString(), id, REMOTE_ADDRESS.asString(), addressAsString, NAME.asString(), poolName);
+		Gauge.builder(CONNECTION_LIMIT.getName(), strategy, AdaptiveAllocationStrategy::limit)
+		     .tags(tags)
+		     .register(REGISTRY);
+	}
+
 	void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
 		String addressAsString = Metrics.formatSocketAddress(remoteAddress);
 		Tags tags = Tags.of(ID.asString(), id, REMOTE_ADDRESS.asString(), addressAsString, NAME.asString(), poolName);
@@ -88,5 +97,6 @@ final class MicrometerPooledConnectionProviderMeterRegistrar {
 		REGISTRY.remove(new Meter.Id(PENDING_CONNECTIONS.getName(), tags, null, null, Meter.Type.GAUGE));
 		REGISTRY.remove(new Meter.Id(MAX_CONNECTIONS.getName(), tags, null, null, Meter.Type.GAUGE));
 		REGISTRY.remove(new Meter.Id(MAX_PENDING_CONNECTIONS.getName(), tags, null, null, Meter.Type.GAUGE));
+		REGISTRY.remove(new Meter.Id(CONNECTION_LIMIT.getName(), tags, null, null, Meter.Type.GAUGE));
 	}
 }
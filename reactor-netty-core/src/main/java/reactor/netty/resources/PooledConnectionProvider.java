@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2018-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -124,31 +124,8 @@ public abstract class PooledConnectionProvider<T extends Connection> implements
 		Objects.requireNonNull(resolverGroup, "resolverGroup");
 		return Mono.create(sink -> {
 			SocketAddress remoteAddress = Objects.requireNonNull(remote.get(), "Remote Address supplier returned null");
-			PoolKey holder = new PoolKey(remoteAddress, config.channelHash());
 			PoolFactory<T> poolFactory = poolFactory(remoteAddress);
-			InstrumentedPool<T> pool = MapUtils.computeIfAbsent(channelPools, holder, poolKey -> {
-				if (log.isDebugEnabled()) {
-					log.debug("Creating a new [{}] client pool [{}] for [{}]", name, poolFactory, remoteAddress);
-				}
-
-				InstrumentedPool<T> newPool = createPool(config, poolFactory, remoteAddress, resolverGroup);
-
-				if (poolFactory.metricsEnabled || config.metricsRecorder() != null) {
-					// registrar is null when metrics are enabled on HttpClient level or
-					// with the `metrics(boolean metricsEnabled)` method on ConnectionProvider
-					String id = poolKey.hashCode() + "";
-					if (poolFactory.registrar != null) {
-						poolFactory.registrar.get().registerMetrics(name, id, remoteAddress,
-								new DelegatingConnectionPoolMetrics(newPool.metrics()));
-					}
-					else if (Metrics.isMicrometerAvailable()) {
-						// work directly with the pool otherwise a weak reference is needed to ConnectionPoolMetrics
-						// we don't want to keep another map with weak references
-						registerDefaultMetrics(id, remoteAddress, newPool.metrics());
-					}
-				}
-				return newPool;
-			});
+			InstrumentedPool<T> pool = getOrCreatePool(config, poolFactory, remoteAddress, resolverGroup);
 
 			EventLoop eventLoop;
 			if (sink.contextView().hasKey(CONTEXT_CALLER_EVENTLOOP)) {
@@ -182,6 +159,26 @@ public abstract class PooledConnectionProvider<T extends Connection> implements
 		});
 	}
 
+	@Override
+	public final Mono<Void> warmup(TransportConfig config, AddressResolverGroup<?> resolverGroup) {
+		Objects.requireNonNull(config, "config");
+		Objects.requireNonNull(resolverGroup, "resolverGroup");
+		return Mono.defer(() -> {
+			List<Mono<Integer>> warmups =
+					poolFactoryPerRemoteHost.entrySet()
+					                        .stream()
+					                        .filter(e -> e.getValue().minIdleConnections > 0)
+					                        .map(e -> getOrCreatePool(config, e.getValue(), e.getKey(), resolverGroup)
+					                                .warmup()
+					                                .onErrorResume(t -> {
+					                                    log.warn("Failed to establish the minimum number of idle connections to [{}]", e.getKey(), t);
+					                                    return Mono.empty();
+					                                }))
+					                        .collect(Collectors.toList());
+			return Mono.when(warmups);
+		});
+	}
+
 	@Override
 	public final Mono<Void> disposeLater() {
 		return Mono.defer(() -> {
@@ -193,30 +190,22 @@ public abstract class PooledConnectionProvider<T extends Connection> implements
 			                        SocketAddress remoteAddress = e.getKey().holder;
 			                        String id = e.getKey().hashCode() + "";
 			                        PoolFactory<T> poolFactory = poolFactory(remoteAddress);
+			                        Mono<Void> disposeGracefully = null;
 			                        if (pool instanceof GracefulShutdownInstrumentedPool) {
-			                            return ((GracefulShutdownInstrumentedPool<T>) pool)
-			                                    .disposeGracefully(disposeTimeout)
+			                            disposeGracefully = ((GracefulShutdownInstrumentedPool<T>) pool).disposeGracefully(disposeTimeout);
+			                        }
+			                        else if (pool instanceof EventLoopShardedPool && disposeTimeout != null) {
+			                            disposeGracefully = ((EventLoopShardedPool<T>) pool).disposeGracefully(disposeTimeout);
+			                        }
+			                        if (disposeGracefully != null) {
+			                            return disposeGracefully
 			                                    .onErrorResume(t -> {
 			                                        log.error("Connection pool for [{}] didn't shut down gracefully", e.getKey(), t);
-			                                        return Mono.fromRunnable(() -> {
-			                                            if (poolFactory.registrar != null) {
-			                                                poolFactory.registrar.get().deRegisterMetrics(name, id, remoteAddress);
-			                                            }
-			                                            else if (Metrics.isMicrometerAvailable()) {
-			                                                deRegisterDefaultMetrics(id, remoteAddress);
-			                                            }
-			                                        });
+			                                        return Mono.fromRunnable(() -> deRegisterMetrics(poolFactory, id, remoteAddress, pool));
 			                                    });
 			                        }
 			                        return pool.disposeLater().then(
-			                                Mono.<Void>fromRunnable(() -> {
-			                                    if (poolFactory.registrar != null) {
-			                                        poolFactory.registrar.get().deRegisterMetrics(name, id, remoteAddress);
-			                                    }
-			                                    else if (Metrics.isMicrometerAvailable()) {
-			                                        deRegisterDefaultMetrics(id, remoteAddress);
-			                                    }
-			                                })
+			                                Mono.<Void>fromRunnable(() -> deRegisterMetrics(poolFactory, id, remoteAddress, pool))
 			                        );
 			                    })
 			                    .collect(Collectors.toList());
@@ -245,14 +234,7 @@ public abstract class PooledConnectionProvider<T extends Connection> implements
 				String id = e.getKey().hashCode() + "";
 				PoolFactory<T> poolFactory = poolFactory(address);
 				e.getValue().disposeLater().then(
-						Mono.<Void>fromRunnable(() -> {
-							if (poolFactory.registrar != null) {
-								poolFactory.registrar.get().deRegisterMetrics(name, id, address);
-							}
-							else if (Metrics.isMicrometerAvailable()) {
-								deRegisterDefaultMetrics(id, address);
-							}
-						})
+						Mono.<Void>fromRunnable(() -> deRegisterMetrics(poolFactory, id, address, e.getValue()))
 				).subscribe();
 			}
 		});
@@ -315,6 +297,76 @@ public abstract class PooledConnectionProvider<T extends Connection> implements
 		MicrometerPooledConnectionProviderMeterRegistrar.INSTANCE.deRegisterMetrics(name, id, remoteAddress);
 	}
 
+	final InstrumentedPool<T> getOrCreatePool(
+			TransportConfig config,
+			PoolFactory<T> poolFactory,
+			SocketAddress remoteAddress,
+			AddressResolverGroup<?> resolverGroup) {
+		PoolKey holder = new PoolKey(remoteAddress, config.channelHash());
+		return MapUtils.computeIfAbsent(channelPools, holder, poolKey -> {
+			if (log.isDebugEnabled()) {
+				log.debug("Creating a new [{}] client pool [{}] for [{}]", name, poolFactory, remoteAddress);
+			}
+
+			InstrumentedPool<T> newPool = createPool(config, poolFactory, remoteAddress, resolverGroup);
+
+			if (poolFactory.metricsEnabled || config.metricsRecorder() != null) {
+				// registrar is null when metrics are enabled on HttpClient level or
+				// with the `metrics(boolean metricsEnabled)` method on ConnectionProvider
+				String id = poolKey.hashCode() + "";
+				if (newPool instanceof EventLoopShardedPool) {
+					// the metrics are registered per shard
+					InstrumentedPool<T>[] shards = ((EventLoopShardedPool<T>) newPool).shards;
+					for (int i = 0; i < shards.length; i++) {
+						registerMetrics(poolFactory, id + "-" + i, remoteAddress, shards[i]);
+					}
+				}
+				else {
+					registerMetrics(poolFactory, id, remoteAddress, newPool);
+				}
+			}
+			return newPool;
+		});
+	}
+
+	final void registerMetrics(PoolFactory<T> poolFactory, String id, SocketAddress remoteAddress, InstrumentedPool<T> pool) {
+		if (poolFactory.registrar != null) {
+			poolFactory.registrar.get().registerMetrics(name, id, remoteAddress,
+					new DelegatingConnectionPoolMetrics(pool.metrics()));
+		}
+		else if (Metrics.isMicrometerAvailable()) {
+			// work directly with the pool otherwise a weak reference is needed to ConnectionPoolMetrics
+			// we don't want to keep another map with weak references
+			registerDefaultMetrics(id, remoteAddress, pool.metrics());
+			AdaptiveAllocationStrategy adaptiveAllocationStrategy = AdaptiveAllocationStrategy.of(pool);
+			if (adaptiveAllocationStrategy != null) {
+				MicrometerPooledConnectionProviderMeterRegistrar.INSTANCE
+						.registerConnectionLimit(name, id, remoteAddress, adaptiveAllocationStrategy);
+			}
+		}
+	}
+
+	final void deRegisterMetrics(PoolFactory<T> poolFactory, String id, SocketAddress remoteAddress, Pool<T> pool) {
+		if (pool instanceof EventLoopShardedPool) {
+			int shards = ((EventLoopShardedPool<T>) pool).shards.length;
+			for (int i = 0; i < shards; i++) {
+				deRegisterMetrics(poolFactory, id + "-" + i, remoteAddress);
+			}
+		}
+		else {
+			deRegisterMetrics(poolFactory, id, remoteAddress);
+		}
+	}
+
+	final void deRegisterMetrics(PoolFactory<T> poolFactory, String id, SocketAddress remoteAddress) {
+		if (poolFactory.registrar != null) {
+			poolFactory.registrar.get().deRegisterMetrics(name, id, remoteAddress);
+		}
+		else if (Metrics.isMicrometerAvailable()) {
+			deRegisterDefaultMetrics(id, remoteAddress);
+		}
+	}
+
 	final boolean compareAddresses(SocketAddress origin, SocketAddress target) {
 		if (origin.equals(target)) {
 			return true;
@@ -411,6 +463,7 @@ public abstract class PooledConnectionProvider<T extends Connection> implements
 		final Duration evictionInterval;
 		final String leasingStrategy;
 		final int maxConnections;
+		final int minIdleConnections;
 		final long maxIdleTime;
 		final long maxLifeTime;
 		final boolean metricsEnabled;
@@ -422,6 +475,7 @@ public abstract class PooledConnectionProvider<T extends Connection> implements
 		final BiFunction<Runnable, Duration, Disposable> pendingAcquireTimer;
 		final AllocationStrategy<?> allocationStrategy;
 		final BiPredicate<Connection, ConnectionMetadata> evictionPredicate;
+		final boolean eventLoopAffinity;
 
 		PoolFactory(ConnectionPoolSpec<?> conf, Duration disposeTimeout) {
 			this(conf, disposeTimeout, null);
@@ -432,6 +486,10 @@ public abstract class PooledConnectionProvider<T extends Connection> implements
 			this.evictionInterval = conf.evictionInterval;
 			this.leasingStrategy = conf.leasingStrategy;
 			this.maxConnections = conf.maxConnections;
+			if (conf.minIdleConnections > conf.maxConnections) {
+				throw new IllegalArgumentException("Min idle connections value must not be greater than max connections value");
+			}
+			this.minIdleConnections = conf.minIdleConnections;
 			this.maxIdleTime = conf.maxIdleTime != null ? conf.maxIdleTime.toMillis() : -1;
 			this.maxLifeTime = conf.maxLifeTime != null ? conf.maxLifeTime.toMillis() : -1;
 			this.metricsEnabled = conf.metricsEnabled;
@@ -444,6 +502,39 @@ public abstract class PooledConnectionProvider<T extends Connection> implements
 			this.pendingAcquireTimer = conf.pendingAcquireTimer;
 			this.allocationStrategy = conf.allocationStrategy;
 			this.evictionPredicate = conf.evictionPredicate;
+			this.eventLoopAffinity = conf.eventLoopAffinity;
+		}
+
+		PoolFactory(PoolFactory<T> parent, int maxConnections, int minIdleConnections, int pendingAcquireMaxCount) {
+			this.evictionInterval = parent.evictionInterval;
+			this.leasingStrategy = parent.leasingStrategy;
+			this.maxConnections = maxConnections;
+			this.minIdleConnections = minIdleConnections;
+			this.maxIdleTime = parent.maxIdleTime;
+			this.maxLifeTime = parent.maxLifeTime;
+			this.metricsEnabled = parent.metricsEnabled;
+			this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+			this.pendingAcquireTimeout = parent.pendingAcquireTimeout;
+			this.registrar = parent.registrar;
+			this.clock = parent.clock;
+			this.disposeTimeout = parent.disposeTimeout;
+			this.pendingAcquireTimer = parent.pendingAcquireTimer;
+			this.allocationStrategy = parent.allocationStrategy;
+			this.evictionPredicate = parent.evictionPredicate;
+			this.eventLoopAffinity = false;
+		}
+
+		/**
+		 * Returns a {@link PoolFactory} for a shard of the pool, with its share of the connections
+		 * and of the pending acquires.
+		 *
+		 * @param maxConnections the maximum number of connections of the shard
+		 * @param minIdleConnections the minimum number of connections of the shard
+		 * @param pendingAcquireMaxCount the maximum number of pending acquires of the shard
+		 * @return a {@link PoolFactory} for a shard of the pool
+		 */
+		PoolFactory<T> shard(int maxConnections, int minIdleConnections, int pendingAcquireMaxCount) {
+			return new PoolFactory<>(this, maxConnections, minIdleConnections, pendingAcquireMaxCount);
 		}
 
 		public InstrumentedPool<T> newPool(
@@ -451,11 +542,20 @@ public abstract class PooledConnectionProvider<T extends Connection> implements
 				@Nullable reactor.pool.AllocationStrategy allocationStrategy, // this is not used but kept for backwards compatibility
 				Function<T, Publisher<Void>> destroyHandler,
 				BiPredicate<T, PooledRefMetadata> evictionPredicate) {
+			MinIdleConnectionsReplenisher<T> replenisher = replenisher(destroyHandler);
+			PoolBuilder<T, PoolConfig<T>> poolBuilder =
+					newPoolInternal(allocator, replenisher != null ? replenisher : destroyHandler, evictionPredicate);
+			InstrumentedPool<T> pool;
 			if (disposeTimeout != null) {
-				return newPoolInternal(allocator, destroyHandler, evictionPredicate)
-						.buildPoolAndDecorateWith(InstrumentedPoolDecorators::gracefulShutdown);
+				pool = poolBuilder.buildPoolAndDecorateWith(InstrumentedPoolDecorators::gracefulShutdown);
+			}
+			else {
+				pool = poolBuilder.buildPool();
+			}
+			if (replenisher != null) {
+				replenisher.pool = pool;
 			}
-			return newPoolInternal(allocator, destroyHandler, evictionPredicate).buildPool();
+			return pool;
 		}
 
 		public InstrumentedPool<T> newPool(
@@ -464,11 +564,26 @@ public abstract class PooledConnectionProvider<T extends Connection> implements
 				Function<T, Publisher<Void>> destroyHandler,
 				BiPredicate<T, PooledRefMetadata> defaultEvictionPredicate,
 				Function<PoolConfig<T>, InstrumentedPool<T>> poolFactory) {
+			MinIdleConnectionsReplenisher<T> replenisher = replenisher(destroyHandler);
+			PoolBuilder<T, PoolConfig<T>> poolBuilder =
+					newPoolInternal(allocator, replenisher != null ? replenisher : destroyHandler, defaultEvictionPredicate);
+			InstrumentedPool<T> pool;
 			if (disposeTimeout != null) {
-				return newPoolInternal(allocator, destroyHandler, defaultEvictionPredicate)
-						.build(poolFactory.andThen(InstrumentedPoolDecorators::gracefulShutdown));
+				pool = poolBuilder.build(poolFactory.andThen(InstrumentedPoolDecorators::gracefulShutdown));
+			}
+			else {
+				pool = poolBuilder.build(poolFactory);
+			}
+			if (replenisher != null) {
+				replenisher.pool = pool;
 			}
-			return newPoolInternal(allocator, destroyHandler, defaultEvictionPredicate).build(poolFactory);
+			return pool;
+		}
+
+		@Nullable
+		MinIdleConnectionsReplenisher<T> replenisher(Function<T, Publisher<Void>> destroyHandler) {
+			return minIdleConnections > 0 && allocationStrategy == null ?
+					new MinIdleConnectionsReplenisher<>(destroyHandler) : null;
 		}
 
 		PoolBuilder<T, PoolConfig<T>> newPoolInternal(
@@ -494,14 +609,14 @@ public abstract class PooledConnectionProvider<T extends Connection> implements
 			if (DEFAULT_POOL_GET_PERMITS_SAMPLING_RATE > 0d && DEFAULT_POOL_GET_PERMITS_SAMPLING_RATE <= 1d
 					&& DEFAULT_POOL_RETURN_PERMITS_SAMPLING_RATE > 0d && DEFAULT_POOL_RETURN_PERMITS_SAMPLING_RATE <= 1d) {
 				poolBuilder = poolBuilder.allocationStrategy(SamplingAllocationStrategy.sizeBetweenWithSampling(
-						0,
+						minIdleConnections,
 						maxConnections,
 						DEFAULT_POOL_GET_PERMITS_SAMPLING_RATE,
 						DEFAULT_POOL_RETURN_PERMITS_SAMPLING_RATE));
 			}
 			else {
 				if (allocationStrategy == null) {
-					poolBuilder = poolBuilder.sizeBetween(0, maxConnections);
+					poolBuilder = poolBuilder.sizeBetween(minIdleConnections, maxConnections);
 				}
 				else {
 					poolBuilder = poolBuilder.allocationStrategy(new DelegatingAllocationStrategy(allocationStrategy.copy()));
@@ -531,6 +646,16 @@ public abstract class PooledConnectionProvider<T extends Connection> implements
 			return allocationStrategy;
 		}
 
+		/**
+		 * Returns the minimum number of connections kept by the pool.
+		 *
+		 * @return the minimum number of connections kept by the pool
+		 * @since 1.1.3
+		 */
+		public int minIdleConnections() {
+			return minIdleConnections;
+		}
+
 		public long maxIdleTime() {
 			return this.maxIdleTime;
 		}
@@ -545,14 +670,52 @@ public abstract class PooledConnectionProvider<T extends Connection> implements
 					"evictionInterval=" + evictionInterval +
 					", leasingStrategy=" + leasingStrategy +
 					", maxConnections=" + maxConnections +
+					", minIdleConnections=" + minIdleConnections +
 					", maxIdleTime=" + maxIdleTime +
 					", maxLifeTime=" + maxLifeTime +
 					", metricsEnabled=" + metricsEnabled +
 					", pendingAcquireMaxCount=" + pendingAcquireMaxCount +
 					", pendingAcquireTimeout=" + pendingAcquireTimeout +
+					", eventLoopAffinity=" + eventLoopAffinity +
 					'}';
 		}
 
+		/**
+		 * Destroy handler that establishes again the minimum number of connections
+		 * once a connection is closed or evicted.
+		 */
+		static final class MinIdleConnectionsReplenisher<T extends Connection> implements Function<T, Publisher<Void>> {
+
+			final Function<T, Publisher<Void>> delegate;
+
+			volatile InstrumentedPool<T> pool;
+
+			MinIdleConnectionsReplenisher(Function<T, Publisher<Void>> delegate) {
+				this.delegate = delegate;
+			}
+
+			@Override
+			public Publisher<Void> apply(T poolable) {
+				return Mono.from(delegate.apply(poolable))
+				           .doFinally(s -> replenish(poolable.channel().eventLoop()));
+			}
+
+			void replenish(EventLoop eventLoop) {
+				InstrumentedPool<T> pool = this.pool;
+				if (pool != null && !pool.isDisposed()) {
+					// the new connection is created on the event loop of the connection it replaces
+					pool.warmup()
+					    .contextWrite(ctx -> ctx.put(CONTEXT_CALLER_EVENTLOOP, eventLoop))
+					    .subscribe(null,
+					            t -> {
+					                if (log.isDebugEnabled()) {
+					                    log.debug("Failed to establish the minimum number of idle connections", t);
+					                }
+					            });
+				}
+			}
+		}
+
 		static final class DelegatingAllocationStrategy implements reactor.pool.AllocationStrategy {
 
 			final AllocationStrategy<?> delegate;
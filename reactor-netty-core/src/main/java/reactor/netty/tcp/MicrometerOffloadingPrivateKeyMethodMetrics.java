@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.tcp;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+import static reactor.netty.Metrics.ERROR;
+import static reactor.netty.Metrics.REGISTRY;
+import static reactor.netty.Metrics.SUCCESS;
+import static reactor.netty.tcp.OffloadingPrivateKeyMethod.DECRYPT;
+import static reactor.netty.tcp.OffloadingPrivateKeyMethod.SIGN;
+import static reactor.netty.tcp.OffloadingPrivateKeyMethodMeters.OPERATION_TIME;
+import static reactor.netty.tcp.OffloadingPrivateKeyMethodMeters.OperationTimeMeterTags.ID;
+import static reactor.netty.tcp.OffloadingPrivateKeyMethodMeters.OperationTimeMeterTags.STATUS;
+import static reactor.netty.tcp.OffloadingPrivateKeyMethodMeters.OperationTimeMeterTags.TYPE;
+import static reactor.netty.tcp.OffloadingPrivateKeyMethodMeters.PENDING_OPERATIONS;
+
+/**
+ * Registers the meters of an {@link OffloadingPrivateKeyMethod}, the meters are resolved once as the tags are bounded.
+ *
+ * @since 1.1.3
+ */
+final class MicrometerOffloadingPrivateKeyMethodMetrics {
+
+	final Timer signSuccess;
+	final Timer signError;
+	final Timer decryptSuccess;
+	final Timer decryptError;
+
+	MicrometerOffloadingPrivateKeyMethodMetrics(OffloadingPrivateKeyMethod privateKeyMethod) {
+		String id = Integer.toHexString(System.identityHashCode(privateKeyMethod));
+		this.signSuccess = timer(id, SIGN, SUCCESS);
+		this.signError = timer(id, SIGN, ERROR);
+		this.decryptSuccess = timer(id, DECRYPT, SUCCESS);
+		this.decryptError = timer(id, DECRYPT, ERROR);
+		Gauge.builder(PENDING_OPERATIONS.getName(), privateKeyMethod, OffloadingPrivateKeyMethod::pendingOperations)
+		     .tags(ID.asString(), id)
+		     .register(REGISTRY);
+	}
+
+	void recordOperationTime(String type, long nanos, String status) {
+		Timer timer;
+		if (SIGN.equals(type)) {
+			timer = SUCCESS.equals(status) ? signSuccess : signError;
+		}
+		else {
+			timer = SUCCESS.equals(status) ? decryptSuccess : decryptError;
+		}
+		timer.record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	static Timer timer(String id, String type, String status) {
+		return Timer.builder(OPERATION_TIME.getName())
+		            .tags(ID.asString(), id, TYPE.asString(), type, STATUS.asString(), status)
+		            .register(REGISTRY);
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.tcp;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+import static reactor.netty.Metrics.ERROR;
+import static reactor.netty.Metrics.HIT;
+import static reactor.netty.Metrics.MISS;
+import static reactor.netty.Metrics.REGISTRY;
+import static reactor.netty.Metrics.SUCCESS;
+import static reactor.netty.tcp.SniSslProviderCacheMeters.ENTRIES;
+import static reactor.netty.tcp.SniSslProviderCacheMeters.LOAD_TIME;
+import static reactor.netty.tcp.SniSslProviderCacheMeters.LOOKUPS;
+import static reactor.netty.tcp.SniSslProviderCacheMeters.StatusMeterTags.NAME;
+import static reactor.netty.tcp.SniSslProviderCacheMeters.StatusMeterTags.STATUS;
+
+/**
+ * Registers the meters of a {@link SniSslProviderCache}, the meters are resolved once as the tags are bounded.
+ *
+ * @since 1.1.3
+ */
+final class MicrometerSniSslProviderCacheMetrics {
+
+	final Counter hits;
+	final Counter misses;
+	final Timer loadSuccess;
+	final Timer loadError;
+
+	MicrometerSniSslProviderCacheMetrics(String name, SniSslProviderCache cache) {
+		this.hits = Counter.builder(LOOKUPS.getName())
+		                   .tags(NAME.asString(), name, STATUS.asString(), HIT)
+		                   .register(REGISTRY);
+		this.misses = Counter.builder(LOOKUPS.getName())
+		                     .tags(NAME.asString(), name, STATUS.asString(), MISS)
+		                     .register(REGISTRY);
+		this.loadSuccess = Timer.builder(LOAD_TIME.getName())
+		                        .tags(NAME.asString(), name, STATUS.asString(), SUCCESS)
+		                        .register(REGISTRY);
+		this.loadError = Timer.builder(LOAD_TIME.getName())
+		                      .tags(NAME.asString(), name, STATUS.asString(), ERROR)
+		                      .register(REGISTRY);
+		Gauge.builder(ENTRIES.getName(), cache, SniSslProviderCache::size)
+		     .tags(NAME.asString(), name)
+		     .register(REGISTRY);
+	}
+
+	void incrementLookups(boolean hit) {
+		(hit ? hits : misses).increment();
+	}
+
+	void recordLoadTime(long nanos, boolean success) {
+		(success ? loadSuccess : loadError).record(nanos, TimeUnit.NANOSECONDS);
+	}
+}
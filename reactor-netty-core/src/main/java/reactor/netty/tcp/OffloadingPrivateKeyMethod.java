@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.tcp;
+
+import io.netty.handler.ssl.OpenSslAsyncPrivateKeyMethod;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import io.netty.util.concurrent.Promise;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import reactor.util.annotation.Nullable;
+
+import javax.crypto.Cipher;
+import javax.net.ssl.SSLEngine;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static reactor.netty.Metrics.ERROR;
+import static reactor.netty.Metrics.SUCCESS;
+
+/**
+ * {@link OpenSslAsyncPrivateKeyMethod} that performs the private key operations of the TLS handshakes
+ * with the JCA on the configured {@link Executor} instead of the event loop.
+ * When the {@link Executor} rejects an operation, it is performed on the calling thread.
+ *
+ * @since 1.1.3
+ */
+final class OffloadingPrivateKeyMethod implements OpenSslAsyncPrivateKeyMethod {
+
+	static final Logger log = Loggers.getLogger(OffloadingPrivateKeyMethod.class);
+
+	static final String SIGN = "SIGN";
+	static final String DECRYPT = "DECRYPT";
+
+	final Executor executor;
+	final PrivateKey privateKey;
+	final AtomicInteger pendingOperations = new AtomicInteger();
+	final MicrometerOffloadingPrivateKeyMethodMetrics metrics;
+
+	OffloadingPrivateKeyMethod(PrivateKey privateKey, Executor executor, boolean metricsEnabled) {
+		this.executor = executor;
+		this.privateKey = privateKey;
+		this.metrics = metricsEnabled ? new MicrometerOffloadingPrivateKeyMethodMetrics(this) : null;
+	}
+
+	@Override
+	public Future<byte[]> sign(SSLEngine engine, int signatureAlgorithm, byte[] input) {
+		return offload(SIGN, () -> sign(privateKey, signatureAlgorithm, input));
+	}
+
+	@Override
+	public Future<byte[]> decrypt(SSLEngine engine, byte[] input) {
+		return offload(DECRYPT, () -> decrypt(privateKey, input));
+	}
+
+	int pendingOperations() {
+		return pendingOperations.get();
+	}
+
+	Future<byte[]> offload(String type, Callable<byte[]> operation) {
+		Promise<byte[]> promise = ImmediateEventExecutor.INSTANCE.newPromise();
+		long start = System.nanoTime();
+		pendingOperations.incrementAndGet();
+		Runnable task = () -> {
+			pendingOperations.decrementAndGet();
+			try {
+				byte[] result = operation.call();
+				recordOperationTime(type, start, SUCCESS);
+				promise.setSuccess(result);
+			}
+			catch (Throwable t) {
+				recordOperationTime(type, start, ERROR);
+				promise.setFailure(t);
+			}
+		};
+		try {
+			executor.execute(task);
+		}
+		catch (RejectedExecutionException e) {
+			if (log.isDebugEnabled()) {
+				log.debug("The private key operation executor is saturated, the {} operation is performed on the" +
+						" calling thread", type);
+			}
+			task.run();
+		}
+		return promise;
+	}
+
+	void recordOperationTime(String type, long start, String status) {
+		if (metrics != null) {
+			metrics.recordOperationTime(type, System.nanoTime() - start, status);
+		}
+	}
+
+	static byte[] decrypt(PrivateKey privateKey, byte[] input) throws GeneralSecurityException {
+		Cipher cipher = Cipher.getInstance("RSA/ECB/NoPadding");
+		cipher.init(Cipher.DECRYPT_MODE, privateKey);
+		return cipher.doFinal(input);
+	}
+
+	static byte[] sign(PrivateKey privateKey, int signatureAlgorithm, byte[] input) throws GeneralSecurityException {
+		if (signatureAlgorithm == SSL_SIGN_RSA_PKCS1_MD5_SHA1) {
+			// TLS 1.0 and 1.1 sign the concatenation of the MD5 and the SHA-1 digests without DigestInfo
+			byte[] digest = new byte[36];
+			System.arraycopy(MessageDigest.getInstance("MD5").digest(input), 0, digest, 0, 16);
+			System.arraycopy(MessageDigest.getInstance("SHA-1").digest(input), 0, digest, 16, 20);
+			return sign(Signature.getInstance("NONEwithRSA"), privateKey, digest);
+		}
+
+		String algorithm = algorithm(signatureAlgorithm);
+		if (algorithm == null) {
+			throw new SignatureException("Unsupported signature algorithm: " + signatureAlgorithm);
+		}
+		Signature signature = Signature.getInstance(algorithm);
+		PSSParameterSpec pssParameters = pssParameters(signatureAlgorithm);
+		if (pssParameters != null) {
+			signature.setParameter(pssParameters);
+		}
+		return sign(signature, privateKey, input);
+	}
+
+	static byte[] sign(Signature signature, PrivateKey privateKey, byte[] input) throws GeneralSecurityException {
+		signature.initSign(privateKey);
+		signature.update(input);
+		return signature.sign();
+	}
+
+	// The signature algorithms are not compile-time constants, they are provided by netty-tcnative
+	@Nullable
+	static String algorithm(int signatureAlgorithm) {
+		if (signatureAlgorithm == SSL_SIGN_RSA_PKCS1_SHA1) {
+			return "SHA1withRSA";
+		}
+		else if (signatureAlgorithm == SSL_SIGN_RSA_PKCS1_SHA256) {
+			return "SHA256withRSA";
+		}
+		else if (signatureAlgorithm == SSL_SIGN_RSA_PKCS1_SHA384) {
+			return "SHA384withRSA";
+		}
+		else if (signatureAlgorithm == SSL_SIGN_RSA_PKCS1_SHA512) {
+			return "SHA512withRSA";
+		}
+		else if (signatureAlgorithm == SSL_SIGN_ECDSA_SHA1) {
+			return "SHA1withECDSA";
+		}
+		else if (signatureAlgorithm == SSL_SIGN_ECDSA_SECP256R1_SHA256) {
+			return "SHA256withECDSA";
+		}
+		else if (signatureAlgorithm == SSL_SIGN_ECDSA_SECP384R1_SHA384) {
+			return "SHA384withECDSA";
+		}
+		else if (signatureAlgorithm == SSL_SIGN_ECDSA_SECP521R1_SHA512) {
+			return "SHA512withECDSA";
+		}
+		else if (signatureAlgorithm == SSL_SIGN_RSA_PSS_RSAE_SHA256 ||
+				signatureAlgorithm == SSL_SIGN_RSA_PSS_RSAE_SHA384 ||
+				signatureAlgorithm == SSL_SIGN_RSA_PSS_RSAE_SHA512) {
+			return "RSASSA-PSS";
+		}
+		else if (signatureAlgorithm == SSL_SIGN_ED25519) {
+			return "Ed25519";
+		}
+		return null;
+	}
+
+	@Nullable
+	static PSSParameterSpec pssParameters(int signatureAlgorithm) {
+		if (signatureAlgorithm == SSL_SIGN_RSA_PSS_RSAE_SHA256) {
+			return new PSSParameterSpec("SHA-256", "MGF1", MGF1ParameterSpec.SHA256, 32, 1);
+		}
+		else if (signatureAlgorithm == SSL_SIGN_RSA_PSS_RSAE_SHA384) {
+			return new PSSParameterSpec("SHA-384", "MGF1", MGF1ParameterSpec.SHA384, 48, 1);
+		}
+		else if (signatureAlgorithm == SSL_SIGN_RSA_PSS_RSAE_SHA512) {
+			return new PSSParameterSpec("SHA-512", "MGF1", MGF1ParameterSpec.SHA512, 64, 1);
+		}
+		return null;
+	}
+}
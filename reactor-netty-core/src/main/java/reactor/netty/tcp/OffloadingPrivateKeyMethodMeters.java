@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.tcp;
+
+import io.micrometer.common.docs.KeyName;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.docs.MeterDocumentation;
+
+/**
+ * Meters of the TLS private key operations offloaded with
+ * {@link SslProvider.Builder#offloadPrivateKeyOperations(java.security.PrivateKey, java.util.concurrent.Executor, boolean)}.
+ *
+ * @since 1.1.3
+ */
+enum OffloadingPrivateKeyMethodMeters implements MeterDocumentation {
+
+	/**
+	 * Time spent for a private key operation, including the time spent waiting for the executor.
+	 */
+	OPERATION_TIME {
+		@Override
+		public String getName() {
+			return "reactor.netty.tls.private.key.operation.time";
+		}
+
+		@Override
+		public KeyName[] getKeyNames() {
+			return OperationTimeMeterTags.values();
+		}
+
+		@Override
+		public Meter.Type getType() {
+			return Meter.Type.TIMER;
+		}
+	},
+
+	/**
+	 * The number of the private key operations that are waiting for the executor.
+	 */
+	PENDING_OPERATIONS {
+		@Override
+		public String getName() {
+			return "reactor.netty.tls.private.key.pending.operations";
+		}
+
+		@Override
+		public KeyName[] getKeyNames() {
+			return PendingOperationsMeterTags.values();
+		}
+
+		@Override
+		public Meter.Type getType() {
+			return Meter.Type.GAUGE;
+		}
+	};
+
+	enum OperationTimeMeterTags implements KeyName {
+
+		/**
+		 * ID.
+		 */
+		ID {
+			@Override
+			public String asString() {
+				return "id";
+			}
+		},
+
+		/**
+		 * STATUS.
+		 */
+		STATUS {
+			@Override
+			public String asString() {
+				return "status";
+			}
+		},
+
+		/**
+		 * TYPE, SIGN or DECRYPT.
+		 */
+		TYPE {
+			@Override
+			public String asString() {
+				return "type";
+			}
+		}
+	}
+
+	enum PendingOperationsMeterTags implements KeyName {
+
+		/**
+		 * ID.
+		 */
+		ID {
+			@Override
+			public String asString() {
+				return "id";
+			}
+		}
+	}
+}
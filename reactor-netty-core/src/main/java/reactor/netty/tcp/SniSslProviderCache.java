@@ -0,0 +1,404 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.tcp;
+
+import io.netty.util.AsyncMapping;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+import reactor.core.publisher.Mono;
+import reactor.netty.internal.util.Metrics;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import reactor.util.annotation.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * An {@link AsyncMapping} of SNI host names to {@link SslProvider}s, to be configured with
+ * {@link SslProvider.Builder#setSniAsyncMappings(AsyncMapping)}, that loads the {@link SslProvider}s lazily.
+ * <p>The {@link SslProvider} for a host name is loaded with the provided loader on the first TLS handshake
+ * requesting this host name, and is cached for the configured time to live. The least recently used entries are
+ * evicted once the configured maximum number of entries is reached, so that only the {@link io.netty.handler.ssl.SslContext}s
+ * of the active host names are kept in memory. The concurrent handshakes requesting a host name that is being loaded
+ * wait for the same load. A failed load is not cached, the next handshake requesting the host name loads it again.
+ * A load that does not complete within the configured load timeout fails.
+ * <p>The loader is subscribed on the event loop of the connection that triggers the load, a loader that performs
+ * blocking operations (e.g. reading certificates from the file system) must publish on another scheduler, e.g.
+ * {@code Mono.fromCallable(...).subscribeOn(Schedulers.boundedElastic())}.
+ * When the loader completes empty or when the client does not send SNI, the default {@link SslProvider} is used.
+ * <p><strong>Note:</strong> The {@link SslProvider}s are used as they are provided by the loader, the default
+ * configuration of the server, e.g. {@code HttpServer} HTTP/2 settings, is not applied to them.
+ *
+ * @since 1.1.3
+ */
+public final class SniSslProviderCache implements AsyncMapping<String, SslProvider> {
+
+	public interface Builder {
+
+		/**
+		 * Build a new {@link SniSslProviderCache}
+		 *
+		 * @return a new {@link SniSslProviderCache}
+		 */
+		SniSslProviderCache build();
+
+		/**
+		 * Configures the {@link SslProvider} to use when the loader completes empty or when the client
+		 * does not send SNI. When not configured, such handshakes fail.
+		 *
+		 * @param defaultSslProvider the {@link SslProvider} to use when there is no {@link SslProvider} for the host name
+		 * @return {@code this}
+		 */
+		Builder defaultSslProvider(SslProvider defaultSslProvider);
+
+		/**
+		 * Configures the time after which a load that has not completed fails, together with the handshakes waiting
+		 * for it, and the host name is loaded again by the next handshake requesting it. Default to {@code 10s}.
+		 *
+		 * @param loadTimeout the time after which a load that has not completed fails
+		 * @return {@code this}
+		 */
+		Builder loadTimeout(Duration loadTimeout);
+
+		/**
+		 * Configures the maximum number of the cached {@link SslProvider}s, the least recently used ones are evicted
+		 * first. Default to {@code 1000}.
+		 *
+		 * @param maxEntries the maximum number of the cached {@link SslProvider}s
+		 * @return {@code this}
+		 */
+		Builder maxEntries(int maxEntries);
+
+		/**
+		 * Whether to enable metrics to be collected and registered in Micrometer's
+		 * {@link io.micrometer.core.instrument.Metrics#globalRegistry globalRegistry}
+		 * under the name {@link reactor.netty.Metrics#SNI_CACHE_PREFIX}.
+		 * The lookups, tagged with {@code HIT} or {@code MISS}, the time spent for loading the {@link SslProvider}s
+		 * and the number of the cached {@link SslProvider}s are collected.
+		 * Default to {@code false}.
+		 *
+		 * @param enable true enables metrics collection; false disables it
+		 * @return {@code this}
+		 */
+		Builder metrics(boolean enable);
+
+		/**
+		 * Configures the name of the cache, used as a tag of the metrics. Default to {@code sni}.
+		 *
+		 * @param name the name of the cache
+		 * @return {@code this}
+		 */
+		Builder name(String name);
+
+		/**
+		 * Configures the time after which a cached {@link SslProvider} is loaded again. Default to {@code 1h}.
+		 *
+		 * @param timeToLive the time after which a cached {@link SslProvider} is loaded again
+		 * @return {@code this}
+		 */
+		Builder timeToLive(Duration timeToLive);
+	}
+
+	/**
+	 * Creates a builder for {@link SniSslProviderCache}.
+	 *
+	 * @param loader the function that loads the {@link SslProvider} for a host name
+	 * @return a new {@link SniSslProviderCache.Builder}
+	 */
+	public static SniSslProviderCache.Builder builder(Function<? super String, ? extends Mono<? extends SslProvider>> loader) {
+		return new SniSslProviderCache.Build(loader);
+	}
+
+	@Override
+	public Future<SslProvider> map(@Nullable String hostname, Promise<SslProvider> promise) {
+		if (hostname == null) {
+			complete(promise, null, null);
+			return promise;
+		}
+
+		Entry entry;
+		boolean miss;
+		boolean loaded;
+		SslProvider sslProvider;
+		synchronized (entries) {
+			entry = entries.get(hostname);
+			miss = entry == null || entry.isExpired(nanoTime.getAsLong());
+			if (miss) {
+				entry = new Entry();
+				entries.put(hostname, entry);
+			}
+			loaded = entry.loaded;
+			sslProvider = entry.sslProvider;
+			if (!loaded) {
+				entry.promises.add(promise);
+			}
+		}
+
+		if (metrics != null) {
+			metrics.incrementLookups(!miss);
+		}
+
+		if (miss) {
+			load(hostname, entry);
+		}
+		else if (loaded) {
+			complete(promise, hostname, sslProvider);
+		}
+		return promise;
+	}
+
+	/**
+	 * Returns the number of the cached {@link SslProvider}s, including the ones that are being loaded.
+	 *
+	 * @return the number of the cached {@link SslProvider}s
+	 */
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * Removes the cached {@link SslProvider} for the given host name, the next handshake requesting it loads it again.
+	 *
+	 * @param hostname the host name
+	 */
+	public void invalidate(String hostname) {
+		Objects.requireNonNull(hostname, "hostname");
+		synchronized (entries) {
+			entries.remove(hostname);
+		}
+	}
+
+	static final Logger log = Loggers.getLogger(SniSslProviderCache.class);
+
+	final Entries entries;
+	final Function<? super String, ? extends Mono<? extends SslProvider>> loader;
+	final SslProvider defaultSslProvider;
+	final MicrometerSniSslProviderCacheMetrics metrics;
+	final Duration loadTimeout;
+	final LongSupplier nanoTime;
+	final long timeToLiveNanos;
+
+	SniSslProviderCache(Build build) {
+		this(build, System::nanoTime);
+	}
+
+	SniSslProviderCache(Build build, LongSupplier nanoTime) {
+		this.entries = new Entries(build.maxEntries);
+		this.loader = build.loader;
+		this.defaultSslProvider = build.defaultSslProvider;
+		this.loadTimeout = build.loadTimeout;
+		this.metrics = build.metricsEnabled ? new MicrometerSniSslProviderCacheMetrics(build.name, this) : null;
+		this.nanoTime = nanoTime;
+		this.timeToLiveNanos = build.timeToLive.toNanos();
+	}
+
+	void complete(Promise<SslProvider> promise, @Nullable String hostname, @Nullable SslProvider sslProvider) {
+		if (sslProvider != null) {
+			promise.trySuccess(sslProvider);
+		}
+		else if (defaultSslProvider != null) {
+			promise.trySuccess(defaultSslProvider);
+		}
+		else {
+			promise.tryFailure(new IllegalStateException("No SslProvider found for SNI host name [" + hostname + "]"));
+		}
+	}
+
+	void load(String hostname, Entry entry) {
+		long start = nanoTime.getAsLong();
+		Mono<? extends SslProvider> mono;
+		try {
+			mono = Objects.requireNonNull(loader.apply(hostname), "loader returned null");
+		}
+		catch (Throwable t) {
+			onError(hostname, entry, t, start);
+			return;
+		}
+		mono.timeout(loadTimeout)
+		    .subscribe(
+		            sslProvider -> onLoad(hostname, entry, sslProvider, start),
+		            t -> onError(hostname, entry, t, start),
+		            () -> onLoad(hostname, entry, null, start));
+	}
+
+	void onError(String hostname, Entry entry, Throwable cause, long start) {
+		List<Promise<SslProvider>> promises;
+		synchronized (entries) {
+			if (entry.loaded) {
+				return;
+			}
+			entry.loaded = true;
+			entries.remove(hostname, entry);
+			promises = entry.promises;
+			entry.promises = null;
+		}
+
+		if (metrics != null) {
+			metrics.recordLoadTime(nanoTime.getAsLong() - start, false);
+		}
+
+		if (log.isDebugEnabled()) {
+			log.debug("Failed to load the SslProvider for SNI host name [{}]", hostname, cause);
+		}
+
+		for (Promise<SslProvider> promise : promises) {
+			promise.tryFailure(cause);
+		}
+	}
+
+	void onLoad(String hostname, Entry entry, @Nullable SslProvider sslProvider, long start) {
+		List<Promise<SslProvider>> promises;
+		long now = nanoTime.getAsLong();
+		synchronized (entries) {
+			// onComplete follows onNext
+			if (entry.loaded) {
+				return;
+			}
+			entry.loaded = true;
+			entry.sslProvider = sslProvider;
+			entry.expiresAt = now + timeToLiveNanos;
+			promises = entry.promises;
+			entry.promises = null;
+		}
+
+		if (metrics != null) {
+			metrics.recordLoadTime(now - start, true);
+		}
+
+		if (log.isDebugEnabled()) {
+			log.debug("Loaded SslProvider [{}] for SNI host name [{}]", sslProvider, hostname);
+		}
+
+		for (Promise<SslProvider> promise : promises) {
+			complete(promise, hostname, sslProvider);
+		}
+	}
+
+	static final class Build implements Builder {
+		static final int DEFAULT_MAX_ENTRIES = 1000;
+		static final Duration DEFAULT_LOAD_TIMEOUT = Duration.ofSeconds(10);
+		static final String DEFAULT_NAME = "sni";
+		static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofHours(1);
+
+		final Function<? super String, ? extends Mono<? extends SslProvider>> loader;
+
+		SslProvider defaultSslProvider;
+		Duration loadTimeout = DEFAULT_LOAD_TIMEOUT;
+		int maxEntries = DEFAULT_MAX_ENTRIES;
+		boolean metricsEnabled;
+		String name = DEFAULT_NAME;
+		Duration timeToLive = DEFAULT_TIME_TO_LIVE;
+
+		Build(Function<? super String, ? extends Mono<? extends SslProvider>> loader) {
+			this.loader = Objects.requireNonNull(loader, "loader");
+		}
+
+		@Override
+		public SniSslProviderCache build() {
+			return new SniSslProviderCache(this);
+		}
+
+		@Override
+		public Builder defaultSslProvider(SslProvider defaultSslProvider) {
+			this.defaultSslProvider = Objects.requireNonNull(defaultSslProvider, "defaultSslProvider");
+			return this;
+		}
+
+		@Override
+		public Builder loadTimeout(Duration loadTimeout) {
+			Objects.requireNonNull(loadTimeout, "loadTimeout");
+			if (loadTimeout.isNegative() || loadTimeout.isZero()) {
+				throw new IllegalArgumentException("loadTimeout must be strictly positive");
+			}
+			this.loadTimeout = loadTimeout;
+			return this;
+		}
+
+		@Override
+		public Builder maxEntries(int maxEntries) {
+			if (maxEntries < 1) {
+				throw new IllegalArgumentException("maxEntries must be strictly positive");
+			}
+			this.maxEntries = maxEntries;
+			return this;
+		}
+
+		@Override
+		public Builder metrics(boolean enable) {
+			if (enable && !Metrics.isMicrometerAvailable()) {
+				throw new UnsupportedOperationException(
+						"To enable metrics, you must add the dependency `io.micrometer:micrometer-core`" +
+								" to the class path first");
+			}
+			this.metricsEnabled = enable;
+			return this;
+		}
+
+		@Override
+		public Builder name(String name) {
+			this.name = Objects.requireNonNull(name, "name");
+			return this;
+		}
+
+		@Override
+		public Builder timeToLive(Duration timeToLive) {
+			Objects.requireNonNull(timeToLive, "timeToLive");
+			if (timeToLive.isNegative() || timeToLive.isZero()) {
+				throw new IllegalArgumentException("timeToLive must be strictly positive");
+			}
+			this.timeToLive = timeToLive;
+			return this;
+		}
+	}
+
+	static final class Entries extends LinkedHashMap<String, Entry> {
+
+		final int maxEntries;
+
+		Entries(int maxEntries) {
+			super(16, 0.75f, true);
+			this.maxEntries = maxEntries;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+			return size() > maxEntries;
+		}
+	}
+
+	/**
+	 * The state is guarded by the {@link Entries} monitor.
+	 */
+	static final class Entry {
+		long expiresAt;
+		boolean loaded;
+		List<Promise<SslProvider>> promises = new ArrayList<>(1);
+		SslProvider sslProvider;
+
+		boolean isExpired(long now) {
+			return loaded && now - expiresAt >= 0;
+		}
+	}
+}
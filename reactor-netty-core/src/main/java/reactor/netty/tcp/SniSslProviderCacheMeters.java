@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.tcp;
+
+import io.micrometer.common.docs.KeyName;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.docs.MeterDocumentation;
+
+/**
+ * {@link SniSslProviderCache} meters.
+ *
+ * @since 1.1.3
+ */
+enum SniSslProviderCacheMeters implements MeterDocumentation {
+
+	/**
+	 * The number of the cached {@link SslProvider}s.
+	 */
+	ENTRIES {
+		@Override
+		public String getName() {
+			return "reactor.netty.sni.cache.entries";
+		}
+
+		@Override
+		public KeyName[] getKeyNames() {
+			return SniSslProviderCacheMetersTags.values();
+		}
+
+		@Override
+		public Meter.Type getType() {
+			return Meter.Type.GAUGE;
+		}
+	},
+
+	/**
+	 * Time spent for loading an {@link SslProvider}.
+	 */
+	LOAD_TIME {
+		@Override
+		public String getName() {
+			return "reactor.netty.sni.cache.load.time";
+		}
+
+		@Override
+		public KeyName[] getKeyNames() {
+			return StatusMeterTags.values();
+		}
+
+		@Override
+		public Meter.Type getType() {
+			return Meter.Type.TIMER;
+		}
+	},
+
+	/**
+	 * The number of the lookups of {@link SslProvider} by SNI host name.
+	 */
+	LOOKUPS {
+		@Override
+		public String getName() {
+			return "reactor.netty.sni.cache.lookups";
+		}
+
+		@Override
+		public KeyName[] getKeyNames() {
+			return StatusMeterTags.values();
+		}
+
+		@Override
+		public Meter.Type getType() {
+			return Meter.Type.COUNTER;
+		}
+	};
+
+	enum SniSslProviderCacheMetersTags implements KeyName {
+
+		/**
+		 * NAME.
+		 */
+		NAME {
+			@Override
+			public String asString() {
+				return "name";
+			}
+		}
+	}
+
+	enum StatusMeterTags implements KeyName {
+
+		/**
+		 * NAME.
+		 */
+		NAME {
+			@Override
+			public String asString() {
+				return "name";
+			}
+		},
+
+		/**
+		 * STATUS.
+		 */
+		STATUS {
+			@Override
+			public String asString() {
+				return "status";
+			}
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2017-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package reactor.netty.tcp;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.nio.charset.Charset;
+import java.security.PrivateKey;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
@@ -25,22 +26,30 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import javax.net.ssl.SNIServerName;
 import javax.net.ssl.SSLEngine;
 import javax.net.ssl.SSLException;
 import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSessionContext;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
 import io.netty.channel.ChannelPipeline;
+import io.netty.channel.ChannelPromise;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
 import io.netty.handler.ssl.ApplicationProtocolConfig;
 import io.netty.handler.ssl.ApplicationProtocolNames;
 import io.netty.handler.ssl.IdentityCipherSuiteFilter;
 import io.netty.handler.ssl.OpenSsl;
+import io.netty.handler.ssl.OpenSslAsyncPrivateKeyMethod;
+import io.netty.handler.ssl.OpenSslContextOption;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.SslHandler;
@@ -50,6 +59,7 @@ import io.netty.util.AsyncMapping;
 import reactor.core.Exceptions;
 import reactor.netty.NettyPipeline;
 import reactor.netty.ReactorNetty;
+import reactor.netty.internal.util.Metrics;
 import reactor.netty.transport.logging.AdvancedByteBufFormat;
 import reactor.util.Logger;
 import reactor.util.Loggers;
@@ -216,10 +226,12 @@ public final class SslProvider {
 		 * <p><strong>Note:</strong> This method is an alternative of {@link #addSniMapping(String, Consumer)},
 		 * {@link #addSniMappings(Map)} and {@link #setSniMappings(Map)}.
 		 * <p><strong>Note:</strong> This configuration is applicable only when configuring the server.
+		 * <p>{@link SniSslProviderCache} loads the {@link SslProvider}s lazily and caches them.
 		 *
 		 * @param mappings mappings of domain names to {@link SslProvider}
 		 * @return {@literal this}
 		 * @since 1.0.19
+		 * @see SniSslProviderCache
 		 */
 		Builder setSniAsyncMappings(AsyncMapping<String, SslProvider> mappings);
 
@@ -232,6 +244,77 @@ public final class SslProvider {
 		 */
 		Builder serverNames(SNIServerName... serverNames);
 
+		/**
+		 * Bounds the TLS session cache of the client {@link SslContext}.
+		 * The sessions are cached per SNI host name and port of the remote peer and are resumed
+		 * by the subsequent connections to the same peer instead of performing a full TLS handshake.
+		 * The cache belongs to the {@link SslContext}, it is shared by all clients and connection providers
+		 * configured with this {@link SslProvider}.
+		 * The resumed and the full handshakes are recorded with
+		 * {@link reactor.netty.channel.ChannelMetricsRecorder#recordTlsHandshakeTime(SocketAddress, Duration, String, boolean)}.
+		 * By default, the session cache settings of the {@link SslContext} implementation are used.
+		 * Note: This configuration is applicable only when configuring the client.
+		 *
+		 * @param maxSessions the maximum number of cached sessions
+		 * @param sessionTimeout the time after which a cached session cannot be resumed anymore (resolution: seconds)
+		 * @return {@literal this}
+		 * @since 1.1.3
+		 */
+		Builder sessionCache(int maxSessions, Duration sessionTimeout);
+
+		/**
+		 * Performs the private key operations of the TLS handshakes (signing and, for the RSA key exchange, decryption)
+		 * on the given {@link Executor} instead of the event loop, so that a burst of handshakes does not delay
+		 * the other connections served by the event loop.
+		 * A bounded {@link Executor} is expected, when it rejects an operation, the operation is performed on
+		 * the event loop.
+		 * When {@code metricsEnabled} is {@code true}, the number of the operations waiting for the {@link Executor}
+		 * and the time spent for the operations are registered in Micrometer's
+		 * {@link io.micrometer.core.instrument.Metrics#globalRegistry globalRegistry} under the name
+		 * {@link reactor.netty.Metrics#TLS_PRIVATE_KEY_PREFIX}.
+		 * <p><strong>Note:</strong> This configuration is applicable only when the {@code OpenSSL} provider,
+		 * backed by {@code BoringSSL}, is used and the {@link SslContext} is built by this {@link SslProvider}
+		 * (i.e. it is not provided with {@link SslContextSpec#sslContext(SslContext)}).
+		 * With other providers, the private key operations are performed by the provider.
+		 *
+		 * @param privateKey the private key of the configured key material
+		 * @param executor the {@link Executor} performing the private key operations
+		 * @param metricsEnabled true enables metrics collection; false disables it
+		 * @return {@literal this}
+		 * @since 1.1.3
+		 */
+		Builder offloadPrivateKeyOperations(PrivateKey privateKey, Executor executor, boolean metricsEnabled);
+
+		/**
+		 * Enables or disables the dynamic TLS record sizing with the default threshold ({@code 128KB})
+		 * and idle timeout ({@code 1s}).
+		 *
+		 * @param enable true enables the dynamic TLS record sizing; false disables it
+		 * @return {@literal this}
+		 * @see #dynamicRecordSizing(int, Duration)
+		 * @since 1.1.3
+		 */
+		Builder dynamicRecordSizing(boolean enable);
+
+		/**
+		 * Enables the dynamic TLS record sizing. By default, the data written to the connection is encrypted in
+		 * TLS records of the maximum size ({@code 16KB}), which is optimal for the throughput but a record can be
+		 * decrypted by the remote peer only once it is fully received.
+		 * With the dynamic TLS record sizing, a new connection starts with records that fit into a single TCP segment,
+		 * so that the remote peer can process the first bytes of a response as soon as they are received,
+		 * and uses records of the maximum size once {@code threshold} bytes are written, so that bulk transfers
+		 * are not affected. When nothing is written to the connection for {@code idleTimeout},
+		 * the connection starts with small records again.
+		 * By default, the dynamic TLS record sizing is disabled.
+		 *
+		 * @param threshold the number of bytes written with small records before switching to records of the
+		 * maximum size
+		 * @param idleTimeout the time without writes after which the connection starts with small records again
+		 * @return {@literal this}
+		 * @since 1.1.3
+		 */
+		Builder dynamicRecordSizing(int threshold, Duration idleTimeout);
+
 		/**
 		 * Builds new SslProvider
 		 *
@@ -358,17 +441,24 @@ public final class SslProvider {
 	final SniProvider                  sniProvider;
 	final Map<String, SslProvider>     confPerDomainName;
 	final AsyncMapping<String, SslProvider> sniMappings;
+	final int                          sessionCacheSize;
+	final Duration                     sessionTimeout;
+	final int                          dynamicRecordSizeThreshold;
+	final long                         dynamicRecordSizeIdleTimeoutNanos;
 
 	SslProvider(SslProvider.Build builder) {
 		this.sslContextBuilder = builder.sslCtxBuilder;
 		this.type = builder.type;
 		if (builder.sslContext == null) {
+			// The private key methods are supported only by BoringSSL, the other providers ignore this option
+			OpenSslAsyncPrivateKeyMethod privateKeyMethod = builder.privateKey == null || !BORING_SSL ? null :
+					new OffloadingPrivateKeyMethod(builder.privateKey, builder.privateKeyExecutor, builder.privateKeyMetricsEnabled);
 			if (sslContextBuilder != null) {
 				if (type != null) {
 					updateDefaultConfiguration();
 				}
 				try {
-					this.sslContext = sslContextBuilder.build();
+					this.sslContext = sslContext(sslContextBuilder, privateKeyMethod);
 				}
 				catch (SSLException e) {
 					throw Exceptions.propagate(e);
@@ -376,7 +466,7 @@ public final class SslProvider {
 			}
 			else if (builder.protocolSslContextSpec != null) {
 				try {
-					this.sslContext = builder.protocolSslContextSpec.sslContext();
+					this.sslContext = sslContext(builder.protocolSslContextSpec, privateKeyMethod);
 				}
 				catch (SSLException e) {
 					throw Exceptions.propagate(e);
@@ -387,8 +477,17 @@ public final class SslProvider {
 			}
 		}
 		else {
+			if (builder.privateKey != null) {
+				throw new IllegalArgumentException("Private key operations cannot be offloaded when the SslContext is provided," +
+						" configure the SslContext with ProtocolSslContextSpec instead");
+			}
 			this.sslContext = builder.sslContext;
 		}
+		this.sessionCacheSize = builder.sessionCacheSize;
+		this.sessionTimeout = builder.sessionTimeout;
+		this.dynamicRecordSizeThreshold = builder.dynamicRecordSizeThreshold;
+		this.dynamicRecordSizeIdleTimeoutNanos = builder.dynamicRecordSizeIdleTimeout.toNanos();
+		configureSessionCache();
 		if (builder.serverNames != null) {
 			Consumer<SslHandler> configurator =
 					h -> {
@@ -427,6 +526,10 @@ public final class SslProvider {
 
 	SslProvider(SslProvider from, Consumer<? super SslHandler> handlerConfigurator) {
 		this.sslContext = from.sslContext;
+		this.sessionCacheSize = from.sessionCacheSize;
+		this.sessionTimeout = from.sessionTimeout;
+		this.dynamicRecordSizeThreshold = from.dynamicRecordSizeThreshold;
+		this.dynamicRecordSizeIdleTimeoutNanos = from.dynamicRecordSizeIdleTimeoutNanos;
 		this.sslContextBuilder = from.sslContextBuilder;
 		this.type = from.type;
 		if (from.handlerConfigurator == null) {
@@ -462,6 +565,11 @@ public final class SslProvider {
 		else {
 			this.sslContext = from.sslContext;
 		}
+		this.sessionCacheSize = from.sessionCacheSize;
+		this.sessionTimeout = from.sessionTimeout;
+		this.dynamicRecordSizeThreshold = from.dynamicRecordSizeThreshold;
+		this.dynamicRecordSizeIdleTimeoutNanos = from.dynamicRecordSizeIdleTimeoutNanos;
+		configureSessionCache();
 		this.handlerConfigurator = from.handlerConfigurator;
 		this.handshakeTimeoutMillis = from.handshakeTimeoutMillis;
 		this.closeNotifyFlushTimeoutMillis = from.closeNotifyFlushTimeoutMillis;
@@ -490,6 +598,16 @@ public final class SslProvider {
 		return new SniProvider(config, defaultSslProvider);
 	}
 
+	void configureSessionCache() {
+		if (sessionCacheSize > 0 && sslContext.isClient()) {
+			SSLSessionContext sessionContext = sslContext.sessionContext();
+			if (sessionContext != null) {
+				sessionContext.setSessionCacheSize(sessionCacheSize);
+				sessionContext.setSessionTimeout((int) Math.min(Integer.MAX_VALUE, sessionTimeout.getSeconds()));
+			}
+		}
+	}
+
 	void updateDefaultConfiguration() {
 		switch (type) {
 			case H2:
@@ -551,6 +669,7 @@ public final class SslProvider {
 		Objects.requireNonNull(channel, "channel");
 		if (sniProvider != null) {
 			sniProvider.addSniHandler(channel, sslDebug);
+			addDynamicRecordSizeHandler(channel.pipeline(), null);
 			return;
 		}
 
@@ -586,6 +705,7 @@ public final class SslProvider {
 			pipeline.addFirst(NettyPipeline.SslHandler, sslHandler);
 		}
 
+		addDynamicRecordSizeHandler(pipeline, sslHandler);
 		addSslReadHandler(pipeline, sslDebug);
 	}
 
@@ -596,6 +716,9 @@ public final class SslProvider {
 				", handshakeTimeoutMillis=" + handshakeTimeoutMillis +
 				", closeNotifyFlushTimeoutMillis=" + closeNotifyFlushTimeoutMillis +
 				", closeNotifyReadTimeoutMillis=" + closeNotifyReadTimeoutMillis +
+				", sessionCacheSize=" + sessionCacheSize +
+				", sessionTimeout=" + sessionTimeout +
+				", dynamicRecordSizeThreshold=" + dynamicRecordSizeThreshold +
 				'}';
 	}
 
@@ -616,6 +739,17 @@ public final class SslProvider {
 		return Objects.hash(builderHashCode);
 	}
 
+	void addDynamicRecordSizeHandler(ChannelPipeline pipeline, @Nullable SslHandler sslHandler) {
+		if (dynamicRecordSizeThreshold > 0) {
+			// When SNI is configured, the SslHandler is added once the SNI host name is received
+			String name = pipeline.get(NettyPipeline.SslHandler) != null ? NettyPipeline.SslHandler : null;
+			if (name != null) {
+				pipeline.addAfter(name, NettyPipeline.SslRecordSizer,
+						new DynamicRecordSizeHandler(sslHandler, dynamicRecordSizeThreshold, dynamicRecordSizeIdleTimeoutNanos));
+			}
+		}
+	}
+
 	static void addSslReadHandler(ChannelPipeline pipeline, boolean sslDebug) {
 		if (pipeline.get(NettyPipeline.LoggingHandler) != null) {
 			pipeline.addAfter(NettyPipeline.LoggingHandler, NettyPipeline.SslReader, new SslReadHandler());
@@ -638,6 +772,10 @@ public final class SslProvider {
 						ReactorNetty.SSL_HANDSHAKE_TIMEOUT,
 						"10000"));
 
+		static final int DEFAULT_DYNAMIC_RECORD_SIZE_THRESHOLD = 128 * 1024;
+
+		static final Duration DEFAULT_DYNAMIC_RECORD_SIZE_IDLE_TIMEOUT = Duration.ofSeconds(1);
+
 		SslContextBuilder sslCtxBuilder;
 		ProtocolSslContextSpec protocolSslContextSpec;
 		DefaultConfigurationType type;
@@ -649,6 +787,13 @@ public final class SslProvider {
 		List<SNIServerName> serverNames;
 		final Map<String, SslProvider> confPerDomainName = new HashMap<>();
 		AsyncMapping<String, SslProvider> sniMappings;
+		int sessionCacheSize;
+		Duration sessionTimeout;
+		int dynamicRecordSizeThreshold;
+		Duration dynamicRecordSizeIdleTimeout = DEFAULT_DYNAMIC_RECORD_SIZE_IDLE_TIMEOUT;
+		PrivateKey privateKey;
+		Executor privateKeyExecutor;
+		boolean privateKeyMetricsEnabled;
 
 		// SslContextSpec
 
@@ -775,6 +920,53 @@ public final class SslProvider {
 			return this;
 		}
 
+		@Override
+		public Builder sessionCache(int maxSessions, Duration sessionTimeout) {
+			if (maxSessions < 1) {
+				throw new IllegalArgumentException("maxSessions must be positive, was: " + maxSessions);
+			}
+			Objects.requireNonNull(sessionTimeout, "sessionTimeout");
+			if (sessionTimeout.getSeconds() < 1) {
+				throw new IllegalArgumentException("sessionTimeout must be at least one second, was: " + sessionTimeout);
+			}
+			this.sessionCacheSize = maxSessions;
+			this.sessionTimeout = sessionTimeout;
+			return this;
+		}
+
+		@Override
+		public Builder dynamicRecordSizing(boolean enable) {
+			return enable ? dynamicRecordSizing(DEFAULT_DYNAMIC_RECORD_SIZE_THRESHOLD, DEFAULT_DYNAMIC_RECORD_SIZE_IDLE_TIMEOUT) :
+					dynamicRecordSizing(0, DEFAULT_DYNAMIC_RECORD_SIZE_IDLE_TIMEOUT);
+		}
+
+		@Override
+		public Builder dynamicRecordSizing(int threshold, Duration idleTimeout) {
+			if (threshold < 0) {
+				throw new IllegalArgumentException("threshold must be positive, was: " + threshold);
+			}
+			Objects.requireNonNull(idleTimeout, "idleTimeout");
+			if (idleTimeout.isNegative() || idleTimeout.isZero()) {
+				throw new IllegalArgumentException("idleTimeout must be strictly positive, was: " + idleTimeout);
+			}
+			this.dynamicRecordSizeThreshold = threshold;
+			this.dynamicRecordSizeIdleTimeout = idleTimeout;
+			return this;
+		}
+
+		@Override
+		public Builder offloadPrivateKeyOperations(PrivateKey privateKey, Executor executor, boolean metricsEnabled) {
+			if (metricsEnabled && !Metrics.isMicrometerAvailable()) {
+				throw new UnsupportedOperationException(
+						"To enable metrics, you must add the dependency `io.micrometer:micrometer-core`" +
+								" to the class path first");
+			}
+			this.privateKey = Objects.requireNonNull(privateKey, "privateKey");
+			this.privateKeyExecutor = Objects.requireNonNull(executor, "executor");
+			this.privateKeyMetricsEnabled = metricsEnabled;
+			return this;
+		}
+
 		@Override
 		public SslProvider build() {
 			return new SslProvider(this);
@@ -798,14 +990,23 @@ public final class SslProvider {
 					Objects.equals(handlerConfigurator, build.handlerConfigurator) &&
 					Objects.equals(serverNames, build.serverNames) &&
 					confPerDomainName.equals(build.confPerDomainName) &&
-					Objects.equals(protocolSslContextSpec, build.protocolSslContextSpec);
+					Objects.equals(protocolSslContextSpec, build.protocolSslContextSpec) &&
+					sessionCacheSize == build.sessionCacheSize &&
+					Objects.equals(sessionTimeout, build.sessionTimeout) &&
+					dynamicRecordSizeThreshold == build.dynamicRecordSizeThreshold &&
+					dynamicRecordSizeIdleTimeout.equals(build.dynamicRecordSizeIdleTimeout) &&
+					Objects.equals(privateKey, build.privateKey) &&
+					Objects.equals(privateKeyExecutor, build.privateKeyExecutor) &&
+					privateKeyMetricsEnabled == build.privateKeyMetricsEnabled;
 		}
 
 		@Override
 		public int hashCode() {
 			return Objects.hash(sslCtxBuilder, type, sslContext, handlerConfigurator,
 					handshakeTimeoutMillis, closeNotifyFlushTimeoutMillis, closeNotifyReadTimeoutMillis,
-					serverNames, confPerDomainName, protocolSslContextSpec);
+					serverNames, confPerDomainName, protocolSslContextSpec, sessionCacheSize, sessionTimeout,
+					dynamicRecordSizeThreshold, dynamicRecordSizeIdleTimeout, privateKey, privateKeyExecutor,
+					privateKeyMetricsEnabled);
 		}
 
 		void addInternal(String domainName, Consumer<? super SslProvider.SslContextSpec> sslProviderBuilder) {
@@ -817,6 +1018,74 @@ public final class SslProvider {
 		}
 	}
 
+	/**
+	 * Encrypts the data written to a new or idle connection in TLS records that fit into a single TCP segment,
+	 * and in TLS records of the maximum size once the configured threshold is written.
+	 */
+	static final class DynamicRecordSizeHandler extends ChannelOutboundHandlerAdapter {
+
+		/**
+		 * The plaintext of a TLS record of this size fits into a single TCP segment with a 1500 bytes MTU,
+		 * taking into account the IP, TCP (including the options) and TLS overhead.
+		 */
+		static final int MIN_RECORD_SIZE = 1369;
+
+		/**
+		 * The maximum plaintext of a TLS record.
+		 */
+		static final int MAX_RECORD_SIZE = 16 * 1024;
+
+		final long idleTimeoutNanos;
+		final int threshold;
+
+		long bytesWritten;
+		long lastWriteNanos;
+		boolean maxRecordSize;
+		SslHandler sslHandler;
+
+		DynamicRecordSizeHandler(@Nullable SslHandler sslHandler, int threshold, long idleTimeoutNanos) {
+			this.idleTimeoutNanos = idleTimeoutNanos;
+			this.sslHandler = sslHandler;
+			this.threshold = threshold;
+			if (sslHandler != null) {
+				sslHandler.setWrapDataSize(MIN_RECORD_SIZE);
+			}
+		}
+
+		@Override
+		public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+			SslHandler sslHandler = this.sslHandler;
+			if (sslHandler == null) {
+				sslHandler = this.sslHandler = ctx.pipeline().get(SslHandler.class);
+				if (sslHandler != null) {
+					sslHandler.setWrapDataSize(MIN_RECORD_SIZE);
+				}
+			}
+			if (sslHandler != null) {
+				long now = System.nanoTime();
+				if (maxRecordSize && now - lastWriteNanos >= idleTimeoutNanos) {
+					sslHandler.setWrapDataSize(MIN_RECORD_SIZE);
+					maxRecordSize = false;
+					bytesWritten = 0;
+				}
+				lastWriteNanos = now;
+				if (!maxRecordSize) {
+					if (msg instanceof ByteBuf) {
+						bytesWritten += ((ByteBuf) msg).readableBytes();
+					}
+					else if (msg instanceof ByteBufHolder) {
+						bytesWritten += ((ByteBufHolder) msg).content().readableBytes();
+					}
+					if (bytesWritten >= threshold) {
+						sslHandler.setWrapDataSize(MAX_RECORD_SIZE);
+						maxRecordSize = true;
+					}
+				}
+			}
+			ctx.write(msg, promise);
+		}
+	}
+
 	static final class SslReadHandler extends ChannelInboundHandlerAdapter {
 		boolean handshakeDone;
 
@@ -856,6 +1125,60 @@ public final class SslProvider {
 
 	static final Logger log = Loggers.getLogger(SslProvider.class);
 
+	/**
+	 * Builds the {@link SslContext} with the private key method, which is not left on the provided builder.
+	 * {@link SslContextBuilder} cannot be copied, the option is set only while the {@link SslContext} is built.
+	 *
+	 * @param builder the builder provided with {@link SslContextSpec#sslContext(SslContextBuilder)}
+	 * @param privateKeyMethod the private key method or null
+	 * @return the {@link SslContext}
+	 * @throws SSLException when the {@link SslContext} cannot be built
+	 */
+	static SslContext sslContext(SslContextBuilder builder, @Nullable OpenSslAsyncPrivateKeyMethod privateKeyMethod)
+			throws SSLException {
+		if (privateKeyMethod == null) {
+			return builder.build();
+		}
+		synchronized (builder) {
+			builder.option(OpenSslContextOption.ASYNC_PRIVATE_KEY_METHOD, privateKeyMethod);
+			try {
+				return builder.build();
+			}
+			finally {
+				builder.option(OpenSslContextOption.ASYNC_PRIVATE_KEY_METHOD, null);
+			}
+		}
+	}
+
+	/**
+	 * Builds the {@link SslContext} with the private key method, which is not left on the provided spec.
+	 *
+	 * @param spec the spec provided with {@link SslContextSpec#sslContext(ProtocolSslContextSpec)}
+	 * @param privateKeyMethod the private key method or null
+	 * @return the {@link SslContext}
+	 * @throws SSLException when the {@link SslContext} cannot be built
+	 */
+	static SslContext sslContext(ProtocolSslContextSpec spec, @Nullable OpenSslAsyncPrivateKeyMethod privateKeyMethod)
+			throws SSLException {
+		if (privateKeyMethod == null) {
+			return spec.sslContext();
+		}
+		if (spec instanceof AbstractProtocolSslContextSpec) {
+			return sslContext(((AbstractProtocolSslContextSpec<?>) spec).sslContextBuilder, privateKeyMethod);
+		}
+		synchronized (spec) {
+			spec.configure(b -> b.option(OpenSslContextOption.ASYNC_PRIVATE_KEY_METHOD, privateKeyMethod));
+			try {
+				return spec.sslContext();
+			}
+			finally {
+				spec.configure(b -> b.option(OpenSslContextOption.ASYNC_PRIVATE_KEY_METHOD, null));
+			}
+		}
+	}
+
+	static final boolean BORING_SSL = "BoringSSL".equals(OpenSsl.versionString());
+
 	static final LoggingHandler LOGGING_HANDLER =
 			AdvancedByteBufFormat.HEX_DUMP
 					.toLoggingHandler("reactor.netty.tcp.ssl", LogLevel.DEBUG, Charset.defaultCharset());
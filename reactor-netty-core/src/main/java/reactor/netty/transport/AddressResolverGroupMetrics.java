@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2019-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -58,6 +58,10 @@ class AddressResolverGroupMetrics<T extends SocketAddress> extends AddressResolv
 	AddressResolverGroupMetrics(AddressResolverGroup<T> resolverGroup, ChannelMetricsRecorder recorder) {
 		this.resolverGroup = resolverGroup;
 		this.recorder = recorder;
+		RefreshingDnsCache dnsCache = RefreshingDnsCache.of(resolverGroup);
+		if (dnsCache != null) {
+			dnsCache.addRecorder(recorder);
+		}
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020-2021 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2020-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,6 +28,7 @@ import io.netty.resolver.NoopAddressResolverGroup;
 import reactor.core.publisher.Mono;
 import reactor.netty.Connection;
 import reactor.netty.ConnectionObserver;
+import reactor.netty.resources.ConnectionProvider;
 import reactor.netty.resources.LoopResources;
 
 /**
@@ -192,6 +193,58 @@ public abstract class ClientTransport<T extends ClientTransport<T, CONF>,
 		return dup;
 	}
 
+	/**
+	 * Enable or disable racing the addresses resolved for the remote address as described in
+	 * <a href="https://datatracker.ietf.org/doc/html/rfc8305">RFC 8305 (Happy Eyeballs Version 2)</a>,
+	 * with a delay of {@code 250ms} between the connection attempts.
+	 * By default the resolved addresses are tried one after another.
+	 *
+	 * @param enable true to race the resolved addresses
+	 * @return a new {@link ClientTransport} reference
+	 * @see #happyEyeballs(Duration)
+	 * @since 1.1.3
+	 */
+	public final T happyEyeballs(boolean enable) {
+		if (enable) {
+			T dup = duplicate();
+			dup.configuration().connectionAttemptDelay = DEFAULT_CONNECTION_ATTEMPT_DELAY;
+			return dup;
+		}
+		else if (configuration().connectionAttemptDelay != null) {
+			T dup = duplicate();
+			dup.configuration().connectionAttemptDelay = null;
+			return dup;
+		}
+		else {
+			@SuppressWarnings("unchecked")
+			T dup = (T) this;
+			return dup;
+		}
+	}
+
+	/**
+	 * Race the addresses resolved for the remote address as described in
+	 * <a href="https://datatracker.ietf.org/doc/html/rfc8305">RFC 8305 (Happy Eyeballs Version 2)</a>.
+	 * The resolved addresses are interleaved by address family, starting with the family of the first one,
+	 * and a new connection attempt is started when the previous one fails or when it did not complete
+	 * within {@code connectionAttemptDelay}. The first connection that is established wins,
+	 * the other connection attempts are cancelled.
+	 * This applies only when the remote address resolves to several addresses.
+	 *
+	 * @param connectionAttemptDelay the delay between the connection attempts
+	 * @return a new {@link ClientTransport} reference
+	 * @since 1.1.3
+	 */
+	public final T happyEyeballs(Duration connectionAttemptDelay) {
+		Objects.requireNonNull(connectionAttemptDelay, "connectionAttemptDelay");
+		if (connectionAttemptDelay.isNegative()) {
+			throw new IllegalArgumentException("connectionAttemptDelay must be positive");
+		}
+		T dup = duplicate();
+		dup.configuration().connectionAttemptDelay = connectionAttemptDelay;
+		return dup;
+	}
+
 	/**
 	 * The host to which this client should connect.
 	 *
@@ -361,6 +414,8 @@ public abstract class ClientTransport<T extends ClientTransport<T, CONF>,
 	 *     <li>an initialization of the event loop group</li>
 	 *     <li>an initialization of the host name resolver</li>
 	 *     <li>loads the necessary native libraries for the transport</li>
+	 *     <li>an establishment of the minimum idle connections of the remote hosts configured with
+	 *     {@link ConnectionProvider.ConnectionPoolSpec#minIdleConnections(int)}</li>
 	 * </ul>
 	 * By default, when method is not used, the {@code connect operation} absorbs the extra time needed to initialize and
 	 * load the resources.
@@ -369,11 +424,16 @@ public abstract class ClientTransport<T extends ClientTransport<T, CONF>,
 	 * @since 1.0.3
 	 */
 	public Mono<Void> warmup() {
-		return Mono.fromRunnable(() -> {
+		return Mono.<Void>fromRunnable(() -> {
 			configuration().eventLoopGroup();
 
 			// By default, the host name resolver uses the event loop group configured on client level
 			configuration().resolverInternal();
-		});
+		}).then(Mono.defer(() -> {
+			CONF config = configuration();
+			return config.connectionProvider().warmup(config, config.resolverInternal());
+		}));
 	}
+
+	static final Duration DEFAULT_CONNECTION_ATTEMPT_DELAY = Duration.ofMillis(250);
 }
\ No newline at end of file
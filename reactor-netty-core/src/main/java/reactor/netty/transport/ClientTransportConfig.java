@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2020-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 package reactor.netty.transport;
 
 import java.net.SocketAddress;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
@@ -65,6 +66,18 @@ public abstract class ClientTransportConfig<CONF extends TransportConfig> extend
 		return connectionProvider;
 	}
 
+	/**
+	 * Return the delay between the connection attempts when racing the resolved addresses
+	 * or null if the resolved addresses are tried one after another
+	 *
+	 * @return the delay between the connection attempts or null
+	 * @since 1.1.3
+	 */
+	@Nullable
+	public final Duration connectionAttemptDelay() {
+		return connectionAttemptDelay;
+	}
+
 	/**
 	 * Return the configured callback or null
 	 *
@@ -149,6 +162,7 @@ public abstract class ClientTransportConfig<CONF extends TransportConfig> extend
 
 	final ConnectionProvider connectionProvider;
 
+	Duration                                 connectionAttemptDelay;
 	Consumer<? super CONF>                   doOnConnect;
 	Consumer<? super Connection>             doOnConnected;
 	Consumer<? super Connection>             doOnDisconnected;
@@ -170,6 +184,7 @@ public abstract class ClientTransportConfig<CONF extends TransportConfig> extend
 	protected ClientTransportConfig(ClientTransportConfig<CONF> parent) {
 		super(parent);
 		this.connectionProvider = parent.connectionProvider;
+		this.connectionAttemptDelay = parent.connectionAttemptDelay;
 		this.doOnConnect = parent.doOnConnect;
 		this.doOnConnected = parent.doOnConnected;
 		this.doOnDisconnected = parent.doOnDisconnected;
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2022-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -45,6 +45,66 @@ enum EventLoopMeters implements MeterDocumentation {
 		public Meter.Type getType() {
 			return Meter.Type.GAUGE;
 		}
+	},
+
+	/**
+	 * Time that a probe task waits on the event loop, from its submission until it starts.
+	 */
+	TASK_WAIT_TIME {
+		@Override
+		public String getName() {
+			return "reactor.netty.eventloop.task.wait.time";
+		}
+
+		@Override
+		public KeyName[] getKeyNames() {
+			return EventLoopMetersTags.values();
+		}
+
+		@Override
+		public Meter.Type getType() {
+			return Meter.Type.TIMER;
+		}
+	},
+
+	/**
+	 * The ratio of the CPU time of the event loop thread to the elapsed time between two probes.
+	 */
+	BUSY_RATIO {
+		@Override
+		public String getName() {
+			return "reactor.netty.eventloop.busy.ratio";
+		}
+
+		@Override
+		public KeyName[] getKeyNames() {
+			return EventLoopMetersTags.values();
+		}
+
+		@Override
+		public Meter.Type getType() {
+			return Meter.Type.GAUGE;
+		}
+	},
+
+	/**
+	 * Time that the event loop is unable to run a probe task, recorded when longer than the stall threshold.
+	 */
+	STALL_TIME {
+		@Override
+		public String getName() {
+			return "reactor.netty.eventloop.stall.time";
+		}
+
+		@Override
+		public KeyName[] getKeyNames() {
+			return EventLoopMetersTags.values();
+		}
+
+		@Override
+		public Meter.Type getType() {
+			return Meter.Type.TIMER;
+		}
 	};
 
 	enum EventLoopMetersTags implements KeyName {
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.transport;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import reactor.netty.ReactorNetty;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import reactor.util.annotation.Nullable;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static reactor.netty.Metrics.REGISTRY;
+import static reactor.netty.transport.EventLoopMeters.BUSY_RATIO;
+import static reactor.netty.transport.EventLoopMeters.EventLoopMetersTags.NAME;
+import static reactor.netty.transport.EventLoopMeters.STALL_TIME;
+import static reactor.netty.transport.EventLoopMeters.TASK_WAIT_TIME;
+
+/**
+ * Probes an event loop by submitting a task to it every {@link #PROBE_INTERVAL} milliseconds.
+ * <ul>
+ *     <li>The time from the submission of the probe until it starts is recorded as the task wait time.</li>
+ *     <li>When this time is longer than {@link #STALL_THRESHOLD}, the event loop was blocked either by a task
+ *     or by the processing of I/O and the time is also recorded as a stall. When enabled, the stack of the
+ *     event loop thread is sampled and logged once while the probe is overdue.</li>
+ *     <li>The ratio of the CPU time of the event loop thread to the elapsed time since the previous probe
+ *     is published as the busy ratio, the event loop thread does not use CPU while it waits for I/O.</li>
+ * </ul>
+ * A single daemon thread submits the probes of all event loops, only one probe per event loop is pending at a time.
+ *
+ * @since 1.1.3
+ */
+final class EventLoopProbe implements Runnable {
+
+	static final Logger log = Loggers.getLogger(EventLoopProbe.class);
+
+	/**
+	 * The interval in milliseconds at which the probe is submitted, {@code 0} when the event loops are not probed.
+	 */
+	static final long PROBE_INTERVAL =
+			Long.parseLong(System.getProperty(ReactorNetty.EVENT_LOOP_PROBE_INTERVAL, "0"));
+
+	/**
+	 * The time in nanoseconds after which an event loop that has not run the probe is considered stalled.
+	 */
+	static final long STALL_THRESHOLD =
+			TimeUnit.MILLISECONDS.toNanos(Long.parseLong(System.getProperty(ReactorNetty.EVENT_LOOP_STALL_THRESHOLD, "100")));
+
+	static final boolean STALL_STACK_SAMPLING =
+			Boolean.parseBoolean(System.getProperty(ReactorNetty.EVENT_LOOP_STALL_STACK_SAMPLING, "false"));
+
+	static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+	static final boolean CPU_TIME_SUPPORTED = THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported();
+
+	/**
+	 * Returns {@code true} when the event loops are probed.
+	 *
+	 * @return {@code true} when the event loops are probed
+	 */
+	static boolean isEnabled() {
+		return PROBE_INTERVAL > 0;
+	}
+
+	/**
+	 * Registers the meters of the event loop and starts probing it. When invoked on the event loop,
+	 * its thread is known for sampling the stack before the first probe has run.
+	 *
+	 * @param executor the event loop
+	 * @param name the name of the event loop thread
+	 */
+	static void start(SingleThreadEventExecutor executor, String name) {
+		EventLoopProbe probe = new EventLoopProbe(executor, name);
+		if (executor.inEventLoop()) {
+			probe.thread = Thread.currentThread();
+		}
+		if (CPU_TIME_SUPPORTED) {
+			Gauge.builder(BUSY_RATIO.getName(), probe, p -> p.busyRatio)
+			     .tag(NAME.asString(), name)
+			     .register(REGISTRY);
+		}
+		probe.future = Watchdog.INSTANCE.scheduleAtFixedRate(probe::submit, PROBE_INTERVAL, PROBE_INTERVAL, TimeUnit.MILLISECONDS);
+	}
+
+	final SingleThreadEventExecutor executor;
+	final String name;
+	final Timer taskWaitTime;
+	final Timer stallTime;
+
+	// Written by the watchdog before the submission of the probe, read by the event loop
+	volatile long submitted;
+	volatile boolean pending;
+	// Accessed only by the watchdog
+	boolean sampled;
+
+	volatile ScheduledFuture<?> future;
+
+	// Written by the event loop
+	volatile double busyRatio = Double.NaN;
+	volatile Thread thread;
+	// Accessed only by the event loop
+	long lastCpuTime;
+	long lastTime;
+
+	EventLoopProbe(SingleThreadEventExecutor executor, String name) {
+		this.executor = executor;
+		this.name = name;
+		this.taskWaitTime = Timer.builder(TASK_WAIT_TIME.getName())
+		                         .tag(NAME.asString(), name)
+		                         .register(REGISTRY);
+		this.stallTime = Timer.builder(STALL_TIME.getName())
+		                      .tag(NAME.asString(), name)
+		                      .register(REGISTRY);
+	}
+
+	/**
+	 * Submits the probe unless the previous one is still pending, in which case the stack of the event loop thread
+	 * is sampled once when the event loop is stalled. Invoked by the watchdog.
+	 */
+	void submit() {
+		if (executor.isShuttingDown()) {
+			cancel();
+			return;
+		}
+
+		long now = System.nanoTime();
+		if (pending) {
+			if (STALL_STACK_SAMPLING && !sampled && now - submitted > STALL_THRESHOLD) {
+				sampled = true;
+				logStack(thread, TimeUnit.NANOSECONDS.toMillis(now - submitted));
+			}
+			return;
+		}
+
+		submitted = now;
+		sampled = false;
+		pending = true;
+		try {
+			executor.execute(this);
+		}
+		catch (RejectedExecutionException e) {
+			cancel();
+		}
+	}
+
+	void cancel() {
+		ScheduledFuture<?> future = this.future;
+		if (future != null) {
+			future.cancel(false);
+		}
+	}
+
+	@Override
+	public void run() {
+		long now = System.nanoTime();
+		long waitTime = now - submitted;
+		try {
+			taskWaitTime.record(waitTime, TimeUnit.NANOSECONDS);
+			if (waitTime > STALL_THRESHOLD) {
+				stallTime.record(waitTime, TimeUnit.NANOSECONDS);
+			}
+
+			if (CPU_TIME_SUPPORTED) {
+				long cpuTime = THREAD_MX_BEAN.getCurrentThreadCpuTime();
+				if (lastTime != 0 && cpuTime != -1 && now > lastTime) {
+					busyRatio = Math.min(1d, (double) (cpuTime - lastCpuTime) / (now - lastTime));
+				}
+				lastCpuTime = cpuTime;
+				lastTime = now;
+			}
+		}
+		catch (RuntimeException e) {
+			if (log.isWarnEnabled()) {
+				log.warn("Exception caught while recording metrics.", e);
+			}
+		}
+		finally {
+			if (thread == null) {
+				thread = Thread.currentThread();
+			}
+			pending = false;
+		}
+	}
+
+	void logStack(@Nullable Thread thread, long stalledMillis) {
+		if (thread == null || !log.isWarnEnabled()) {
+			return;
+		}
+
+		StringBuilder stack = new StringBuilder();
+		for (StackTraceElement element : thread.getStackTrace()) {
+			stack.append("\n\tat ").append(element);
+		}
+		log.warn("Event loop {} has not run a task for {} ms, sampled stack:{}", name, stalledMillis, stack);
+	}
+
+	static final class Watchdog {
+
+		static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "reactor-netty-eventloop-probe");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2021-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -29,9 +29,10 @@ import static reactor.netty.transport.EventLoopMeters.EventLoopMetersTags.NAME;
 import static reactor.netty.Metrics.REGISTRY;
 
 /**
- * Registers gauges for a given {@link EventLoop}.
+ * Registers gauges for a given {@link EventLoop}, and when {@link EventLoopProbe} is enabled,
+ * the meters of the task wait time, the busy ratio and the stalls.
  *
- * Every gauge uses thread name as tag.
+ * Every meter uses thread name as tag.
  *
  * @author Pierre De Rop
  * @author Violeta Georgieva
@@ -53,6 +54,9 @@ final class MicrometerEventLoopMeterRegistrar {
 				Gauge.builder(PENDING_TASKS.getName(), singleThreadEventExecutor::pendingTasks)
 				     .tag(NAME.asString(), executorName)
 				     .register(REGISTRY);
+				if (EventLoopProbe.isEnabled()) {
+					EventLoopProbe.start(singleThreadEventExecutor, executorName);
+				}
 				return eventLoop;
 			});
 		}
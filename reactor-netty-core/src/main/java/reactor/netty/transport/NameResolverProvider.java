@@ -15,6 +15,7 @@
  */
 package reactor.netty.transport;
 
+import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.socket.DatagramChannel;
 import io.netty.channel.socket.SocketChannel;
@@ -24,6 +25,7 @@ import io.netty.resolver.DefaultHostsFileEntriesResolver;
 import io.netty.resolver.HostsFileEntriesResolver;
 import io.netty.resolver.ResolvedAddressTypes;
 import io.netty.resolver.dns.DnsAddressResolverGroup;
+import io.netty.resolver.dns.DefaultDnsCnameCache;
 import io.netty.resolver.dns.DnsCache;
 import io.netty.resolver.dns.DnsNameResolver;
 import io.netty.resolver.dns.DnsNameResolverBuilder;
@@ -163,6 +165,22 @@ public final class NameResolverProvider {
 		 */
 		NameResolverSpec ndots(int ndots);
 
+		/**
+		 * Refreshes in the background the cached entries that are looked up after the given fraction
+		 * of their time to live has elapsed, so that the frequently used entries do not expire.
+		 * For example with {@code 0.8}, an entry with a time to live of 60 seconds is refreshed
+		 * when it is looked up after 48 seconds. The entry is served while the refresh is in progress.
+		 * Default to {@code 0} which disables the prefetching.
+		 * <p>Not applicable when a custom {@link #resolveCache(DnsCache)} is configured.
+		 *
+		 * @param ratio the fraction of the time to live after which a looked up entry is refreshed,
+		 * {@code 0} to disable the prefetching
+		 * @return {@code this}
+		 * @throws IllegalArgumentException if {@code ratio} is not between 0 (inclusive) and 1 (exclusive)
+		 * @since 1.1.3
+		 */
+		NameResolverSpec prefetch(double ratio);
+
 		/**
 		 * Sets the timeout of each DNS query performed by this resolver (resolution: milliseconds).
 		 * Default to {@link Build#DEFAULT_QUERY_TIMEOUT}.
@@ -248,6 +266,22 @@ public final class NameResolverProvider {
 		 */
 		NameResolverSpec searchDomains(List<String> searchDomains);
 
+		/**
+		 * Keeps serving the expired entries of the cache for up to the given duration after their time to live.
+		 * When an expired entry is looked up, it is returned immediately and it is refreshed in the background.
+		 * The entry is replaced once the refresh completes successfully, when the refresh fails,
+		 * the expired entry is served until the end of the given duration.
+		 * The failures cached for {@link #cacheNegativeTimeToLive(Duration)} are never served expired.
+		 * Default to {@link Duration#ZERO} which disables serving the expired entries.
+		 * <p>Not applicable when a custom {@link #resolveCache(DnsCache)} is configured.
+		 *
+		 * @param serveStale for how long the expired entries are served (resolution: seconds)
+		 * @return {@code this}
+		 * @throws IllegalArgumentException if {@code serveStale} is negative
+		 * @since 1.1.3
+		 */
+		NameResolverSpec serveStale(Duration serveStale);
+
 		/**
 		 * Sets a specific category and log level to be used by this resolver when generating a detailed trace
 		 * information in case of resolution failure.
@@ -390,6 +424,17 @@ public final class NameResolverProvider {
 		return ndots;
 	}
 
+	/**
+	 * Returns the configured fraction of the time to live after which a looked up cached entry is refreshed,
+	 * {@code 0} when the prefetching is disabled.
+	 *
+	 * @return the configured fraction of the time to live after which a looked up cached entry is refreshed
+	 * @since 1.1.3
+	 */
+	public double prefetch() {
+		return prefetch;
+	}
+
 	/**
 	 * Returns the configured timeout of each DNS query performed by this resolver.
 	 *
@@ -420,6 +465,17 @@ public final class NameResolverProvider {
 		return resolveCache;
 	}
 
+	/**
+	 * Returns the configured duration for which the expired cached entries are served,
+	 * {@link Duration#ZERO} when serving the expired entries is disabled.
+	 *
+	 * @return the configured duration for which the expired cached entries are served
+	 * @since 1.1.3
+	 */
+	public Duration serveStale() {
+		return serveStale;
+	}
+
 	/**
 	 * Returns the configured supplier of local address to bind to or null.
 	 *
@@ -459,6 +515,7 @@ public final class NameResolverProvider {
 				ndots == that.ndots &&
 				preferNative == that.preferNative &&
 				roundRobinSelection == that.roundRobinSelection &&
+				Double.compare(prefetch, that.prefetch) == 0 &&
 				Objects.equals(loggingFactory, that.loggingFactory) &&
 				cacheMaxTimeToLive.equals(that.cacheMaxTimeToLive) &&
 				cacheMinTimeToLive.equals(that.cacheMinTimeToLive) &&
@@ -468,6 +525,7 @@ public final class NameResolverProvider {
 				resolvedAddressTypes == that.resolvedAddressTypes &&
 				Objects.equals(resolveCache, that.resolveCache) &&
 				Objects.equals(bindAddressSupplier, that.bindAddressSupplier) &&
+				serveStale.equals(that.serveStale) &&
 				// searchDomains is List so Objects.equals is OK
 				Objects.equals(searchDomains, that.searchDomains);
 	}
@@ -477,7 +535,7 @@ public final class NameResolverProvider {
 		return Objects.hash(cacheMaxTimeToLive, cacheMinTimeToLive, cacheNegativeTimeToLive, completeOncePreferredResolved,
 				disableRecursionDesired, disableOptionalRecord, loggingFactory, loopResources, maxPayloadSize,
 				maxQueriesPerResolve, ndots, preferNative, queryTimeout, resolvedAddressTypes, resolveCache,
-				bindAddressSupplier, roundRobinSelection, searchDomains);
+				bindAddressSupplier, roundRobinSelection, searchDomains, prefetch, serveStale);
 	}
 
 	/**
@@ -498,9 +556,10 @@ public final class NameResolverProvider {
 			loop = loopResources;
 			group = loop.onClient(preferNative);
 		}
+		int minTtl = Math.toIntExact(cacheMinTimeToLive.getSeconds());
+		int maxTtl = Math.toIntExact(cacheMaxTimeToLive.getSeconds());
+		int negativeTtl = Math.toIntExact(cacheNegativeTimeToLive.getSeconds());
 		DnsNameResolverBuilder builder = new DnsNameResolverBuilder()
-				.ttl(Math.toIntExact(cacheMinTimeToLive.getSeconds()), Math.toIntExact(cacheMaxTimeToLive.getSeconds()))
-				.negativeTtl(Math.toIntExact(cacheNegativeTimeToLive.getSeconds()))
 				.completeOncePreferredResolved(completeOncePreferredResolved)
 				.optResourceEnabled(!disableOptionalRecord)
 				.recursionDesired(!disableRecursionDesired)
@@ -520,9 +579,20 @@ public final class NameResolverProvider {
 		if (resolvedAddressTypes != null) {
 			builder.resolvedAddressTypes(resolvedAddressTypes);
 		}
+		RefreshingDnsCache refreshingCache = null;
 		if (resolveCache != null) {
+			// The time to live settings cannot be combined with a custom resolve cache
 			builder.resolveCache(resolveCache);
 		}
+		else if (!serveStale.isZero() || prefetch > 0) {
+			refreshingCache = new RefreshingDnsCache(minTtl, maxTtl, negativeTtl, serveStale.toNanos(), prefetch);
+			builder.resolveCache(refreshingCache)
+			       .cnameCache(new DefaultDnsCnameCache(minTtl, maxTtl));
+		}
+		else {
+			builder.ttl(minTtl, maxTtl)
+			       .negativeTtl(negativeTtl);
+		}
 		if (bindAddressSupplier != null) {
 			// There is no check for bindAddressSupplier.get() == null
 			// This is deliberate, when null value is provided Netty will use the default behaviour
@@ -531,6 +601,14 @@ public final class NameResolverProvider {
 		if (searchDomains != null) {
 			builder.searchDomains(searchDomains);
 		}
+		if (refreshingCache != null) {
+			EventLoop refreshLoop = group.next();
+			RefreshingDnsCache.Refresher refresher = new RefreshingDnsCache.Refresher(
+					builder.copy().resolveCache(refreshingCache.refreshCache).eventLoop(refreshLoop), refreshLoop);
+			return roundRobinSelection ?
+					new RefreshingDnsCache.RefreshingRoundRobinDnsAddressResolverGroup(builder, refreshingCache, refresher) :
+					new RefreshingDnsCache.RefreshingDnsAddressResolverGroup(builder, refreshingCache, refresher);
+		}
 		return roundRobinSelection ? new RoundRobinDnsAddressResolverGroup(builder) : new DnsAddressResolverGroup(builder);
 	}
 
@@ -553,6 +631,8 @@ public final class NameResolverProvider {
 	final Supplier<? extends SocketAddress> bindAddressSupplier;
 	final boolean roundRobinSelection;
 	final Iterable<String> searchDomains;
+	final double prefetch;
+	final Duration serveStale;
 
 	NameResolverProvider(Build build) {
 		this.cacheMaxTimeToLive = build.cacheMaxTimeToLive;
@@ -574,6 +654,8 @@ public final class NameResolverProvider {
 		this.bindAddressSupplier = build.bindAddressSupplier;
 		this.roundRobinSelection = build.roundRobinSelection;
 		this.searchDomains = build.searchDomains;
+		this.prefetch = build.prefetch;
+		this.serveStale = build.serveStale;
 	}
 
 	static final class Build implements NameResolverSpec {
@@ -605,6 +687,8 @@ public final class NameResolverProvider {
 		Supplier<? extends SocketAddress> bindAddressSupplier;
 		boolean roundRobinSelection;
 		Iterable<String> searchDomains;
+		double prefetch;
+		Duration serveStale = Duration.ZERO;
 
 		@Override
 		public NameResolverSpec cacheMaxTimeToLive(Duration cacheMaxTimeToLive) {
@@ -675,6 +759,15 @@ public final class NameResolverProvider {
 			return this;
 		}
 
+		@Override
+		public NameResolverSpec prefetch(double ratio) {
+			if (ratio < 0 || ratio >= 1) {
+				throw new IllegalArgumentException("prefetch ratio must be between 0 (inclusive) and 1 (exclusive)");
+			}
+			this.prefetch = ratio;
+			return this;
+		}
+
 		@Override
 		public NameResolverSpec queryTimeout(Duration queryTimeout) {
 			this.queryTimeout = Objects.requireNonNull(queryTimeout, "queryTimeout");
@@ -733,6 +826,16 @@ public final class NameResolverProvider {
 			return this;
 		}
 
+		@Override
+		public NameResolverSpec serveStale(Duration serveStale) {
+			Objects.requireNonNull(serveStale, "serveStale");
+			if (serveStale.isNegative()) {
+				throw new IllegalArgumentException("serveStale must be positive");
+			}
+			this.serveStale = serveStale;
+			return this;
+		}
+
 		@Override
 		public NameResolverSpec trace(String category, LogLevel level) {
 			Objects.requireNonNull(category, "category");
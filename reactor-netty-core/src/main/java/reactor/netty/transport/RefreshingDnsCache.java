@@ -0,0 +1,465 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.transport;
+
+import io.netty.channel.EventLoop;
+import io.netty.handler.codec.dns.DnsRecord;
+import io.netty.resolver.AddressResolverGroup;
+import io.netty.resolver.dns.DnsAddressResolverGroup;
+import io.netty.resolver.dns.DnsCache;
+import io.netty.resolver.dns.DnsCacheEntry;
+import io.netty.resolver.dns.DnsNameResolver;
+import io.netty.resolver.dns.DnsNameResolverBuilder;
+import io.netty.resolver.dns.RoundRobinDnsAddressResolverGroup;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+import reactor.netty.channel.ChannelMetricsRecorder;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import reactor.util.annotation.Nullable;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import static reactor.netty.Metrics.HIT;
+import static reactor.netty.Metrics.MISS;
+import static reactor.netty.Metrics.REFRESH;
+import static reactor.netty.Metrics.REFRESH_ERROR;
+import static reactor.netty.Metrics.STALE;
+
+/**
+ * A {@link DnsCache} that keeps serving the expired entries for up to a given duration
+ * (see {@link NameResolverProvider.NameResolverSpec#serveStale(java.time.Duration)}) and refreshes
+ * the entries that are close to their expiration (see {@link NameResolverProvider.NameResolverSpec#prefetch(double)}).
+ * The refresh runs in the background with a resolver that bypasses this cache, the entries of a host name
+ * are replaced once the refresh completes successfully. When the refresh fails, the stale entries are kept
+ * until the end of the stale period.
+ * The failures are cached for the negative time to live and are never served stale.
+ *
+ * @since 1.1.3
+ */
+final class RefreshingDnsCache implements DnsCache {
+
+	static final Logger log = Loggers.getLogger(RefreshingDnsCache.class);
+
+	/**
+	 * Returns the {@link RefreshingDnsCache} used by the given {@link AddressResolverGroup} or null.
+	 *
+	 * @param resolverGroup the {@link AddressResolverGroup}
+	 * @return the {@link RefreshingDnsCache} used by the given {@link AddressResolverGroup} or null
+	 */
+	@Nullable
+	static RefreshingDnsCache of(AddressResolverGroup<?> resolverGroup) {
+		if (resolverGroup instanceof RefreshingDnsAddressResolverGroup) {
+			return ((RefreshingDnsAddressResolverGroup) resolverGroup).cache;
+		}
+		if (resolverGroup instanceof RefreshingRoundRobinDnsAddressResolverGroup) {
+			return ((RefreshingRoundRobinDnsAddressResolverGroup) resolverGroup).cache;
+		}
+		return null;
+	}
+
+	final ConcurrentMap<String, Entries> entries = new ConcurrentHashMap<>();
+	final ConcurrentMap<String, Refresh> refreshes = new ConcurrentHashMap<>();
+	final Set<ChannelMetricsRecorder> recorders = new CopyOnWriteArraySet<>();
+	final DnsCache refreshCache = new RefreshDnsCache();
+
+	final int minTtl;
+	final int maxTtl;
+	final int negativeTtl;
+	final long serveStaleNanos;
+	final double prefetch;
+	final LongSupplier nanoTime;
+
+	volatile Function<String, Future<?>> refresher;
+
+	RefreshingDnsCache(int minTtl, int maxTtl, int negativeTtl, long serveStaleNanos, double prefetch) {
+		this(minTtl, maxTtl, negativeTtl, serveStaleNanos, prefetch, System::nanoTime);
+	}
+
+	RefreshingDnsCache(int minTtl, int maxTtl, int negativeTtl, long serveStaleNanos, double prefetch, LongSupplier nanoTime) {
+		this.minTtl = Math.min(minTtl, maxTtl);
+		this.maxTtl = maxTtl;
+		this.negativeTtl = negativeTtl;
+		this.serveStaleNanos = serveStaleNanos;
+		this.prefetch = prefetch;
+		this.nanoTime = nanoTime;
+	}
+
+	/**
+	 * Registers a {@link ChannelMetricsRecorder} for the lookups and the refreshes of this cache.
+	 *
+	 * @param recorder the {@link ChannelMetricsRecorder}
+	 */
+	void addRecorder(ChannelMetricsRecorder recorder) {
+		recorders.add(recorder);
+	}
+
+	@Override
+	public void clear() {
+		entries.clear();
+	}
+
+	@Override
+	public boolean clear(String hostname) {
+		return entries.remove(hostname) != null;
+	}
+
+	@Override
+	@Nullable
+	public List<? extends DnsCacheEntry> get(String hostname, DnsRecord[] additionals) {
+		if (!emptyAdditionals(additionals)) {
+			return null;
+		}
+		Entries e = entries.get(hostname);
+		if (e == null) {
+			record(hostname, MISS);
+			return null;
+		}
+		long age = nanoTime.getAsLong() - e.createdNanos;
+		if (age < e.ttlNanos) {
+			record(hostname, HIT);
+			if (prefetch > 0 && e.cause == null && age >= e.ttlNanos * prefetch) {
+				refresh(hostname);
+			}
+			return e.entries;
+		}
+		if (e.cause == null && age < e.ttlNanos + serveStaleNanos) {
+			record(hostname, STALE);
+			refresh(hostname);
+			return e.entries;
+		}
+		entries.remove(hostname, e);
+		record(hostname, MISS);
+		return null;
+	}
+
+	@Override
+	public DnsCacheEntry cache(String hostname, DnsRecord[] additionals, InetAddress address, long originalTtl, EventLoop loop) {
+		Entry entry = new Entry(hostname, address, null);
+		if (maxTtl == 0 || !emptyAdditionals(additionals)) {
+			return entry;
+		}
+		long ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(minTtl, (int) Math.min(maxTtl, originalTtl)));
+		long now = nanoTime.getAsLong();
+		Entries e = entries.compute(hostname, (key, current) -> {
+			if (current == null || current.cause != null || now - current.createdNanos >= current.ttlNanos) {
+				return new Entries(Collections.singletonList(entry), null, now, ttlNanos);
+			}
+			return current.add(entry, ttlNanos);
+		});
+		if (e.entries.size() == 1) {
+			scheduleExpiration(hostname, e, loop);
+		}
+		return entry;
+	}
+
+	@Override
+	public DnsCacheEntry cache(String hostname, DnsRecord[] additionals, Throwable cause, EventLoop loop) {
+		Entry entry = new Entry(hostname, null, cause);
+		if (negativeTtl == 0 || !emptyAdditionals(additionals)) {
+			return entry;
+		}
+		Entries e = new Entries(Collections.singletonList(entry), cause, nanoTime.getAsLong(),
+				TimeUnit.SECONDS.toNanos(negativeTtl));
+		entries.put(hostname, e);
+		scheduleExpiration(hostname, e, loop);
+		return entry;
+	}
+
+	void refresh(String hostname) {
+		Function<String, Future<?>> refresher = this.refresher;
+		if (refresher == null || refreshes.putIfAbsent(hostname, new Refresh()) != null) {
+			return;
+		}
+		try {
+			refresher.apply(hostname)
+			         .addListener(f -> onRefresh(hostname, f.isSuccess() ? null : f.cause()));
+		}
+		catch (Throwable t) {
+			onRefresh(hostname, t);
+		}
+	}
+
+	void onRefresh(String hostname, @Nullable Throwable error) {
+		Refresh refresh = refreshes.remove(hostname);
+		if (error != null) {
+			if (log.isDebugEnabled()) {
+				log.debug("Failed to refresh the address resolver cache entries of [" + hostname + "]", error);
+			}
+			record(hostname, REFRESH_ERROR);
+			return;
+		}
+		if (refresh != null) {
+			Entries e = refresh.entries;
+			if (e != null) {
+				Entries refreshed = new Entries(e.entries, null, nanoTime.getAsLong(), e.ttlNanos);
+				entries.put(hostname, refreshed);
+				EventLoop loop = refresh.loop;
+				if (loop != null) {
+					scheduleExpiration(hostname, refreshed, loop);
+				}
+			}
+		}
+		record(hostname, REFRESH);
+	}
+
+	void scheduleExpiration(String hostname, Entries e, EventLoop loop) {
+		long delay = e.cause == null ? e.ttlNanos + serveStaleNanos : e.ttlNanos;
+		loop.schedule(() -> expire(hostname), delay, TimeUnit.NANOSECONDS);
+	}
+
+	void expire(String hostname) {
+		long now = nanoTime.getAsLong();
+		entries.computeIfPresent(hostname, (key, e) -> {
+			long age = now - e.createdNanos;
+			return age >= (e.cause == null ? e.ttlNanos + serveStaleNanos : e.ttlNanos) ? null : e;
+		});
+	}
+
+	void record(String hostname, String status) {
+		for (ChannelMetricsRecorder recorder : recorders) {
+			try {
+				recorder.incrementAddressResolverCacheCount(hostname, status);
+			}
+			catch (RuntimeException e) {
+				if (log.isWarnEnabled()) {
+					log.warn("Exception caught while recording metrics.", e);
+				}
+				// Allow the resolution to continue, unaffected by metrics problem
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "RefreshingDnsCache(minTtl=" + minTtl + ", maxTtl=" + maxTtl + ", negativeTtl=" + negativeTtl +
+				", serveStaleNanos=" + serveStaleNanos + ", prefetch=" + prefetch + ", cached hostnames=" + entries.size() + ')';
+	}
+
+	static boolean emptyAdditionals(@Nullable DnsRecord[] additionals) {
+		return additionals == null || additionals.length == 0;
+	}
+
+	/**
+	 * The view of the cache used by the resolver that refreshes the entries.
+	 * It never returns cached entries and collects the resolved addresses of the host names being refreshed.
+	 */
+	final class RefreshDnsCache implements DnsCache {
+
+		@Override
+		public void clear() {
+		}
+
+		@Override
+		public boolean clear(String hostname) {
+			return false;
+		}
+
+		@Override
+		@Nullable
+		public List<? extends DnsCacheEntry> get(String hostname, DnsRecord[] additionals) {
+			return null;
+		}
+
+		@Override
+		public DnsCacheEntry cache(String hostname, DnsRecord[] additionals, InetAddress address, long originalTtl, EventLoop loop) {
+			Entry entry = new Entry(hostname, address, null);
+			Refresh refresh = refreshes.get(hostname);
+			if (refresh != null && maxTtl != 0 && emptyAdditionals(additionals)) {
+				refresh.add(entry, TimeUnit.SECONDS.toNanos(Math.max(minTtl, (int) Math.min(maxTtl, originalTtl))), loop);
+			}
+			return entry;
+		}
+
+		@Override
+		public DnsCacheEntry cache(String hostname, DnsRecord[] additionals, Throwable cause, EventLoop loop) {
+			return new Entry(hostname, null, cause);
+		}
+	}
+
+	static final class Entries {
+
+		final List<DnsCacheEntry> entries;
+		final Throwable cause;
+		final long createdNanos;
+		final long ttlNanos;
+
+		Entries(List<DnsCacheEntry> entries, @Nullable Throwable cause, long createdNanos, long ttlNanos) {
+			this.entries = entries;
+			this.cause = cause;
+			this.createdNanos = createdNanos;
+			this.ttlNanos = ttlNanos;
+		}
+
+		Entries add(Entry entry, long ttlNanos) {
+			for (DnsCacheEntry e : entries) {
+				if (entry.address.equals(e.address())) {
+					return this;
+				}
+			}
+			List<DnsCacheEntry> list = new ArrayList<>(entries.size() + 1);
+			list.addAll(entries);
+			list.add(entry);
+			return new Entries(Collections.unmodifiableList(list), null, createdNanos, Math.min(this.ttlNanos, ttlNanos));
+		}
+	}
+
+	static final class Entry implements DnsCacheEntry {
+
+		final String hostname;
+		final InetAddress address;
+		final Throwable cause;
+
+		Entry(String hostname, @Nullable InetAddress address, @Nullable Throwable cause) {
+			this.hostname = hostname;
+			this.address = address;
+			this.cause = cause;
+		}
+
+		@Override
+		@Nullable
+		public InetAddress address() {
+			return address;
+		}
+
+		@Override
+		@Nullable
+		public Throwable cause() {
+			return cause;
+		}
+
+		@Override
+		public String toString() {
+			return cause != null ? hostname + '/' + cause : address.toString();
+		}
+	}
+
+	/**
+	 * The entries collected while refreshing a host name.
+	 */
+	static final class Refresh {
+
+		Entries entries;
+		EventLoop loop;
+
+		synchronized void add(Entry entry, long ttlNanos, EventLoop loop) {
+			if (entries == null) {
+				entries = new Entries(Collections.singletonList(entry), null, 0, ttlNanos);
+				this.loop = loop;
+			}
+			else {
+				entries = entries.add(entry, ttlNanos);
+			}
+		}
+	}
+
+	/**
+	 * Refreshes the host names with a dedicated {@link DnsNameResolver} that uses the refresh view of the cache.
+	 * The resolver is created on the first refresh.
+	 */
+	static final class Refresher implements Function<String, Future<?>> {
+
+		final DnsNameResolverBuilder builder;
+		final EventLoop loop;
+
+		DnsNameResolver resolver;
+		boolean closed;
+
+		Refresher(DnsNameResolverBuilder builder, EventLoop loop) {
+			this.builder = builder;
+			this.loop = loop;
+		}
+
+		@Override
+		public Future<?> apply(String hostname) {
+			Promise<List<InetAddress>> promise = loop.newPromise();
+			loop.execute(() -> {
+				DnsNameResolver resolver = resolver();
+				if (resolver == null) {
+					promise.tryFailure(new IllegalStateException("The address resolver group is closed"));
+				}
+				else {
+					resolver.resolveAll(hostname, promise);
+				}
+			});
+			return promise;
+		}
+
+		@Nullable
+		synchronized DnsNameResolver resolver() {
+			if (resolver == null && !closed) {
+				resolver = builder.build();
+			}
+			return resolver;
+		}
+
+		synchronized void close() {
+			closed = true;
+			if (resolver != null) {
+				resolver.close();
+				resolver = null;
+			}
+		}
+	}
+
+	static final class RefreshingDnsAddressResolverGroup extends DnsAddressResolverGroup {
+
+		final RefreshingDnsCache cache;
+		final Refresher refresher;
+
+		RefreshingDnsAddressResolverGroup(DnsNameResolverBuilder builder, RefreshingDnsCache cache, Refresher refresher) {
+			super(builder);
+			this.cache = cache;
+			this.refresher = refresher;
+			cache.refresher = refresher;
+		}
+
+		@Override
+		public void close() {
+			super.close();
+			refresher.close();
+		}
+	}
+
+	static final class RefreshingRoundRobinDnsAddressResolverGroup extends RoundRobinDnsAddressResolverGroup {
+
+		final RefreshingDnsCache cache;
+		final Refresher refresher;
+
+		RefreshingRoundRobinDnsAddressResolverGroup(DnsNameResolverBuilder builder, RefreshingDnsCache cache, Refresher refresher) {
+			super(builder);
+			this.cache = cache;
+			this.refresher = refresher;
+			cache.refresher = refresher;
+		}
+
+		@Override
+		public void close() {
+			super.close();
+			refresher.close();
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2020-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package reactor.netty.transport;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFactory;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPromise;
@@ -30,10 +31,14 @@ import io.netty.util.AttributeKey;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.FutureListener;
 import io.netty.util.concurrent.GenericFutureListener;
+import io.netty.util.concurrent.ScheduledFuture;
 import org.reactivestreams.Subscription;
 import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
 import reactor.netty.Connection;
+import reactor.netty.channel.ChannelMetricsRecorder;
 import reactor.util.Logger;
 import reactor.util.Loggers;
 import reactor.util.annotation.Nullable;
@@ -41,7 +46,11 @@ import reactor.util.context.Context;
 import reactor.util.context.ContextView;
 import reactor.util.retry.Retry;
 
+import java.net.Inet6Address;
+import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -52,6 +61,9 @@ import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
+import static reactor.netty.Metrics.CANCELLED;
+import static reactor.netty.Metrics.ERROR;
+import static reactor.netty.Metrics.SUCCESS;
 import static reactor.netty.ReactorNetty.format;
 import static reactor.netty.ReactorNetty.setChannelContext;
 
@@ -162,7 +174,7 @@ public final class TransportConnector {
 
 		boolean isDomainAddress = remoteAddress instanceof DomainSocketAddress;
 		return doInitAndRegister(config, channelInitializer, isDomainAddress, eventLoop)
-				.flatMap(channel -> doResolveAndConnect(channel, config, remoteAddress, resolverGroup, contextView)
+				.flatMap(channel -> doResolveAndConnect(channel, config, remoteAddress, resolverGroup, contextView, channelInitializer)
 						.onErrorResume(RetryConnectException.class,
 								t -> {
 									AtomicInteger index = new AtomicInteger(1);
@@ -313,7 +325,8 @@ public final class TransportConnector {
 
 	@SuppressWarnings({"unchecked", "FutureReturnValueIgnored", "try"})
 	static Mono<Channel> doResolveAndConnect(Channel channel, TransportConfig config,
-			SocketAddress remoteAddress, AddressResolverGroup<?> resolverGroup, ContextView contextView) {
+			SocketAddress remoteAddress, AddressResolverGroup<?> resolverGroup, ContextView contextView,
+			ChannelInitializer<Channel> channelInitializer) {
 		try {
 			AddressResolver<SocketAddress> resolver;
 			try {
@@ -372,6 +385,12 @@ public final class TransportConnector {
 				}
 			}
 
+			Duration connectionAttemptDelay = config instanceof ClientTransportConfig ?
+					((ClientTransportConfig<?>) config).connectionAttemptDelay : null;
+			if (connectionAttemptDelay != null) {
+				return doConnectRace(resolveFuture, channel, config, channelInitializer, contextView, connectionAttemptDelay);
+			}
+
 			if (resolveFuture.isDone()) {
 				Throwable cause = resolveFuture.cause();
 				if (cause != null) {
@@ -404,6 +423,287 @@ public final class TransportConnector {
 		}
 	}
 
+	static Mono<Channel> doConnectRace(Future<List<SocketAddress>> resolveFuture, Channel channel, TransportConfig config,
+			ChannelInitializer<Channel> channelInitializer, ContextView contextView, Duration connectionAttemptDelay) {
+		return Mono.create(sink -> {
+			ConnectionRace race = new ConnectionRace(channel, config, channelInitializer, contextView, connectionAttemptDelay, sink);
+			sink.onCancel(race);
+			resolveFuture.addListener((FutureListener<List<SocketAddress>>) future -> {
+				if (future.cause() != null) {
+					race.onResolveError(future.cause());
+				}
+				else {
+					race.start(future.getNow());
+				}
+			});
+		});
+	}
+
+	/**
+	 * Interleave the addresses by address family, starting with the family of the first address,
+	 * see <a href="https://datatracker.ietf.org/doc/html/rfc8305#section-4">RFC 8305 Section 4</a>.
+	 *
+	 * @param addresses the resolved addresses
+	 * @return the interleaved addresses
+	 */
+	static List<SocketAddress> interleaveAddressFamilies(List<SocketAddress> addresses) {
+		if (addresses.size() < 2) {
+			return addresses;
+		}
+		boolean firstIsIPv6 = isIPv6(addresses.get(0));
+		List<SocketAddress> preferred = new ArrayList<>(addresses.size());
+		List<SocketAddress> others = new ArrayList<>(addresses.size());
+		for (SocketAddress address : addresses) {
+			if (isIPv6(address) == firstIsIPv6) {
+				preferred.add(address);
+			}
+			else {
+				others.add(address);
+			}
+		}
+		if (others.isEmpty()) {
+			return addresses;
+		}
+		List<SocketAddress> interleaved = new ArrayList<>(addresses.size());
+		for (int i = 0; i < preferred.size() || i < others.size(); i++) {
+			if (i < preferred.size()) {
+				interleaved.add(preferred.get(i));
+			}
+			if (i < others.size()) {
+				interleaved.add(others.get(i));
+			}
+		}
+		return interleaved;
+	}
+
+	static boolean isIPv6(SocketAddress address) {
+		return address instanceof InetSocketAddress && ((InetSocketAddress) address).getAddress() instanceof Inet6Address;
+	}
+
+	/**
+	 * Races the connection attempts to the resolved addresses as described in
+	 * <a href="https://datatracker.ietf.org/doc/html/rfc8305">RFC 8305</a>.
+	 * All methods except {@link #dispose()} are invoked on the event loop of the first channel,
+	 * the channels of the other attempts are registered on the same event loop.
+	 */
+	static final class ConnectionRace implements Disposable {
+
+		final Channel channel;
+		final TransportConfig config;
+		final ChannelInitializer<Channel> channelInitializer;
+		final ContextView contextView;
+		final long connectionAttemptDelayNanos;
+		final MonoSink<Channel> sink;
+		final EventLoop eventLoop;
+		final List<Attempt> attempts = new ArrayList<>(2);
+
+		List<SocketAddress> addresses;
+		ScheduledFuture<?> nextAttempt;
+		int next;
+		int pending;
+		boolean done;
+
+		ConnectionRace(Channel channel, TransportConfig config, ChannelInitializer<Channel> channelInitializer,
+				ContextView contextView, Duration connectionAttemptDelay, MonoSink<Channel> sink) {
+			this.channel = channel;
+			this.config = config;
+			this.channelInitializer = channelInitializer;
+			this.contextView = contextView;
+			this.connectionAttemptDelayNanos = connectionAttemptDelay.toNanos();
+			this.sink = sink;
+			this.eventLoop = channel.eventLoop();
+		}
+
+		@Override
+		public void dispose() {
+			if (eventLoop.inEventLoop()) {
+				cancel();
+			}
+			else {
+				eventLoop.execute(this::cancel);
+			}
+		}
+
+		@SuppressWarnings("FutureReturnValueIgnored")
+		void start(List<SocketAddress> resolved) {
+			if (!eventLoop.inEventLoop()) {
+				eventLoop.execute(() -> start(resolved));
+				return;
+			}
+			if (done) {
+				// "FutureReturnValueIgnored" this is deliberate
+				channel.close();
+				return;
+			}
+			addresses = interleaveAddressFamilies(resolved);
+			next = 1;
+			pending = 1;
+			connect(channel, 0);
+		}
+
+		@SuppressWarnings("FutureReturnValueIgnored")
+		void onResolveError(Throwable cause) {
+			// "FutureReturnValueIgnored" this is deliberate
+			channel.close();
+			sink.error(cause);
+		}
+
+		@SuppressWarnings("FutureReturnValueIgnored")
+		void connect(Channel ch, int index) {
+			if (done) {
+				pending--;
+				// "FutureReturnValueIgnored" this is deliberate
+				ch.close();
+				return;
+			}
+
+			if (ch != channel && !contextView.isEmpty()) {
+				setChannelContext(ch, contextView);
+			}
+
+			SocketAddress remoteAddress = addresses.get(index);
+			if (log.isDebugEnabled()) {
+				log.debug(format(ch, "Connecting to [" + remoteAddress + "]."));
+			}
+
+			Attempt attempt = new Attempt(ch, remoteAddress);
+			attempts.add(attempt);
+
+			Supplier<? extends SocketAddress> bindAddress = config.bindAddress();
+			ChannelFuture f;
+			if (bindAddress == null) {
+				f = ch.connect(remoteAddress);
+			}
+			else {
+				SocketAddress local = Objects.requireNonNull(bindAddress.get(), "bindAddress");
+				f = ch.connect(remoteAddress, local);
+			}
+			f.addListener(attempt);
+
+			if (next < addresses.size() && !done) {
+				nextAttempt = eventLoop.schedule(() -> {
+					nextAttempt = null;
+					nextAttempt();
+				}, connectionAttemptDelayNanos, TimeUnit.NANOSECONDS);
+			}
+		}
+
+		void nextAttempt() {
+			if (done || next >= addresses.size()) {
+				return;
+			}
+			int index = next++;
+			pending++;
+			doInitAndRegister(config, channelInitializer, false, eventLoop)
+					.subscribe(ch -> connect(ch, index), this::onAttemptError);
+		}
+
+		@SuppressWarnings("FutureReturnValueIgnored")
+		void onAttemptComplete(Attempt attempt, ChannelFuture future) {
+			if (attempt.completed) {
+				// cancelled
+				return;
+			}
+			attempt.completed = true;
+			attempts.remove(attempt);
+			if (future.isSuccess()) {
+				pending--;
+				attempt.record(SUCCESS);
+				done = true;
+				cancelNextAttempt();
+				cancelAttempts();
+				sink.success(attempt.channel);
+			}
+			else {
+				attempt.record(ERROR);
+				// "FutureReturnValueIgnored" this is deliberate
+				attempt.channel.close();
+				if (log.isDebugEnabled()) {
+					log.debug(format(attempt.channel, "Connect attempt to [" + attempt.remoteAddress + "] failed."),
+							future.cause());
+				}
+				onAttemptError(future.cause());
+			}
+		}
+
+		void onAttemptError(Throwable cause) {
+			pending--;
+			if (done) {
+				return;
+			}
+			if (next < addresses.size()) {
+				// do not wait for the delay, start the next attempt now
+				cancelNextAttempt();
+				nextAttempt();
+			}
+			else if (pending == 0) {
+				done = true;
+				sink.error(cause);
+			}
+		}
+
+		@SuppressWarnings("FutureReturnValueIgnored")
+		void cancel() {
+			if (done) {
+				return;
+			}
+			done = true;
+			cancelNextAttempt();
+			if (addresses == null) {
+				// "FutureReturnValueIgnored" this is deliberate
+				channel.close();
+			}
+			else {
+				cancelAttempts();
+			}
+		}
+
+		@SuppressWarnings("FutureReturnValueIgnored")
+		void cancelAttempts() {
+			for (Attempt attempt : attempts) {
+				attempt.completed = true;
+				attempt.record(CANCELLED);
+				// "FutureReturnValueIgnored" this is deliberate
+				attempt.channel.close();
+			}
+			attempts.clear();
+		}
+
+		void cancelNextAttempt() {
+			ScheduledFuture<?> nextAttempt = this.nextAttempt;
+			if (nextAttempt != null) {
+				this.nextAttempt = null;
+				nextAttempt.cancel(false);
+			}
+		}
+
+		final class Attempt implements ChannelFutureListener {
+
+			final Channel channel;
+			final SocketAddress remoteAddress;
+			final long startTime = System.nanoTime();
+
+			boolean completed;
+
+			Attempt(Channel channel, SocketAddress remoteAddress) {
+				this.channel = channel;
+				this.remoteAddress = remoteAddress;
+			}
+
+			@Override
+			public void operationComplete(ChannelFuture future) {
+				onAttemptComplete(this, future);
+			}
+
+			void record(String status) {
+				ChannelMetricsRecorder recorder = config.metricsRecorder;
+				if (recorder != null) {
+					recorder.recordConnectAttemptTime(remoteAddress, Duration.ofNanos(System.nanoTime() - startTime), status);
+				}
+			}
+		}
+	}
+
 	static final class MonoChannelPromise extends Mono<Channel> implements ChannelPromise, Subscription {
 
 		final Channel channel;
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class FlushPolicyTest {
+
+	@Test
+	void adaptiveGrowsUnderLoadAndShrinksWhenIdle() {
+		FlushPolicy flushPolicy = FlushPolicy.adaptive(1024, Duration.ofMinutes(1));
+		FlushPolicies.AdaptiveFlusher flusher = (FlushPolicies.AdaptiveFlusher) flushPolicy.newFlusher();
+
+		// no batching at first
+		assertThat(flusher.flushOnWrite(100, 1)).isFalse();
+		assertThat(flusher.flushOnIdle(100, 1)).isTrue();
+		flusher.onFlush(100, 1, false);
+		assertThat(flusher.batchSize).isEqualTo(0);
+
+		// flushes follow each other within max delay
+		assertThat(flusher.flushOnIdle(100, 1)).isTrue();
+		flusher.onFlush(100, 1, false);
+		assertThat(flusher.batchSize).isEqualTo(256);
+
+		assertThat(flusher.flushOnWrite(200, 2)).isFalse();
+		assertThat(flusher.flushOnIdle(200, 2)).isFalse();
+		assertThat(flusher.flushOnWrite(300, 3)).isTrue();
+		flusher.onFlush(300, 3, false);
+		assertThat(flusher.batchSize).isEqualTo(600);
+
+		assertThat(flusher.flushOnWrite(600, 6)).isTrue();
+		flusher.onFlush(600, 6, false);
+		assertThat(flusher.batchSize).isEqualTo(1024);
+
+		// max delay elapsed
+		flusher.onFlush(100, 1, true);
+		assertThat(flusher.batchSize).isEqualTo(512);
+		flusher.onFlush(100, 1, true);
+		assertThat(flusher.batchSize).isEqualTo(256);
+		flusher.onFlush(100, 1, true);
+		assertThat(flusher.batchSize).isEqualTo(0);
+
+		assertThat(flushPolicy.flushCount()).isEqualTo(7);
+		assertThat(flushPolicy.flushedBytes()).isEqualTo(1400);
+	}
+
+	@Test
+	void badValues() {
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> FlushPolicy.bytes(0, Duration.ofMillis(1)))
+				.withMessage("threshold must be strictly positive");
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> FlushPolicy.adaptive(0, Duration.ofMillis(1)))
+				.withMessage("maxBytes must be strictly positive");
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> FlushPolicy.maxDelay(Duration.ZERO))
+				.withMessage("maxDelay must be strictly positive");
+
+		assertThatExceptionOfType(NullPointerException.class)
+				.isThrownBy(() -> FlushPolicy.maxDelay(null));
+	}
+}
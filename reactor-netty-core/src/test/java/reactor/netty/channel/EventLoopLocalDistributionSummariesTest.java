@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.channel;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Statistic;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventLoopLocalDistributionSummariesTest {
+
+	@Test
+	void accumulatedAmountsArePublished() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		EventLoopLocalDistributionSummaries.Summary summary1 = new EventLoopLocalDistributionSummaries.Summary(registry.config().clock());
+		EventLoopLocalDistributionSummaries.Summary summary2 = new EventLoopLocalDistributionSummaries.Summary(registry.config().clock());
+		Meter meter1 = summary1.meter("summary1").register(registry);
+		Meter meter2 = summary2.meter("summary2").register(registry);
+		assertThat(meter1.getId().getType()).isEqualTo(Meter.Type.DISTRIBUTION_SUMMARY);
+
+		EventLoopLocalDistributionSummaries summaries = new EventLoopLocalDistributionSummaries();
+		summaries.record(summary1, 0);
+		summaries.record(summary1, 3);
+		summaries.record(summary1, 100);
+		summaries.record(summary1, 120);
+		summaries.record(summary1, 1000);
+		summaries.record(summary2, 5);
+
+		assertMeasurements(meter1, 0, 0, 0);
+		assertMeasurements(meter2, 0, 0, 0);
+
+		summaries.run();
+
+		assertMeasurements(meter1, 5, 1223, 1000);
+		assertMeasurements(meter2, 1, 5, 5);
+
+		// nothing is published when nothing has been accumulated in the meantime
+		summaries.run();
+
+		assertMeasurements(meter1, 5, 1223, 1000);
+		assertMeasurements(meter2, 1, 5, 5);
+
+		summaries.record(summary1, 64);
+		summaries.record(summary1, 65);
+		summaries.record(summary1, 126);
+		summaries.run();
+
+		assertMeasurements(meter1, 8, 1478, 1000);
+	}
+
+	@Test
+	void amountsAccumulatedOnSeveralEventLoopsAreMerged() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		EventLoopLocalDistributionSummaries.Summary summary = new EventLoopLocalDistributionSummaries.Summary(registry.config().clock());
+		Meter meter = summary.meter("summary").register(registry);
+
+		EventLoopLocalDistributionSummaries summaries1 = new EventLoopLocalDistributionSummaries();
+		EventLoopLocalDistributionSummaries summaries2 = new EventLoopLocalDistributionSummaries();
+		summaries1.record(summary, 10);
+		summaries1.record(summary, 30);
+		summaries2.record(summary, 50);
+
+		summaries1.run();
+
+		assertMeasurements(meter, 2, 40, 30);
+
+		summaries2.run();
+
+		assertMeasurements(meter, 3, 90, 50);
+	}
+
+	@Test
+	void idleSummariesAreRemoved() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		EventLoopLocalDistributionSummaries.Summary summary1 = new EventLoopLocalDistributionSummaries.Summary(registry.config().clock());
+		EventLoopLocalDistributionSummaries.Summary summary2 = new EventLoopLocalDistributionSummaries.Summary(registry.config().clock());
+		Meter meter1 = summary1.meter("summary1").register(registry);
+		Meter meter2 = summary2.meter("summary2").register(registry);
+
+		EventLoopLocalDistributionSummaries summaries = new EventLoopLocalDistributionSummaries();
+		summaries.record(summary1, 10);
+		summaries.record(summary2, 20);
+		summaries.run();
+
+		assertThat(summaries.accumulators).hasSize(2);
+
+		summaries.record(summary1, 10);
+		summaries.run();
+
+		// summary2 has been published and nothing has been accumulated since then
+		assertThat(summaries.accumulators).containsOnlyKeys(summary1);
+
+		summaries.run();
+
+		assertThat(summaries.accumulators).isEmpty();
+		assertMeasurements(meter1, 2, 20, 10);
+		assertMeasurements(meter2, 1, 20, 20);
+
+		// a removed summary is accumulated again when an amount is recorded
+		summaries.record(summary2, 20);
+		summaries.run();
+
+		assertMeasurements(meter2, 2, 40, 20);
+	}
+
+	static void assertMeasurements(Meter meter, double count, double total, double max) {
+		assertThat(meter.measure())
+				.extracting(m -> m.getStatistic() + "=" + m.getValue())
+				.containsExactly(Statistic.COUNT + "=" + count, Statistic.TOTAL + "=" + total, Statistic.MAX + "=" + max);
+	}
+}
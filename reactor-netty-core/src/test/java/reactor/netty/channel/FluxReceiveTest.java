@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.channel;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.netty.Connection;
+import reactor.netty.ConnectionObserver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FluxReceiveTest {
+
+	EmbeddedChannel channel;
+	ChannelOperations<?, ?> ops;
+
+	@BeforeEach
+	void setUp() {
+		channel = new EmbeddedChannel();
+		ChannelOperations.addReactiveBridge(channel, ChannelOperations.OnSetup.empty(), ConnectionObserver.emptyListener());
+		ops = new ChannelOperations<>(Connection.from(channel), ConnectionObserver.emptyListener());
+		ops.bind();
+	}
+
+	@Test
+	void receiveBatchedEmitsOneBufferPerReadCycle() {
+		List<String> received = new ArrayList<>();
+		List<Boolean> composite = new ArrayList<>();
+		ops.receiveBatched()
+		   .doOnNext(b -> composite.add(b instanceof CompositeByteBuf))
+		   .map(b -> b.toString(Charset.defaultCharset()))
+		   .subscribe(received::add);
+
+		ByteBuf a = buffer("a");
+		ByteBuf b = buffer("b");
+		ByteBuf c = buffer("c");
+		channel.writeInbound(a, b, c);
+		assertThat(received).containsExactly("abc");
+
+		ByteBuf d = buffer("d");
+		channel.writeInbound(d);
+		assertThat(received).containsExactly("abc", "d");
+		assertThat(composite).containsExactly(true, false);
+
+		// the bytes received before the completion are delivered
+		ByteBuf e = buffer("e");
+		channel.pipeline().fireChannelRead(e);
+		ops.onInboundComplete();
+		assertThat(received).containsExactly("abc", "d", "e");
+
+		assertThat(a.refCnt()).isZero();
+		assertThat(b.refCnt()).isZero();
+		assertThat(c.refCnt()).isZero();
+		assertThat(d.refCnt()).isZero();
+		assertThat(e.refCnt()).isZero();
+	}
+
+	@Test
+	void receiveBatchedRespectsDemand() {
+		List<String> received = new ArrayList<>();
+		TestSubscriber subscriber = new TestSubscriber(received);
+		ops.receiveBatched()
+		   .asString()
+		   .subscribe(subscriber);
+
+		subscriber.request(1);
+		channel.writeInbound(buffer("a"), buffer("b"));
+		channel.writeInbound(buffer("c"), buffer("d"));
+		assertThat(received).containsExactly("ab");
+		assertThat(ops.inbound.getPending()).isEqualTo(1);
+
+		subscriber.request(1);
+		assertThat(received).containsExactly("ab", "cd");
+		assertThat(ops.inbound.getPending()).isZero();
+	}
+
+	@Test
+	void receiveBatchedReleasesBuffersOnCancel() {
+		List<String> received = new ArrayList<>();
+		TestSubscriber subscriber = new TestSubscriber(received);
+		ops.receiveBatched()
+		   .asString()
+		   .subscribe(subscriber);
+
+		ByteBuf a = buffer("a");
+		ByteBuf b = buffer("b");
+		channel.writeInbound(a, b);
+		// not yet batched, the read cycle is not completed
+		ByteBuf c = buffer("c");
+		channel.pipeline().fireChannelRead(c);
+
+		subscriber.cancel();
+		channel.runPendingTasks();
+
+		assertThat(received).isEmpty();
+		assertThat(a.refCnt()).isZero();
+		assertThat(b.refCnt()).isZero();
+		assertThat(c.refCnt()).isZero();
+
+		ByteBuf d = buffer("d");
+		channel.writeInbound(d);
+		assertThat(d.refCnt()).isZero();
+	}
+
+	static ByteBuf buffer(String s) {
+		return Unpooled.copiedBuffer(s, Charset.defaultCharset());
+	}
+
+	static final class TestSubscriber extends BaseSubscriber<String> {
+
+		final List<String> received;
+
+		TestSubscriber(List<String> received) {
+			this.received = received;
+		}
+
+		@Override
+		protected void hookOnSubscribe(Subscription subscription) {
+			// no initial demand
+		}
+
+		@Override
+		protected void hookOnNext(String value) {
+			received.add(value);
+		}
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.channel;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.DefaultEventLoop;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static reactor.netty.channel.EventLoopLocalDistributionSummariesTest.assertMeasurements;
+import static reactor.netty.Metrics.DATA_RECEIVED;
+import static reactor.netty.Metrics.DATA_SENT;
+
+class MicrometerChannelMetricsHandlerTest {
+
+	static final long ACCUMULATION_INTERVAL = 50;
+
+	private MeterRegistry registry;
+
+	@BeforeEach
+	void setUp() {
+		registry = new SimpleMeterRegistry();
+		Metrics.addRegistry(registry);
+	}
+
+	@AfterEach
+	void tearDown() {
+		Metrics.removeRegistry(registry);
+		registry.clear();
+		registry.close();
+	}
+
+	@Test
+	void accumulatedDataIsPublishedAndRemovedOnceIdle() throws Exception {
+		// The accumulator is bound to the thread, run on a dedicated thread so that it is not shared with other tests
+		DefaultEventLoop eventLoop = new DefaultEventLoop();
+		try {
+			eventLoop.submit(this::accumulatedDataIsPublishedAndRemovedOnceIdle0)
+			         .get(30, TimeUnit.SECONDS);
+		}
+		finally {
+			eventLoop.shutdownGracefully(0, 0, TimeUnit.SECONDS)
+			         .await(30, TimeUnit.SECONDS);
+		}
+	}
+
+	private Void accumulatedDataIsPublishedAndRemovedOnceIdle0() throws InterruptedException {
+		MicrometerChannelMetricsRecorder recorder =
+				new MicrometerChannelMetricsRecorder("reactor.netty.accumulation", "tcp");
+		MicrometerChannelMetricsHandler handler =
+				new MicrometerChannelMetricsHandler(recorder, new InetSocketAddress("127.0.0.1", 12345), true,
+						ACCUMULATION_INTERVAL);
+		EmbeddedChannel channel = new EmbeddedChannel(handler);
+
+		channel.writeInbound(Unpooled.wrappedBuffer(new byte[10]));
+		channel.writeInbound(Unpooled.wrappedBuffer(new byte[20]));
+		channel.writeOutbound(Unpooled.wrappedBuffer(new byte[40]));
+		channel.releaseInbound();
+		channel.releaseOutbound();
+
+		Meter dataReceived = meter("reactor.netty.accumulation" + DATA_RECEIVED);
+		Meter dataSent = meter("reactor.netty.accumulation" + DATA_SENT);
+		assertThat(dataReceived.getId().getType()).isEqualTo(Meter.Type.DISTRIBUTION_SUMMARY);
+		assertThat(dataReceived.getId().getBaseUnit()).isEqualTo("bytes");
+		assertMeasurements(dataReceived, 0, 0, 0);
+		assertMeasurements(dataSent, 0, 0, 0);
+		assertThat(handler.dataReceived).isNotNull();
+		assertThat(handler.dataSent).isNotNull();
+
+		EventLoopLocalDistributionSummaries summaries = EventLoopLocalDistributionSummaries.INSTANCE.get();
+		assertThat(summaries.accumulators).containsOnlyKeys(handler.dataReceived, handler.dataSent);
+
+		publish(channel);
+
+		assertMeasurements(dataReceived, 2, 30, 20);
+		assertMeasurements(dataSent, 1, 40, 40);
+
+		channel.close();
+
+		assertThat(handler.dataReceived).isNull();
+		assertThat(handler.dataReceivedAddress).isNull();
+		assertThat(handler.dataSent).isNull();
+		assertThat(handler.dataSentAddress).isNull();
+
+		publish(channel);
+
+		// nothing has been accumulated since the previous publication
+		assertThat(summaries.accumulators).isEmpty();
+		assertMeasurements(dataReceived, 2, 30, 20);
+		assertMeasurements(dataSent, 1, 40, 40);
+		return null;
+	}
+
+	private Meter meter(String name) {
+		Meter meter = registry.find(name).meter();
+		assertThat(meter).isNotNull();
+		return meter;
+	}
+
+	private static void publish(EmbeddedChannel channel) throws InterruptedException {
+		Thread.sleep(ACCUMULATION_INTERVAL * 2);
+		channel.runScheduledPendingTasks();
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019-2021 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2019-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,22 +16,28 @@
 package reactor.netty.channel;
 
 import java.lang.ref.WeakReference;
+import java.time.Duration;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerAdapter;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
 import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.handler.timeout.WriteTimeoutHandler;
 import io.netty.util.ReferenceCountUtil;
 import io.netty.util.ReferenceCounted;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.reactivestreams.Subscription;
@@ -41,6 +47,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Hooks;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.Sinks;
+import reactor.netty.FlushPolicy;
 import reactor.test.StepVerifier;
 import reactor.test.publisher.TestPublisher;
 import reactor.test.util.RaceTestUtils;
@@ -259,6 +266,81 @@ class MonoSendManyTest {
 		}
 	}
 
+	@Test
+	void flushPolicyBytesThreshold() {
+		AtomicInteger flushes = new AtomicInteger();
+		EmbeddedChannel channel = new EmbeddedChannel(new FlushCounter(flushes), new ChannelHandlerAdapter() {});
+		FlushPolicy flushPolicy = FlushPolicy.bytes(30, Duration.ofMinutes(1));
+
+		Flux<ByteBuf> flux = Flux.range(0, 10).map(i -> Unpooled.wrappedBuffer(new byte[10]));
+		Mono<Void> m = MonoSendMany.byteBufSource(flux, channel, b -> false, flushPolicy);
+
+		StepVerifier.create(m)
+		            .then(() -> {
+		                // 3 flushes for 30 bytes, the last 10 bytes are flushed on complete
+		                assertThat(flushes.get()).isEqualTo(3);
+		                channel.runPendingTasks();
+		                assertThat(flushes.get()).isEqualTo(4);
+		            })
+		            .verifyComplete();
+
+		assertThat(flushPolicy.flushCount()).isEqualTo(4);
+		assertThat(flushPolicy.flushedBytes()).isEqualTo(100);
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	void flushPolicyMaxDelay() throws Exception {
+		AtomicInteger flushes = new AtomicInteger();
+		EmbeddedChannel channel = new EmbeddedChannel(new FlushCounter(flushes), new ChannelHandlerAdapter() {});
+		FlushPolicy flushPolicy = FlushPolicy.maxDelay(Duration.ofMillis(10));
+
+		Sinks.Many<String> sink = Sinks.many().unicast().onBackpressureBuffer();
+		Mono<Void> m = MonoSendMany.objectSource(sink.asFlux(), channel, b -> false, flushPolicy);
+
+		StepVerifier.create(m)
+		            .then(() -> {
+		                sink.tryEmitNext("test1");
+		                sink.tryEmitNext("test2");
+		                channel.runPendingTasks();
+		                assertThat(flushes.get()).isEqualTo(0);
+		                assertThat(channel.<String>readOutbound()).isNull();
+		            })
+		            .then(() -> {
+		                try {
+		                    Thread.sleep(20);
+		                }
+		                catch (InterruptedException e) {
+		                    throw Exceptions.propagate(e);
+		                }
+		                channel.runScheduledPendingTasks();
+		                assertThat(flushes.get()).isEqualTo(1);
+		                assertThat(channel.<String>readOutbound()).isEqualTo("test1");
+		                assertThat(channel.<String>readOutbound()).isEqualTo("test2");
+		                sink.tryEmitComplete();
+		                channel.runPendingTasks();
+		            })
+		            .verifyComplete();
+
+		assertThat(flushPolicy.flushCount()).isEqualTo(1);
+		channel.finishAndReleaseAll();
+	}
+
+	static final class FlushCounter extends ChannelOutboundHandlerAdapter {
+
+		final AtomicInteger flushes;
+
+		FlushCounter(AtomicInteger flushes) {
+			this.flushes = flushes;
+		}
+
+		@Override
+		public void flush(ChannelHandlerContext ctx) {
+			flushes.incrementAndGet();
+			ctx.flush();
+		}
+	}
+
 	static void wait(WeakReference<Subscription> ref) {
 		int duration = 5_000;
 		int spins = duration / 100;
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.resources;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class AdaptiveAllocationStrategyTest {
+	private AdaptiveAllocationStrategy.Builder builder;
+
+	@BeforeEach
+	void setUp() {
+		builder = AdaptiveAllocationStrategy.builder();
+	}
+
+	@Test
+	void build() {
+		AdaptiveAllocationStrategy strategy = builder.maxConnections(20).minConnections(2).initialLimit(5).build();
+		assertThat(strategy.permitMaximum()).isEqualTo(20);
+		assertThat(strategy.permitMinimum()).isEqualTo(2);
+		assertThat(strategy.limit()).isEqualTo(5);
+
+		AdaptiveAllocationStrategy copy = strategy.copy();
+		assertThat(copy.permitMaximum()).isEqualTo(20);
+		assertThat(copy.permitMinimum()).isEqualTo(2);
+		assertThat(copy.limit()).isEqualTo(5);
+
+		// the initial limit is within the minimum and the maximum number of connections
+		assertThat(AdaptiveAllocationStrategy.builder().maxConnections(4).build().limit()).isEqualTo(4);
+		assertThat(AdaptiveAllocationStrategy.builder().minConnections(12).maxConnections(20).build().limit()).isEqualTo(12);
+	}
+
+	@Test
+	void buildBadValues() {
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> builder.maxConnections(1).minConnections(2).build())
+				.withMessage("minConnections (2) must be less than or equal to maxConnections (1)");
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> builder.backoffRatio(1))
+				.withMessage("backoffRatio must be between 0.5 (inclusive) and 1 (exclusive)");
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> builder.latencyTolerance(1))
+				.withMessage("latencyTolerance must be greater than 1");
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> builder.acquireTimeThreshold(Duration.ofMillis(-1)))
+				.withMessage("acquireTimeThreshold must be positive");
+	}
+
+	@Test
+	void permitsAreBoundedByTheLimit() {
+		AdaptiveAllocationStrategy strategy = builder.maxConnections(10).initialLimit(2).build();
+		assertThat(strategy.getPermits(3)).isEqualTo(2);
+		assertThat(strategy.getPermits(1)).isZero();
+		assertThat(strategy.permitGranted()).isEqualTo(2);
+		assertThat(strategy.estimatePermitCount()).isZero();
+
+		strategy.returnPermits(1);
+		assertThat(strategy.estimatePermitCount()).isEqualTo(1);
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> strategy.returnPermits(2));
+	}
+
+	@Test
+	void limitIncreasesWhenAcquiresWait() {
+		AdaptiveAllocationStrategy strategy =
+				builder.maxConnections(3).initialLimit(2).acquireTimeThreshold(Duration.ofMillis(10)).build();
+
+		strategy.recordAcquireTime(TimeUnit.MILLISECONDS.toNanos(1));
+		assertThat(strategy.limit()).isEqualTo(2);
+
+		strategy.recordAcquireTime(TimeUnit.MILLISECONDS.toNanos(20));
+		assertThat(strategy.limit()).isEqualTo(3);
+
+		// the limit does not exceed the maximum number of connections
+		strategy.recordAcquireTime(TimeUnit.MILLISECONDS.toNanos(20));
+		assertThat(strategy.limit()).isEqualTo(3);
+	}
+
+	@Test
+	void limitDecreasesWhenLatencyIncreases() throws Exception {
+		AdaptiveAllocationStrategy strategy =
+				builder.maxConnections(100).initialLimit(20).backoffRatio(0.5).latencyTolerance(2).build();
+
+		long latency = TimeUnit.MICROSECONDS.toNanos(100);
+		for (int i = 0; i < 10; i++) {
+			strategy.recordLatency(latency, 20);
+		}
+		assertThat(strategy.limit()).isEqualTo(20);
+
+		Thread.sleep(1);
+		strategy.recordLatency(latency * 100, 20);
+		assertThat(strategy.limit()).isEqualTo(10);
+	}
+
+	@Test
+	void limitDecreasesWhenUnderUsed() {
+		AdaptiveAllocationStrategy strategy = builder.maxConnections(100).minConnections(2).initialLimit(4).build();
+
+		long latency = TimeUnit.MICROSECONDS.toNanos(100);
+		strategy.recordLatency(latency, 3);
+		assertThat(strategy.limit()).isEqualTo(4);
+
+		strategy.recordLatency(latency, 1);
+		assertThat(strategy.limit()).isEqualTo(3);
+
+		strategy.recordLatency(latency, 0);
+		strategy.recordLatency(latency, 0);
+		strategy.recordLatency(latency, 0);
+		// the limit does not go below the minimum number of connections
+		assertThat(strategy.limit()).isEqualTo(2);
+	}
+}
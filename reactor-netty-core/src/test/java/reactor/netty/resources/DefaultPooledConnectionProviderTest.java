@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2017-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,9 +21,11 @@ import java.net.SocketAddress;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -36,6 +38,7 @@ import java.util.concurrent.locks.LockSupport;
 import java.util.function.Supplier;
 
 import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.handler.logging.LoggingHandler;
@@ -43,6 +46,7 @@ import io.netty.resolver.AddressResolver;
 import io.netty.resolver.AddressResolverGroup;
 import io.netty.resolver.DefaultAddressResolverGroup;
 import io.netty.util.NetUtil;
+import io.netty.util.concurrent.EventExecutor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -71,6 +75,7 @@ import reactor.test.StepVerifier;
 import reactor.test.scheduler.VirtualTimeScheduler;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.awaitility.Awaitility.await;
 
 class DefaultPooledConnectionProviderTest {
@@ -528,6 +533,131 @@ class DefaultPooledConnectionProviderTest {
 		}
 	}
 
+	@Test
+	void eventLoopAffinityAcquiresFromTheCallerEventLoopShard() throws Exception {
+		EventLoopGroup group = new NioEventLoopGroup(2);
+		Iterator<EventExecutor> eventLoops = group.iterator();
+		EventLoop loop0 = (EventLoop) eventLoops.next();
+		EventLoop loop1 = (EventLoop) eventLoops.next();
+		List<String> registeredIds = new CopyOnWriteArrayList<>();
+		ConnectionProvider.Builder builder =
+				ConnectionProvider.builder("eventLoopAffinityAcquiresFromTheCallerEventLoopShard")
+				                  .maxConnections(2)
+				                  .eventLoopAffinity(true)
+				                  .metrics(true, () -> (poolName, id, remoteAddress, metrics) -> registeredIds.add(id));
+		DefaultPooledConnectionProvider provider = new DefaultPooledConnectionProvider(builder);
+		DisposableServer disposableServer =
+				TcpServer.create()
+				         .port(0)
+				         .bindNow();
+		Supplier<? extends SocketAddress> remoteAddress = disposableServer::address;
+		ConnectionObserver observer = ConnectionObserver.emptyListener();
+		ClientTransportConfigImpl config = new ClientTransportConfigImpl(group, provider, Collections.emptyMap(),
+				remoteAddress, DefaultAddressResolverGroup.INSTANCE);
+		try {
+			PooledConnection c1 = (PooledConnection)
+					provider.acquire(config, observer, remoteAddress, config.resolverInternal())
+					        .contextWrite(ctx -> ctx.put(PooledConnectionProvider.CONTEXT_CALLER_EVENTLOOP, loop0))
+					        .block(Duration.ofSeconds(5));
+			assertThat(c1).isNotNull();
+			assertThat(c1.channel().eventLoop()).isSameAs(loop0);
+
+			// the shard of loop0 is exhausted, a new connection is created in the shard of loop1
+			PooledConnection c2 = (PooledConnection)
+					provider.acquire(config, observer, remoteAddress, config.resolverInternal())
+					        .contextWrite(ctx -> ctx.put(PooledConnectionProvider.CONTEXT_CALLER_EVENTLOOP, loop0))
+					        .block(Duration.ofSeconds(5));
+			assertThat(c2).isNotNull();
+			assertThat(c2.channel().eventLoop()).isSameAs(loop1);
+
+			assertThat(provider.channelPools).hasSize(1);
+			InstrumentedPool<PooledConnection> pool = provider.channelPools.values().iterator().next();
+			assertThat(pool).isInstanceOf(EventLoopShardedPool.class);
+			assertThat(pool.metrics().acquiredSize()).isEqualTo(2);
+			assertThat(pool.metrics().getMaxAllocatedSize()).isEqualTo(2);
+			assertThat(registeredIds).hasSize(2);
+			assertThat(registeredIds.get(0)).endsWith("-0");
+			assertThat(registeredIds.get(1)).endsWith("-1");
+
+			c1.onStateChange(c1, ConnectionObserver.State.DISCONNECTING);
+			await().atMost(5, TimeUnit.SECONDS)
+			       .untilAsserted(() -> assertThat(pool.metrics().idleSize()).isEqualTo(1));
+
+			// the shard of loop1 is exhausted, the idle connection of the shard of loop0 is stolen
+			PooledConnection c3 = (PooledConnection)
+					provider.acquire(config, observer, remoteAddress, config.resolverInternal())
+					        .contextWrite(ctx -> ctx.put(PooledConnectionProvider.CONTEXT_CALLER_EVENTLOOP, loop1))
+					        .block(Duration.ofSeconds(5));
+			assertThat(c3).isSameAs(c1);
+
+			c2.onStateChange(c2, ConnectionObserver.State.DISCONNECTING);
+			c3.onStateChange(c3, ConnectionObserver.State.DISCONNECTING);
+		}
+		finally {
+			disposableServer.disposeNow();
+			provider.disposeLater()
+			        .block(Duration.ofSeconds(5));
+			group.shutdownGracefully()
+			     .get(5, TimeUnit.SECONDS);
+		}
+	}
+
+	@Test
+	void minIdleConnectionsAreEstablishedWithWarmupAndReplenished() throws Exception {
+		AtomicInteger serverConnections = new AtomicInteger();
+		DisposableServer disposableServer =
+				TcpServer.create()
+				         .port(0)
+				         .doOnConnection(c -> serverConnections.incrementAndGet())
+				         .bindNow();
+		EventLoopGroup group = new NioEventLoopGroup(1);
+		SocketAddress serverAddress = disposableServer.address();
+		ConnectionProvider.Builder builder =
+				ConnectionProvider.builder("minIdleConnectionsAreEstablishedWithWarmupAndReplenished")
+				                  .forRemoteHost(serverAddress, spec -> spec.maxConnections(4)
+				                                                            .minIdleConnections(2)
+				                                                            .maxIdleTime(Duration.ofMillis(200))
+				                                                            .evictInBackground(Duration.ofMillis(50)));
+		DefaultPooledConnectionProvider provider = new DefaultPooledConnectionProvider(builder);
+		ClientTransportConfigImpl config = new ClientTransportConfigImpl(group, provider, Collections.emptyMap(),
+				() -> serverAddress, DefaultAddressResolverGroup.INSTANCE);
+		try {
+			provider.warmup(config, config.resolverInternal())
+			        .block(Duration.ofSeconds(5));
+
+			assertThat(provider.channelPools).hasSize(1);
+			InstrumentedPool<PooledConnection> pool = provider.channelPools.values().iterator().next();
+			assertThat(pool.metrics().idleSize()).isEqualTo(2);
+			assertThat(pool.metrics().getMaxAllocatedSize()).isEqualTo(4);
+
+			// the idle connections are evicted because of max idle time and established again
+			await().atMost(5, TimeUnit.SECONDS)
+			       .untilAsserted(() -> assertThat(serverConnections.get()).isGreaterThanOrEqualTo(4));
+			await().atMost(5, TimeUnit.SECONDS)
+			       .untilAsserted(() -> assertThat(pool.metrics().idleSize()).isEqualTo(2));
+		}
+		finally {
+			disposableServer.disposeNow();
+			provider.disposeLater()
+			        .block(Duration.ofSeconds(5));
+			group.shutdownGracefully()
+			     .get(5, TimeUnit.SECONDS);
+		}
+	}
+
+	@Test
+	void minIdleConnectionsValidation() {
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> ConnectionProvider.builder("minIdleConnectionsValidation").minIdleConnections(-1));
+
+		ConnectionProvider.Builder builder =
+				ConnectionProvider.builder("minIdleConnectionsValidation")
+				                  .maxConnections(1)
+				                  .minIdleConnections(2);
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> new DefaultPooledConnectionProvider(builder));
+	}
+
 	static final class PoolImpl extends AtomicInteger implements InstrumentedPool<PooledConnection> {
 
 		@Override
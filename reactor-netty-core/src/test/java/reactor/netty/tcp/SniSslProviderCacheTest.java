@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.tcp;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import io.netty.handler.ssl.util.SelfSignedCertificate;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.Connection;
+import reactor.netty.DisposableServer;
+
+import javax.net.ssl.SNIHostName;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static reactor.netty.Metrics.HIT;
+import static reactor.netty.Metrics.MISS;
+
+class SniSslProviderCacheTest {
+	static SelfSignedCertificate ssc;
+	static SslContext sslContext;
+
+	final AtomicLong nanoTime = new AtomicLong();
+	final List<String> loads = new ArrayList<>();
+
+	MeterRegistry registry;
+
+	@BeforeAll
+	static void createSelfSignedCertificate() throws Exception {
+		ssc = new SelfSignedCertificate();
+		sslContext = SslContextBuilder.forServer(ssc.certificate(), ssc.privateKey()).build();
+	}
+
+	@BeforeEach
+	void setUp() {
+		registry = new SimpleMeterRegistry();
+		Metrics.addRegistry(registry);
+	}
+
+	@AfterEach
+	void tearDown() {
+		Metrics.removeRegistry(registry);
+		registry.clear();
+		registry.close();
+	}
+
+	@Test
+	void builderBadValues() {
+		SniSslProviderCache.Builder builder = SniSslProviderCache.builder(hostname -> Mono.empty());
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> builder.maxEntries(0))
+				.withMessage("maxEntries must be strictly positive");
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> builder.timeToLive(Duration.ZERO))
+				.withMessage("timeToLive must be strictly positive");
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> builder.loadTimeout(Duration.ZERO))
+				.withMessage("loadTimeout must be strictly positive");
+
+		assertThatExceptionOfType(NullPointerException.class)
+				.isThrownBy(() -> SniSslProviderCache.builder(null));
+	}
+
+	@Test
+	void concurrentLookupsAreCoalesced() {
+		Sinks.One<SslProvider> sink = Sinks.one();
+		SniSslProviderCache cache = newCache(SniSslProviderCache.builder(hostname -> {
+			loads.add(hostname);
+			return sink.asMono();
+		}));
+
+		Future<SslProvider> first = map(cache, "a.test");
+		Future<SslProvider> second = map(cache, "a.test");
+		assertThat(first.isDone()).isFalse();
+		assertThat(second.isDone()).isFalse();
+		assertThat(loads).containsExactly("a.test");
+
+		SslProvider sslProvider = newSslProvider();
+		sink.tryEmitValue(sslProvider);
+		assertThat(first.getNow()).isSameAs(sslProvider);
+		assertThat(second.getNow()).isSameAs(sslProvider);
+
+		assertThat(map(cache, "a.test").getNow()).isSameAs(sslProvider);
+		assertThat(loads).containsExactly("a.test");
+		assertThat(lookups("sni", MISS)).isEqualTo(1);
+		assertThat(lookups("sni", HIT)).isEqualTo(2);
+	}
+
+	@Test
+	void entriesExpire() {
+		SniSslProviderCache cache = newCache(SniSslProviderCache.builder(this::load).timeToLive(Duration.ofSeconds(10)));
+
+		SslProvider sslProvider = map(cache, "a.test").getNow();
+		assertThat(sslProvider).isNotNull();
+
+		elapse(9);
+		assertThat(map(cache, "a.test").getNow()).isSameAs(sslProvider);
+
+		elapse(1);
+		assertThat(map(cache, "a.test").getNow()).isNotSameAs(sslProvider);
+		assertThat(loads).containsExactly("a.test", "a.test");
+	}
+
+	@Test
+	void leastRecentlyUsedEntriesAreEvicted() {
+		SniSslProviderCache cache = newCache(SniSslProviderCache.builder(this::load).maxEntries(2));
+
+		map(cache, "a.test");
+		map(cache, "b.test");
+		map(cache, "a.test");
+		map(cache, "c.test");
+		assertThat(cache.size()).isEqualTo(2);
+
+		map(cache, "a.test");
+		map(cache, "b.test");
+		assertThat(loads).containsExactly("a.test", "b.test", "c.test", "b.test");
+
+		cache.invalidate("a.test");
+		map(cache, "a.test");
+		assertThat(loads).containsExactly("a.test", "b.test", "c.test", "b.test", "a.test");
+	}
+
+	@Test
+	void failuresAreNotCached() {
+		SniSslProviderCache cache = newCache(SniSslProviderCache.builder(hostname -> {
+			loads.add(hostname);
+			return Mono.error(new IllegalArgumentException("boom"));
+		}));
+
+		Future<SslProvider> future = map(cache, "a.test");
+		assertThat(future.cause()).isInstanceOf(IllegalArgumentException.class).hasMessage("boom");
+		assertThat(cache.size()).isZero();
+
+		map(cache, "a.test");
+		assertThat(loads).containsExactly("a.test", "a.test");
+	}
+
+	@Test
+	void loadsThatDoNotCompleteTimeOut() throws Exception {
+		SniSslProviderCache cache = newCache(SniSslProviderCache.builder(hostname -> {
+			loads.add(hostname);
+			return Mono.never();
+		}).loadTimeout(Duration.ofMillis(100)));
+
+		// the promises of the handshakes are completed by the timer
+		Future<SslProvider> first = cache.map("a.test", GlobalEventExecutor.INSTANCE.newPromise());
+		Future<SslProvider> second = cache.map("a.test", GlobalEventExecutor.INSTANCE.newPromise());
+		assertThat(first.await(5, TimeUnit.SECONDS)).as("first load await").isTrue();
+		assertThat(second.await(5, TimeUnit.SECONDS)).as("second load await").isTrue();
+		assertThat(first.cause()).isInstanceOf(TimeoutException.class);
+		assertThat(second.cause()).isInstanceOf(TimeoutException.class);
+		assertThat(cache.size()).isZero();
+
+		map(cache, "a.test");
+		assertThat(loads).containsExactly("a.test", "a.test");
+	}
+
+	@Test
+	void defaultSslProviderIsUsedWhenNoSslProviderIsLoaded() {
+		SniSslProviderCache cache = newCache(SniSslProviderCache.builder(hostname -> Mono.empty()));
+		assertThat(map(cache, "a.test").cause()).isInstanceOf(IllegalStateException.class);
+		assertThat(map(cache, null).cause()).isInstanceOf(IllegalStateException.class);
+
+		SslProvider defaultSslProvider = newSslProvider();
+		cache = newCache(SniSslProviderCache.builder(hostname -> Mono.empty()).defaultSslProvider(defaultSslProvider));
+		assertThat(map(cache, "a.test").getNow()).isSameAs(defaultSslProvider);
+		assertThat(map(cache, null).getNow()).isSameAs(defaultSslProvider);
+	}
+
+	@Test
+	void serverLoadsSslProviderOnHandshake() throws Exception {
+		SniSslProviderCache cache =
+				SniSslProviderCache.builder(this::load)
+				                   .defaultSslProvider(newSslProvider())
+				                   .metrics(true)
+				                   .name("server")
+				                   .build();
+
+		DisposableServer server =
+				TcpServer.create()
+				         .port(0)
+				         .secure(spec -> spec.sslContext(sslContext).setSniAsyncMappings(cache))
+				         .handle((in, out) -> out.sendString(Mono.just("hello")))
+				         .bindNow();
+
+		SslContext clientSslContext = SslContextBuilder.forClient()
+		                                               .trustManager(InsecureTrustManagerFactory.INSTANCE)
+		                                               .build();
+		try {
+			for (int i = 0; i < 2; i++) {
+				Connection connection =
+						TcpClient.create()
+						         .port(server.port())
+						         .secure(spec -> spec.sslContext(clientSslContext).serverNames(new SNIHostName("a.test")))
+						         .connectNow();
+				try {
+					String response = connection.inbound()
+					                            .receive()
+					                            .asString()
+					                            .next()
+					                            .block(Duration.ofSeconds(30));
+					assertThat(response).isEqualTo("hello");
+				}
+				finally {
+					connection.disposeNow();
+				}
+			}
+
+			assertThat(loads).containsExactly("a.test");
+			assertThat(lookups("server", MISS)).isEqualTo(1);
+			assertThat(lookups("server", HIT)).isEqualTo(1);
+			assertThat(registry.find("reactor.netty.sni.cache.load.time").tag("name", "server").timer()).isNotNull();
+			assertThat(registry.find("reactor.netty.sni.cache.entries").tag("name", "server").gauge().value()).isEqualTo(1);
+		}
+		finally {
+			server.disposeNow();
+		}
+	}
+
+	Mono<SslProvider> load(String hostname) {
+		loads.add(hostname);
+		return Mono.just(newSslProvider());
+	}
+
+	SniSslProviderCache newCache(SniSslProviderCache.Builder builder) {
+		return new SniSslProviderCache((SniSslProviderCache.Build) builder.metrics(true), nanoTime::get);
+	}
+
+	void elapse(long seconds) {
+		nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+	}
+
+	double lookups(String name, String status) {
+		Counter counter = registry.find("reactor.netty.sni.cache.lookups").tags("name", name, "status", status).counter();
+		return counter == null ? 0 : counter.count();
+	}
+
+	static Future<SslProvider> map(SniSslProviderCache cache, String hostname) {
+		return cache.map(hostname, ImmediateEventExecutor.INSTANCE.newPromise());
+	}
+
+	static SslProvider newSslProvider() {
+		return SslProvider.builder().sslContext(sslContext).build();
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019-2021 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2019-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,6 +15,7 @@
  */
 package reactor.netty.tcp;
 
+import io.netty.handler.ssl.OpenSsl;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.SslProvider;
@@ -23,16 +24,21 @@ import io.netty.handler.ssl.util.SelfSignedCertificate;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeAll;
 import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
 
 import javax.net.ssl.SSLException;
 import java.net.InetSocketAddress;
 import java.security.cert.CertificateException;
+import java.time.Duration;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
 import static reactor.netty.Metrics.REMOTE_ADDRESS;
 import static reactor.netty.Metrics.STATUS;
+import static reactor.netty.Metrics.TCP_CLIENT_PREFIX;
+import static reactor.netty.Metrics.TLS_SESSION_RESUMPTION;
 import static reactor.netty.Metrics.URI;
 
 /**
@@ -40,6 +46,8 @@ import static reactor.netty.Metrics.URI;
  */
 class TcpSecureMetricsTests extends TcpMetricsTests {
 
+	static final String CLIENT_TLS_SESSION_RESUMPTION = TCP_CLIENT_PREFIX + TLS_SESSION_RESUMPTION;
+
 	static SelfSignedCertificate ssc;
 
 	@BeforeAll
@@ -102,6 +110,52 @@ class TcpSecureMetricsTests extends TcpMetricsTests {
 		checkExpectationsNegative();
 	}
 
+	@Test
+	void testTlsSessionResumption() throws Exception {
+		doTestTlsSessionResumption(SslProvider.JDK);
+	}
+
+	@Test
+	void testTlsSessionResumptionOpenSsl() throws Exception {
+		assumeThat(OpenSsl.isAvailable()).isTrue();
+		doTestTlsSessionResumption(SslProvider.OPENSSL);
+	}
+
+	private void doTestTlsSessionResumption(SslProvider provider) throws Exception {
+		disposableServer =
+				tcpServer.handle((in, out) -> out.sendString(Mono.just("hello")))
+				         .bindNow();
+
+		SslContext ctx = SslContextBuilder.forClient()
+		                                  .trustManager(InsecureTrustManagerFactory.INSTANCE)
+		                                  .sslProvider(provider)
+		                                  .build();
+		TcpClient client = tcpClient.secure(ssl -> ssl.sslContext(ctx).sessionCache(16, Duration.ofMinutes(5)));
+		assertThat(ctx.sessionContext().getSessionCacheSize()).isEqualTo(16);
+		assertThat(ctx.sessionContext().getSessionTimeout()).isEqualTo(300);
+
+		for (int i = 0; i < 2; i++) {
+			if (i > 0) {
+				// OpenSSL reports the session creation time in whole seconds, a session resumed
+				// within the second in which it was created is counted as a full handshake
+				Thread.sleep(1100);
+			}
+			Connection conn = client.connectNow();
+			try {
+				assertThat(conn.inbound()
+				               .receive()
+				               .asString()
+				               .blockFirst(Duration.ofSeconds(30))).isEqualTo("hello");
+			}
+			finally {
+				conn.disposeNow();
+			}
+		}
+
+		checkCounter(CLIENT_TLS_SESSION_RESUMPTION, new String[] {STATUS, "FULL"}, 1, true);
+		checkCounter(CLIENT_TLS_SESSION_RESUMPTION, new String[] {STATUS, "RESUMED"}, 1, true);
+	}
+
 	private void checkExpectationsNegative() {
 		InetSocketAddress ca = (InetSocketAddress) connection.channel().localAddress();
 		String clientAddress = ca.getHostString() + ":" + ca.getPort();
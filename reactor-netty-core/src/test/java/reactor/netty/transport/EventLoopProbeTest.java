@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.transport;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.DefaultEventLoop;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static reactor.netty.Metrics.EVENT_LOOP_PREFIX;
+import static reactor.netty.Metrics.NAME;
+import static reactor.netty.Metrics.STALL_TIME;
+import static reactor.netty.Metrics.TASK_WAIT_TIME;
+
+class EventLoopProbeTest {
+
+	private MeterRegistry registry;
+
+	@BeforeEach
+	void setUp() {
+		registry = new SimpleMeterRegistry();
+		Metrics.addRegistry(registry);
+	}
+
+	@AfterEach
+	void tearDown() {
+		Metrics.removeRegistry(registry);
+		registry.clear();
+		registry.close();
+	}
+
+	@Test
+	void stallIsRecorded() throws Exception {
+		DefaultEventLoop eventLoop = new DefaultEventLoop();
+		try {
+			EventLoopProbe probe = new EventLoopProbe(eventLoop, "stallIsRecorded");
+
+			CountDownLatch blocked = new CountDownLatch(1);
+			CountDownLatch release = new CountDownLatch(1);
+			eventLoop.execute(() -> {
+				blocked.countDown();
+				try {
+					release.await(30, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			assertThat(blocked.await(30, TimeUnit.SECONDS)).as("blocked latch await").isTrue();
+
+			probe.submit();
+			Thread.sleep(TimeUnit.NANOSECONDS.toMillis(EventLoopProbe.STALL_THRESHOLD) + 50);
+			// the pending probe is not submitted again
+			probe.submit();
+			release.countDown();
+			awaitProbe(probe);
+
+			Timer taskWaitTime = timer(EVENT_LOOP_PREFIX + TASK_WAIT_TIME, "stallIsRecorded");
+			Timer stallTime = timer(EVENT_LOOP_PREFIX + STALL_TIME, "stallIsRecorded");
+			assertThat(taskWaitTime.count()).isEqualTo(1);
+			assertThat(stallTime.count()).isEqualTo(1);
+			assertThat(stallTime.totalTime(TimeUnit.NANOSECONDS)).isGreaterThan(EventLoopProbe.STALL_THRESHOLD);
+
+			probe.submit();
+			awaitProbe(probe);
+
+			assertThat(taskWaitTime.count()).isEqualTo(2);
+			assertThat(stallTime.count()).isEqualTo(1);
+		}
+		finally {
+			eventLoop.shutdownGracefully(0, 0, TimeUnit.SECONDS)
+			         .await(30, TimeUnit.SECONDS);
+		}
+	}
+
+	private Timer timer(String name, String eventLoopName) {
+		Timer timer = registry.find(name).tag(NAME, eventLoopName).timer();
+		assertThat(timer).isNotNull();
+		return timer;
+	}
+
+	private static void awaitProbe(EventLoopProbe probe) throws InterruptedException {
+		for (int i = 0; i < 300 && probe.pending; i++) {
+			Thread.sleep(100);
+		}
+		assertThat(probe.pending).as("probe pending").isFalse();
+	}
+}
@@ -19,9 +19,11 @@ import io.netty.channel.EventLoop;
 import io.netty.handler.codec.dns.DnsRecord;
 import io.netty.handler.logging.LogLevel;
 import io.netty.resolver.ResolvedAddressTypes;
+import io.netty.resolver.dns.DnsAddressResolverGroup;
 import io.netty.resolver.dns.DnsCache;
 import io.netty.resolver.dns.DnsCacheEntry;
 import io.netty.resolver.dns.DnsServerAddressStreamProviders;
+import io.netty.resolver.dns.RoundRobinDnsAddressResolverGroup;
 import io.netty.resolver.dns.macos.MacOSDnsServerAddressStreamProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -200,6 +202,25 @@ class NameResolverProviderTest {
 				.withMessage("ndots must be greater or equal to -1");
 	}
 
+	@Test
+	void prefetch() {
+		assertThat(builder.build().prefetch()).isZero();
+
+		builder.prefetch(0.8);
+		assertThat(builder.build().prefetch()).isEqualTo(0.8);
+	}
+
+	@Test
+	void prefetchBadValues() {
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> builder.prefetch(-0.1))
+				.withMessage("prefetch ratio must be between 0 (inclusive) and 1 (exclusive)");
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> builder.prefetch(1))
+				.withMessage("prefetch ratio must be between 0 (inclusive) and 1 (exclusive)");
+	}
+
 	@Test
 	void queryTimeout() {
 		assertThat(builder.build().queryTimeout()).isEqualTo(DEFAULT_QUERY_TIMEOUT);
@@ -298,6 +319,57 @@ class NameResolverProviderTest {
 				.isThrownBy(() -> builder.searchDomains(null));
 	}
 
+	@Test
+	void serveStale() {
+		assertThat(builder.build().serveStale()).isEqualTo(Duration.ZERO);
+
+		Duration serveStale = Duration.ofSeconds(30);
+		builder.serveStale(serveStale);
+		assertThat(builder.build().serveStale()).isEqualTo(serveStale);
+	}
+
+	@Test
+	void serveStaleBadValues() {
+		assertThatExceptionOfType(NullPointerException.class)
+				.isThrownBy(() -> builder.serveStale(null));
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> builder.serveStale(Duration.ofSeconds(-1)))
+				.withMessage("serveStale must be positive");
+	}
+
+	@Test
+	void newNameResolverGroupWithRefreshingCache() {
+		LoopResources loop = LoopResources.create("newNameResolverGroupWithRefreshingCache", 1, true);
+		try {
+			assertThat(RefreshingDnsCache.of(builder.build().newNameResolverGroup(loop, false))).isNull();
+
+			builder.serveStale(Duration.ofSeconds(30));
+			DnsAddressResolverGroup group = builder.build().newNameResolverGroup(loop, false);
+			assertThat(RefreshingDnsCache.of(group)).isNotNull();
+			assertThat(RefreshingDnsCache.of(group).serveStaleNanos).isEqualTo(Duration.ofSeconds(30).toNanos());
+			assertThat(group.getResolver(loop.onClient(false).next())).isNotNull();
+			group.close();
+
+			builder.serveStale(Duration.ZERO).prefetch(0.5).roundRobinSelection(true);
+			group = builder.build().newNameResolverGroup(loop, false);
+			assertThat(group).isInstanceOf(RoundRobinDnsAddressResolverGroup.class);
+			assertThat(RefreshingDnsCache.of(group)).isNotNull();
+			group.close();
+
+			// A custom resolve cache takes precedence
+			builder.resolveCache(new TestDnsCache());
+			group = builder.build().newNameResolverGroup(loop, false);
+			assertThat(RefreshingDnsCache.of(group)).isNull();
+			assertThat(group.getResolver(loop.onClient(false).next())).isNotNull();
+			group.close();
+		}
+		finally {
+			loop.disposeLater()
+			    .block(Duration.ofSeconds(5));
+		}
+	}
+
 	@Test
 	void traceBadValues() {
 		assertThatExceptionOfType(NullPointerException.class)
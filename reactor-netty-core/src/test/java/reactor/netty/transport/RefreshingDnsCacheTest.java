@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.transport;
+
+import io.netty.channel.EventLoop;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.resolver.dns.DnsCacheEntry;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import io.netty.util.concurrent.Promise;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.netty.channel.ChannelMetricsRecorder;
+
+import java.net.InetAddress;
+import java.net.SocketAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static reactor.netty.Metrics.HIT;
+import static reactor.netty.Metrics.MISS;
+import static reactor.netty.Metrics.REFRESH;
+import static reactor.netty.Metrics.REFRESH_ERROR;
+import static reactor.netty.Metrics.STALE;
+
+class RefreshingDnsCacheTest {
+
+	static final String HOSTNAME = "test.reactor.netty";
+
+	final AtomicLong nanoTime = new AtomicLong();
+	final List<Promise<Object>> refreshes = new ArrayList<>();
+	final List<String> events = new CopyOnWriteArrayList<>();
+
+	EmbeddedChannel channel;
+	EventLoop loop;
+
+	@BeforeEach
+	void setUp() {
+		channel = new EmbeddedChannel();
+		loop = channel.eventLoop();
+	}
+
+	@AfterEach
+	void tearDown() {
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	void staleEntriesAreServedAndRefreshed() throws Exception {
+		RefreshingDnsCache cache = newCache(Duration.ofSeconds(30), 0);
+		cache.cache(HOSTNAME, null, address("192.0.2.1"), 10, loop);
+		cache.cache(HOSTNAME, null, address("192.0.2.2"), 20, loop);
+
+		assertThat(addresses(cache.get(HOSTNAME, null))).containsExactly(address("192.0.2.1"), address("192.0.2.2"));
+		assertThat(refreshes).isEmpty();
+
+		// the time to live of the entries is the smallest one
+		elapse(11);
+		assertThat(addresses(cache.get(HOSTNAME, null))).containsExactly(address("192.0.2.1"), address("192.0.2.2"));
+		assertThat(refreshes).hasSize(1);
+
+		// a single refresh is in progress
+		assertThat(addresses(cache.get(HOSTNAME, null))).containsExactly(address("192.0.2.1"), address("192.0.2.2"));
+		assertThat(refreshes).hasSize(1);
+
+		cache.refreshCache.cache(HOSTNAME, null, address("192.0.2.3"), 10, loop);
+		refreshes.get(0).setSuccess(null);
+		assertThat(addresses(cache.get(HOSTNAME, null))).containsExactly(address("192.0.2.3"));
+		assertThat(refreshes).hasSize(1);
+
+		assertThat(events).containsExactly(HIT, STALE, STALE, REFRESH, HIT);
+	}
+
+	@Test
+	void staleEntriesAreKeptWhenRefreshFails() throws Exception {
+		RefreshingDnsCache cache = newCache(Duration.ofSeconds(30), 0);
+		cache.cache(HOSTNAME, null, address("192.0.2.1"), 10, loop);
+
+		elapse(15);
+		assertThat(addresses(cache.get(HOSTNAME, null))).containsExactly(address("192.0.2.1"));
+		refreshes.get(0).setFailure(new UnknownHostException(HOSTNAME));
+
+		// the refresh is retried on the next lookup
+		elapse(10);
+		assertThat(addresses(cache.get(HOSTNAME, null))).containsExactly(address("192.0.2.1"));
+		assertThat(refreshes).hasSize(2);
+
+		// the entries are no longer served once the stale period is over
+		elapse(20);
+		assertThat(cache.get(HOSTNAME, null)).isNull();
+		assertThat(cache.entries).isEmpty();
+
+		assertThat(events).containsExactly(STALE, REFRESH_ERROR, STALE, MISS);
+	}
+
+	@Test
+	void entriesAreRefreshedBeforeExpiration() throws Exception {
+		RefreshingDnsCache cache = newCache(Duration.ZERO, 0.8);
+		cache.cache(HOSTNAME, null, address("192.0.2.1"), 10, loop);
+
+		elapse(7);
+		assertThat(addresses(cache.get(HOSTNAME, null))).containsExactly(address("192.0.2.1"));
+		assertThat(refreshes).isEmpty();
+
+		elapse(1);
+		assertThat(addresses(cache.get(HOSTNAME, null))).containsExactly(address("192.0.2.1"));
+		assertThat(refreshes).hasSize(1);
+
+		cache.refreshCache.cache(HOSTNAME, null, address("192.0.2.2"), 10, loop);
+		refreshes.get(0).setSuccess(null);
+
+		// the refreshed entries have a new time to live
+		elapse(5);
+		assertThat(addresses(cache.get(HOSTNAME, null))).containsExactly(address("192.0.2.2"));
+
+		elapse(5);
+		assertThat(cache.get(HOSTNAME, null)).isNull();
+
+		assertThat(events).containsExactly(HIT, HIT, REFRESH, HIT, MISS);
+	}
+
+	@Test
+	void failuresAreNotServedStale() {
+		RefreshingDnsCache cache = newCache(Duration.ofSeconds(30), 0);
+		UnknownHostException cause = new UnknownHostException(HOSTNAME);
+		cache.cache(HOSTNAME, null, cause, loop);
+
+		List<? extends DnsCacheEntry> entries = cache.get(HOSTNAME, null);
+		assertThat(entries).hasSize(1);
+		assertThat(entries.get(0).cause()).isSameAs(cause);
+
+		elapse(6);
+		assertThat(cache.get(HOSTNAME, null)).isNull();
+		assertThat(refreshes).isEmpty();
+
+		assertThat(events).containsExactly(HIT, MISS);
+	}
+
+	@Test
+	void expiredEntriesAreRemoved() throws Exception {
+		RefreshingDnsCache cache = newCache(Duration.ofSeconds(30), 0);
+		cache.cache(HOSTNAME, null, address("192.0.2.1"), 10, loop);
+		assertThat(cache.entries).containsKey(HOSTNAME);
+
+		elapse(20);
+		cache.expire(HOSTNAME);
+		assertThat(cache.entries).containsKey(HOSTNAME);
+
+		elapse(20);
+		cache.expire(HOSTNAME);
+		assertThat(cache.entries).isEmpty();
+	}
+
+	RefreshingDnsCache newCache(Duration serveStale, double prefetch) {
+		RefreshingDnsCache cache = new RefreshingDnsCache(0, Integer.MAX_VALUE, 5, serveStale.toNanos(), prefetch, nanoTime::get);
+		cache.refresher = hostname -> {
+			Promise<Object> promise = ImmediateEventExecutor.INSTANCE.newPromise();
+			refreshes.add(promise);
+			return promise;
+		};
+		cache.addRecorder(new TestChannelMetricsRecorder(events));
+		return cache;
+	}
+
+	void elapse(long seconds) {
+		nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+	}
+
+	static InetAddress address(String address) throws UnknownHostException {
+		return InetAddress.getByName(address);
+	}
+
+	static List<InetAddress> addresses(List<? extends DnsCacheEntry> entries) {
+		return entries.stream().map(DnsCacheEntry::address).collect(Collectors.toList());
+	}
+
+	static final class TestChannelMetricsRecorder implements ChannelMetricsRecorder {
+
+		final List<String> events;
+
+		TestChannelMetricsRecorder(List<String> events) {
+			this.events = events;
+		}
+
+		@Override
+		public void recordDataReceived(SocketAddress remoteAddress, long bytes) {
+		}
+
+		@Override
+		public void recordDataSent(SocketAddress remoteAddress, long bytes) {
+		}
+
+		@Override
+		public void incrementErrorsCount(SocketAddress remoteAddress) {
+		}
+
+		@Override
+		public void recordTlsHandshakeTime(SocketAddress remoteAddress, Duration time, String status) {
+		}
+
+		@Override
+		public void recordConnectTime(SocketAddress remoteAddress, Duration time, String status) {
+		}
+
+		@Override
+		public void recordResolveAddressTime(SocketAddress remoteAddress, Duration time, String status) {
+		}
+
+		@Override
+		public void incrementAddressResolverCacheCount(String hostname, String status) {
+			events.add(status);
+		}
+	}
+}
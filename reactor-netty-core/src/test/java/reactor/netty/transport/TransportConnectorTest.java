@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.transport;
+
+import io.netty.channel.ChannelOption;
+import io.netty.resolver.AbstractAddressResolver;
+import io.netty.resolver.AddressResolver;
+import io.netty.resolver.AddressResolverGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Promise;
+import org.junit.jupiter.api.Test;
+import reactor.netty.Connection;
+import reactor.netty.DisposableServer;
+import reactor.netty.channel.ChannelMetricsRecorder;
+import reactor.netty.tcp.TcpClient;
+import reactor.netty.tcp.TcpServer;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static reactor.netty.Metrics.CANCELLED;
+import static reactor.netty.Metrics.ERROR;
+import static reactor.netty.Metrics.SUCCESS;
+
+class TransportConnectorTest {
+
+	@Test
+	void interleaveAddressFamilies() throws Exception {
+		SocketAddress v6a = new InetSocketAddress(InetAddress.getByName("2001:db8::1"), 80);
+		SocketAddress v6b = new InetSocketAddress(InetAddress.getByName("2001:db8::2"), 80);
+		SocketAddress v6c = new InetSocketAddress(InetAddress.getByName("2001:db8::3"), 80);
+		SocketAddress v4a = new InetSocketAddress(InetAddress.getByName("192.0.2.1"), 80);
+		SocketAddress v4b = new InetSocketAddress(InetAddress.getByName("192.0.2.2"), 80);
+
+		assertThat(TransportConnector.interleaveAddressFamilies(Arrays.asList(v6a, v6b, v6c, v4a, v4b)))
+				.containsExactly(v6a, v4a, v6b, v4b, v6c);
+		assertThat(TransportConnector.interleaveAddressFamilies(Arrays.asList(v4a, v4b, v6a)))
+				.containsExactly(v4a, v6a, v4b);
+		assertThat(TransportConnector.interleaveAddressFamilies(Arrays.asList(v4a, v4b)))
+				.containsExactly(v4a, v4b);
+	}
+
+	@Test
+	void happyEyeballsConfiguration() {
+		TcpClient client = TcpClient.create();
+		assertThat(client.configuration().connectionAttemptDelay()).isNull();
+
+		client = client.happyEyeballs(true);
+		assertThat(client.configuration().connectionAttemptDelay()).isEqualTo(Duration.ofMillis(250));
+
+		client = client.happyEyeballs(Duration.ofMillis(100));
+		assertThat(client.configuration().connectionAttemptDelay()).isEqualTo(Duration.ofMillis(100));
+
+		client = client.happyEyeballs(false);
+		assertThat(client.configuration().connectionAttemptDelay()).isNull();
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> TcpClient.create().happyEyeballs(Duration.ofMillis(-1)));
+	}
+
+	@Test
+	void happyEyeballsConnectsToReachableAddress() throws Exception {
+		DisposableServer server =
+				TcpServer.create()
+				         .host("127.0.0.1")
+				         .port(0)
+				         .bindNow();
+
+		List<String> attempts = new CopyOnWriteArrayList<>();
+		Connection connection = null;
+		try {
+			// the first address is not reachable
+			InetSocketAddress unreachable = new InetSocketAddress(InetAddress.getByName("2001:db8::1"), server.port());
+			InetSocketAddress reachable = new InetSocketAddress(InetAddress.getByName("127.0.0.1"), server.port());
+
+			connection =
+					TcpClient.create()
+					         .resolver(new TestAddressResolverGroup(Arrays.asList(unreachable, reachable)))
+					         .host("test.reactor.netty")
+					         .port(server.port())
+					         .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 30_000)
+					         .happyEyeballs(Duration.ofMillis(100))
+					         .metrics(true, () -> new TestChannelMetricsRecorder(attempts))
+					         .connectNow(Duration.ofSeconds(10));
+
+			assertThat(((InetSocketAddress) connection.channel().remoteAddress()).getAddress())
+					.isEqualTo(reachable.getAddress());
+			assertThat(attempts).contains("/127.0.0.1 " + SUCCESS);
+			assertThat(attempts).containsAnyOf("/2001:db8:0:0:0:0:0:1 " + ERROR, "/2001:db8:0:0:0:0:0:1 " + CANCELLED);
+		}
+		finally {
+			if (connection != null) {
+				connection.disposeNow();
+			}
+			server.disposeNow();
+		}
+	}
+
+	static final class TestAddressResolverGroup extends AddressResolverGroup<InetSocketAddress> {
+
+		final List<InetSocketAddress> addresses;
+
+		TestAddressResolverGroup(List<InetSocketAddress> addresses) {
+			this.addresses = addresses;
+		}
+
+		@Override
+		protected AddressResolver<InetSocketAddress> newResolver(EventExecutor executor) {
+			return new AbstractAddressResolver<InetSocketAddress>(executor, InetSocketAddress.class) {
+
+				@Override
+				protected boolean doIsResolved(InetSocketAddress address) {
+					return !address.isUnresolved();
+				}
+
+				@Override
+				protected void doResolve(InetSocketAddress unresolvedAddress, Promise<InetSocketAddress> promise) {
+					promise.setSuccess(addresses.get(0));
+				}
+
+				@Override
+				protected void doResolveAll(InetSocketAddress unresolvedAddress, Promise<List<InetSocketAddress>> promise) {
+					promise.setSuccess(addresses);
+				}
+			};
+		}
+	}
+
+	static final class TestChannelMetricsRecorder implements ChannelMetricsRecorder {
+
+		final List<String> attempts;
+
+		TestChannelMetricsRecorder(List<String> attempts) {
+			this.attempts = attempts;
+		}
+
+		@Override
+		public void recordDataReceived(SocketAddress remoteAddress, long bytes) {
+		}
+
+		@Override
+		public void recordDataSent(SocketAddress remoteAddress, long bytes) {
+		}
+
+		@Override
+		public void incrementErrorsCount(SocketAddress remoteAddress) {
+		}
+
+		@Override
+		public void recordTlsHandshakeTime(SocketAddress remoteAddress, Duration time, String status) {
+		}
+
+		@Override
+		public void recordConnectTime(SocketAddress remoteAddress, Duration time, String status) {
+		}
+
+		@Override
+		public void recordConnectAttemptTime(SocketAddress remoteAddress, Duration time, String status) {
+			attempts.add(((InetSocketAddress) remoteAddress).getAddress() + " " + status);
+		}
+
+		@Override
+		public void recordResolveAddressTime(SocketAddress remoteAddress, Duration time, String status) {
+		}
+	}
+}
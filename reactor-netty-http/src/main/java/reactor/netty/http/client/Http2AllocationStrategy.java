@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2022-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -39,6 +39,34 @@ public final class Http2AllocationStrategy implements ConnectionProvider.Allocat
 		 */
 		Http2AllocationStrategy build();
 
+		/**
+		 * Configures the ratio of the active streams to the max concurrent streams of all connections in the pool
+		 * at which a new connection is opened in the background, so that the next streams do not wait
+		 * for the connection establishment. A new connection is opened only if the maximum number of connections
+		 * is not reached.
+		 * Default to {@code 0} - a new connection is opened only when no connection can open a new stream.
+		 *
+		 * @param highWatermark the ratio of the active streams to the max concurrent streams, in the range {@code (0, 1]},
+		 * or {@code 0} to disable this feature
+		 * @return {@code this}
+		 * @since 1.1.3
+		 */
+		Builder highWatermark(double highWatermark);
+
+		/**
+		 * Configures the ratio of the active streams to the max concurrent streams of all connections in the pool
+		 * below which surplus connections are closed. When a connection has no more active streams and
+		 * the ratio computed without this connection is below this configuration, the connection is closed,
+		 * unless this would bring the pool below the minimum number of connections or below one connection.
+		 * Default to {@code 0} - surplus connections are not closed.
+		 *
+		 * @param lowWatermark the ratio of the active streams to the max concurrent streams, in the range {@code [0, 1)},
+		 * lower than the high watermark if configured, or {@code 0} to disable this feature
+		 * @return {@code this}
+		 * @since 1.1.3
+		 */
+		Builder lowWatermark(double lowWatermark);
+
 		/**
 		 * Configures the maximum number of the concurrent streams that can be opened to the remote peer.
 		 * When evaluating how many streams can be opened to the remote peer,
@@ -103,6 +131,28 @@ public final class Http2AllocationStrategy implements ConnectionProvider.Allocat
 		}
 	}
 
+	/**
+	 * Returns the configured ratio of the active streams to the max concurrent streams at which
+	 * a new connection is opened in the background.
+	 *
+	 * @return the configured high watermark, {@code 0} if disabled
+	 * @since 1.1.3
+	 */
+	public double highWatermark() {
+		return highWatermark;
+	}
+
+	/**
+	 * Returns the configured ratio of the active streams to the max concurrent streams below which
+	 * surplus connections are closed.
+	 *
+	 * @return the configured low watermark, {@code 0} if disabled
+	 * @since 1.1.3
+	 */
+	public double lowWatermark() {
+		return lowWatermark;
+	}
+
 	/**
 	 * Returns the configured maximum number of the concurrent streams that can be opened to the remote peer.
 	 *
@@ -141,6 +191,8 @@ public final class Http2AllocationStrategy implements ConnectionProvider.Allocat
 		}
 	}
 
+	final double highWatermark;
+	final double lowWatermark;
 	final long maxConcurrentStreams;
 	final int maxConnections;
 	final int minConnections;
@@ -149,6 +201,8 @@ public final class Http2AllocationStrategy implements ConnectionProvider.Allocat
 	static final AtomicIntegerFieldUpdater<Http2AllocationStrategy> PERMITS = AtomicIntegerFieldUpdater.newUpdater(Http2AllocationStrategy.class, "permits");
 
 	Http2AllocationStrategy(Build build) {
+		this.highWatermark = build.highWatermark;
+		this.lowWatermark = build.lowWatermark;
 		this.maxConcurrentStreams = build.maxConcurrentStreams;
 		this.maxConnections = build.maxConnections;
 		this.minConnections = build.minConnections;
@@ -156,6 +210,8 @@ public final class Http2AllocationStrategy implements ConnectionProvider.Allocat
 	}
 
 	Http2AllocationStrategy(Http2AllocationStrategy copy) {
+		this.highWatermark = copy.highWatermark;
+		this.lowWatermark = copy.lowWatermark;
 		this.maxConcurrentStreams = copy.maxConcurrentStreams;
 		this.maxConnections = copy.maxConnections;
 		this.minConnections = copy.minConnections;
@@ -163,10 +219,14 @@ public final class Http2AllocationStrategy implements ConnectionProvider.Allocat
 	}
 
 	static final class Build implements Builder {
+		static final double DEFAULT_HIGH_WATERMARK = 0;
+		static final double DEFAULT_LOW_WATERMARK = 0;
 		static final long DEFAULT_MAX_CONCURRENT_STREAMS = -1;
 		static final int DEFAULT_MAX_CONNECTIONS = Integer.MAX_VALUE;
 		static final int DEFAULT_MIN_CONNECTIONS = 0;
 
+		double highWatermark = DEFAULT_HIGH_WATERMARK;
+		double lowWatermark = DEFAULT_LOW_WATERMARK;
 		long maxConcurrentStreams = DEFAULT_MAX_CONCURRENT_STREAMS;
 		int maxConnections = DEFAULT_MAX_CONNECTIONS;
 		int minConnections = DEFAULT_MIN_CONNECTIONS;
@@ -177,9 +237,31 @@ public final class Http2AllocationStrategy implements ConnectionProvider.Allocat
 				throw new IllegalArgumentException("minConnections (" + minConnections + ")" +
 						" must be less than or equal to maxConnections (" + maxConnections + ")");
 			}
+			if (highWatermark > 0 && lowWatermark >= highWatermark) {
+				throw new IllegalArgumentException("lowWatermark (" + lowWatermark + ")" +
+						" must be less than highWatermark (" + highWatermark + ")");
+			}
 			return new Http2AllocationStrategy(this);
 		}
 
+		@Override
+		public Builder highWatermark(double highWatermark) {
+			if (highWatermark < 0 || highWatermark > 1) {
+				throw new IllegalArgumentException("highWatermark must be between 0 and 1");
+			}
+			this.highWatermark = highWatermark;
+			return this;
+		}
+
+		@Override
+		public Builder lowWatermark(double lowWatermark) {
+			if (lowWatermark < 0 || lowWatermark >= 1) {
+				throw new IllegalArgumentException("lowWatermark must be between 0 (inclusive) and 1 (exclusive)");
+			}
+			this.lowWatermark = lowWatermark;
+			return this;
+		}
+
 		@Override
 		public Builder maxConcurrentStreams(long maxConcurrentStreams) {
 			if (maxConcurrentStreams < -1) {
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2021-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,10 +17,9 @@ package reactor.netty.http.client;
 
 import java.time.Clock;
 import java.time.Duration;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentLinkedDeque;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
@@ -81,6 +80,11 @@ import static reactor.netty.ReactorNetty.format;
  *     the connection can be used again.</li>
  * </ul>
  * <p>
+ * The connections that can be used are indexed by the number of streams that can still be opened on them,
+ * a new stream is always opened on the least loaded connection. Connections that are closed, received GO_AWAY or
+ * must be evicted are moved out of this index as soon as this is observed (on close, on stream completion or when
+ * selecting a connection), so that they are not checked again when looking for a connection.
+ * <p>
  * This pool always invalidate the {@link PooledRef}, there is no release functionality.
  * <ul>
  *     <li>{@link PoolMetrics#acquiredSize()}, {@link PoolMetrics#allocatedSize()} and {@link PoolMetrics#idleSize()}
@@ -92,12 +96,18 @@ import static reactor.netty.ReactorNetty.format;
  * (can be the best effort). However, if the cached connections have reached max concurrent streams,
  * then new connections will be allocated up to the maximum connections limit.
  * <p>
+ * If {@link Http2AllocationStrategy#highWatermark()} is specified, a new connection is allocated in the background
+ * when the ratio of the active streams to the max concurrent streams of the cached connections reaches it.
+ * If {@link Http2AllocationStrategy#lowWatermark()} is specified, a connection without active streams is closed
+ * when the ratio computed without this connection is below it.
+ * <p>
  * Configurations that are not applicable
  * <ul>
  *     <li>{@link PoolConfig#destroyHandler()} - the destroy handler cannot be used as the destruction is more complex.</li>
  *     <li>{@link PoolConfig#metricsRecorder()} - no pool instrumentation.</li>
  *     <li>{@link PoolConfig#releaseHandler()} - release functionality works as invalidate.</li>
- *     <li>{@link PoolConfig#reuseIdleResourcesInLruOrder()} - FIFO is used when checking the connections.</li>
+ *     <li>{@link PoolConfig#reuseIdleResourcesInLruOrder()} - the least loaded connection is used, FIFO is used
+ *     between connections with the same load.</li>
  *     <li>FIFO is used when obtaining the pending borrowers</li>
  *     <li>Warm up functionality is not supported</li>
  * </ul>
@@ -114,14 +124,9 @@ final class Http2Pool implements InstrumentedPool<Connection>, InstrumentedPool.
 	static final AtomicIntegerFieldUpdater<Http2Pool> ACQUIRED =
 			AtomicIntegerFieldUpdater.newUpdater(Http2Pool.class, "acquired");
 
-	volatile ConcurrentLinkedQueue<Slot> connections;
-	@SuppressWarnings("rawtypes")
-	static final AtomicReferenceFieldUpdater<Http2Pool, ConcurrentLinkedQueue> CONNECTIONS =
-			AtomicReferenceFieldUpdater.newUpdater(Http2Pool.class, ConcurrentLinkedQueue.class, "connections");
-
-	volatile int idleSize;
-	private static final AtomicIntegerFieldUpdater<Http2Pool> IDLE_SIZE =
-			AtomicIntegerFieldUpdater.newUpdater(Http2Pool.class, "idleSize");
+	volatile Slots connections;
+	static final AtomicReferenceFieldUpdater<Http2Pool, Slots> CONNECTIONS =
+			AtomicReferenceFieldUpdater.newUpdater(Http2Pool.class, Slots.class, "connections");
 
 	/**
 	 * Pending borrowers queue. Never invoke directly the poll/add/remove methods and instead of that,
@@ -152,7 +157,16 @@ final class Http2Pool implements InstrumentedPool<Connection>, InstrumentedPool.
 	static final AtomicIntegerFieldUpdater<Http2Pool> WIP =
 			AtomicIntegerFieldUpdater.newUpdater(Http2Pool.class, "wip");
 
+	/**
+	 * {@code 1} while a connection allocated because of the high watermark is being established.
+	 */
+	volatile int preAllocating;
+	static final AtomicIntegerFieldUpdater<Http2Pool> PRE_ALLOCATING =
+			AtomicIntegerFieldUpdater.newUpdater(Http2Pool.class, "preAllocating");
+
 	final Clock clock;
+	final double highWatermark;
+	final double lowWatermark;
 	final Long maxConcurrentStreams;
 	final int minConnections;
 	final PoolConfig<Connection> poolConfig;
@@ -163,8 +177,12 @@ final class Http2Pool implements InstrumentedPool<Connection>, InstrumentedPool.
 
 	Http2Pool(PoolConfig<Connection> poolConfig, @Nullable ConnectionProvider.AllocationStrategy<?> allocationStrategy) {
 		this.clock = poolConfig.clock();
-		this.connections = new ConcurrentLinkedQueue<>();
+		this.connections = new Slots();
 		this.lastInteractionTimestamp = clock.millis();
+		this.highWatermark = allocationStrategy instanceof Http2AllocationStrategy ?
+				((Http2AllocationStrategy) allocationStrategy).highWatermark() : 0;
+		this.lowWatermark = allocationStrategy instanceof Http2AllocationStrategy ?
+				((Http2AllocationStrategy) allocationStrategy).lowWatermark() : 0;
 		this.maxConcurrentStreams = allocationStrategy instanceof Http2AllocationStrategy ?
 				((Http2AllocationStrategy) allocationStrategy).maxConcurrentStreams() : -1;
 		this.minConnections = allocationStrategy == null ? 0 : allocationStrategy.permitMinimum();
@@ -215,16 +233,12 @@ final class Http2Pool implements InstrumentedPool<Connection>, InstrumentedPool.
 					p.fail(new PoolShutdownException());
 				}
 
-				@SuppressWarnings("unchecked")
-				ConcurrentLinkedQueue<Slot> slots = CONNECTIONS.getAndSet(this, null);
+				Slots slots = CONNECTIONS.getAndSet(this, null);
 				if (slots != null) {
 					Mono<Void> closeMonos = Mono.empty();
-					while (!slots.isEmpty()) {
-						Slot slot = pollSlot(slots);
-						if (slot != null) {
-							slot.invalidate();
-							closeMonos = closeMonos.and(DEFAULT_DESTROY_HANDLER.apply(slot.connection));
-						}
+					for (Slot slot : slots.clear()) {
+						slot.invalidate();
+						closeMonos = closeMonos.and(DEFAULT_DESTROY_HANDLER.apply(slot.connection));
 					}
 					return closeMonos;
 				}
@@ -245,7 +259,8 @@ final class Http2Pool implements InstrumentedPool<Connection>, InstrumentedPool.
 
 	@Override
 	public int idleSize() {
-		return idleSize;
+		Slots slots = connections;
+		return slots != null ? slots.size() : 0;
 	}
 
 	@Override
@@ -324,6 +339,27 @@ final class Http2Pool implements InstrumentedPool<Connection>, InstrumentedPool.
 					}
 				}
 			}
+			// the connection stays in the pool, a stream can be opened on it again
+			if (!ref.slot.get()) {
+				if (ref.slot.concurrency() == 0 && belowLowWatermark(ref.slot)) {
+					Slots slots = CONNECTIONS.get(this);
+					// the connection might have been taken in the meantime by an acquire on another thread
+					if (slots != null && slots.remove(ref.slot)) {
+						if (log.isDebugEnabled()) {
+							log.debug(format(ref.slot.connection.channel(), "Low watermark was reached, remove from pool"));
+						}
+						//"FutureReturnValueIgnored" this is deliberate
+						ref.slot.connection.channel().close();
+						ref.slot.invalidate();
+					}
+					else {
+						updateSlot(ref.slot);
+					}
+				}
+				else {
+					updateSlot(ref.slot);
+				}
+			}
 		}
 		catch (Throwable destroyFunctionError) {
 			mono = Mono.error(destroyFunctionError);
@@ -352,8 +388,7 @@ final class Http2Pool implements InstrumentedPool<Connection>, InstrumentedPool.
 		int maxPending = poolConfig.maxPending();
 
 		for (;;) {
-			@SuppressWarnings("unchecked")
-			ConcurrentLinkedQueue<Slot> resources = CONNECTIONS.get(this);
+			Slots resources = CONNECTIONS.get(this);
 			@SuppressWarnings("unchecked")
 			ConcurrentLinkedDeque<Borrower> borrowers = PENDING.get(this);
 			if (resources == null || borrowers == TERMINATED) {
@@ -371,7 +406,7 @@ final class Http2Pool implements InstrumentedPool<Connection>, InstrumentedPool.
 				if (slot != null) {
 					Borrower borrower = pollPending(borrowers, true);
 					if (borrower == null) {
-						offerSlot(resources, slot);
+						resources.offer(slot);
 						continue;
 					}
 					if (isDisposed()) {
@@ -389,7 +424,7 @@ final class Http2Pool implements InstrumentedPool<Connection>, InstrumentedPool.
 					});
 				}
 				else {
-					int resourcesCount = idleSize;
+					int resourcesCount = resources.size();
 					if (minConnections > 0 &&
 							poolConfig.allocationStrategy().permitGranted() >= minConnections &&
 							resourcesCount == 0) {
@@ -451,6 +486,10 @@ final class Http2Pool implements InstrumentedPool<Connection>, InstrumentedPool.
 				}
 			}
 
+			if (highWatermark > 0) {
+				preAllocate();
+			}
+
 			if (WIP.decrementAndGet(this) == 0) {
 				recordInteractionTimestamp();
 				break;
@@ -458,10 +497,76 @@ final class Http2Pool implements InstrumentedPool<Connection>, InstrumentedPool.
 		}
 	}
 
+	/**
+	 * Check whether the ratio of the active streams to the max concurrent streams, computed without
+	 * the given connection, is below the low watermark.
+	 *
+	 * @param slot the connection without active streams
+	 * @return {@code true} if the connection can be closed
+	 */
+	boolean belowLowWatermark(Slot slot) {
+		if (lowWatermark <= 0 || pendingSize > 0 ||
+				poolConfig.allocationStrategy().permitGranted() <= Math.max(1, minConnections)) {
+			return false;
+		}
+		long maxStreams = totalMaxConcurrentStreams - slot.maxConcurrentStreams;
+		return maxStreams > 0 && acquired < lowWatermark * maxStreams;
+	}
+
+	/**
+	 * Allocate a new connection in the background when the ratio of the active streams to the max concurrent
+	 * streams reaches the high watermark. Only one such connection is being established at a time.
+	 */
+	@SuppressWarnings("FutureReturnValueIgnored")
+	void preAllocate() {
+		long maxStreams = totalMaxConcurrentStreams;
+		if (maxStreams <= 0 || acquired < highWatermark * maxStreams || preAllocating == 1 ||
+				poolConfig.allocationStrategy().estimatePermitCount() <= 0 ||
+				!PRE_ALLOCATING.compareAndSet(this, 0, 1)) {
+			return;
+		}
+		int permits = poolConfig.allocationStrategy().getPermits(1);
+		if (permits <= 0) {
+			PRE_ALLOCATING.set(this, 0);
+			return;
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("High watermark was reached, {} active streams and {} max concurrent streams, " +
+					"allocating a new connection", acquired, maxStreams);
+		}
+		poolConfig.allocator()
+		          .subscribe(
+		              newInstance -> {
+		                  Slot newSlot = new Slot(this, newInstance);
+		                  Slots slots = CONNECTIONS.get(this);
+		                  if (slots == null || newSlot.http2FrameCodecCtx() == null) {
+		                      // the pool is disposed or the connection is not HTTP/2
+		                      newSlot.invalidate();
+		                      //"FutureReturnValueIgnored" this is deliberate
+		                      newInstance.channel().close();
+		                  }
+		                  else {
+		                      if (log.isDebugEnabled()) {
+		                          log.debug(format(newInstance.channel(), "Channel allocated in the background"));
+		                      }
+		                      slots.offer(newSlot);
+		                  }
+		                  PRE_ALLOCATING.set(this, 0);
+		                  drain();
+		              },
+		              error -> {
+		                  if (log.isDebugEnabled()) {
+		                      log.debug("Failed to allocate a new connection in the background", error);
+		                  }
+		                  // the next acquire or release will retry
+		                  poolConfig.allocationStrategy().returnPermits(1);
+		                  PRE_ALLOCATING.set(this, 0);
+		              });
+	}
+
 	@SuppressWarnings("FutureReturnValueIgnored")
 	void evictInBackground() {
-		@SuppressWarnings("unchecked")
-		ConcurrentLinkedQueue<Slot> resources = CONNECTIONS.get(this);
+		Slots resources = CONNECTIONS.get(this);
 		if (resources == null) {
 			//no need to schedule the task again, pool has been disposed
 			return;
@@ -469,18 +574,16 @@ final class Http2Pool implements InstrumentedPool<Connection>, InstrumentedPool.
 
 		if (WIP.getAndIncrement(this) == 0) {
 			if (pendingSize == 0) {
-				Iterator<Slot> slots = resources.iterator();
-				while (slots.hasNext()) {
-					Slot slot = slots.next();
+				for (Slot slot : resources.toArray()) {
 					if (slot.concurrency() == 0) {
 						if (!slot.connection.channel().isActive()) {
 							if (log.isDebugEnabled()) {
 								log.debug(format(slot.connection.channel(), "Channel is closed, remove from pool"));
 							}
-							recordInteractionTimestamp();
-							slots.remove();
-							IDLE_SIZE.decrementAndGet(this);
-							slot.invalidate();
+							if (resources.remove(slot)) {
+								recordInteractionTimestamp();
+								slot.invalidate();
+							}
 							continue;
 						}
 
@@ -488,10 +591,10 @@ final class Http2Pool implements InstrumentedPool<Connection>, InstrumentedPool.
 							if (log.isDebugEnabled()) {
 								log.debug(format(slot.connection.channel(), "Channel received GO_AWAY, remove from pool"));
 							}
-							recordInteractionTimestamp();
-							slots.remove();
-							IDLE_SIZE.decrementAndGet(this);
-							slot.invalidate();
+							if (resources.remove(slot)) {
+								recordInteractionTimestamp();
+								slot.invalidate();
+							}
 							continue;
 						}
 
@@ -499,12 +602,12 @@ final class Http2Pool implements InstrumentedPool<Connection>, InstrumentedPool.
 							if (log.isDebugEnabled()) {
 								log.debug(format(slot.connection.channel(), "Eviction predicate was true, remove from pool"));
 							}
-							//"FutureReturnValueIgnored" this is deliberate
-							slot.connection.channel().close();
-							recordInteractionTimestamp();
-							slots.remove();
-							IDLE_SIZE.decrementAndGet(this);
-							slot.invalidate();
+							if (resources.remove(slot)) {
+								//"FutureReturnValueIgnored" this is deliberate
+								slot.connection.channel().close();
+								recordInteractionTimestamp();
+								slot.invalidate();
+							}
 						}
 					}
 				}
@@ -518,19 +621,27 @@ final class Http2Pool implements InstrumentedPool<Connection>, InstrumentedPool.
 		scheduleEviction();
 	}
 
+	/**
+	 * Find the least loaded connection that can be used for opening a new stream and remove it from the index
+	 * until the new stream is opened. Connections that cannot be used anymore are moved out of the index
+	 * while looking for a connection.
+	 *
+	 * @param resources the cached connections
+	 * @return the least loaded connection or {@code null} if no connection can be used for opening a new stream
+	 */
 	@Nullable
 	@SuppressWarnings("FutureReturnValueIgnored")
-	Slot findConnection(ConcurrentLinkedQueue<Slot> resources) {
-		int resourcesCount = idleSize;
+	Slot findConnection(Slots resources) {
+		int resourcesCount = resources.size();
 		while (resourcesCount > 0) {
-			// There are connections in the queue
+			// There are connections in the index
 
 			resourcesCount--;
 
-			// get the connection
-			Slot slot = pollSlot(resources);
+			// get the least loaded connection
+			Slot slot = resources.peek();
 			if (slot == null) {
-				continue;
+				return null;
 			}
 
 			// check the connection is active
@@ -540,13 +651,15 @@ final class Http2Pool implements InstrumentedPool<Connection>, InstrumentedPool.
 						log.debug(format(slot.connection.channel(), "Channel is closed, {} active streams"),
 								slot.concurrency());
 					}
-					offerSlot(resources, slot);
+					resources.drain(slot);
 				}
 				else {
 					if (log.isDebugEnabled()) {
 						log.debug(format(slot.connection.channel(), "Channel is closed, remove from pool"));
 					}
-					slot.invalidate();
+					if (resources.remove(slot)) {
+						slot.invalidate();
+					}
 				}
 				continue;
 			}
@@ -558,13 +671,15 @@ final class Http2Pool implements InstrumentedPool<Connection>, InstrumentedPool.
 						log.debug(format(slot.connection.channel(), "Channel received GO_AWAY, {} active streams"),
 								slot.concurrency());
 					}
-					offerSlot(resources, slot);
+					resources.drain(slot);
 				}
 				else {
 					if (log.isDebugEnabled()) {
 						log.debug(format(slot.connection.channel(), "Channel received GO_AWAY, remove from pool"));
 					}
-					slot.invalidate();
+					if (resources.remove(slot)) {
+						slot.invalidate();
+					}
 				}
 				continue;
 			}
@@ -576,29 +691,38 @@ final class Http2Pool implements InstrumentedPool<Connection>, InstrumentedPool.
 						log.debug(format(slot.connection.channel(), "Eviction predicate was true, {} active streams"),
 								slot.concurrency());
 					}
-					offerSlot(resources, slot);
+					resources.drain(slot);
 				}
 				else {
 					if (log.isDebugEnabled()) {
 						log.debug(format(slot.connection.channel(), "Eviction predicate was true, remove from pool"));
 					}
-					//"FutureReturnValueIgnored" this is deliberate
-					slot.connection.channel().close();
-					slot.invalidate();
+					if (resources.remove(slot)) {
+						//"FutureReturnValueIgnored" this is deliberate
+						slot.connection.channel().close();
+						slot.invalidate();
+					}
 				}
 				continue;
 			}
 
 			// check that the connection's max active streams has not been reached
 			if (!slot.canOpenStream()) {
-				offerSlot(resources, slot);
+				// max active streams changed, the connection might not be the least loaded one anymore
+				if (resources.update(slot)) {
+					continue;
+				}
 				if (log.isDebugEnabled()) {
 					log.debug(format(slot.connection.channel(), "Max active streams is reached"));
 				}
-				continue;
+				// the least loaded connection cannot be used, none of the connections can be used
+				return null;
 			}
 
-			return slot;
+			// the connection might have been moved out of the index in the meantime
+			if (resources.take(slot)) {
+				return slot;
+			}
 		}
 
 		return null;
@@ -630,7 +754,7 @@ final class Http2Pool implements InstrumentedPool<Connection>, InstrumentedPool.
 		int postOffer = addPending(pendingQueue, borrower, false);
 
 		if (WIP.getAndIncrement(this) == 0) {
-			ConcurrentLinkedQueue<Slot> ir = connections;
+			Slots ir = connections;
 			if (maxPending >= 0 && postOffer > maxPending && ir.isEmpty() && poolConfig.allocationStrategy().estimatePermitCount() == 0) {
 				Borrower toCull = pollPending(pendingQueue, false);
 				if (toCull != null) {
@@ -676,29 +800,55 @@ final class Http2Pool implements InstrumentedPool<Connection>, InstrumentedPool.
 		return PENDING_SIZE.incrementAndGet(this);
 	}
 
-	void offerSlot(@Nullable ConcurrentLinkedQueue<Slot> slots, Slot slot) {
-		if (slots != null && slots.offer(slot)) {
-			IDLE_SIZE.incrementAndGet(this);
+	void removeSlot(Slot slot) {
+		Slots slots = CONNECTIONS.get(slot.pool);
+		if (slots != null) {
+			slots.remove(slot);
 		}
 	}
 
-	@Nullable
-	Slot pollSlot(@Nullable ConcurrentLinkedQueue<Slot> slots) {
+	/**
+	 * Invoked on the event loop when the connection is closed.
+	 * The connection is removed from the pool if there are no active streams and no eviction in background,
+	 * otherwise it is kept out of the index until its last stream completes or the background eviction runs.
+	 *
+	 * @param slot the closed connection
+	 */
+	void closeSlot(Slot slot) {
+		Slots slots = CONNECTIONS.get(slot.pool);
 		if (slots == null) {
-			return null;
+			return;
 		}
-		Slot slot = slots.poll();
-		if (slot != null) {
-			IDLE_SIZE.decrementAndGet(this);
+		if (slot.concurrency() == 0 && poolConfig.evictInBackgroundInterval().isZero()) {
+			if (slots.remove(slot)) {
+				if (log.isDebugEnabled()) {
+					log.debug(format(slot.connection.channel(), "Channel is closed, remove from pool"));
+				}
+				slot.invalidate();
+			}
+		}
+		else if (slots.drain(slot) && log.isDebugEnabled()) {
+			log.debug(format(slot.connection.channel(), "Channel is closed, {} active streams"), slot.concurrency());
 		}
-		return slot;
 	}
 
-	void removeSlot(Slot slot) {
-		@SuppressWarnings("unchecked")
-		ConcurrentLinkedQueue<Slot> q = CONNECTIONS.get(slot.pool);
-		if (q != null && q.remove(slot)) {
-			IDLE_SIZE.decrementAndGet(this);
+	/**
+	 * Invoked on the event loop when a stream completes and the connection stays in the pool.
+	 * Connections that are closed, received GO_AWAY or must be evicted are moved out of the index,
+	 * otherwise the position of the connection in the index is updated.
+	 *
+	 * @param slot the connection
+	 */
+	void updateSlot(Slot slot) {
+		Slots slots = CONNECTIONS.get(slot.pool);
+		if (slots == null) {
+			return;
+		}
+		if (!slot.connection.channel().isActive() || slot.goAwayReceived() || testEvictionPredicate(slot)) {
+			slots.drain(slot);
+		}
+		else {
+			slots.update(slot);
 		}
 	}
 
@@ -906,6 +1056,258 @@ final class Http2Pool implements InstrumentedPool<Connection>, InstrumentedPool.
 		}
 	}
 
+	/**
+	 * The cached connections. The connections that can be used for opening new streams are kept in a binary max-heap
+	 * ordered by the number of streams that can still be opened on them, the connections inserted first come first
+	 * when this number is the same. The connections that are closed, received GO_AWAY or must be evicted, but still
+	 * have active streams, are kept aside (draining) until they are removed from the pool.
+	 * <p>
+	 * A connection taken from the heap for opening a new stream is not part of the cached connections until it is
+	 * offered again. All operations are guarded by the instance monitor.
+	 */
+	static final class Slots {
+
+		static final Slot[] EMPTY = new Slot[0];
+
+		Slot[] heap = new Slot[8];
+		int heapSize;
+		Slot[] draining = new Slot[4];
+		int drainingSize;
+		long sequence;
+
+		volatile int size;
+
+		int size() {
+			return size;
+		}
+
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+		/**
+		 * Return the connection with the most streams that can still be opened on it, without removing it.
+		 *
+		 * @return the least loaded connection or {@code null} if there are no connections in the heap
+		 */
+		@Nullable
+		synchronized Slot peek() {
+			return heapSize > 0 ? heap[0] : null;
+		}
+
+		/**
+		 * Add the connection to the heap, unless it is already part of the cached connections.
+		 *
+		 * @param slot the connection
+		 * @return {@code true} if the connection was added
+		 */
+		synchronized boolean offer(Slot slot) {
+			if (slot.index >= 0) {
+				return false;
+			}
+			addToHeap(slot);
+			size++;
+			return true;
+		}
+
+		/**
+		 * Remove the connection from the heap, if it is still there, before opening a new stream on it.
+		 *
+		 * @param slot the connection
+		 * @return {@code true} if the connection was removed
+		 */
+		synchronized boolean take(Slot slot) {
+			if (slot.index < 0 || slot.draining) {
+				return false;
+			}
+			removeFromHeap(slot);
+			size--;
+			return true;
+		}
+
+		/**
+		 * Remove the connection from the cached connections.
+		 *
+		 * @param slot the connection
+		 * @return {@code true} if the connection was removed
+		 */
+		synchronized boolean remove(Slot slot) {
+			if (slot.index < 0) {
+				return false;
+			}
+			if (slot.draining) {
+				removeFromDraining(slot);
+			}
+			else {
+				removeFromHeap(slot);
+			}
+			size--;
+			return true;
+		}
+
+		/**
+		 * Move the connection from the heap to the draining connections.
+		 *
+		 * @param slot the connection
+		 * @return {@code true} if the connection was moved
+		 */
+		synchronized boolean drain(Slot slot) {
+			if (slot.index < 0 || slot.draining) {
+				return false;
+			}
+			removeFromHeap(slot);
+			if (drainingSize == draining.length) {
+				draining = Arrays.copyOf(draining, drainingSize << 1);
+			}
+			slot.draining = true;
+			slot.index = drainingSize;
+			draining[drainingSize++] = slot;
+			return true;
+		}
+
+		/**
+		 * Update the position of the connection in the heap after its active or max concurrent streams changed.
+		 * A draining connection is moved back to the heap.
+		 *
+		 * @param slot the connection
+		 * @return {@code true} if the number of streams that can be opened on the connection changed
+		 */
+		synchronized boolean update(Slot slot) {
+			if (slot.index < 0) {
+				return false;
+			}
+			if (slot.draining) {
+				removeFromDraining(slot);
+				addToHeap(slot);
+				return true;
+			}
+			long freeStreams = slot.maxConcurrentStreams - slot.concurrency;
+			if (freeStreams == slot.freeStreams) {
+				return false;
+			}
+			slot.freeStreams = freeStreams;
+			if (!siftUp(slot.index)) {
+				siftDown(slot.index);
+			}
+			return true;
+		}
+
+		/**
+		 * Return all cached connections.
+		 *
+		 * @return all cached connections
+		 */
+		synchronized Slot[] toArray() {
+			if (heapSize + drainingSize == 0) {
+				return EMPTY;
+			}
+			Slot[] slots = Arrays.copyOf(heap, heapSize + drainingSize);
+			System.arraycopy(draining, 0, slots, heapSize, drainingSize);
+			return slots;
+		}
+
+		/**
+		 * Remove all cached connections.
+		 *
+		 * @return the removed connections
+		 */
+		synchronized Slot[] clear() {
+			Slot[] slots = toArray();
+			for (Slot slot : slots) {
+				slot.index = -1;
+				slot.draining = false;
+			}
+			Arrays.fill(heap, 0, heapSize, null);
+			Arrays.fill(draining, 0, drainingSize, null);
+			heapSize = 0;
+			drainingSize = 0;
+			size = 0;
+			return slots;
+		}
+
+		void addToHeap(Slot slot) {
+			if (heapSize == heap.length) {
+				heap = Arrays.copyOf(heap, heapSize << 1);
+			}
+			slot.draining = false;
+			slot.freeStreams = slot.maxConcurrentStreams - slot.concurrency;
+			slot.sequence = sequence++;
+			slot.index = heapSize;
+			heap[heapSize++] = slot;
+			siftUp(slot.index);
+		}
+
+		void removeFromHeap(Slot slot) {
+			int index = slot.index;
+			Slot last = heap[--heapSize];
+			heap[heapSize] = null;
+			slot.index = -1;
+			if (last != slot) {
+				heap[index] = last;
+				last.index = index;
+				if (!siftUp(index)) {
+					siftDown(index);
+				}
+			}
+		}
+
+		void removeFromDraining(Slot slot) {
+			int index = slot.index;
+			Slot last = draining[--drainingSize];
+			draining[drainingSize] = null;
+			slot.index = -1;
+			slot.draining = false;
+			if (last != slot) {
+				draining[index] = last;
+				last.index = index;
+			}
+		}
+
+		boolean siftUp(int index) {
+			Slot slot = heap[index];
+			int i = index;
+			while (i > 0) {
+				int parent = (i - 1) >>> 1;
+				Slot p = heap[parent];
+				if (!before(slot, p)) {
+					break;
+				}
+				heap[i] = p;
+				p.index = i;
+				i = parent;
+			}
+			heap[i] = slot;
+			slot.index = i;
+			return i != index;
+		}
+
+		void siftDown(int index) {
+			Slot slot = heap[index];
+			int i = index;
+			int half = heapSize >>> 1;
+			while (i < half) {
+				int child = (i << 1) + 1;
+				int right = child + 1;
+				if (right < heapSize && before(heap[right], heap[child])) {
+					child = right;
+				}
+				Slot c = heap[child];
+				if (!before(c, slot)) {
+					break;
+				}
+				heap[i] = c;
+				c.index = i;
+				i = child;
+			}
+			heap[i] = slot;
+			slot.index = i;
+		}
+
+		static boolean before(Slot a, Slot b) {
+			return a.freeStreams > b.freeStreams || (a.freeStreams == b.freeStreams && a.sequence < b.sequence);
+		}
+	}
+
 	static final class Slot extends AtomicBoolean implements PooledRefMetadata {
 
 		volatile int concurrency;
@@ -920,6 +1322,12 @@ final class Http2Pool implements InstrumentedPool<Connection>, InstrumentedPool.
 		long idleTimestamp;
 		long maxConcurrentStreams;
 
+		// guarded by Slots
+		int index = -1;
+		boolean draining;
+		long freeStreams;
+		long sequence;
+
 		volatile ChannelHandlerContext http2FrameCodecCtx;
 		volatile ChannelHandlerContext http2MultiplexHandlerCtx;
 		volatile ChannelHandlerContext h2cUpgradeHandlerCtx;
@@ -943,6 +1351,7 @@ final class Http2Pool implements InstrumentedPool<Connection>, InstrumentedPool.
 						Math.min(pool.maxConcurrentStreams, maxConcurrentStreams);
 			}
 			TOTAL_MAX_CONCURRENT_STREAMS.addAndGet(this.pool, this.maxConcurrentStreams);
+			connection.channel().closeFuture().addListener(f -> pool.closeSlot(this));
 		}
 
 		boolean canOpenStream() {
@@ -970,9 +1379,10 @@ final class Http2Pool implements InstrumentedPool<Connection>, InstrumentedPool.
 			if (log.isDebugEnabled()) {
 				log.debug(format(connection.channel(), "Channel deactivated"));
 			}
-			@SuppressWarnings("unchecked")
-			ConcurrentLinkedQueue<Slot> slots = CONNECTIONS.get(pool);
-			pool.offerSlot(slots, this);
+			Slots slots = CONNECTIONS.get(pool);
+			if (slots != null) {
+				slots.offer(this);
+			}
 		}
 
 		int decrementConcurrencyAndGet() {
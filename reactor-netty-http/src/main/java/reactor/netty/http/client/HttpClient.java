@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2011-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -510,6 +510,8 @@ public abstract class HttpClient extends ClientTransport<HttpClient, HttpClientC
 
 	/**
 	 * Specifies whether GZip compression is enabled.
+	 * When {@code brotli4j} and {@code zstd-jni} are available, {@code br} and {@code zstd} are accepted as well.
+	 * The sizes of the response body before and after the decompression are recorded when the metrics are enabled.
 	 *
 	 * @param compressionEnabled if true GZip compression is enabled otherwise disabled (default: false)
 	 * @return a new {@link HttpClient}
@@ -519,7 +521,7 @@ public abstract class HttpClient extends ClientTransport<HttpClient, HttpClientC
 			if (!configuration().acceptGzip) {
 				HttpClient dup = duplicate();
 				HttpHeaders headers = configuration().headers.copy();
-				headers.add(HttpHeaderNames.ACCEPT_ENCODING, HttpHeaderValues.GZIP);
+				headers.add(HttpHeaderNames.ACCEPT_ENCODING, HttpClientDecompressor.ACCEPT_ENCODING);
 				dup.configuration().headers = headers;
 				dup.configuration().acceptGzip = true;
 				return dup;
@@ -1590,7 +1592,7 @@ public abstract class HttpClient extends ClientTransport<HttpClient, HttpClientC
 	}
 
 	static boolean isCompressing(HttpHeaders h) {
-		return h.contains(HttpHeaderNames.ACCEPT_ENCODING, HttpHeaderValues.GZIP, true);
+		return h.containsValue(HttpHeaderNames.ACCEPT_ENCODING, HttpHeaderValues.GZIP, true);
 	}
 
 	static String reactorNettyVersion() {
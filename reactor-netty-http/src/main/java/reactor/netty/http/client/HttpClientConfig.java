@@ -41,7 +41,6 @@ import io.netty.channel.ChannelPipeline;
 import io.netty.handler.codec.http.DefaultHttpHeaders;
 import io.netty.handler.codec.http.HttpClientCodec;
 import io.netty.handler.codec.http.HttpClientUpgradeHandler;
-import io.netty.handler.codec.http.HttpContentDecompressor;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.cookie.ClientCookieDecoder;
@@ -539,7 +538,7 @@ public final class HttpClientConfig extends ClientTransportConfig<HttpClientConf
 				.addLast(NettyPipeline.HttpTrafficHandler, HTTP_2_STREAM_BRIDGE_CLIENT_HANDLER);
 
 		if (acceptGzip) {
-			pipeline.addLast(NettyPipeline.HttpDecompressor, new HttpContentDecompressor());
+			pipeline.addLast(NettyPipeline.HttpDecompressor, new HttpClientDecompressor(metricsRecorder));
 		}
 
 		ChannelOperations.addReactiveBridge(ch, opsFactory, obs);
@@ -653,7 +652,7 @@ public final class HttpClientConfig extends ClientTransportConfig<HttpClientConf
 		 .addBefore(NettyPipeline.ReactiveBridge, NettyPipeline.HttpTrafficHandler, new HttpTrafficHandler(observer));
 
 		if (acceptGzip) {
-			p.addBefore(NettyPipeline.ReactiveBridge, NettyPipeline.HttpDecompressor, new HttpContentDecompressor());
+			p.addBefore(NettyPipeline.ReactiveBridge, NettyPipeline.HttpDecompressor, new HttpClientDecompressor(metricsRecorder));
 		}
 
 		if (metricsRecorder != null) {
@@ -693,7 +692,7 @@ public final class HttpClientConfig extends ClientTransportConfig<HttpClientConf
 						decoder.allowDuplicateContentLengths()));
 
 		if (acceptGzip) {
-			p.addAfter(NettyPipeline.HttpCodec, NettyPipeline.HttpDecompressor, new HttpContentDecompressor());
+			p.addAfter(NettyPipeline.HttpCodec, NettyPipeline.HttpDecompressor, new HttpClientDecompressor(metricsRecorder));
 		}
 
 		if (metricsRecorder != null) {
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.client;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.Brotli;
+import io.netty.handler.codec.compression.Zstd;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpContentDecompressor;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpObject;
+import io.netty.handler.codec.http.LastHttpContent;
+import reactor.netty.channel.ChannelMetricsRecorder;
+import reactor.util.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * Decompresses the {@code gzip}, {@code deflate}, {@code br} and {@code zstd} responses.
+ * {@code br} and {@code zstd} are supported only when {@code brotli4j} and {@code zstd-jni} are available.
+ * The sizes of the response body before and after the decompression are recorded with
+ * {@link HttpClientMetricsRecorder#recordDecompression}.
+ *
+ * @since 1.1.3
+ */
+final class HttpClientDecompressor extends HttpContentDecompressor {
+
+	/**
+	 * The {@code Accept-Encoding} request header with the encodings that can be decompressed,
+	 * {@code deflate} is not advertised.
+	 */
+	static final String ACCEPT_ENCODING = acceptEncoding();
+
+	final HttpClientMetricsRecorder recorder;
+
+	// The decompression of the current response, recorded when the last content is decoded
+	long compressedBytes;
+	long decompressedBytes;
+	String encoding;
+
+	HttpClientDecompressor(@Nullable ChannelMetricsRecorder recorder) {
+		this.recorder = recorder instanceof HttpClientMetricsRecorder ? (HttpClientMetricsRecorder) recorder : null;
+	}
+
+	@Override
+	@Nullable
+	protected EmbeddedChannel newContentDecoder(String contentEncoding) throws Exception {
+		EmbeddedChannel decoder;
+		if (HttpHeaderValues.ZSTD.contentEqualsIgnoreCase(contentEncoding) && Zstd.isAvailable()) {
+			decoder = new EmbeddedChannel(ctx.channel().id(), ctx.channel().metadata().hasDisconnect(),
+					ctx.channel().config(), new ZstdDecoder());
+		}
+		else {
+			decoder = super.newContentDecoder(contentEncoding);
+		}
+		encoding = decoder != null && recorder != null ? contentEncoding : null;
+		return decoder;
+	}
+
+	@Override
+	protected void decode(ChannelHandlerContext ctx, HttpObject msg, List<Object> out) throws Exception {
+		if (recorder == null) {
+			super.decode(ctx, msg, out);
+			return;
+		}
+
+		int contentBytes = msg instanceof HttpContent ? ((HttpContent) msg).content().readableBytes() : 0;
+		int outSize = out.size();
+		super.decode(ctx, msg, out);
+		if (encoding == null) {
+			return;
+		}
+
+		compressedBytes += contentBytes;
+		for (int i = outSize; i < out.size(); i++) {
+			Object o = out.get(i);
+			if (o instanceof HttpContent) {
+				decompressedBytes += ((HttpContent) o).content().readableBytes();
+			}
+		}
+		if (msg instanceof LastHttpContent) {
+			recorder.recordDecompression(ctx.channel().remoteAddress(), encoding, compressedBytes, decompressedBytes);
+			compressedBytes = 0;
+			decompressedBytes = 0;
+			encoding = null;
+		}
+	}
+
+	static String acceptEncoding() {
+		StringBuilder acceptEncoding = new StringBuilder(HttpHeaderValues.GZIP);
+		if (Brotli.isAvailable()) {
+			acceptEncoding.append(", ").append(HttpHeaderValues.BR);
+		}
+		if (Zstd.isAvailable()) {
+			acceptEncoding.append(", ").append(HttpHeaderValues.ZSTD);
+		}
+		return acceptEncoding.toString();
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2022-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,6 +27,56 @@ import io.micrometer.core.instrument.docs.MeterDocumentation;
  */
 enum HttpClientMeters implements MeterDocumentation {
 
+	/**
+	 * Amount of the compressed data received, in bytes.
+	 */
+	HTTP_CLIENT_DATA_RECEIVED_COMPRESSED {
+		@Override
+		public String getBaseUnit() {
+			return "bytes";
+		}
+
+		@Override
+		public String getName() {
+			return "reactor.netty.http.client.data.received.compressed";
+		}
+
+		@Override
+		public KeyName[] getKeyNames() {
+			return DecompressionTags.values();
+		}
+
+		@Override
+		public Meter.Type getType() {
+			return Meter.Type.DISTRIBUTION_SUMMARY;
+		}
+	},
+
+	/**
+	 * Amount of the data received after the decompression, in bytes.
+	 */
+	HTTP_CLIENT_DATA_RECEIVED_DECOMPRESSED {
+		@Override
+		public String getBaseUnit() {
+			return "bytes";
+		}
+
+		@Override
+		public String getName() {
+			return "reactor.netty.http.client.data.received.decompressed";
+		}
+
+		@Override
+		public KeyName[] getKeyNames() {
+			return DecompressionTags.values();
+		}
+
+		@Override
+		public Meter.Type getType() {
+			return Meter.Type.DISTRIBUTION_SUMMARY;
+		}
+	},
+
 	/**
 	 * Time spent in consuming incoming data on the client.
 	 */
@@ -67,6 +117,29 @@ enum HttpClientMeters implements MeterDocumentation {
 		}
 	};
 
+	enum DecompressionTags implements KeyName {
+
+		/**
+		 * Content encoding.
+		 */
+		ENCODING {
+			@Override
+			public String asString() {
+				return "encoding";
+			}
+		},
+
+		/**
+		 * Remote address.
+		 */
+		REMOTE_ADDRESS {
+			@Override
+			public String asString() {
+				return "remote.address";
+			}
+		}
+	}
+
 	enum DataReceivedTimeTags implements KeyName {
 
 		/**
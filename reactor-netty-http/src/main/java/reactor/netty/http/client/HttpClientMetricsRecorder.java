@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019-2021 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2019-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -58,4 +58,15 @@ public interface HttpClientMetricsRecorder extends HttpMetricsRecorder {
 	 * @param time the total time in nanoseconds for the request/response
 	 */
 	void recordResponseTime(SocketAddress remoteAddress, String uri, String method, String status, Duration time);
+
+	/**
+	 * Records the decompression of a response body
+	 *
+	 * @param remoteAddress The remote peer
+	 * @param encoding the content encoding, e.g. {@code gzip}
+	 * @param compressedBytes the size of the response body before the decompression, in bytes
+	 * @param decompressedBytes the size of the response body after the decompression, in bytes
+	 * @since 1.1.3
+	 */
+	default void recordDecompression(SocketAddress remoteAddress, String encoding, long compressedBytes, long decompressedBytes) { }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2019-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,6 +15,7 @@
  */
 package reactor.netty.http.client;
 
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.Timer;
 import reactor.netty.Metrics;
 import reactor.netty.channel.MeterKey;
@@ -24,7 +25,11 @@ import reactor.util.annotation.Nullable;
 
 import java.net.SocketAddress;
 import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import static reactor.netty.Metrics.DATA_RECEIVED_COMPRESSED;
+import static reactor.netty.Metrics.DATA_RECEIVED_DECOMPRESSED;
 import static reactor.netty.Metrics.DATA_RECEIVED_TIME;
 import static reactor.netty.Metrics.DATA_SENT_TIME;
 import static reactor.netty.Metrics.HTTP_CLIENT_PREFIX;
@@ -42,6 +47,8 @@ import static reactor.netty.Metrics.URI;
 final class MicrometerHttpClientMetricsRecorder extends MicrometerHttpMetricsRecorder implements HttpClientMetricsRecorder {
 
 	final static MicrometerHttpClientMetricsRecorder INSTANCE = new MicrometerHttpClientMetricsRecorder();
+	private final ConcurrentMap<MeterKey, DistributionSummary> dataReceivedCompressedCache = new ConcurrentHashMap<>();
+	private final ConcurrentMap<MeterKey, DistributionSummary> dataReceivedDecompressedCache = new ConcurrentHashMap<>();
 
 	private MicrometerHttpClientMetricsRecorder() {
 		super(HTTP_CLIENT_PREFIX, "http");
@@ -87,6 +94,31 @@ final class MicrometerHttpClientMetricsRecorder extends MicrometerHttpMetricsRec
 		}
 	}
 
+	@Override
+	public void recordDecompression(SocketAddress remoteAddress, String encoding, long compressedBytes, long decompressedBytes) {
+		String address = Metrics.formatSocketAddress(remoteAddress);
+		MeterKey meterKey = new MeterKey(null, address, null, encoding);
+		DistributionSummary dataReceivedCompressed = MapUtils.computeIfAbsent(dataReceivedCompressedCache, meterKey,
+				key -> filter(DistributionSummary.builder(name() + DATA_RECEIVED_COMPRESSED)
+				                                 .baseUnit(HttpClientMeters.HTTP_CLIENT_DATA_RECEIVED_COMPRESSED.getBaseUnit())
+				                                 .tags(HttpClientMeters.DecompressionTags.REMOTE_ADDRESS.asString(), address,
+				                                       HttpClientMeters.DecompressionTags.ENCODING.asString(), encoding)
+				                                 .register(REGISTRY)));
+		if (dataReceivedCompressed != null) {
+			dataReceivedCompressed.record(compressedBytes);
+		}
+
+		DistributionSummary dataReceivedDecompressed = MapUtils.computeIfAbsent(dataReceivedDecompressedCache, meterKey,
+				key -> filter(DistributionSummary.builder(name() + DATA_RECEIVED_DECOMPRESSED)
+				                                 .baseUnit(HttpClientMeters.HTTP_CLIENT_DATA_RECEIVED_DECOMPRESSED.getBaseUnit())
+				                                 .tags(HttpClientMeters.DecompressionTags.REMOTE_ADDRESS.asString(), address,
+				                                       HttpClientMeters.DecompressionTags.ENCODING.asString(), encoding)
+				                                 .register(REGISTRY)));
+		if (dataReceivedDecompressed != null) {
+			dataReceivedDecompressed.record(decompressedBytes);
+		}
+	}
+
 	@Nullable
 	final Timer getResponseTimeTimer(String name, String address, String uri, String method, String status) {
 		MeterKey meterKey = new MeterKey(uri, address, method, status);
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.client;
+
+import com.github.luben.zstd.ZstdDecompressCtx;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.compression.DecompressionException;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Decompresses a {@code zstd} stream with {@code zstd-jni}, which is an optional dependency.
+ * The input is decompressed as it arrives into pooled direct buffers.
+ *
+ * @since 1.1.3
+ */
+final class ZstdDecoder extends ByteToMessageDecoder {
+
+	/**
+	 * The size of the buffers with decompressed content.
+	 */
+	static final int OUTPUT_BUFFER_SIZE = 32 * 1024;
+
+	ZstdDecompressCtx decompressCtx;
+
+	@Override
+	public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+		decompressCtx = new ZstdDecompressCtx();
+		super.handlerAdded(ctx);
+	}
+
+	@Override
+	protected void handlerRemoved0(ChannelHandlerContext ctx) {
+		if (decompressCtx != null) {
+			decompressCtx.close();
+			decompressCtx = null;
+		}
+	}
+
+	@Override
+	protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+		int readable = in.readableBytes();
+		if (readable == 0) {
+			return;
+		}
+
+		// zstd-jni works on direct buffers
+		ByteBuf direct = in.isDirect() && in.nioBufferCount() == 1 ? null : ctx.alloc().directBuffer(readable);
+		try {
+			ByteBuffer src;
+			if (direct == null) {
+				src = in.nioBuffer(in.readerIndex(), readable);
+			}
+			else {
+				direct.writeBytes(in, in.readerIndex(), readable);
+				src = direct.nioBuffer(0, readable);
+			}
+			int srcStart = src.position();
+
+			boolean full;
+			do {
+				ByteBuf buffer = ctx.alloc().directBuffer(OUTPUT_BUFFER_SIZE);
+				ByteBuffer dst = buffer.nioBuffer(buffer.writerIndex(), buffer.writableBytes());
+				int dstStart = dst.position();
+				try {
+					decompressCtx.decompressDirectByteBufferStream(dst, src);
+				}
+				catch (RuntimeException e) {
+					buffer.release();
+					throw new DecompressionException(e);
+				}
+				int produced = dst.position() - dstStart;
+				full = !dst.hasRemaining();
+				if (produced > 0) {
+					out.add(buffer.writerIndex(buffer.writerIndex() + produced));
+				}
+				else {
+					buffer.release();
+				}
+			}
+			// the output may hold more content when the buffer is full
+			while (src.hasRemaining() || full);
+
+			in.skipBytes(src.position() - srcStart);
+		}
+		finally {
+			if (direct != null) {
+				direct.release();
+			}
+		}
+	}
+}
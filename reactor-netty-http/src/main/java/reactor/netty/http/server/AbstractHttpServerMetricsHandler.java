@@ -33,6 +33,7 @@ import reactor.util.annotation.Nullable;
 import java.time.Duration;
 import java.util.function.Function;
 
+import static reactor.netty.Metrics.UNKNOWN;
 import static reactor.netty.ReactorNetty.format;
 
 /**
@@ -121,7 +122,7 @@ abstract class AbstractHttpServerMetricsHandler extends ChannelDuplexHandler {
 				ChannelOperations<?, ?> channelOps = ChannelOperations.get(ctx.channel());
 				if (channelOps instanceof HttpServerOperations) {
 					HttpServerOperations ops = (HttpServerOperations) channelOps;
-					startWrite(ops, uriTagValue == null ? ops.path : uriTagValue.apply(ops.path),
+					startWrite(ops, uriTag(ops),
 							ops.method().name(), ops.status().codeAsText().toString());
 				}
 			}
@@ -134,7 +135,7 @@ abstract class AbstractHttpServerMetricsHandler extends ChannelDuplexHandler {
 					if (channelOps instanceof HttpServerOperations) {
 						HttpServerOperations ops = (HttpServerOperations) channelOps;
 						try {
-							recordWrite(ops, uriTagValue == null ? ops.path : uriTagValue.apply(ops.path),
+							recordWrite(ops, uriTag(ops),
 									ops.method().name(), ops.status().codeAsText().toString());
 						}
 						catch (RuntimeException e) {
@@ -164,6 +165,7 @@ abstract class AbstractHttpServerMetricsHandler extends ChannelDuplexHandler {
 
 	@Override
 	public void channelRead(ChannelHandlerContext ctx, Object msg) {
+		HttpServerOperations fullRequestOps = null;
 		try {
 			if (msg instanceof HttpRequest) {
 				ChannelOperations<?, ?> channelOps = ChannelOperations.get(ctx.channel());
@@ -176,6 +178,7 @@ abstract class AbstractHttpServerMetricsHandler extends ChannelDuplexHandler {
 					else {
 						recordActiveConnection(ops);
 					}
+					// The route is not matched yet, the URI tag value is resolved again when the request is recorded
 					startRead(ops, uriTagValue == null ? ops.path : uriTagValue.apply(ops.path), ops.method().name());
 				}
 			}
@@ -186,10 +189,19 @@ abstract class AbstractHttpServerMetricsHandler extends ChannelDuplexHandler {
 				ChannelOperations<?, ?> channelOps = ChannelOperations.get(ctx.channel());
 				if (channelOps instanceof HttpServerOperations) {
 					HttpServerOperations ops = (HttpServerOperations) channelOps;
-					recordRead(ops, uriTagValue == null ? ops.path : uriTagValue.apply(ops.path), ops.method().name());
+					if (msg instanceof HttpRequest) {
+						// The route is matched when the request is propagated,
+						// record after that in order to use the template of the route as URI tag value
+						fullRequestOps = ops;
+					}
+					else {
+						recordRead(ops, uriTag(ops), ops.method().name());
+					}
 				}
 
-				dataReceived = 0;
+				if (fullRequestOps == null) {
+					dataReceived = 0;
+				}
 			}
 		}
 		catch (RuntimeException e) {
@@ -200,6 +212,20 @@ abstract class AbstractHttpServerMetricsHandler extends ChannelDuplexHandler {
 		}
 
 		ctx.fireChannelRead(msg);
+
+		if (fullRequestOps != null) {
+			try {
+				recordRead(fullRequestOps, uriTag(fullRequestOps), fullRequestOps.method().name());
+			}
+			catch (RuntimeException e) {
+				if (log.isWarnEnabled()) {
+					log.warn(format(ctx.channel(), "Exception caught while recording metrics."), e);
+				}
+				// Allow request-response exchange to continue, unaffected by metrics problem
+			}
+
+			dataReceived = 0;
+		}
 	}
 
 	@Override
@@ -209,7 +235,7 @@ abstract class AbstractHttpServerMetricsHandler extends ChannelDuplexHandler {
 			if (channelOps instanceof HttpServerOperations) {
 				HttpServerOperations ops = (HttpServerOperations) channelOps;
 				// Always take the remote address from the operations in order to consider proxy information
-				recordException(ops, uriTagValue == null ? ops.path : uriTagValue.apply(ops.path));
+				recordException(ops, uriTag(ops));
 			}
 		}
 		catch (RuntimeException e) {
@@ -234,6 +260,21 @@ abstract class AbstractHttpServerMetricsHandler extends ChannelDuplexHandler {
 
 	protected abstract HttpServerMetricsRecorder recorder();
 
+	/**
+	 * Returns the URI tag value of the request. When no {@code uriTagValue} function is configured, this is the template
+	 * of the matched route, e.g. {@code /users/{id}}, or {@code UNKNOWN} when the request has not been matched by a route
+	 * with a template, so that the requests with arbitrary URIs, e.g. {@code 404}, do not create distinct URI tag values.
+	 *
+	 * @param ops the request
+	 * @return the URI tag value of the request
+	 */
+	String uriTag(HttpServerOperations ops) {
+		if (uriTagValue != null) {
+			return uriTagValue.apply(ops.path);
+		}
+		return ops.route != null ? ops.route : UNKNOWN;
+	}
+
 	protected void recordException(HttpServerOperations ops, String path) {
 		// Always take the remote address from the operations in order to consider proxy information
 		recorder().incrementErrorsCount(ops.remoteAddress(), path);
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2021 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2011-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,8 +15,6 @@
  */
 package reactor.netty.http.server;
 
-import java.net.URI;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -25,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -47,39 +46,42 @@ final class DefaultHttpServerRoutes implements HttpServerRoutes {
 
 	private Comparator<HttpRouteHandlerMetadata> comparator;
 
-	@Override
-	public HttpServerRoutes directory(String uri, Path directory,
-			@Nullable Function<HttpServerResponse, HttpServerResponse> interceptor) {
-		Objects.requireNonNull(directory, "directory");
-		return route(HttpPredicate.prefix(uri), (req, resp) -> {
+	private volatile boolean compiled;
 
-			String prefix = URI.create(req.uri())
-			                   .getPath()
-			                   .replaceFirst(uri, "");
+	private volatile HttpRouteTree routeTree;
 
-			if (!prefix.isEmpty() && prefix.charAt(0) == '/') {
-				prefix = prefix.substring(1);
-			}
+	private volatile int version;
+	private static final AtomicIntegerFieldUpdater<DefaultHttpServerRoutes> VERSION =
+			AtomicIntegerFieldUpdater.newUpdater(DefaultHttpServerRoutes.class, "version");
 
-			Path p = directory.resolve(prefix);
-			if (Files.isReadable(p)) {
+	@Override
+	public HttpServerRoutes compiled(boolean compiled) {
+		this.compiled = compiled;
+		return this;
+	}
 
-				if (interceptor != null) {
-					return interceptor.apply(resp)
-					                  .sendFile(p);
-				}
-				return resp.sendFile(p);
-			}
+	@Override
+	public HttpServerRoutes directory(String uri, Path directory,
+			@Nullable Function<HttpServerResponse, HttpServerResponse> interceptor) {
+		Objects.requireNonNull(directory, "directory");
+		return route(HttpPredicate.prefix(uri), new StaticFileHandler(uri, directory, interceptor, null));
+	}
 
-			return resp.sendNotFound();
-		});
+	@Override
+	public HttpServerRoutes directory(String uri, Path directory,
+			@Nullable Function<HttpServerResponse, HttpServerResponse> interceptor, StaticFileCache cache) {
+		Objects.requireNonNull(directory, "directory");
+		Objects.requireNonNull(cache, "cache");
+		return route(HttpPredicate.prefix(uri), new StaticFileHandler(uri, directory, interceptor, cache));
 	}
 
 	@Override
 	public HttpServerRoutes removeIf(Predicate<? super HttpRouteHandlerMetadata> condition) {
 		Objects.requireNonNull(condition, "condition");
 
-		handlers.removeIf(condition);
+		if (handlers.removeIf(condition)) {
+			VERSION.incrementAndGet(this);
+		}
 
 		return this;
 	}
@@ -108,6 +110,7 @@ final class DefaultHttpServerRoutes implements HttpServerRoutes {
 		if (this.comparator != null) {
 			handlers.sort(this.comparator);
 		}
+		VERSION.incrementAndGet(this);
 
 		return this;
 	}
@@ -117,6 +120,7 @@ final class DefaultHttpServerRoutes implements HttpServerRoutes {
 		Objects.requireNonNull(comparator, "comparator");
 		this.comparator = comparator;
 		handlers.sort(comparator);
+		VERSION.incrementAndGet(this);
 		return this;
 	}
 
@@ -124,11 +128,16 @@ final class DefaultHttpServerRoutes implements HttpServerRoutes {
 	public HttpServerRoutes noComparator() {
 		handlers.clear();
 		handlers.addAll(initialOrderHandlers);
+		VERSION.incrementAndGet(this);
 		return this;
 	}
 
 	@Override
 	public Publisher<Void> apply(HttpServerRequest request, HttpServerResponse response) {
+		if (compiled) {
+			return applyCompiled(request, response);
+		}
+
 		// find I/0 handler to process this request
 		final Iterator<HttpRouteHandler> iterator = handlers.iterator();
 		HttpRouteHandler cursor;
@@ -136,8 +145,9 @@ final class DefaultHttpServerRoutes implements HttpServerRoutes {
 		try {
 			while (iterator.hasNext()) {
 				cursor = iterator.next();
-				if (cursor.test(request)) {
-					return cursor.apply(request, response);
+				UriPathParams pathParams = cursor.match(request);
+				if (pathParams != null) {
+					return cursor.apply(request, response, pathParams);
 				}
 			}
 		}
@@ -149,6 +159,27 @@ final class DefaultHttpServerRoutes implements HttpServerRoutes {
 		return response.sendNotFound();
 	}
 
+	Publisher<Void> applyCompiled(HttpServerRequest request, HttpServerResponse response) {
+		try {
+			return routeTree().apply(request, response);
+		}
+		catch (Throwable t) {
+			Exceptions.throwIfJvmFatal(t);
+			return Mono.error(t); //500
+		}
+	}
+
+	HttpRouteTree routeTree() {
+		// read the version before taking the snapshot, a concurrent change will trigger a new compilation
+		int version = this.version;
+		HttpRouteTree routeTree = this.routeTree;
+		if (routeTree == null || routeTree.version != version) {
+			routeTree = new HttpRouteTree(handlers, version);
+			this.routeTree = routeTree;
+		}
+		return routeTree;
+	}
+
 	static final class HttpRouteHandler
 			implements BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>>,
 			Predicate<HttpServerRequest>, HttpRouteHandlerMetadata {
@@ -157,6 +188,7 @@ final class DefaultHttpServerRoutes implements HttpServerRoutes {
 		final BiFunction<? super HttpServerRequest, ? super HttpServerResponse, ? extends Publisher<Void>>
 				handler;
 		final Function<? super String, Map<String, String>> resolver;
+		final HttpPredicate predicate;
 
 		final String path;
 
@@ -170,6 +202,7 @@ final class DefaultHttpServerRoutes implements HttpServerRoutes {
 			this.condition = Objects.requireNonNull(condition, "condition");
 			this.handler = Objects.requireNonNull(handler, "handler");
 			this.resolver = resolver;
+			this.predicate = condition instanceof HttpPredicate ? (HttpPredicate) condition : null;
 			this.path = path;
 			this.method = method;
 		}
@@ -180,6 +213,37 @@ final class DefaultHttpServerRoutes implements HttpServerRoutes {
 			return handler.apply(request.paramsResolver(resolver), response);
 		}
 
+		/**
+		 * Invokes the handler with the path parameters captured by {@link #match(HttpServerRequest)}.
+		 *
+		 * @param request the incoming request
+		 * @param response the response
+		 * @param pathParams the captured path parameters
+		 * @return the handler result
+		 */
+		Publisher<Void> apply(HttpServerRequest request, HttpServerResponse response, UriPathParams pathParams) {
+			if (predicate != null && request instanceof HttpServerOperations) {
+				HttpServerOperations ops = (HttpServerOperations) request;
+				ops.route = path;
+				return handler.apply(ops.pathParams(pathParams), response);
+			}
+			return apply(request, response);
+		}
+
+		/**
+		 * Matches the request, {@link HttpPredicate} routes capture the path parameters in the same pass.
+		 *
+		 * @param request the incoming request
+		 * @return the path parameters if the request matches, {@code null} otherwise
+		 */
+		@Nullable
+		UriPathParams match(HttpServerRequest request) {
+			if (predicate != null) {
+				return predicate.capture(request);
+			}
+			return condition.test(request) ? UriPathParams.EMPTY : null;
+		}
+
 		@Override
 		public boolean test(HttpServerRequest o) {
 			return condition.test(o);
@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.server;
+
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import io.netty.handler.codec.compression.Brotli;
+import io.netty.handler.codec.compression.CompressionOptions;
+import io.netty.handler.codec.compression.StandardCompressionOptions;
+import io.netty.handler.codec.compression.Zstd;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import reactor.util.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A configuration builder for the response compression of {@link HttpServer}. It lists the encodings
+ * ({@code br}, {@code zstd}, {@code gzip}, {@code deflate}) with their settings and the content types
+ * that are compressed.
+ * <p>The encoding is selected with the quality values of the {@code Accept-Encoding} request header,
+ * the order in which the encodings are configured is used when the quality values are equal.
+ * {@code br} and {@code zstd} are used only when {@code brotli4j} and {@code zstd-jni} are available.
+ *
+ * @since 1.1.3
+ */
+public final class HttpCompressionSpec {
+
+	static final Logger log = Loggers.getLogger(HttpCompressionSpec.class);
+
+	static final String BR = HttpHeaderValues.BR.toString();
+	static final String DEFLATE = HttpHeaderValues.DEFLATE.toString();
+	static final String GZIP = HttpHeaderValues.GZIP.toString();
+	static final String ZSTD = HttpHeaderValues.ZSTD.toString();
+
+	/**
+	 * The default window bits of the {@code gzip} and {@code deflate} encodings.
+	 */
+	public static final int DEFAULT_WINDOW_BITS = 15;
+
+	/**
+	 * The default memory level of the {@code gzip} and {@code deflate} encodings.
+	 */
+	public static final int DEFAULT_MEM_LEVEL = 8;
+
+	/**
+	 * {@code gzip} and {@code deflate} with the compression level {@code 6}, all content types are compressed.
+	 */
+	static final HttpCompressionSpec DEFAULT = builder().build();
+
+	public interface Builder {
+
+		/**
+		 * Build a new {@link HttpCompressionSpec}.
+		 * When no encoding is configured, {@code gzip} and {@code deflate} are enabled with the compression level {@code 6}.
+		 *
+		 * @return a new {@link HttpCompressionSpec}
+		 */
+		HttpCompressionSpec build();
+
+		/**
+		 * Enables the {@code br} encoding. It is used only when {@code brotli4j} is available.
+		 *
+		 * @param quality the quality, between {@code 0} and {@code 11}
+		 * @param window the base 2 logarithm of the window size, between {@code 10} and {@code 24}
+		 * @return {@code this}
+		 */
+		Builder brotli(int quality, int window);
+
+		/**
+		 * Sets the content types that are compressed, e.g. {@code text/html} or {@code text/*}.
+		 * The parameters of the {@code Content-Type} response header are ignored when matching.
+		 * By default all content types are compressed.
+		 *
+		 * @param contentTypes the content types that are compressed
+		 * @return {@code this}
+		 */
+		Builder contentTypes(String... contentTypes);
+
+		/**
+		 * Enables the {@code deflate} encoding.
+		 * Window bits and a memory level other than the defaults require {@code jzlib}.
+		 *
+		 * @param compressionLevel the compression level, between {@code 0} and {@code 9}
+		 * @param windowBits the base 2 logarithm of the window size, between {@code 9} and {@code 15}
+		 * @param memLevel the memory level, between {@code 1} and {@code 9}
+		 * @return {@code this}
+		 */
+		Builder deflate(int compressionLevel, int windowBits, int memLevel);
+
+		/**
+		 * Enables the {@code gzip} encoding.
+		 * Window bits and a memory level other than the defaults require {@code jzlib}.
+		 *
+		 * @param compressionLevel the compression level, between {@code 0} and {@code 9}
+		 * @param windowBits the base 2 logarithm of the window size, between {@code 9} and {@code 15}
+		 * @param memLevel the memory level, between {@code 1} and {@code 9}
+		 * @return {@code this}
+		 */
+		Builder gzip(int compressionLevel, int windowBits, int memLevel);
+
+		/**
+		 * Enables the {@code zstd} encoding. It is used only when {@code zstd-jni} is available.
+		 *
+		 * @param compressionLevel the compression level, between {@code -131072} and {@code 22}
+		 * @param blockSize the size of the blocks that are compressed
+		 * @param maxEncodeSize the maximum size of the content that is compressed
+		 * @return {@code this}
+		 */
+		Builder zstd(int compressionLevel, int blockSize, int maxEncodeSize);
+	}
+
+	/**
+	 * Creates a builder for {@link HttpCompressionSpec}.
+	 *
+	 * @return a new {@link HttpCompressionSpec.Builder}
+	 */
+	public static Builder builder() {
+		return new Build();
+	}
+
+	/**
+	 * Returns the content types that are compressed, empty when all content types are compressed.
+	 *
+	 * @return the content types that are compressed
+	 */
+	public List<String> contentTypes() {
+		return contentTypes;
+	}
+
+	/**
+	 * Returns the configured encodings in order of preference, including those that are not available.
+	 *
+	 * @return the configured encodings
+	 */
+	public List<String> encodings() {
+		return encodings;
+	}
+
+	/**
+	 * Returns {@code true} when a response with the given {@code Content-Type} is compressed.
+	 *
+	 * @param contentType the {@code Content-Type} response header
+	 * @return {@code true} when a response with the given {@code Content-Type} is compressed
+	 */
+	boolean isCompressible(@Nullable String contentType) {
+		if (contentTypes.isEmpty()) {
+			return true;
+		}
+		if (contentType == null) {
+			return false;
+		}
+		int semicolon = contentType.indexOf(';');
+		String mimeType = (semicolon < 0 ? contentType : contentType.substring(0, semicolon)).trim()
+		                                                                                   .toLowerCase(Locale.ROOT);
+		for (String type : contentTypes) {
+			if (type.endsWith("/*") ? mimeType.startsWith(type.substring(0, type.length() - 1)) : mimeType.equals(type)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the settings of the encoding ({@code level, windowBits, memLevel} for {@code gzip} and {@code deflate},
+	 * {@code quality, window} for {@code br}, {@code level, blockSize, maxEncodeSize} for {@code zstd}) or null.
+	 *
+	 * @param encoding the encoding
+	 * @return the settings of the encoding or null
+	 */
+	@Nullable
+	int[] settings(String encoding) {
+		return settings.get(encoding);
+	}
+
+	final List<String> availableEncodings;
+	final List<String> contentTypes;
+	final List<String> encodings;
+	final CompressionOptions[] options;
+	final Map<String, int[]> settings;
+
+	HttpCompressionSpec(Build build) {
+		Map<String, int[]> settings = new LinkedHashMap<>(build.settings);
+		if (settings.isEmpty()) {
+			settings.put(GZIP, new int[]{SimpleCompressionHandler.DEFAULT_COMPRESSION_LEVEL, DEFAULT_WINDOW_BITS, DEFAULT_MEM_LEVEL});
+			settings.put(DEFLATE, new int[]{SimpleCompressionHandler.DEFAULT_COMPRESSION_LEVEL, DEFAULT_WINDOW_BITS, DEFAULT_MEM_LEVEL});
+		}
+		this.settings = Collections.unmodifiableMap(settings);
+		this.contentTypes = Collections.unmodifiableList(new ArrayList<>(build.contentTypes));
+		this.encodings = Collections.unmodifiableList(new ArrayList<>(settings.keySet()));
+
+		List<String> availableEncodings = new ArrayList<>(settings.size());
+		List<CompressionOptions> options = new ArrayList<>(settings.size());
+		for (Map.Entry<String, int[]> e : settings.entrySet()) {
+			String encoding = e.getKey();
+			int[] s = e.getValue();
+			if (BR.equals(encoding)) {
+				if (!Brotli.isAvailable()) {
+					if (log.isDebugEnabled()) {
+						log.debug("The br encoding is not available, brotli4j cannot be loaded", Brotli.cause());
+					}
+					continue;
+				}
+				options.add(BrotliSupport.brotli(s[0], s[1]));
+			}
+			else if (ZSTD.equals(encoding)) {
+				if (!Zstd.isAvailable()) {
+					if (log.isDebugEnabled()) {
+						log.debug("The zstd encoding is not available, zstd-jni cannot be loaded", Zstd.cause());
+					}
+					continue;
+				}
+				options.add(StandardCompressionOptions.zstd(s[0], s[1], s[2]));
+			}
+			else if (GZIP.equals(encoding)) {
+				options.add(StandardCompressionOptions.gzip(s[0], s[1], s[2]));
+			}
+			else {
+				options.add(StandardCompressionOptions.deflate(s[0], s[1], s[2]));
+			}
+			availableEncodings.add(encoding);
+		}
+		this.availableEncodings = Collections.unmodifiableList(availableEncodings);
+		this.options = options.toArray(new CompressionOptions[0]);
+	}
+
+	/**
+	 * Isolates the references to {@code brotli4j} which is an optional dependency.
+	 */
+	static final class BrotliSupport {
+
+		static CompressionOptions brotli(int quality, int window) {
+			return StandardCompressionOptions.brotli(parameters(quality, window));
+		}
+
+		static Encoder.Parameters parameters(int quality, int window) {
+			return new Encoder.Parameters().setQuality(quality)
+			                               .setWindow(window)
+			                               .setMode(Encoder.Mode.TEXT);
+		}
+	}
+
+	static final class Build implements Builder {
+
+		final List<String> contentTypes = new ArrayList<>();
+		final Map<String, int[]> settings = new LinkedHashMap<>();
+
+		@Override
+		public HttpCompressionSpec build() {
+			return new HttpCompressionSpec(this);
+		}
+
+		@Override
+		public Builder brotli(int quality, int window) {
+			checkRange("quality", quality, 0, 11);
+			checkRange("window", window, 10, 24);
+			settings.put(BR, new int[]{quality, window});
+			return this;
+		}
+
+		@Override
+		public Builder contentTypes(String... contentTypes) {
+			Objects.requireNonNull(contentTypes, "contentTypes");
+			this.contentTypes.clear();
+			for (String contentType : contentTypes) {
+				Objects.requireNonNull(contentType, "contentType");
+				this.contentTypes.add(contentType.trim().toLowerCase(Locale.ROOT));
+			}
+			return this;
+		}
+
+		@Override
+		public Builder deflate(int compressionLevel, int windowBits, int memLevel) {
+			checkZlib(compressionLevel, windowBits, memLevel);
+			settings.put(DEFLATE, new int[]{compressionLevel, windowBits, memLevel});
+			return this;
+		}
+
+		@Override
+		public Builder gzip(int compressionLevel, int windowBits, int memLevel) {
+			checkZlib(compressionLevel, windowBits, memLevel);
+			settings.put(GZIP, new int[]{compressionLevel, windowBits, memLevel});
+			return this;
+		}
+
+		@Override
+		public Builder zstd(int compressionLevel, int blockSize, int maxEncodeSize) {
+			checkRange("compressionLevel", compressionLevel, -(1 << 17), 22);
+			if (blockSize <= 0) {
+				throw new IllegalArgumentException("blockSize must be strictly positive");
+			}
+			if (maxEncodeSize <= 0) {
+				throw new IllegalArgumentException("maxEncodeSize must be strictly positive");
+			}
+			settings.put(ZSTD, new int[]{compressionLevel, blockSize, maxEncodeSize});
+			return this;
+		}
+
+		static void checkRange(String name, int value, int min, int max) {
+			if (value < min || value > max) {
+				throw new IllegalArgumentException(name + " must be between " + min + " and " + max + ", was: " + value);
+			}
+		}
+
+		static void checkZlib(int compressionLevel, int windowBits, int memLevel) {
+			checkRange("compressionLevel", compressionLevel, 0, 9);
+			checkRange("windowBits", windowBits, 9, 15);
+			checkRange("memLevel", memLevel, 1, 9);
+		}
+	}
+}
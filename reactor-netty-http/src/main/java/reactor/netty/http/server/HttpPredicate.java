@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2021 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2011-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -222,6 +222,20 @@ final class HttpPredicate
 				template.matches(key.uri());
 	}
 
+	/**
+	 * Matches the request and captures the path parameters in the same pass.
+	 *
+	 * @param key the request to match
+	 * @return the path parameters if the request matches, {@code null} otherwise
+	 */
+	@Nullable
+	final UriPathParams capture(HttpServerRequest key) {
+		if ((protocol == null || protocol.equals(key.version())) && method.equals(key.method())) {
+			return template.capture(key.uri());
+		}
+		return null;
+	}
+
 	/**
 	 * Represents a URI template. A URI template is a URI-like String that contains
 	 * variables enclosed by braces (<code>{</code>, <code>}</code>), which can be
@@ -249,6 +263,8 @@ final class HttpPredicate
 
 		private final List<String> pathVariables = new ArrayList<>();
 
+		private final String[] pathVariableNames;
+
 		private final Pattern uriPattern;
 
 		private static String getNameSplatReplacement(String name) {
@@ -320,6 +336,7 @@ final class HttpPredicate
 			}
 
 			this.uriPattern = Pattern.compile(s + "$");
+			this.pathVariableNames = pathVariables.isEmpty() ? UriPathParams.NO_NAMES : pathVariables.toArray(new String[0]);
 		}
 
 		/**
@@ -344,24 +361,82 @@ final class HttpPredicate
 		 * @return the path parameters from the uri. Never {@code null}.
 		 */
 		final Map<String, String> match(String uri) {
-			Map<String, String> pathParameters = new HashMap<>(pathVariables.size());
+			UriPathParams pathParams = capture(uri);
+			return pathParams != null ? pathParams.toMap() : new HashMap<>();
+		}
 
+		/**
+		 * Matches the template against the given {@code uri} and captures the path parameters
+		 * as offsets into the {@code uri}.
+		 *
+		 * @param uri The uri to match
+		 *
+		 * @return the path parameters if the uri matches, {@code null} otherwise
+		 */
+		@Nullable
+		final UriPathParams capture(String uri) {
 			Matcher m = matcher(uri);
-			if (m.matches()) {
-				int i = 1;
-				for (String name : pathVariables) {
-					String val = m.group(i++);
-					pathParameters.put(name, val);
-				}
+			if (!m.matches()) {
+				return null;
+			}
+			String[] names = pathVariableNames;
+			if (names.length == 0) {
+				return UriPathParams.EMPTY;
+			}
+			int[] offsets = new int[names.length << 1];
+			for (int i = 0; i < names.length; i++) {
+				offsets[i << 1] = m.start(names[i]);
+				offsets[(i << 1) + 1] = m.end(names[i]);
 			}
-			return pathParameters;
+			// when the uri has no path, the matcher works on "/" and the captures can only be empty
+			return new UriPathParams(uri, names, offsets);
 		}
 
+		/**
+		 * Creates a {@link Matcher} with a region limited to the path of the {@code uri},
+		 * without the host, the port and the query parameters.
+		 */
 		private Matcher matcher(String uri) {
-			uri = filterQueryParams(filterHostAndPort(uri));
-			return uriPattern.matcher(uri);
+			int start = pathStart(uri);
+			if (start == -1) {
+				return uriPattern.matcher("/");
+			}
+			return uriPattern.matcher(uri)
+			                 .region(start, pathEnd(uri, start));
 		}
 
+		/**
+		 * Returns the index where the path starts in the {@code uri}, {@code -1} when the {@code uri}
+		 * has no path, i.e. the path is "/".
+		 *
+		 * @param uri the uri
+		 * @return the index where the path starts in the {@code uri}, {@code -1} when the {@code uri} has no path
+		 * @throws IllegalArgumentException if the {@code uri} cannot be parsed
+		 */
+		static int pathStart(String uri) {
+			if (uri.startsWith("/")) {
+				return 0;
+			}
+			Matcher matcher = URL_PATTERN.matcher(uri);
+			if (matcher.matches()) {
+				return matcher.start(4);
+			}
+			else {
+				throw new IllegalArgumentException("Unable to parse url [" + uri + "]");
+			}
+		}
+
+		/**
+		 * Returns the index where the path ends in the {@code uri}, i.e. without the query parameters.
+		 *
+		 * @param uri the uri
+		 * @param start the index where the path starts
+		 * @return the index where the path ends in the {@code uri}
+		 */
+		static int pathEnd(String uri, int start) {
+			int end = uri.lastIndexOf('?');
+			return end >= start ? end : uri.length();
+		}
 	}
 
 	static final class HttpPrefixPredicate implements Predicate<HttpServerRequest> {
@@ -0,0 +1,547 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import org.reactivestreams.Publisher;
+import reactor.netty.http.server.DefaultHttpServerRoutes.HttpRouteHandler;
+import reactor.util.annotation.Nullable;
+
+import static reactor.netty.http.server.HttpPredicate.UriPathTemplate.filterHostAndPort;
+import static reactor.netty.http.server.HttpPredicate.UriPathTemplate.filterQueryParams;
+import static reactor.netty.http.server.HttpPredicate.UriPathTemplate.pathEnd;
+import static reactor.netty.http.server.HttpPredicate.UriPathTemplate.pathStart;
+
+/**
+ * A segment tree compiled from a snapshot of {@link HttpRouteHandler}s, used by {@link DefaultHttpServerRoutes}
+ * when {@link HttpServerRoutes#compiled(boolean)} is enabled.
+ * <p>
+ * {@link HttpPredicate} routes are indexed per {@link HttpMethod}, then per path segment: literal segments,
+ * {@code {var}} segments, segments mixing literals and variables, and trailing {@code **}/{@code {var}**} splats.
+ * All other routes (arbitrary {@link java.util.function.Predicate}s, prefix routes, templates with regex constructs)
+ * are tested linearly. The handler invoked is always the first one, in the routes order, that matches the request.
+ * <p>
+ * Path parameters are captured as offsets into the request uri while walking the tree, the parameter values
+ * are created only when the handler asks for them.
+ *
+ * @since 1.1.3
+ */
+final class HttpRouteTree {
+
+	/**
+	 * Regex constructs that cannot be expressed with the segment tree,
+	 * the templates containing them are matched with their {@link HttpPredicate}.
+	 */
+	static final Pattern REGEX_CONSTRUCTS = Pattern.compile("[\\\\\\[\\](){}^$|?*+]");
+
+	static final Pattern VARIABLE = Pattern.compile("\\{([^/]+?)\\}");
+
+	static final Pattern SPLAT = Pattern.compile("\\*\\*|\\{[^/]+?\\}\\*\\*");
+
+	static final int[] NO_CAPTURES = new int[0];
+
+	final HttpRouteHandler[] handlers;
+	final int[] linearIndexes;
+	final Map<HttpMethod, Node> roots;
+	/**
+	 * The maximum number of path parameters of a compiled route.
+	 */
+	final int maxVariables;
+	final int version;
+
+	HttpRouteTree(List<HttpRouteHandler> handlers, int version) {
+		this.handlers = handlers.toArray(new HttpRouteHandler[0]);
+		this.version = version;
+
+		Map<HttpMethod, Node.Builder> builders = new HashMap<>();
+		List<Integer> linear = new ArrayList<>();
+		int maxVariables = 0;
+		for (int index = 0; index < this.handlers.length; index++) {
+			HttpRouteHandler handler = this.handlers[index];
+			List<String> segments = handler.condition instanceof HttpPredicate ?
+					segments((HttpPredicate) handler.condition) : null;
+			if (segments == null) {
+				linear.add(index);
+			}
+			else {
+				HttpPredicate predicate = (HttpPredicate) handler.condition;
+				String[] names = names(segments);
+				maxVariables = Math.max(maxVariables, names.length);
+				builders.computeIfAbsent(predicate.method, m -> new Node.Builder())
+				        .add(segments, 0, new Leaf(index, predicate.protocol, names));
+			}
+		}
+		this.maxVariables = maxVariables;
+
+		this.linearIndexes = linear.stream().mapToInt(Integer::intValue).toArray();
+		this.roots = new HashMap<>(builders.size());
+		builders.forEach((method, builder) -> roots.put(method, builder.build()));
+	}
+
+	/**
+	 * Invoke the first {@link HttpRouteHandler} matching the request with the path parameters captured
+	 * while walking the tree, or send a 404 if no route matches.
+	 *
+	 * @param request the incoming request
+	 * @param response the response
+	 * @return the handler result
+	 */
+	Publisher<Void> apply(HttpServerRequest request, HttpServerResponse response) {
+		String uri = request.uri();
+		int start;
+		try {
+			start = pathStart(uri);
+		}
+		catch (IllegalArgumentException e) {
+			// let the predicates report the invalid uri in the routes order
+			return applyLinear(request, response);
+		}
+
+		Search search;
+		if (start == -1) {
+			search = new Search("/", 1, request.version(), maxVariables);
+			start = 0;
+		}
+		else {
+			search = new Search(uri, pathEnd(uri, start), request.version(), maxVariables);
+		}
+
+		Node root = roots.get(request.method());
+		if (root != null && start < search.end && search.path.charAt(start) == '/') {
+			root.match(search, start + 1, 0);
+		}
+
+		for (int index : linearIndexes) {
+			if (index > search.best) {
+				break;
+			}
+			HttpRouteHandler handler = handlers[index];
+			UriPathParams pathParams = handler.match(request);
+			if (pathParams != null) {
+				return handler.apply(request, response, pathParams);
+			}
+		}
+
+		Leaf leaf = search.bestLeaf;
+		if (leaf == null) {
+			return response.sendNotFound();
+		}
+		UriPathParams pathParams = leaf.names.length == 0 ? UriPathParams.EMPTY :
+				new UriPathParams(search.path, leaf.names, search.bestCaptures);
+		return handlers[leaf.index].apply(request, response, pathParams);
+	}
+
+	Publisher<Void> applyLinear(HttpServerRequest request, HttpServerResponse response) {
+		for (HttpRouteHandler handler : handlers) {
+			UriPathParams pathParams = handler.match(request);
+			if (pathParams != null) {
+				return handler.apply(request, response, pathParams);
+			}
+		}
+		return response.sendNotFound();
+	}
+
+	/**
+	 * Split the {@link HttpPredicate} template in path segments if it can be compiled.
+	 *
+	 * @param predicate the {@link HttpPredicate}
+	 * @return the path segments or {@code null} if the template has to be tested with the {@link HttpPredicate}
+	 */
+	@Nullable
+	static List<String> segments(HttpPredicate predicate) {
+		String template;
+		try {
+			template = filterQueryParams(filterHostAndPort(predicate.uri));
+		}
+		catch (IllegalArgumentException e) {
+			return null;
+		}
+		if (template.isEmpty() || template.charAt(0) != '/') {
+			return null;
+		}
+
+		List<String> segments = new ArrayList<>();
+		int start = 1;
+		for (;;) {
+			int end = template.indexOf('/', start);
+			String segment = template.substring(start, end == -1 ? template.length() : end);
+			boolean splat = segment.contains("**");
+			// only a trailing splat segment can be compiled
+			if (splat && (end != -1 || !SPLAT.matcher(segment).matches())) {
+				return null;
+			}
+			if (!splat && REGEX_CONSTRUCTS.matcher(VARIABLE.matcher(segment).replaceAll("")).find()) {
+				return null;
+			}
+			segments.add(segment);
+			if (end == -1) {
+				return segments;
+			}
+			start = end + 1;
+		}
+	}
+
+	/**
+	 * The path parameters names of the segments, in the order they are captured by the tree.
+	 *
+	 * @param segments the path segments
+	 * @return the path parameters names
+	 */
+	static String[] names(List<String> segments) {
+		List<String> names = new ArrayList<>();
+		for (String segment : segments) {
+			Matcher m = VARIABLE.matcher(segment);
+			while (m.find()) {
+				names.add(m.group(1));
+			}
+		}
+		return names.isEmpty() ? UriPathParams.NO_NAMES : names.toArray(new String[0]);
+	}
+
+	static final class Leaf {
+
+		final int index;
+		final HttpVersion protocol;
+		final String[] names;
+
+		Leaf(int index, @Nullable HttpVersion protocol, String[] names) {
+			this.index = index;
+			this.protocol = protocol;
+			this.names = names;
+		}
+
+		boolean matches(HttpVersion version) {
+			return protocol == null || protocol.equals(version);
+		}
+	}
+
+	static final class Node {
+
+		static final Leaf[] NO_LEAVES = new Leaf[0];
+
+		/**
+		 * Routes ending with this node.
+		 */
+		final Leaf[] leaves;
+		/**
+		 * Routes ending with a splat after this node.
+		 */
+		final Leaf[] splats;
+		/**
+		 * Sorted literal segments and their nodes.
+		 */
+		final String[] literals;
+		final Node[] literalNodes;
+		/**
+		 * {@code {var}} segment node.
+		 */
+		@Nullable
+		final Node variable;
+		/**
+		 * Segments mixing literals and variables and their nodes.
+		 */
+		final SegmentPattern[] patterns;
+		final Node[] patternNodes;
+		/**
+		 * The lowest route index in this sub-tree.
+		 */
+		final int minIndex;
+
+		Node(Leaf[] leaves, Leaf[] splats, String[] literals, Node[] literalNodes, @Nullable Node variable,
+				SegmentPattern[] patterns, Node[] patternNodes) {
+			this.leaves = leaves;
+			this.splats = splats;
+			this.literals = literals;
+			this.literalNodes = literalNodes;
+			this.variable = variable;
+			this.patterns = patterns;
+			this.patternNodes = patternNodes;
+
+			int min = Integer.MAX_VALUE;
+			for (Leaf leaf : leaves) {
+				min = Math.min(min, leaf.index);
+			}
+			for (Leaf leaf : splats) {
+				min = Math.min(min, leaf.index);
+			}
+			for (Node node : literalNodes) {
+				min = Math.min(min, node.minIndex);
+			}
+			for (Node node : patternNodes) {
+				min = Math.min(min, node.minIndex);
+			}
+			if (variable != null) {
+				min = Math.min(min, variable.minIndex);
+			}
+			this.minIndex = min;
+		}
+
+		/**
+		 * Match the path segment starting at {@code start} and the following ones.
+		 *
+		 * @param search the search state
+		 * @param start the start index of the segment in the path
+		 * @param depth the number of path parameters captured so far
+		 */
+		void match(Search search, int start, int depth) {
+			if (minIndex >= search.best) {
+				return;
+			}
+
+			if (splats.length != 0) {
+				// a named splat captures the remaining path
+				int[] captures = search.captures;
+				if (depth < search.maxVariables) {
+					captures[depth << 1] = start;
+					captures[(depth << 1) + 1] = search.end;
+				}
+				lowest(search, splats, depth + 1);
+			}
+
+			String path = search.path;
+			int end = path.indexOf('/', start);
+			boolean last = end == -1 || end >= search.end;
+			if (last) {
+				end = search.end;
+			}
+
+			int literal = literalIndex(path, start, end);
+			if (literal >= 0) {
+				matchNext(search, literalNodes[literal], end, last, depth);
+			}
+			if (variable != null && variable.minIndex < search.best) {
+				search.captures[depth << 1] = start;
+				search.captures[(depth << 1) + 1] = end;
+				matchNext(search, variable, end, last, depth + 1);
+			}
+			for (int i = 0; i < patterns.length; i++) {
+				if (patternNodes[i].minIndex < search.best && patterns[i].matches(search, start, end, depth)) {
+					matchNext(search, patternNodes[i], end, last, depth + patterns[i].parts.length - 1);
+				}
+			}
+		}
+
+		int literalIndex(String path, int start, int end) {
+			int low = 0;
+			int high = literals.length - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				int cmp = compare(literals[mid], path, start, end);
+				if (cmp < 0) {
+					low = mid + 1;
+				}
+				else if (cmp > 0) {
+					high = mid - 1;
+				}
+				else {
+					return mid;
+				}
+			}
+			return -1;
+		}
+
+		static void matchNext(Search search, Node next, int end, boolean last, int depth) {
+			if (last) {
+				lowest(search, next.leaves, depth);
+			}
+			else {
+				next.match(search, end + 1, depth);
+			}
+		}
+
+		/**
+		 * Record the lowest leaf matching the request protocol version and its captures.
+		 *
+		 * @param search the search state
+		 * @param leaves the leaves to test
+		 * @param depth the maximum number of path parameters captured for the leaves
+		 */
+		static void lowest(Search search, Leaf[] leaves, int depth) {
+			for (Leaf leaf : leaves) {
+				if (leaf.index < search.best && leaf.matches(search.version)) {
+					search.best = leaf.index;
+					search.bestLeaf = leaf;
+					// a leaf has less captures than depth when its splat is not named
+					int length = Math.min(leaf.names.length, depth) << 1;
+					search.bestCaptures = length == 0 ? NO_CAPTURES : Arrays.copyOf(search.captures, length);
+				}
+			}
+		}
+
+		static int compare(String literal, String path, int start, int end) {
+			int length = end - start;
+			int min = Math.min(literal.length(), length);
+			for (int i = 0; i < min; i++) {
+				int diff = literal.charAt(i) - path.charAt(start + i);
+				if (diff != 0) {
+					return diff;
+				}
+			}
+			return literal.length() - length;
+		}
+
+		static final class Builder {
+
+			final List<Leaf> leaves = new ArrayList<>();
+			final List<Leaf> splats = new ArrayList<>();
+			final TreeMap<String, Builder> literals = new TreeMap<>();
+			final Map<String, Builder> patterns = new HashMap<>();
+			Builder variable;
+
+			void add(List<String> segments, int depth, Leaf leaf) {
+				String segment = segments.get(depth);
+				if (segment.endsWith("**")) {
+					splats.add(leaf);
+					return;
+				}
+
+				Builder next;
+				Matcher m = VARIABLE.matcher(segment);
+				if (!m.find()) {
+					next = literals.computeIfAbsent(segment, s -> new Builder());
+				}
+				else if (m.start() == 0 && m.end() == segment.length()) {
+					if (variable == null) {
+						variable = new Builder();
+					}
+					next = variable;
+				}
+				else {
+					// variables names do not change the matching
+					next = patterns.computeIfAbsent(m.replaceAll("{}"), s -> new Builder());
+				}
+
+				if (depth == segments.size() - 1) {
+					next.leaves.add(leaf);
+				}
+				else {
+					next.add(segments, depth + 1, leaf);
+				}
+			}
+
+			Node build() {
+				String[] literalKeys = literals.keySet().toArray(new String[0]);
+				Node[] literalNodes = new Node[literalKeys.length];
+				for (int i = 0; i < literalKeys.length; i++) {
+					literalNodes[i] = literals.get(literalKeys[i]).build();
+				}
+
+				SegmentPattern[] patternKeys = new SegmentPattern[patterns.size()];
+				Node[] patternNodes = new Node[patterns.size()];
+				int i = 0;
+				for (Map.Entry<String, Builder> entry : patterns.entrySet()) {
+					patternKeys[i] = new SegmentPattern(entry.getKey());
+					patternNodes[i++] = entry.getValue().build();
+				}
+
+				return new Node(leaves.isEmpty() ? NO_LEAVES : leaves.toArray(NO_LEAVES),
+						splats.isEmpty() ? NO_LEAVES : splats.toArray(NO_LEAVES),
+						literalKeys, literalNodes, variable != null ? variable.build() : null,
+						patternKeys, patternNodes);
+			}
+		}
+	}
+
+	/**
+	 * A path segment mixing literals and variables, e.g. {@code {name}.json}. Variables match any sequence of
+	 * characters within the segment.
+	 */
+	static final class SegmentPattern {
+
+		/**
+		 * Literal parts, a variable is between each of them.
+		 */
+		final String[] parts;
+
+		SegmentPattern(String normalized) {
+			this.parts = normalized.split("\\{\\}", -1);
+		}
+
+		/**
+		 * Match the segment and capture the variables, starting at {@code depth}.
+		 *
+		 * @param search the search state
+		 * @param start the start index of the segment in the path
+		 * @param end the end index of the segment in the path
+		 * @param depth the number of path parameters captured so far
+		 * @return {@code true} if the segment matches
+		 */
+		boolean matches(Search search, int start, int end, int depth) {
+			return matches(search.path, search.captures, start, end, 0, (depth << 1) - 2);
+		}
+
+		boolean matches(String path, int[] captures, int start, int end, int part, int offset) {
+			String literal = parts[part];
+			if (!path.regionMatches(start, literal, 0, literal.length()) || start + literal.length() > end) {
+				return false;
+			}
+			start += literal.length();
+			if (part == parts.length - 1) {
+				return start == end;
+			}
+			// variables are greedy
+			int index = offset + ((part + 1) << 1);
+			for (int i = end; i >= start; i--) {
+				captures[index] = start;
+				captures[index + 1] = i;
+				if (matches(path, captures, i, end, part + 1, offset)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * The state of a tree walk for one request.
+	 */
+	static final class Search {
+
+		final String path;
+		/**
+		 * The end index of the path, i.e. without the query parameters.
+		 */
+		final int end;
+		final HttpVersion version;
+		final int maxVariables;
+		/**
+		 * Start and end offsets of the variables captured on the current branch.
+		 */
+		final int[] captures;
+
+		int best = Integer.MAX_VALUE;
+		Leaf bestLeaf;
+		int[] bestCaptures;
+
+		Search(String path, int end, HttpVersion version, int maxVariables) {
+			this.path = path;
+			this.end = end;
+			this.version = version;
+			this.maxVariables = maxVariables;
+			this.captures = maxVariables == 0 ? NO_CAPTURES : new int[maxVariables << 1];
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2011-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -309,6 +309,30 @@ public abstract class HttpServer extends ServerTransport<HttpServer, HttpServerC
 		else {
 			dup.configuration().minCompressionSize = -1;
 			dup.configuration().compressPredicate = null;
+			dup.configuration().compressionSpec = HttpCompressionSpec.DEFAULT;
+		}
+		return dup;
+	}
+
+	/**
+	 * Enable response compression with the given encodings, their settings and the content types
+	 * that are compressed. The encoding is selected with the quality values of the {@code Accept-Encoding}
+	 * request header. When the compression is not yet enabled, all responses with a compressible content type
+	 * are compressed, it can be combined with {@link #compress(int)} and {@link #compress(BiPredicate)}.
+	 * {@code br} and {@code zstd} are used only when {@code brotli4j} and {@code zstd-jni} are available.
+	 *
+	 * @param compressionSpec configures the {@link HttpCompressionSpec}
+	 * @return a new {@link HttpServer}
+	 * @since 1.1.3
+	 */
+	public final HttpServer compress(Consumer<? super HttpCompressionSpec.Builder> compressionSpec) {
+		Objects.requireNonNull(compressionSpec, "compressionSpec");
+		HttpCompressionSpec.Builder builder = HttpCompressionSpec.builder();
+		compressionSpec.accept(builder);
+		HttpServer dup = duplicate();
+		dup.configuration().compressionSpec = builder.build();
+		if (dup.configuration().minCompressionSize < 0 && dup.configuration().compressPredicate == null) {
+			dup.configuration().minCompressionSize = 0;
 		}
 		return dup;
 	}
@@ -572,6 +596,44 @@ public abstract class HttpServer extends ServerTransport<HttpServer, HttpServerC
 		return dup;
 	}
 
+	/**
+	 * Whether to enable metrics to be collected and registered in Micrometer's
+	 * {@link io.micrometer.core.instrument.Metrics#globalRegistry globalRegistry}
+	 * under the name {@link reactor.netty.Metrics#HTTP_SERVER_PREFIX}.
+	 * <p>The template of the route matched with {@link HttpServerRoutes}, for example {@code "/users/{id}"},
+	 * is used as uri tag value for the metrics with {@link reactor.netty.Metrics#URI} tag.
+	 * The requests that are not matched by a route with a template, for example the requests that end with
+	 * {@code 404}, are recorded with {@link reactor.netty.Metrics#UNKNOWN} uri tag value.
+	 * <p>By default metrics are not enabled.
+	 *
+	 * @param enable true enables metrics collection; false disables it
+	 * @return a new {@link HttpServer}
+	 * @since 1.1.3
+	 */
+	@Override
+	public final HttpServer metrics(boolean enable) {
+		if (enable) {
+			if (!Metrics.isMicrometerAvailable() && !Metrics.isTracingAvailable()) {
+				throw new UnsupportedOperationException(
+						"To enable metrics, you must add the dependencies to `io.micrometer:micrometer-core`" +
+								" and `io.micrometer:micrometer-tracing` to the class path first");
+			}
+			HttpServer dup = duplicate();
+			dup.configuration().metricsRecorder(() -> configuration().defaultMetricsRecorder());
+			dup.configuration().uriTagValue = null;
+			return dup;
+		}
+		else if (configuration().metricsRecorder() != null) {
+			HttpServer dup = duplicate();
+			dup.configuration().metricsRecorder(null);
+			dup.configuration().uriTagValue = null;
+			return dup;
+		}
+		else {
+			return this;
+		}
+	}
+
 	/**
 	 * Whether to enable metrics to be collected and registered in Micrometer's
 	 * {@link io.micrometer.core.instrument.Metrics#globalRegistry globalRegistry}
@@ -630,7 +692,12 @@ public abstract class HttpServer extends ServerTransport<HttpServer, HttpServerC
 
 	@Override
 	public final HttpServer metrics(boolean enable, Supplier<? extends ChannelMetricsRecorder> recorder) {
-		return super.metrics(enable, recorder);
+		HttpServer dup = super.metrics(enable, recorder);
+		if (enable && dup.configuration().uriTagValue == null) {
+			// The actual uri is propagated to the recorder
+			dup.configuration().uriTagValue = Function.identity();
+		}
+		return dup;
 	}
 
 	/**
@@ -101,6 +101,16 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 		return compressPredicate;
 	}
 
+	/**
+	 * Return the configured {@link HttpCompressionSpec} or the default one with {@code gzip} and {@code deflate}.
+	 *
+	 * @return the configured {@link HttpCompressionSpec} or the default one with {@code gzip} and {@code deflate}
+	 * @since 1.1.3
+	 */
+	public HttpCompressionSpec compressionSpec() {
+		return compressionSpec;
+	}
+
 	/**
 	 * Return the configured {@link ServerCookieDecoder} or the default {@link ServerCookieDecoder#STRICT}.
 	 *
@@ -263,6 +273,7 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 	boolean                                                 accessLogEnabled;
 	Function<AccessLogArgProvider, AccessLog>               accessLog;
 	BiPredicate<HttpServerRequest, HttpServerResponse>      compressPredicate;
+	HttpCompressionSpec                                     compressionSpec;
 	ServerCookieDecoder                                     cookieDecoder;
 	ServerCookieEncoder                                     cookieEncoder;
 	HttpRequestDecoderSpec                                  decoder;
@@ -284,6 +295,7 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 
 	HttpServerConfig(Map<ChannelOption<?>, ?> options, Map<ChannelOption<?>, ?> childOptions, Supplier<? extends SocketAddress> localAddress) {
 		super(options, childOptions, localAddress);
+		this.compressionSpec = HttpCompressionSpec.DEFAULT;
 		this.cookieDecoder = ServerCookieDecoder.STRICT;
 		this.cookieEncoder = ServerCookieEncoder.STRICT;
 		this.decoder = new HttpRequestDecoderSpec();
@@ -302,6 +314,7 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 		this.accessLogEnabled = parent.accessLogEnabled;
 		this.accessLog = parent.accessLog;
 		this.compressPredicate = parent.compressPredicate;
+		this.compressionSpec = parent.compressionSpec;
 		this.cookieDecoder = parent.cookieDecoder;
 		this.cookieEncoder = parent.cookieEncoder;
 		this.decoder = parent.decoder;
@@ -409,6 +422,7 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 			boolean accessLogEnabled,
 			@Nullable Function<AccessLogArgProvider, AccessLog> accessLog,
 			@Nullable BiPredicate<HttpServerRequest, HttpServerResponse> compressPredicate,
+			HttpCompressionSpec compressionSpec,
 			ServerCookieDecoder decoder,
 			ServerCookieEncoder encoder,
 			HttpServerFormDecoderProvider formDecoderProvider,
@@ -429,10 +443,10 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 		                 new Http2StreamBridgeServerHandler(compressPredicate, decoder, encoder, formDecoderProvider,
 		                         forwardedHeaderHandler, httpMessageLogFactory, listener, mapHandle));
 
-		boolean alwaysCompress = compressPredicate == null && minCompressionSize == 0;
-
-		if (alwaysCompress) {
-			pipeline.addLast(NettyPipeline.CompressionHandler, new SimpleCompressionHandler());
+		// The compression handler stays in the pipeline, it is bypassed when the response must not be compressed
+		if (compressPredicate != null || minCompressionSize == 0) {
+			pipeline.addLast(NettyPipeline.CompressionHandler,
+					new SimpleCompressionHandler(compressionSpec, metricsRecorder));
 		}
 
 		ChannelOperations.addReactiveBridge(ch, opsFactory, listener);
@@ -517,6 +531,7 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 			boolean accessLogEnabled,
 			@Nullable Function<AccessLogArgProvider, AccessLog> accessLog,
 			@Nullable BiPredicate<HttpServerRequest, HttpServerResponse> compressPredicate,
+			HttpCompressionSpec compressionSpec,
 			ServerCookieDecoder cookieDecoder,
 			ServerCookieEncoder cookieEncoder,
 			HttpServerFormDecoderProvider formDecoderProvider,
@@ -545,9 +560,9 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 
 		p.addLast(NettyPipeline.HttpCodec, http2FrameCodecBuilder.build())
 		 .addLast(NettyPipeline.H2MultiplexHandler,
-		          new Http2MultiplexHandler(new H2Codec(accessLogEnabled, accessLog, compressPredicate, cookieDecoder,
-		                  cookieEncoder, formDecoderProvider, forwardedHeaderHandler, httpMessageLogFactory, listener,
-		                  mapHandle, metricsRecorder, minCompressionSize, opsFactory, uriTagValue)));
+		          new Http2MultiplexHandler(new H2Codec(accessLogEnabled, accessLog, compressPredicate, compressionSpec,
+		                  cookieDecoder, cookieEncoder, formDecoderProvider, forwardedHeaderHandler, httpMessageLogFactory,
+		                  listener, mapHandle, metricsRecorder, minCompressionSize, opsFactory, uriTagValue)));
 
 		IdleTimeoutHandler.addIdleTimeoutHandler(p, idleTimeout);
 
@@ -566,6 +581,7 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 			boolean accessLogEnabled,
 			@Nullable Function<AccessLogArgProvider, AccessLog> accessLog,
 			@Nullable BiPredicate<HttpServerRequest, HttpServerResponse> compressPredicate,
+			HttpCompressionSpec compressionSpec,
 			ServerCookieDecoder cookieDecoder,
 			ServerCookieEncoder cookieEncoder,
 			HttpRequestDecoderSpec decoder,
@@ -587,8 +603,8 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 						decoder.allowDuplicateContentLengths());
 
 		Http11OrH2CleartextCodec upgrader = new Http11OrH2CleartextCodec(accessLogEnabled, accessLog, compressPredicate,
-				cookieDecoder, cookieEncoder, p.get(NettyPipeline.LoggingHandler) != null, formDecoderProvider,
-				forwardedHeaderHandler, http2Settings, httpMessageLogFactory, listener, mapHandle, metricsRecorder,
+				compressionSpec, cookieDecoder, cookieEncoder, p.get(NettyPipeline.LoggingHandler) != null,
+				formDecoderProvider, forwardedHeaderHandler, http2Settings, httpMessageLogFactory, listener, mapHandle, metricsRecorder,
 				minCompressionSize, opsFactory, uriTagValue, decoder.validateHeaders());
 
 		ChannelHandler http2ServerHandler = new H2CleartextCodec(upgrader);
@@ -608,10 +624,11 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 			p.addAfter(NettyPipeline.HttpTrafficHandler, NettyPipeline.AccessLogHandler, AccessLogHandlerFactory.H1.create(accessLog));
 		}
 
-		boolean alwaysCompress = compressPredicate == null && minCompressionSize == 0;
-
-		if (alwaysCompress) {
-			p.addBefore(NettyPipeline.HttpTrafficHandler, NettyPipeline.CompressionHandler, new SimpleCompressionHandler());
+		// The compression handler stays in the pipeline of the connection,
+		// it is bypassed when the response must not be compressed
+		if (compressPredicate != null || minCompressionSize == 0) {
+			p.addBefore(NettyPipeline.HttpTrafficHandler, NettyPipeline.CompressionHandler,
+					new SimpleCompressionHandler(compressionSpec, metricsRecorder));
 		}
 
 		if (metricsRecorder != null) {
@@ -641,6 +658,7 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 			boolean accessLogEnabled,
 			@Nullable Function<AccessLogArgProvider, AccessLog> accessLog,
 			@Nullable BiPredicate<HttpServerRequest, HttpServerResponse> compressPredicate,
+			HttpCompressionSpec compressionSpec,
 			ServerCookieDecoder cookieDecoder,
 			ServerCookieEncoder cookieEncoder,
 			HttpRequestDecoderSpec decoder,
@@ -668,10 +686,11 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 			p.addAfter(NettyPipeline.HttpTrafficHandler, NettyPipeline.AccessLogHandler, AccessLogHandlerFactory.H1.create(accessLog));
 		}
 
-		boolean alwaysCompress = compressPredicate == null && minCompressionSize == 0;
-
-		if (alwaysCompress) {
-			p.addBefore(NettyPipeline.HttpTrafficHandler, NettyPipeline.CompressionHandler, new SimpleCompressionHandler());
+		// The compression handler stays in the pipeline of the connection,
+		// it is bypassed when the response must not be compressed
+		if (compressPredicate != null || minCompressionSize == 0) {
+			p.addBefore(NettyPipeline.HttpTrafficHandler, NettyPipeline.CompressionHandler,
+					new SimpleCompressionHandler(compressionSpec, metricsRecorder));
 		}
 
 		if (metricsRecorder != null) {
@@ -832,6 +851,7 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 		final boolean                                                 accessLogEnabled;
 		final Function<AccessLogArgProvider, AccessLog>               accessLog;
 		final BiPredicate<HttpServerRequest, HttpServerResponse>      compressPredicate;
+		final HttpCompressionSpec                                     compressionSpec;
 		final ServerCookieDecoder                                     cookieDecoder;
 		final ServerCookieEncoder                                     cookieEncoder;
 		final HttpServerFormDecoderProvider                           formDecoderProvider;
@@ -849,6 +869,7 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 				boolean accessLogEnabled,
 				@Nullable Function<AccessLogArgProvider, AccessLog> accessLog,
 				@Nullable BiPredicate<HttpServerRequest, HttpServerResponse> compressPredicate,
+				HttpCompressionSpec compressionSpec,
 				ServerCookieDecoder decoder,
 				ServerCookieEncoder encoder,
 				HttpServerFormDecoderProvider formDecoderProvider,
@@ -863,6 +884,7 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 			this.accessLogEnabled = accessLogEnabled;
 			this.accessLog = accessLog;
 			this.compressPredicate = compressPredicate;
+			this.compressionSpec = compressionSpec;
 			this.cookieDecoder = decoder;
 			this.cookieEncoder = encoder;
 			this.formDecoderProvider = formDecoderProvider;
@@ -879,8 +901,8 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 		@Override
 		protected void initChannel(Channel ch) {
 			ch.pipeline().remove(this);
-			addStreamHandlers(ch, accessLogEnabled, accessLog, compressPredicate, cookieDecoder, cookieEncoder,
-					formDecoderProvider, forwardedHeaderHandler, httpMessageLogFactory, listener, mapHandle, metricsRecorder,
+			addStreamHandlers(ch, accessLogEnabled, accessLog, compressPredicate, compressionSpec, cookieDecoder,
+					cookieEncoder, formDecoderProvider, forwardedHeaderHandler, httpMessageLogFactory, listener, mapHandle, metricsRecorder,
 					minCompressionSize, opsFactory, uriTagValue);
 		}
 	}
@@ -891,6 +913,7 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 		final boolean                                                 accessLogEnabled;
 		final Function<AccessLogArgProvider, AccessLog>               accessLog;
 		final BiPredicate<HttpServerRequest, HttpServerResponse>      compressPredicate;
+		final HttpCompressionSpec                                     compressionSpec;
 		final ServerCookieDecoder                                     cookieDecoder;
 		final ServerCookieEncoder                                     cookieEncoder;
 		final HttpServerFormDecoderProvider                           formDecoderProvider;
@@ -909,6 +932,7 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 				boolean accessLogEnabled,
 				@Nullable Function<AccessLogArgProvider, AccessLog> accessLog,
 				@Nullable BiPredicate<HttpServerRequest, HttpServerResponse> compressPredicate,
+				HttpCompressionSpec compressionSpec,
 				ServerCookieDecoder cookieDecoder,
 				ServerCookieEncoder cookieEncoder,
 				boolean debug,
@@ -926,6 +950,7 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 			this.accessLogEnabled = accessLogEnabled;
 			this.accessLog = accessLog;
 			this.compressPredicate = compressPredicate;
+			this.compressionSpec = compressionSpec;
 			this.cookieDecoder = cookieDecoder;
 			this.cookieEncoder = cookieEncoder;
 			this.formDecoderProvider = formDecoderProvider;
@@ -956,8 +981,8 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 		@Override
 		protected void initChannel(Channel ch) {
 			ch.pipeline().remove(this);
-			addStreamHandlers(ch, accessLogEnabled, accessLog, compressPredicate, cookieDecoder, cookieEncoder,
-					formDecoderProvider, forwardedHeaderHandler, httpMessageLogFactory, listener, mapHandle, metricsRecorder,
+			addStreamHandlers(ch, accessLogEnabled, accessLog, compressPredicate, compressionSpec, cookieDecoder,
+					cookieEncoder, formDecoderProvider, forwardedHeaderHandler, httpMessageLogFactory, listener, mapHandle, metricsRecorder,
 					minCompressionSize, opsFactory, uriTagValue);
 		}
 
@@ -978,6 +1003,7 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 		final boolean                                                 accessLogEnabled;
 		final Function<AccessLogArgProvider, AccessLog>               accessLog;
 		final BiPredicate<HttpServerRequest, HttpServerResponse>      compressPredicate;
+		final HttpCompressionSpec                                     compressionSpec;
 		final ServerCookieDecoder                                     cookieDecoder;
 		final ServerCookieEncoder                                     cookieEncoder;
 		final HttpRequestDecoderSpec                                  decoder;
@@ -1000,6 +1026,7 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 			this.accessLogEnabled = initializer.accessLogEnabled;
 			this.accessLog = initializer.accessLog;
 			this.compressPredicate = compressPredicate(initializer.compressPredicate, initializer.minCompressionSize);
+			this.compressionSpec = initializer.compressionSpec;
 			this.cookieDecoder = initializer.cookieDecoder;
 			this.cookieEncoder = initializer.cookieEncoder;
 			this.decoder = initializer.decoder;
@@ -1026,14 +1053,14 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 			ChannelPipeline p = ctx.pipeline();
 
 			if (ApplicationProtocolNames.HTTP_2.equals(protocol)) {
-				configureH2Pipeline(p, accessLogEnabled, accessLog, compressPredicate, cookieDecoder, cookieEncoder,
+				configureH2Pipeline(p, accessLogEnabled, accessLog, compressPredicate, compressionSpec, cookieDecoder, cookieEncoder,
 						formDecoderProvider, forwardedHeaderHandler, http2Settings, httpMessageLogFactory, idleTimeout,
 						listener, mapHandle, metricsRecorder, minCompressionSize, opsFactory, uriTagValue, decoder.validateHeaders());
 				return;
 			}
 
 			if (ApplicationProtocolNames.HTTP_1_1.equals(protocol)) {
-				configureHttp11Pipeline(p, accessLogEnabled, accessLog, compressPredicate, cookieDecoder, cookieEncoder,
+				configureHttp11Pipeline(p, accessLogEnabled, accessLog, compressPredicate, compressionSpec, cookieDecoder, cookieEncoder,
 						decoder, formDecoderProvider, forwardedHeaderHandler, httpMessageLogFactory, idleTimeout, listener,
 						mapHandle, maxKeepAliveRequests, metricsRecorder, minCompressionSize, uriTagValue);
 
@@ -1053,6 +1080,7 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 		final boolean                                                 accessLogEnabled;
 		final Function<AccessLogArgProvider, AccessLog>               accessLog;
 		final BiPredicate<HttpServerRequest, HttpServerResponse>      compressPredicate;
+		final HttpCompressionSpec                                     compressionSpec;
 		final ServerCookieDecoder                                     cookieDecoder;
 		final ServerCookieEncoder                                     cookieEncoder;
 		final HttpRequestDecoderSpec                                  decoder;
@@ -1077,6 +1105,7 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 			this.accessLogEnabled = config.accessLogEnabled;
 			this.accessLog = config.accessLog;
 			this.compressPredicate = config.compressPredicate;
+			this.compressionSpec = config.compressionSpec;
 			this.cookieDecoder = config.cookieDecoder;
 			this.cookieEncoder = config.cookieEncoder;
 			this.decoder = config.decoder;
@@ -1125,6 +1154,7 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 							accessLogEnabled,
 							accessLog,
 							compressPredicate(compressPredicate, minCompressionSize),
+							compressionSpec,
 							cookieDecoder,
 							cookieEncoder,
 							decoder,
@@ -1145,6 +1175,7 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 							accessLogEnabled,
 							accessLog,
 							compressPredicate(compressPredicate, minCompressionSize),
+							compressionSpec,
 							cookieDecoder,
 							cookieEncoder,
 							formDecoderProvider,
@@ -1168,6 +1199,7 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 							accessLogEnabled,
 							accessLog,
 							compressPredicate(compressPredicate, minCompressionSize),
+							compressionSpec,
 							cookieDecoder,
 							cookieEncoder,
 							decoder,
@@ -1190,6 +1222,7 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 							accessLogEnabled,
 							accessLog,
 							compressPredicate(compressPredicate, minCompressionSize),
+							compressionSpec,
 							cookieDecoder,
 							cookieEncoder,
 							decoder,
@@ -1210,6 +1243,7 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 							accessLogEnabled,
 							accessLog,
 							compressPredicate(compressPredicate, minCompressionSize),
+							compressionSpec,
 							cookieDecoder,
 							cookieEncoder,
 							formDecoderProvider,
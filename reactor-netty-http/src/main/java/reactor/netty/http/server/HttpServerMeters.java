@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2022-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -67,6 +67,46 @@ enum HttpServerMeters implements MeterDocumentation {
 		}
 	},
 
+	/**
+	 * The ratio between the size of the response body before and after the compression.
+	 */
+	COMPRESSION_RATIO {
+		@Override
+		public String getName() {
+			return "reactor.netty.http.server.compression.ratio";
+		}
+
+		@Override
+		public KeyName[] getKeyNames() {
+			return CompressionTags.values();
+		}
+
+		@Override
+		public Meter.Type getType() {
+			return Meter.Type.DISTRIBUTION_SUMMARY;
+		}
+	},
+
+	/**
+	 * Time spent in compressing the response body.
+	 */
+	COMPRESSION_TIME {
+		@Override
+		public String getName() {
+			return "reactor.netty.http.server.compression.time";
+		}
+
+		@Override
+		public KeyName[] getKeyNames() {
+			return CompressionTags.values();
+		}
+
+		@Override
+		public Meter.Type getType() {
+			return Meter.Type.TIMER;
+		}
+	},
+
 	/**
 	 * Amount of the data received, in bytes.
 	 */
@@ -223,6 +263,19 @@ enum HttpServerMeters implements MeterDocumentation {
 		}
 	}
 
+	enum CompressionTags implements KeyName {
+
+		/**
+		 * Content encoding.
+		 */
+		ENCODING {
+			@Override
+			public String asString() {
+				return "encoding";
+			}
+		}
+	}
+
 	enum DataReceivedTimeTags implements KeyName {
 
 		/**
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2019-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -88,4 +88,15 @@ public interface HttpServerMetricsRecorder extends HttpMetricsRecorder {
 	 */
 	default void recordStreamClosed(SocketAddress localAddress) { }
 
+	/**
+	 * Records the compression of a response body
+	 *
+	 * @param encoding the content encoding, e.g. {@code gzip}
+	 * @param uncompressedBytes the size of the response body before the compression, in bytes
+	 * @param compressedBytes the size of the response body after the compression, in bytes
+	 * @param time the time that is spent in compressing the response body
+	 * @since 1.1.3
+	 */
+	default void recordCompression(String encoding, long uncompressedBytes, long compressedBytes, Duration time) { }
+
 }
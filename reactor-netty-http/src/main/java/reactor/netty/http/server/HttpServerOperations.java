@@ -38,6 +38,7 @@ import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.DefaultHeaders;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
@@ -123,7 +124,10 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 
 	BiPredicate<HttpServerRequest, HttpServerResponse> compressionPredicate;
 	Function<? super String, Map<String, String>> paramsResolver;
+	UriPathParams pathParams;
 	String path;
+	// The template of the matched route, used as the default URI tag value of the metrics
+	String route;
 	Consumer<? super HttpHeaders> trailerHeadersConsumer;
 
 	volatile Context currentContext;
@@ -142,7 +146,9 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 		this.nettyRequest = replaced.nettyRequest;
 		this.nettyResponse = replaced.nettyResponse;
 		this.paramsResolver = replaced.paramsResolver;
+		this.pathParams = replaced.pathParams;
 		this.path = replaced.path;
+		this.route = replaced.route;
 		this.responseHeaders = replaced.responseHeaders;
 		this.scheme = replaced.scheme;
 		this.timestamp = replaced.timestamp;
@@ -362,6 +368,9 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 	@Nullable
 	public String param(CharSequence key) {
 		Objects.requireNonNull(key, "key");
+		if (pathParams != null) {
+			return pathParams.get(key);
+		}
 		Map<String, String> params = null;
 		if (paramsResolver != null) {
 			params = this.paramsResolver.apply(uri());
@@ -372,12 +381,29 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 	@Override
 	@Nullable
 	public Map<String, String> params() {
+		if (pathParams != null) {
+			// as with the params resolver, a template without variables has no params
+			return pathParams.names.length != 0 ? pathParams.toMap() : null;
+		}
 		return null != paramsResolver ? paramsResolver.apply(uri()) : null;
 	}
 
 	@Override
 	public HttpServerRequest paramsResolver(Function<? super String, Map<String, String>> paramsResolver) {
 		this.paramsResolver = paramsResolver;
+		this.pathParams = null;
+		return this;
+	}
+
+	/**
+	 * Set the path parameters captured when the route was matched.
+	 *
+	 * @param pathParams the path parameters captured when the route was matched
+	 * @return this {@link HttpServerRequest}
+	 */
+	HttpServerRequest pathParams(UriPathParams pathParams) {
+		this.paramsResolver = null;
+		this.pathParams = pathParams;
 		return this;
 	}
 
@@ -588,11 +614,16 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 	@Override
 	public HttpServerResponse compression(boolean compress) {
 		compressionPredicate = compress ? configuredCompressionPredicate : COMPRESSION_DISABLED;
-		if (!compress) {
+		ChannelHandler compressionHandler = channel().pipeline().get(NettyPipeline.CompressionHandler);
+		if (compressionHandler instanceof SimpleCompressionHandler) {
+			// The compression handler stays in the pipeline of the connection,
+			// it is bypassed when the response must not be compressed
+			((SimpleCompressionHandler) compressionHandler).compress = compress;
+		}
+		else if (!compress) {
 			removeHandler(NettyPipeline.CompressionHandler);
 		}
-		else if (channel().pipeline()
-		                  .get(NettyPipeline.CompressionHandler) == null) {
+		else if (compressionHandler == null) {
 			SimpleCompressionHandler handler = new SimpleCompressionHandler();
 			try {
 				//Do not invoke handler.channelRead as it will trigger ctx.fireChannelRead
@@ -660,7 +691,12 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 
 	@Override
 	protected void afterMarkSentHeaders() {
-		if (compressionPredicate != null && compressionPredicate.test(this, this)) {
+		ChannelHandler handler = channel().pipeline().get(NettyPipeline.CompressionHandler);
+		if (handler instanceof SimpleCompressionHandler) {
+			((SimpleCompressionHandler) handler).compress =
+					compressionPredicate == null || compressionPredicate.test(this, this);
+		}
+		else if (compressionPredicate != null && compressionPredicate.test(this, this)) {
 			compression(true);
 		}
 	}
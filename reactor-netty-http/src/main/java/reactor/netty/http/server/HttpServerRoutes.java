@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2021 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2011-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -101,6 +101,25 @@ public interface HttpServerRoutes extends
 	HttpServerRoutes directory(String uri, Path directory,
 			@Nullable Function<HttpServerResponse, HttpServerResponse> interceptor);
 
+	/**
+	 * Listens for HTTP GET on the passed path to be used as a routing condition. The
+	 * content of the provided {@link Path directory} will be served, the metadata and the content
+	 * of the small files are cached in the provided {@link StaticFileCache}.
+	 * <p>Additional regex matching is available, e.g. "/test/{param}". Params are resolved
+	 * using {@link HttpServerRequest#param(CharSequence)}</p>
+	 *
+	 * @param uri The GET path used by clients
+	 * @param directory the root prefix to serve from the file system, e.g.
+	 * "/Users/me/resources"
+	 * @param interceptor a pre response processor
+	 * @param cache the cache of the metadata and of the content of the files
+	 *
+	 * @return this {@link HttpServerRoutes}
+	 * @since 1.1.3
+	 */
+	HttpServerRoutes directory(String uri, Path directory,
+			@Nullable Function<HttpServerResponse, HttpServerResponse> interceptor, StaticFileCache cache);
+
 	/**
 	 * Listens for HTTP GET on the passed path to be used as a routing condition. The
 	 * provided {@link java.io.File} will be served.
@@ -292,6 +311,25 @@ public interface HttpServerRoutes extends
 	 */
 	HttpServerRoutes noComparator();
 
+	/**
+	 * Enables/disables matching the requests with a route tree compiled from the configured routes,
+	 * rather than testing each route in order. Routes declared with a path e.g. {@link #get(String, BiFunction)}
+	 * are indexed by HTTP method and path segments, variables e.g. "/test/{param}" and trailing splats e.g.
+	 * "/test/**" included. Routes with a custom {@link Predicate} or a path using other regex constructs are still
+	 * tested in order. The first matching route in order of declaration (or {@link #comparator(Comparator)} order)
+	 * is invoked, as when the tree is disabled.
+	 * <p>When the tree is enabled, the characters of the path outside variables and splats are matched literally
+	 * e.g. "." matches only ".".</p>
+	 * <p>By default the tree is disabled.</p>
+	 *
+	 * @param compiled true enables matching with a compiled route tree, false tests each route in order
+	 * @return this {@link HttpServerRoutes}
+	 * @since 1.1.3
+	 */
+	default HttpServerRoutes compiled(boolean compiled) {
+		return this;
+	}
+
 	/**
 	 * Listens for websocket on the passed path to be used as a routing condition. Incoming
 	 * connections will query the internal registry to invoke the matching handler.
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2022-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 package reactor.netty.http.server;
 
 import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.Timer;
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.transport.RequestReplyReceiverContext;
@@ -26,8 +28,8 @@ import reactor.util.annotation.Nullable;
 import reactor.util.context.ContextView;
 
 import java.net.InetSocketAddress;
-import java.time.Duration;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -58,6 +60,11 @@ final class MicrometerHttpServerMetricsHandler extends AbstractHttpServerMetrics
 	Observation responseTimeObservation;
 	ContextView parentContextView;
 
+	// The meters of the last route and status, reused while the requests on this channel target the same route
+	String routeMetersPath;
+	MicrometerHttpServerMetricsRecorder.RouteMeters routeMeters;
+	MicrometerHttpServerMetricsRecorder.StatusMeters statusMeters;
+
 	MicrometerHttpServerMetricsHandler(MicrometerHttpServerMetricsRecorder recorder,
 			@Nullable Function<String, String> uriTagValue) {
 		super(uriTagValue);
@@ -73,6 +80,10 @@ final class MicrometerHttpServerMetricsHandler extends AbstractHttpServerMetrics
 		this.responseTimeHandlerContext = copy.responseTimeHandlerContext;
 		this.responseTimeObservation = copy.responseTimeObservation;
 		this.parentContextView = copy.parentContextView;
+
+		this.routeMetersPath = copy.routeMetersPath;
+		this.routeMeters = copy.routeMeters;
+		this.statusMeters = copy.statusMeters;
 	}
 
 	@Override
@@ -80,13 +91,40 @@ final class MicrometerHttpServerMetricsHandler extends AbstractHttpServerMetrics
 		return recorder;
 	}
 
+	@Override
+	protected void recordException(HttpServerOperations ops, String path) {
+		Counter errors = routeMeters(path, ops.method().name()).errors();
+		if (errors != null) {
+			errors.increment();
+		}
+	}
+
+	@Override
+	protected void recordRead(HttpServerOperations ops, String path, String method) {
+		MicrometerHttpServerMetricsRecorder.RouteMeters meters = routeMeters(path, method);
+		Timer dataReceivedTimer = meters.dataReceivedTime();
+		if (dataReceivedTimer != null) {
+			dataReceivedTimer.record(System.nanoTime() - dataReceivedTime, TimeUnit.NANOSECONDS);
+		}
+
+		DistributionSummary dataReceivedSummary = meters.dataReceived();
+		if (dataReceivedSummary != null) {
+			dataReceivedSummary.record(dataReceived);
+		}
+	}
+
 	@Override
 	protected void recordWrite(HttpServerOperations ops, String path, String method, String status) {
-		Duration dataSentTimeDuration = Duration.ofNanos(System.nanoTime() - dataSentTime);
-		recorder().recordDataSentTime(path, method, status, dataSentTimeDuration);
+		MicrometerHttpServerMetricsRecorder.RouteMeters meters = routeMeters(path, method);
+		Timer dataSentTimer = statusMeters(meters, status).dataSentTime;
+		if (dataSentTimer != null) {
+			dataSentTimer.record(System.nanoTime() - dataSentTime, TimeUnit.NANOSECONDS);
+		}
 
-		// Always take the remote address from the operations in order to consider proxy information
-		recorder().recordDataSent(ops.remoteAddress(), path, dataSent);
+		DistributionSummary dataSentSummary = meters.dataSent();
+		if (dataSentSummary != null) {
+			dataSentSummary.record(dataSent);
+		}
 
 		// Cannot invoke the recorder anymore:
 		// 1. The recorder is one instance only, it is invoked for all requests that can happen
@@ -125,6 +163,31 @@ final class MicrometerHttpServerMetricsHandler extends AbstractHttpServerMetrics
 		}
 		responseTimeHandlerContext.setResponse(ops.nettyResponse);
 		responseTimeHandlerContext.status = status;
+		MicrometerHttpServerMetricsRecorder.RouteMeters meters = routeMeters(path, method);
+		// the route has been matched in the meantime, the URI tag value might be different from the one used on read
+		responseTimeHandlerContext.path(meters.uri);
+		responseTimeHandlerContext.statusMeters = statusMeters(meters, status);
+	}
+
+	MicrometerHttpServerMetricsRecorder.RouteMeters routeMeters(String path, String method) {
+		MicrometerHttpServerMetricsRecorder.RouteMeters meters = routeMeters;
+		if (meters == null || !routeMetersPath.equals(path) || !meters.method.equals(method)) {
+			meters = recorder.getRouteMeters(path, method);
+			routeMetersPath = path;
+			routeMeters = meters;
+			statusMeters = null;
+		}
+		return meters;
+	}
+
+	MicrometerHttpServerMetricsRecorder.StatusMeters statusMeters(MicrometerHttpServerMetricsRecorder.RouteMeters meters,
+			String status) {
+		MicrometerHttpServerMetricsRecorder.StatusMeters current = statusMeters;
+		if (current == null || !current.status.equals(status)) {
+			current = meters.statusMeters(status);
+			statusMeters = current;
+		}
+		return current;
 	}
 
 	/**
@@ -140,12 +203,13 @@ final class MicrometerHttpServerMetricsHandler extends AbstractHttpServerMetrics
 		final String method;
 		final String netHostName;
 		final String netHostPort;
-		final String path;
+		String path;
 		final MicrometerHttpServerMetricsRecorder recorder;
 		final String scheme;
 
 		// status might not be known beforehand
 		String status = UNKNOWN;
+		MicrometerHttpServerMetricsRecorder.StatusMeters statusMeters;
 
 		ResponseTimeHandlerContext(MicrometerHttpServerMetricsRecorder recorder, String path, HttpServerOperations ops) {
 			super((carrier, key) -> Objects.requireNonNull(carrier).headers().get(key));
@@ -166,8 +230,21 @@ final class MicrometerHttpServerMetricsHandler extends AbstractHttpServerMetrics
 			return this;
 		}
 
+		void path(String path) {
+			if (!this.path.equals(path)) {
+				this.path = path;
+				if (path.startsWith("/")) {
+					setContextualName(this.method + '_' + path.substring(1));
+				}
+			}
+		}
+
 		@Override
 		public Timer getTimer() {
+			MicrometerHttpServerMetricsRecorder.StatusMeters meters = statusMeters;
+			if (meters != null && recorder.responseTimeName.equals(getName())) {
+				return meters.responseTime;
+			}
 			return recorder.getResponseTimeTimer(getName(), path, method, status);
 		}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2019-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,17 +19,23 @@ import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Timer;
+import reactor.netty.ReactorNetty;
 import reactor.netty.channel.MeterKey;
 import reactor.netty.http.MicrometerHttpMetricsRecorder;
 import reactor.netty.internal.util.MapUtils;
+import reactor.util.Logger;
+import reactor.util.Loggers;
 import reactor.util.annotation.Nullable;
 
 import java.net.SocketAddress;
 import java.time.Duration;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.LongAdder;
 
+import static reactor.netty.Metrics.COMPRESSION_RATIO;
+import static reactor.netty.Metrics.COMPRESSION_TIME;
 import static reactor.netty.Metrics.DATA_RECEIVED;
 import static reactor.netty.Metrics.DATA_RECEIVED_TIME;
 import static reactor.netty.Metrics.DATA_SENT;
@@ -37,6 +43,7 @@ import static reactor.netty.Metrics.DATA_SENT_TIME;
 import static reactor.netty.Metrics.ERRORS;
 import static reactor.netty.Metrics.HTTP_SERVER_PREFIX;
 import static reactor.netty.Metrics.METHOD;
+import static reactor.netty.Metrics.OVERFLOW;
 import static reactor.netty.Metrics.REGISTRY;
 import static reactor.netty.Metrics.RESPONSE_TIME;
 import static reactor.netty.Metrics.STATUS;
@@ -50,50 +57,80 @@ import static reactor.netty.http.server.HttpServerMeters.STREAMS_ACTIVE;
  */
 final class MicrometerHttpServerMetricsRecorder extends MicrometerHttpMetricsRecorder implements HttpServerMetricsRecorder {
 
+	static final Logger log = Loggers.getLogger(MicrometerHttpServerMetricsRecorder.class);
+
+	/**
+	 * The maximum number of distinct URI tag values, the other URI tag values are replaced with {@code OVERFLOW}.
+	 */
+	static final int MAX_URI_TAGS = Integer.parseInt(System.getProperty(ReactorNetty.HTTP_SERVER_MAX_URI_TAGS, "1000"));
+
 	final static MicrometerHttpServerMetricsRecorder INSTANCE = new MicrometerHttpServerMetricsRecorder();
 	private final static String PROTOCOL_VALUE_HTTP = "http";
 	private final LongAdder activeConnectionsAdder = new LongAdder();
 	private final LongAdder activeStreamsAdder = new LongAdder();
 	private final ConcurrentMap<String, LongAdder> activeConnectionsCache = new ConcurrentHashMap<>();
 	private final ConcurrentMap<String, LongAdder> activeStreamsCache = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, DistributionSummary> compressionRatioCache = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, Timer> compressionTimeCache = new ConcurrentHashMap<>();
 	private final ConcurrentMap<String, DistributionSummary> dataReceivedCache = new ConcurrentHashMap<>();
 	private final ConcurrentMap<String, DistributionSummary> dataSentCache = new ConcurrentHashMap<>();
 	private final ConcurrentMap<String, Counter> errorsCache = new ConcurrentHashMap<>();
+	private final ConcurrentMap<MeterKey, RouteMeters> routeMetersCache = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, String> uriTags = new ConcurrentHashMap<>();
+	private final AtomicInteger uriTagsCount = new AtomicInteger();
+	private final int maxUriTags;
+	final String responseTimeName;
 
 	private MicrometerHttpServerMetricsRecorder() {
+		this(MAX_URI_TAGS);
+	}
+
+	MicrometerHttpServerMetricsRecorder(int maxUriTags) {
 		super(HTTP_SERVER_PREFIX, PROTOCOL_VALUE_HTTP);
+		this.maxUriTags = maxUriTags;
+		this.responseTimeName = name() + RESPONSE_TIME;
 	}
 
 	@Override
 	public void recordDataReceivedTime(String uri, String method, Duration time) {
+		Timer dataReceivedTime = getDataReceivedTimeTimer(uri, method);
+		if (dataReceivedTime != null) {
+			dataReceivedTime.record(time);
+		}
+	}
+
+	@Nullable
+	final Timer getDataReceivedTimeTimer(String uri, String method) {
 		MeterKey meterKey = new MeterKey(uri, null, method, null);
-		Timer dataReceivedTime = MapUtils.computeIfAbsent(dataReceivedTimeCache, meterKey,
+		return MapUtils.computeIfAbsent(dataReceivedTimeCache, meterKey,
 				key -> filter(Timer.builder(name() + DATA_RECEIVED_TIME)
 				                   .tags(HttpServerMeters.DataReceivedTimeTags.URI.asString(), uri,
 				                         HttpServerMeters.DataReceivedTimeTags.METHOD.asString(), method)
 				                   .register(REGISTRY)));
-		if (dataReceivedTime != null) {
-			dataReceivedTime.record(time);
-		}
 	}
 
 	@Override
 	public void recordDataSentTime(String uri, String method, String status, Duration time) {
+		Timer dataSentTime = getDataSentTimeTimer(uri, method, status);
+		if (dataSentTime != null) {
+			dataSentTime.record(time);
+		}
+	}
+
+	@Nullable
+	final Timer getDataSentTimeTimer(String uri, String method, String status) {
 		MeterKey meterKey = new MeterKey(uri, null, method, status);
-		Timer dataSentTime = MapUtils.computeIfAbsent(dataSentTimeCache, meterKey,
+		return MapUtils.computeIfAbsent(dataSentTimeCache, meterKey,
 				key -> filter(Timer.builder(name() + DATA_SENT_TIME)
 				                   .tags(HttpServerMeters.DataSentTimeTags.URI.asString(), uri,
 				                         HttpServerMeters.DataSentTimeTags.METHOD.asString(), method,
 				                         HttpServerMeters.DataSentTimeTags.STATUS.asString(), status)
 				                   .register(REGISTRY)));
-		if (dataSentTime != null) {
-			dataSentTime.record(time);
-		}
 	}
 
 	@Override
 	public void recordResponseTime(String uri, String method, String status, Duration time) {
-		Timer responseTime = getResponseTimeTimer(name() + RESPONSE_TIME, uri, method, status);
+		Timer responseTime = getResponseTimeTimer(responseTimeName, uri, method, status);
 		if (responseTime != null) {
 			responseTime.record(time);
 		}
@@ -110,37 +147,90 @@ final class MicrometerHttpServerMetricsRecorder extends MicrometerHttpMetricsRec
 
 	@Override
 	public void recordDataReceived(SocketAddress remoteAddress, String uri, long bytes) {
-		DistributionSummary dataReceived = MapUtils.computeIfAbsent(dataReceivedCache, uri,
+		DistributionSummary dataReceived = getDataReceivedDistributionSummary(uri);
+		if (dataReceived != null) {
+			dataReceived.record(bytes);
+		}
+	}
+
+	@Nullable
+	final DistributionSummary getDataReceivedDistributionSummary(String uri) {
+		return MapUtils.computeIfAbsent(dataReceivedCache, uri,
 				key -> filter(DistributionSummary.builder(name() + DATA_RECEIVED)
 				                                 .baseUnit(HttpServerMeters.HTTP_SERVER_DATA_RECEIVED.getBaseUnit())
 				                                 .tags(HttpServerMeters.HttpServerMetersTags.URI.asString(), uri)
 				                                 .register(REGISTRY)));
-		if (dataReceived != null) {
-			dataReceived.record(bytes);
-		}
 	}
 
 	@Override
 	public void recordDataSent(SocketAddress remoteAddress, String uri, long bytes) {
-		DistributionSummary dataSent = MapUtils.computeIfAbsent(dataSentCache, uri,
+		DistributionSummary dataSent = getDataSentDistributionSummary(uri);
+		if (dataSent != null) {
+			dataSent.record(bytes);
+		}
+	}
+
+	@Nullable
+	final DistributionSummary getDataSentDistributionSummary(String uri) {
+		return MapUtils.computeIfAbsent(dataSentCache, uri,
 				key -> filter(DistributionSummary.builder(name() + DATA_SENT)
 				                                 .baseUnit(HttpServerMeters.HTTP_SERVER_DATA_SENT.getBaseUnit())
 				                                 .tags(HttpServerMeters.HttpServerMetersTags.URI.asString(), uri)
 				                                 .register(REGISTRY)));
-		if (dataSent != null) {
-			dataSent.record(bytes);
-		}
 	}
 
 	@Override
 	public void incrementErrorsCount(SocketAddress remoteAddress, String uri) {
-		Counter errors = MapUtils.computeIfAbsent(errorsCache, uri,
+		Counter errors = getErrorsCounter(uri);
+		if (errors != null) {
+			errors.increment();
+		}
+	}
+
+	@Nullable
+	final Counter getErrorsCounter(String uri) {
+		return MapUtils.computeIfAbsent(errorsCache, uri,
 				key -> filter(Counter.builder(name() + ERRORS)
 				                     .tags(HttpServerMeters.HttpServerMetersTags.URI.asString(), uri)
 				                     .register(REGISTRY)));
-		if (errors != null) {
-			errors.increment();
+	}
+
+	/**
+	 * Returns the meters of a route, they are resolved once and then the handlers record directly on them.
+	 *
+	 * @param uri the URI tag value
+	 * @param method the HTTP method
+	 * @return the meters of the route
+	 */
+	final RouteMeters getRouteMeters(String uri, String method) {
+		String uriTag = uriTag(uri);
+		return MapUtils.computeIfAbsent(routeMetersCache, new MeterKey(uriTag, null, method, null),
+				key -> new RouteMeters(uriTag, method));
+	}
+
+	/**
+	 * Returns the URI tag value, or {@code OVERFLOW} when the maximum number of distinct URI tag values is reached.
+	 *
+	 * @param uri the URI tag value
+	 * @return the URI tag value or {@code OVERFLOW}
+	 */
+	final String uriTag(String uri) {
+		String uriTag = uriTags.get(uri);
+		if (uriTag != null) {
+			return uriTag;
+		}
+		if (uriTagsCount.get() < maxUriTags) {
+			uriTag = uriTags.computeIfAbsent(uri, key -> uriTagsCount.incrementAndGet() <= maxUriTags ? key : null);
+			if (uriTag != null) {
+				return uriTag;
+			}
 		}
+		if (uriTagsCount.getAndSet(maxUriTags + 1) <= maxUriTags && log.isWarnEnabled()) {
+			log.warn("Reached the maximum number of URI tag values ({}), the requests with other URI tag values are " +
+					"recorded with the {} URI tag value. Configure the routes with templates, e.g. /users/{id}, " +
+					"or a uriTagValue function.", maxUriTags, OVERFLOW);
+		}
+		return OVERFLOW;
 	}
 
 	@Override
@@ -175,6 +265,27 @@ final class MicrometerHttpServerMetricsRecorder extends MicrometerHttpMetricsRec
 		}
 	}
 
+	@Override
+	public void recordCompression(String encoding, long uncompressedBytes, long compressedBytes, Duration time) {
+		if (compressedBytes > 0) {
+			DistributionSummary compressionRatio = MapUtils.computeIfAbsent(compressionRatioCache, encoding,
+					key -> filter(DistributionSummary.builder(name() + COMPRESSION_RATIO)
+					                                 .tags(HttpServerMeters.CompressionTags.ENCODING.asString(), encoding)
+					                                 .register(REGISTRY)));
+			if (compressionRatio != null) {
+				compressionRatio.record((double) uncompressedBytes / compressedBytes);
+			}
+		}
+
+		Timer compressionTime = MapUtils.computeIfAbsent(compressionTimeCache, encoding,
+				key -> filter(Timer.builder(name() + COMPRESSION_TIME)
+				                   .tags(HttpServerMeters.CompressionTags.ENCODING.asString(), encoding)
+				                   .register(REGISTRY)));
+		if (compressionTime != null) {
+			compressionTime.record(time);
+		}
+	}
+
 	@Override
 	public void recordDataReceived(SocketAddress remoteAddress, long bytes) {
 		// noop
@@ -205,6 +316,90 @@ final class MicrometerHttpServerMetricsRecorder extends MicrometerHttpMetricsRec
 		throw new UnsupportedOperationException();
 	}
 
+	/**
+	 * The meters of a route ({@code uri} and {@code method} tags), a meter is resolved when it is used
+	 * for the first time and it is {@code null} when it is filtered.
+	 */
+	final class RouteMeters {
+
+		final String method;
+		final String uri;
+
+		volatile DistributionSummary dataReceived;
+		volatile Timer dataReceivedTime;
+		volatile DistributionSummary dataSent;
+		volatile Counter errors;
+
+		final ConcurrentMap<String, StatusMeters> statusMetersCache = new ConcurrentHashMap<>();
+
+		RouteMeters(String uri, String method) {
+			this.method = method;
+			this.uri = uri;
+		}
+
+		@Nullable
+		DistributionSummary dataReceived() {
+			DistributionSummary meter = dataReceived;
+			if (meter == null) {
+				meter = getDataReceivedDistributionSummary(uri);
+				dataReceived = meter;
+			}
+			return meter;
+		}
+
+		@Nullable
+		Timer dataReceivedTime() {
+			Timer meter = dataReceivedTime;
+			if (meter == null) {
+				meter = getDataReceivedTimeTimer(uri, method);
+				dataReceivedTime = meter;
+			}
+			return meter;
+		}
+
+		@Nullable
+		DistributionSummary dataSent() {
+			DistributionSummary meter = dataSent;
+			if (meter == null) {
+				meter = getDataSentDistributionSummary(uri);
+				dataSent = meter;
+			}
+			return meter;
+		}
+
+		@Nullable
+		Counter errors() {
+			Counter meter = errors;
+			if (meter == null) {
+				meter = getErrorsCounter(uri);
+				errors = meter;
+			}
+			return meter;
+		}
+
+		StatusMeters statusMeters(String status) {
+			return MapUtils.computeIfAbsent(statusMetersCache, status,
+					key -> new StatusMeters(status, getDataSentTimeTimer(uri, method, status),
+							getResponseTimeTimer(responseTimeName, uri, method, status)));
+		}
+	}
+
+	/**
+	 * The meters of a route that also have the {@code status} tag, a meter is {@code null} when it is filtered.
+	 */
+	static final class StatusMeters {
+
+		final Timer dataSentTime;
+		final Timer responseTime;
+		final String status;
+
+		StatusMeters(String status, @Nullable Timer dataSentTime, @Nullable Timer responseTime) {
+			this.dataSentTime = dataSentTime;
+			this.responseTime = responseTime;
+			this.status = status;
+		}
+	}
+
 	@Nullable
 	private LongAdder getActiveStreamsAdder(SocketAddress localAddress) {
 		String address = reactor.netty.Metrics.formatSocketAddress(localAddress);
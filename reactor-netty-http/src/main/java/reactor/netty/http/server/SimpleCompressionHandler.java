@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018-2021 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2018-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,24 +15,108 @@
  */
 package reactor.netty.http.server;
 
+import com.aayushatharva.brotli4j.encoder.BrotliOutputStream;
 import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.handler.codec.DecoderException;
+import io.netty.handler.codec.MessageToByteEncoder;
 import io.netty.handler.codec.http.DefaultHttpContent;
 import io.netty.handler.codec.http.DefaultHttpRequest;
 import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpContent;
 import io.netty.handler.codec.http.HttpContentCompressor;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpObject;
 import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.LastHttpContent;
 import io.netty.util.ReferenceCountUtil;
+import reactor.netty.channel.ChannelMetricsRecorder;
+import reactor.netty.internal.util.BypassableHandler;
+import reactor.util.annotation.Nullable;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
 
 /**
  * @author Stephane Maldini
  */
-final class SimpleCompressionHandler extends HttpContentCompressor {
+final class SimpleCompressionHandler extends HttpContentCompressor implements BypassableHandler {
+
+	static final int DEFAULT_COMPRESSION_LEVEL = 6;
+
+	/**
+	 * Whether the current response is compressed. The handler stays in the pipeline of the connection and
+	 * is bypassed for the responses that must not be compressed.
+	 */
+	volatile boolean compress = true;
+
+	final int[] brotliSettings;
+	final int[] deflateSettings;
+	final int[] gzipSettings;
+	final HttpServerMetricsRecorder recorder;
+	final HttpCompressionSpec spec;
+
+	ChannelHandlerContext ctx;
+	CRC32 crc;
+	Deflater deflateDeflater;
+	Deflater gzipDeflater;
+
+	// The compression of the current response, recorded when the last content is encoded
+	long compressedBytes;
+	long compressionNanos;
+	String encoding;
+	long uncompressedBytes;
+
+	SimpleCompressionHandler() {
+		this(HttpCompressionSpec.DEFAULT, null);
+	}
+
+	SimpleCompressionHandler(HttpCompressionSpec spec, @Nullable ChannelMetricsRecorder recorder) {
+		super(0, spec.options);
+		this.brotliSettings = spec.availableEncodings.contains(HttpCompressionSpec.BR) ?
+				spec.settings(HttpCompressionSpec.BR) : null;
+		this.deflateSettings = reusableDeflaterSettings(spec.settings(HttpCompressionSpec.DEFLATE));
+		this.gzipSettings = reusableDeflaterSettings(spec.settings(HttpCompressionSpec.GZIP));
+		this.recorder = recorder instanceof HttpServerMetricsRecorder ? (HttpServerMetricsRecorder) recorder : null;
+		this.spec = spec;
+	}
+
+	@Override
+	public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+		this.ctx = ctx;
+		super.handlerAdded(ctx);
+	}
+
+	@Override
+	public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+		try {
+			super.handlerRemoved(ctx);
+		}
+		finally {
+			if (deflateDeflater != null) {
+				deflateDeflater.end();
+				deflateDeflater = null;
+			}
+			if (gzipDeflater != null) {
+				gzipDeflater.end();
+				gzipDeflater = null;
+			}
+		}
+	}
+
+	@Override
+	public boolean isBypassed() {
+		return !compress;
+	}
 
 	@Override
 	public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise)
@@ -46,6 +130,109 @@ final class SimpleCompressionHandler extends HttpContentCompressor {
 		}
 	}
 
+	@Override
+	@Nullable
+	protected Result beginEncode(HttpResponse httpResponse, String acceptEncoding) throws Exception {
+		Result result = null;
+		if (compress && !httpResponse.headers().contains(HttpHeaderNames.CONTENT_ENCODING) &&
+				spec.isCompressible(httpResponse.headers().get(HttpHeaderNames.CONTENT_TYPE))) {
+			result = newResult(httpResponse, acceptEncoding);
+		}
+		encoding = result != null && recorder != null ? result.targetContentEncoding() : null;
+		return result;
+	}
+
+	/**
+	 * Selects the configured encoding with the highest quality value in the {@code Accept-Encoding} request header,
+	 * the order in which the encodings are configured is used when the quality values are equal.
+	 * The response is not compressed when {@code identity} has a higher quality value.
+	 */
+	@Override
+	@Nullable
+	protected String determineEncoding(String acceptEncoding) {
+		String targetContentEncoding = null;
+		double identityQuality = StaticFileHandler.quality(acceptEncoding, StaticFileHandler.IDENTITY);
+		double quality = 0;
+		for (String encoding : spec.availableEncodings) {
+			double q = StaticFileHandler.quality(acceptEncoding, encoding);
+			if (q > quality && q >= identityQuality) {
+				quality = q;
+				targetContentEncoding = encoding;
+			}
+		}
+		return targetContentEncoding;
+	}
+
+	@Override
+	protected void encode(ChannelHandlerContext ctx, HttpObject msg, List<Object> out) throws Exception {
+		if (recorder == null) {
+			super.encode(ctx, msg, out);
+			return;
+		}
+
+		int contentBytes = msg instanceof HttpContent ? ((HttpContent) msg).content().readableBytes() : 0;
+		int outSize = out.size();
+		long start = System.nanoTime();
+		super.encode(ctx, msg, out);
+		if (encoding == null) {
+			return;
+		}
+
+		compressionNanos += System.nanoTime() - start;
+		uncompressedBytes += contentBytes;
+		for (int i = outSize; i < out.size(); i++) {
+			Object o = out.get(i);
+			if (o instanceof HttpContent) {
+				compressedBytes += ((HttpContent) o).content().readableBytes();
+			}
+		}
+		if (msg instanceof LastHttpContent) {
+			recorder.recordCompression(encoding, uncompressedBytes, compressedBytes, Duration.ofNanos(compressionNanos));
+			compressedBytes = 0;
+			compressionNanos = 0;
+			encoding = null;
+			uncompressedBytes = 0;
+		}
+	}
+
+	@Nullable
+	Result newResult(HttpResponse httpResponse, String acceptEncoding) throws Exception {
+		// gzip and deflate reuse the Deflater of the connection instead of creating one for each response
+		String targetContentEncoding = determineEncoding(acceptEncoding);
+		if (HttpCompressionSpec.BR.equals(targetContentEncoding) && brotliSettings != null) {
+			return new Result(HttpCompressionSpec.BR, newEncoder(new BrotliEncoder(brotliSettings[0], brotliSettings[1])));
+		}
+		if (HttpCompressionSpec.GZIP.equals(targetContentEncoding) && gzipSettings != null) {
+			if (gzipDeflater == null) {
+				gzipDeflater = new Deflater(gzipSettings[0], true);
+				crc = new CRC32();
+			}
+			return new Result(HttpCompressionSpec.GZIP, newEncoder(new DeflaterEncoder(gzipDeflater, crc)));
+		}
+		if (HttpCompressionSpec.DEFLATE.equals(targetContentEncoding) && deflateSettings != null) {
+			if (deflateDeflater == null) {
+				deflateDeflater = new Deflater(deflateSettings[0]);
+			}
+			return new Result(HttpCompressionSpec.DEFLATE, newEncoder(new DeflaterEncoder(deflateDeflater, null)));
+		}
+		return super.beginEncode(httpResponse, acceptEncoding);
+	}
+
+	EmbeddedChannel newEncoder(ChannelHandler encoder) {
+		return new EmbeddedChannel(ctx.channel().id(), ctx.channel().metadata().hasDisconnect(),
+				ctx.channel().config(), encoder);
+	}
+
+	/**
+	 * The {@link Deflater} supports only the default window bits and memory level,
+	 * the other settings are handled by the encoders of Netty.
+	 */
+	@Nullable
+	static int[] reusableDeflaterSettings(@Nullable int[] settings) {
+		return settings != null && settings[1] == HttpCompressionSpec.DEFAULT_WINDOW_BITS &&
+				settings[2] == HttpCompressionSpec.DEFAULT_MEM_LEVEL ? settings : null;
+	}
+
 	void decode(ChannelHandlerContext ctx, HttpRequest msg) {
 		List<Object> out = new ArrayList<>();
 		HttpRequest request = msg;
@@ -70,4 +257,223 @@ final class SimpleCompressionHandler extends HttpContentCompressor {
 			out.clear();
 		}
 	}
+
+	/**
+	 * Compresses the content of a response with {@code brotli4j}, which is an optional dependency.
+	 * The content is flushed with each chunk and the stream is finished when the encoder is closed,
+	 * Netty's {@code BrotliEncoder} does not write the end of the stream.
+	 */
+	static final class BrotliEncoder extends MessageToByteEncoder<ByteBuf> {
+
+		final BrotliOutputStream brotli;
+		final Sink sink = new Sink();
+
+		boolean finished;
+
+		BrotliEncoder(int quality, int window) throws IOException {
+			this.brotli = new BrotliOutputStream(sink, HttpCompressionSpec.BrotliSupport.parameters(quality, window));
+		}
+
+		@Override
+		protected void encode(ChannelHandlerContext ctx, ByteBuf in, ByteBuf out) throws Exception {
+			if (finished) {
+				out.writeBytes(in);
+				return;
+			}
+
+			int len = in.readableBytes();
+			if (len == 0) {
+				return;
+			}
+
+			sink.out = out;
+			try {
+				in.readBytes(brotli, len);
+				brotli.flush();
+			}
+			finally {
+				sink.out = null;
+			}
+		}
+
+		@Override
+		public void close(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+			if (finished) {
+				ctx.close(promise);
+				return;
+			}
+			finished = true;
+
+			ByteBuf footer = ctx.alloc().heapBuffer();
+			sink.out = footer;
+			try {
+				brotli.close();
+			}
+			catch (IOException e) {
+				footer.release();
+				throw e;
+			}
+			finally {
+				sink.out = null;
+			}
+			ctx.writeAndFlush(footer);
+			ctx.close(promise);
+		}
+
+		@Override
+		public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+			try {
+				super.handlerRemoved(ctx);
+			}
+			finally {
+				if (!finished) {
+					// releases the native encoder, the end of the stream is discarded
+					finished = true;
+					brotli.close();
+				}
+			}
+		}
+
+		/**
+		 * Writes the compressed bytes into the buffer of the current chunk.
+		 */
+		static final class Sink extends OutputStream {
+
+			ByteBuf out;
+
+			@Override
+			public void write(int b) {
+				if (out != null) {
+					out.writeByte(b);
+				}
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+				if (out != null) {
+					out.writeBytes(b, off, len);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Compresses the content of a response with the {@link Deflater} of the connection, which is reset
+	 * for each response. The content is flushed with each chunk.
+	 */
+	static final class DeflaterEncoder extends MessageToByteEncoder<ByteBuf> {
+
+		static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+		final CRC32 crc;
+		final Deflater deflater;
+
+		boolean finished;
+		boolean writeHeader;
+
+		DeflaterEncoder(Deflater deflater, @Nullable CRC32 crc) {
+			deflater.reset();
+			if (crc != null) {
+				crc.reset();
+			}
+			this.crc = crc;
+			this.deflater = deflater;
+			this.writeHeader = crc != null;
+		}
+
+		@Override
+		protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, ByteBuf msg, boolean preferDirect) {
+			// the Deflater works on arrays, the estimation is the worst case of the deflate algorithm
+			int sizeEstimate = (int) Math.ceil(msg.readableBytes() * 1.001) + 12;
+			if (writeHeader) {
+				sizeEstimate += GZIP_HEADER.length;
+			}
+			return ctx.alloc().heapBuffer(sizeEstimate);
+		}
+
+		@Override
+		protected void encode(ChannelHandlerContext ctx, ByteBuf in, ByteBuf out) {
+			if (finished) {
+				out.writeBytes(in);
+				return;
+			}
+
+			int len = in.readableBytes();
+			if (len == 0) {
+				return;
+			}
+
+			if (writeHeader) {
+				writeHeader = false;
+				out.writeBytes(GZIP_HEADER);
+			}
+
+			byte[] input;
+			int offset;
+			if (in.hasArray()) {
+				input = in.array();
+				offset = in.arrayOffset() + in.readerIndex();
+			}
+			else {
+				input = new byte[len];
+				in.getBytes(in.readerIndex(), input);
+				offset = 0;
+			}
+			in.skipBytes(len);
+
+			if (crc != null) {
+				crc.update(input, offset, len);
+			}
+			deflater.setInput(input, offset, len);
+			for (;;) {
+				deflate(out);
+				if (deflater.needsInput()) {
+					break;
+				}
+				if (!out.isWritable()) {
+					out.ensureWritable(out.writerIndex());
+				}
+			}
+		}
+
+		@Override
+		public void close(ChannelHandlerContext ctx, ChannelPromise promise) {
+			if (finished) {
+				ctx.close(promise);
+				return;
+			}
+			finished = true;
+
+			ByteBuf footer = ctx.alloc().heapBuffer();
+			if (writeHeader) {
+				writeHeader = false;
+				footer.writeBytes(GZIP_HEADER);
+			}
+			deflater.finish();
+			while (!deflater.finished()) {
+				deflate(footer);
+				if (!footer.isWritable()) {
+					footer.ensureWritable(footer.writerIndex());
+				}
+			}
+			if (crc != null) {
+				int crcValue = (int) crc.getValue();
+				int uncompressedBytes = (int) deflater.getBytesRead();
+				footer.writeIntLE(crcValue);
+				footer.writeIntLE(uncompressedBytes);
+			}
+			ctx.writeAndFlush(footer);
+			ctx.close(promise);
+		}
+
+		void deflate(ByteBuf out) {
+			int numBytes;
+			do {
+				int writerIndex = out.writerIndex();
+				numBytes = deflater.deflate(out.array(), out.arrayOffset() + writerIndex, out.writableBytes(), Deflater.SYNC_FLUSH);
+				out.writerIndex(writerIndex + numBytes);
+			}
+			while (numBytes > 0);
+		}
+	}
 }
@@ -0,0 +1,486 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DateFormatter;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.annotation.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded cache of the metadata and of the content of the files served by
+ * {@link HttpServerRoutes#directory(String, Path, java.util.function.Function, StaticFileCache)}.
+ * <p>The size, the last modification time and the {@code ETag} of the files are cached, so that the conditional requests
+ * ({@code If-None-Match}, {@code If-Modified-Since}) are answered without accessing the file system. The content of
+ * the files that are not larger than the configured maximum file size is cached as well, the larger files are sent
+ * with {@link reactor.netty.NettyOutbound#sendFile(Path, long, long)} which uses a zero-copy
+ * {@link io.netty.channel.FileRegion} when the connection is not secured and the response is not compressed.
+ * The content is read from the file system with {@link Schedulers#boundedElastic()} so that the event loop is not
+ * blocked, the file is sent with {@link reactor.netty.NettyOutbound#sendFile(Path, long, long)} until then.
+ * The file system is accessed again once the configured revalidation period elapses, a file that has been modified
+ * in the meantime is replaced in the cache. The least recently used files are evicted once the configured maximum
+ * number of entries or the configured maximum size of the cached content is reached.
+ * <p>The same {@link StaticFileCache} can be shared by several routes.
+ *
+ * @since 1.1.3
+ */
+public final class StaticFileCache {
+
+	public interface Builder {
+
+		/**
+		 * Build a new {@link StaticFileCache}
+		 *
+		 * @return a new {@link StaticFileCache}
+		 */
+		StaticFileCache build();
+
+		/**
+		 * Whether to cache the content of the files in direct buffers allocated with
+		 * {@link ByteBufAllocator#DEFAULT} instead of heap buffers. Default to {@code false}.
+		 *
+		 * @param directBuffers true to cache the content in direct buffers, false to cache it in heap buffers
+		 * @return {@code this}
+		 */
+		Builder directBuffers(boolean directBuffers);
+
+		/**
+		 * Configures the maximum number of the cached files, the least recently used ones are evicted first.
+		 * Default to {@code 1024}.
+		 *
+		 * @param maxEntries the maximum number of the cached files
+		 * @return {@code this}
+		 */
+		Builder maxEntries(int maxEntries);
+
+		/**
+		 * Configures the maximum size of a file which content is cached, only the metadata of the larger files
+		 * is cached. Use {@code 0} to cache only the metadata. Default to {@code 64KB}.
+		 *
+		 * @param maxFileSize the maximum size of a file which content is cached
+		 * @return {@code this}
+		 */
+		Builder maxFileSize(int maxFileSize);
+
+		/**
+		 * Configures the maximum size of the cached content, the least recently used files are evicted first.
+		 * Default to {@code 16MB}.
+		 *
+		 * @param maxSize the maximum size of the cached content
+		 * @return {@code this}
+		 */
+		Builder maxSize(long maxSize);
+
+		/**
+		 * Configures the time after which the metadata of a cached file is read again from the file system,
+		 * so that the modified files are served. Default to {@code 1s}.
+		 *
+		 * @param revalidateAfter the time after which the metadata of a cached file is read again
+		 * @return {@code this}
+		 */
+		Builder revalidateAfter(Duration revalidateAfter);
+	}
+
+	/**
+	 * Creates a builder for {@link StaticFileCache}.
+	 *
+	 * @return a new {@link StaticFileCache.Builder}
+	 */
+	public static StaticFileCache.Builder builder() {
+		return new StaticFileCache.Build();
+	}
+
+	/**
+	 * Creates a {@link StaticFileCache} with the default configuration.
+	 *
+	 * @return a new {@link StaticFileCache}
+	 */
+	public static StaticFileCache create() {
+		return builder().build();
+	}
+
+	/**
+	 * Removes all the cached files.
+	 */
+	public void clear() {
+		synchronized (entries) {
+			for (Entry entry : entries.values()) {
+				entry.release();
+			}
+			entries.clear();
+			size = 0;
+		}
+	}
+
+	/**
+	 * Returns the number of the cached files.
+	 *
+	 * @return the number of the cached files
+	 */
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	final boolean directBuffers;
+	final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	final Scheduler loader;
+	final int maxEntries;
+	final int maxFileSize;
+	final long maxSize;
+	final LongSupplier nanoTime;
+	final long revalidateAfterNanos;
+
+	/**
+	 * The size of the cached content, guarded by the {@link #entries} monitor.
+	 */
+	long size;
+
+	StaticFileCache(Build build) {
+		this(build, System::nanoTime, Schedulers.boundedElastic());
+	}
+
+	StaticFileCache(Build build, LongSupplier nanoTime, Scheduler loader) {
+		this.directBuffers = build.directBuffers;
+		this.loader = loader;
+		this.maxEntries = build.maxEntries;
+		this.maxFileSize = build.maxFileSize;
+		this.maxSize = build.maxSize;
+		this.nanoTime = nanoTime;
+		this.revalidateAfterNanos = build.revalidateAfter.toNanos();
+	}
+
+	/**
+	 * Returns the metadata of the file, reading it from the file system when it is not cached or when the
+	 * revalidation period elapsed.
+	 *
+	 * @param path the file
+	 * @return the metadata of the file or {@code null} when the file is not a readable regular file
+	 * @throws IOException when the file cannot be read
+	 */
+	@Nullable
+	Entry get(Path path) throws IOException {
+		return get(path, false);
+	}
+
+	/**
+	 * Returns the metadata of the file, reading it from the file system when it is not cached or when the
+	 * revalidation period elapsed.
+	 *
+	 * @param path the file
+	 * @param cacheMissing whether to cache that the file is not a readable regular file, e.g. for the precompressed
+	 * variants of a file that are looked up on each request
+	 * @return the metadata of the file or {@code null} when the file is not a readable regular file
+	 * @throws IOException when the file cannot be read
+	 */
+	@Nullable
+	Entry get(Path path, boolean cacheMissing) throws IOException {
+		long now = nanoTime.getAsLong();
+		Entry entry;
+		synchronized (entries) {
+			entry = entries.get(path);
+		}
+		if (entry != null && now - entry.validatedAt < revalidateAfterNanos) {
+			return entry.isMissing() ? null : entry;
+		}
+
+		Entry newEntry = Entry.read(path, now);
+		if (newEntry == null) {
+			if (!cacheMissing) {
+				remove(path);
+			}
+			else if (entry != null && entry.isMissing()) {
+				entry.validatedAt = now;
+			}
+			else {
+				put(path, new Entry(now));
+			}
+			return null;
+		}
+		if (entry != null && entry.isSameFile(newEntry)) {
+			entry.validatedAt = now;
+			return entry;
+		}
+
+		put(path, newEntry);
+		if (newEntry.size <= maxFileSize) {
+			load(path, newEntry);
+		}
+		return newEntry;
+	}
+
+	/**
+	 * Reads the content of the file off the event loop and caches it when the entry is still the cached one.
+	 *
+	 * @param path the file
+	 * @param entry the metadata of the file
+	 */
+	void load(Path path, Entry entry) {
+		try {
+			loader.schedule(() -> {
+				ByteBuf content;
+				try {
+					content = content(path, entry.size);
+				}
+				catch (IOException e) {
+					// the file is sent from the file system
+					return;
+				}
+				if (content == null) {
+					return;
+				}
+				synchronized (entries) {
+					if (entries.get(path) != entry) {
+						// replaced or evicted in the meantime
+						content.release();
+						return;
+					}
+					entry.content(content);
+					size += content.readableBytes();
+					evict();
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			// the file is sent from the file system
+		}
+	}
+
+	@Nullable
+	ByteBuf content(Path path, long expectedSize) throws IOException {
+		byte[] bytes = Files.readAllBytes(path);
+		if (bytes.length != expectedSize) {
+			// the file is being modified, the content is cached on the next revalidation
+			return null;
+		}
+		if (directBuffers) {
+			ByteBuf content = ByteBufAllocator.DEFAULT.directBuffer(bytes.length);
+			return content.writeBytes(bytes);
+		}
+		return Unpooled.wrappedBuffer(bytes);
+	}
+
+	void put(Path path, Entry entry) {
+		synchronized (entries) {
+			Entry previous = entries.put(path, entry);
+			if (previous != null) {
+				size -= previous.contentSize();
+				previous.release();
+			}
+			size += entry.contentSize();
+			evict();
+		}
+	}
+
+	/**
+	 * Evicts the least recently used files, must be invoked while holding the {@link #entries} monitor.
+	 */
+	void evict() {
+		Iterator<Entry> it = entries.values().iterator();
+		while ((entries.size() > maxEntries || size > maxSize) && it.hasNext()) {
+			Entry eldest = it.next();
+			it.remove();
+			size -= eldest.contentSize();
+			eldest.release();
+		}
+	}
+
+	void remove(Path path) {
+		synchronized (entries) {
+			Entry previous = entries.remove(path);
+			if (previous != null) {
+				size -= previous.contentSize();
+				previous.release();
+			}
+		}
+	}
+
+	static final class Build implements Builder {
+		static final int DEFAULT_MAX_ENTRIES = 1024;
+		static final int DEFAULT_MAX_FILE_SIZE = 64 * 1024;
+		static final long DEFAULT_MAX_SIZE = 16 * 1024 * 1024;
+		static final Duration DEFAULT_REVALIDATE_AFTER = Duration.ofSeconds(1);
+
+		boolean directBuffers;
+		int maxEntries = DEFAULT_MAX_ENTRIES;
+		int maxFileSize = DEFAULT_MAX_FILE_SIZE;
+		long maxSize = DEFAULT_MAX_SIZE;
+		Duration revalidateAfter = DEFAULT_REVALIDATE_AFTER;
+
+		@Override
+		public StaticFileCache build() {
+			return new StaticFileCache(this);
+		}
+
+		@Override
+		public Builder directBuffers(boolean directBuffers) {
+			this.directBuffers = directBuffers;
+			return this;
+		}
+
+		@Override
+		public Builder maxEntries(int maxEntries) {
+			if (maxEntries < 1) {
+				throw new IllegalArgumentException("maxEntries must be strictly positive");
+			}
+			this.maxEntries = maxEntries;
+			return this;
+		}
+
+		@Override
+		public Builder maxFileSize(int maxFileSize) {
+			if (maxFileSize < 0) {
+				throw new IllegalArgumentException("maxFileSize must be positive, was: " + maxFileSize);
+			}
+			this.maxFileSize = maxFileSize;
+			return this;
+		}
+
+		@Override
+		public Builder maxSize(long maxSize) {
+			if (maxSize < 0) {
+				throw new IllegalArgumentException("maxSize must be positive, was: " + maxSize);
+			}
+			this.maxSize = maxSize;
+			return this;
+		}
+
+		@Override
+		public Builder revalidateAfter(Duration revalidateAfter) {
+			Objects.requireNonNull(revalidateAfter, "revalidateAfter");
+			if (revalidateAfter.isNegative()) {
+				throw new IllegalArgumentException("revalidateAfter must be positive, was: " + revalidateAfter);
+			}
+			this.revalidateAfter = revalidateAfter;
+			return this;
+		}
+	}
+
+	/**
+	 * The metadata and the optional content of a file.
+	 */
+	static final class Entry {
+
+		/**
+		 * Reads the metadata of the file.
+		 *
+		 * @param path the file
+		 * @param now the current time in nanoseconds
+		 * @return the metadata of the file or {@code null} when the file is not a readable regular file
+		 */
+		@Nullable
+		static Entry read(Path path, long now) {
+			BasicFileAttributes attributes;
+			try {
+				attributes = Files.readAttributes(path, BasicFileAttributes.class);
+			}
+			catch (IOException e) {
+				return null;
+			}
+			if (!attributes.isRegularFile() || !Files.isReadable(path)) {
+				return null;
+			}
+			return new Entry(attributes.size(), attributes.lastModifiedTime().toMillis(), now);
+		}
+
+		final String etag;
+		final long lastModified;
+		final String lastModifiedDate;
+		final long size;
+
+		/**
+		 * Guarded by {@code this}, released on eviction.
+		 */
+		ByteBuf content;
+
+		volatile long validatedAt;
+
+		/**
+		 * Creates an entry for a file that is not a readable regular file.
+		 *
+		 * @param validatedAt the current time in nanoseconds
+		 */
+		Entry(long validatedAt) {
+			this.etag = "";
+			this.lastModified = 0;
+			this.lastModifiedDate = "";
+			this.size = -1;
+			this.validatedAt = validatedAt;
+		}
+
+		Entry(long size, long lastModified, long validatedAt) {
+			// HTTP dates have a precision of one second
+			this.lastModified = lastModified - lastModified % 1000;
+			this.lastModifiedDate = DateFormatter.format(new Date(this.lastModified));
+			this.etag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(size) + "\"";
+			this.size = size;
+			this.validatedAt = validatedAt;
+		}
+
+		synchronized void content(ByteBuf content) {
+			this.content = content;
+		}
+
+		synchronized long contentSize() {
+			return content != null ? content.readableBytes() : 0;
+		}
+
+		synchronized boolean hasContent() {
+			return content != null;
+		}
+
+		boolean isMissing() {
+			return size < 0;
+		}
+
+		boolean isSameFile(Entry other) {
+			return size == other.size && etag.equals(other.etag);
+		}
+
+		synchronized void release() {
+			if (content != null) {
+				content.release();
+				content = null;
+			}
+		}
+
+		/**
+		 * Returns a retained duplicate of the cached content, which must be released by the caller.
+		 *
+		 * @return a retained duplicate of the cached content or {@code null} when the content is not cached
+		 */
+		@Nullable
+		synchronized ByteBuf retainedContent() {
+			return content != null ? content.retainedDuplicate() : null;
+		}
+	}
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.DateFormatter;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.util.annotation.Nullable;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Serves the content of a directory, answering the conditional requests ({@code If-None-Match},
+ * {@code If-Modified-Since}) with {@code 304 Not Modified} and the single range requests with
+ * {@code 206 Partial Content}. When a {@link StaticFileCache} is configured, the metadata and the content of the small
+ * files are served from it.
+ * <p>The precompressed variants of a file ({@code .br}, {@code .zst}, {@code .gz} siblings) are sent as they are,
+ * with the {@code Content-Encoding} header, when the client accepts their encoding at least as much as {@code identity}.
+ *
+ * @since 1.1.3
+ */
+final class StaticFileHandler implements BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>> {
+
+	static final String BYTES = "bytes";
+	/**
+	 * The encodings of the precompressed variants in order of preference when the quality values are equal.
+	 */
+	static final String[] ENCODINGS = {"br", "zstd", "gzip"};
+	static final String[] EXTENSIONS = {".br", ".zst", ".gz"};
+	static final String IDENTITY = HttpHeaderValues.IDENTITY.toString();
+	static final long[] UNSATISFIABLE_RANGE = new long[0];
+
+	final StaticFileCache cache;
+	final Path directory;
+	final Function<HttpServerResponse, HttpServerResponse> interceptor;
+	final String uri;
+
+	StaticFileHandler(String uri, Path directory,
+			@Nullable Function<HttpServerResponse, HttpServerResponse> interceptor,
+			@Nullable StaticFileCache cache) {
+		this.cache = cache;
+		this.directory = directory;
+		this.interceptor = interceptor;
+		this.uri = uri;
+	}
+
+	@Override
+	public Publisher<Void> apply(HttpServerRequest req, HttpServerResponse resp) {
+		String prefix = URI.create(req.uri())
+		                   .getPath()
+		                   .replaceFirst(uri, "");
+
+		if (!prefix.isEmpty() && prefix.charAt(0) == '/') {
+			prefix = prefix.substring(1);
+		}
+
+		Path p = directory.resolve(prefix);
+		StaticFileCache.Entry entry;
+		try {
+			entry = cache != null ? cache.get(p) : StaticFileCache.Entry.read(p, 0);
+		}
+		catch (IOException e) {
+			return Mono.error(e);
+		}
+
+		if (entry == null) {
+			if (Files.isReadable(p)) {
+				// not a regular file, e.g. a named pipe
+				return interceptor != null ? interceptor.apply(resp).sendFile(p) : resp.sendFile(p);
+			}
+			return resp.sendNotFound();
+		}
+
+		HttpServerResponse response = interceptor != null ? interceptor.apply(resp) : resp;
+		HttpHeaders headers = req.requestHeaders();
+
+		// Look up the precompressed variants and select the one with the highest quality value,
+		// the original file is sent when identity has a higher quality value
+		String acceptEncoding = headers.get(HttpHeaderNames.ACCEPT_ENCODING);
+		double identityQuality = acceptEncoding != null ? quality(acceptEncoding, IDENTITY) : 0;
+		boolean vary = false;
+		String encoding = null;
+		double quality = 0;
+		Path file = p;
+		for (int i = 0; i < ENCODINGS.length; i++) {
+			Path variantPath = file.resolveSibling(file.getFileName() + EXTENSIONS[i]);
+			StaticFileCache.Entry variant;
+			try {
+				variant = cache != null ? cache.get(variantPath, true) : StaticFileCache.Entry.read(variantPath, 0);
+			}
+			catch (IOException e) {
+				return Mono.error(e);
+			}
+			if (variant != null) {
+				vary = true;
+				double q = acceptEncoding != null ? quality(acceptEncoding, ENCODINGS[i]) : 0;
+				if (q > quality && q >= identityQuality) {
+					quality = q;
+					encoding = ENCODINGS[i];
+					entry = variant;
+					p = variantPath;
+				}
+			}
+		}
+		if (vary) {
+			response.addHeader(HttpHeaderNames.VARY, HttpHeaderNames.ACCEPT_ENCODING);
+		}
+		if (encoding != null) {
+			// the variant is sent as is, removing the compression handler keeps the zero-copy file transfer
+			response.compression(false)
+			        .header(HttpHeaderNames.CONTENT_ENCODING, encoding);
+		}
+
+		response.header(HttpHeaderNames.ETAG, entry.etag)
+		        .header(HttpHeaderNames.LAST_MODIFIED, entry.lastModifiedDate)
+		        .header(HttpHeaderNames.ACCEPT_RANGES, BYTES);
+
+		boolean get = HttpMethod.GET.equals(req.method());
+		if ((get || HttpMethod.HEAD.equals(req.method())) && isNotModified(headers, entry)) {
+			return response.status(HttpResponseStatus.NOT_MODIFIED)
+			               .send();
+		}
+
+		String range = headers.get(HttpHeaderNames.RANGE);
+		if (get && range != null && ifRange(headers.get(HttpHeaderNames.IF_RANGE), entry)) {
+			long[] r = parseRange(range, entry.size);
+			if (r == UNSATISFIABLE_RANGE) {
+				return response.status(HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+				               .header(HttpHeaderNames.CONTENT_RANGE, BYTES + " */" + entry.size)
+				               .header(HttpHeaderNames.CONTENT_LENGTH, "0")
+				               .send();
+			}
+			if (r != null) {
+				response.status(HttpResponseStatus.PARTIAL_CONTENT)
+				        .header(HttpHeaderNames.CONTENT_RANGE, BYTES + " " + r[0] + "-" + r[1] + "/" + entry.size);
+				return send(response, p, entry, r[0], r[1] - r[0] + 1);
+			}
+		}
+
+		return send(response, p, entry, 0, entry.size);
+	}
+
+	static Publisher<Void> send(HttpServerResponse response, Path p, StaticFileCache.Entry entry, long position, long count) {
+		return Mono.defer(() -> {
+			ByteBuf content = entry.retainedContent();
+			if (content == null) {
+				// the content is not cached yet or has been evicted in the meantime
+				return Mono.from(response.sendFile(p, position, count));
+			}
+			if (position + count > content.readableBytes()) {
+				// the range was computed with a size that the cached content does not have
+				content.release();
+				return Mono.from(response.sendFile(p, position, count));
+			}
+			return Mono.from(response.send(Mono.just(content.slice((int) position, (int) count))));
+		});
+	}
+
+	static boolean ifRange(@Nullable String ifRange, StaticFileCache.Entry entry) {
+		if (ifRange == null) {
+			return true;
+		}
+		if (ifRange.startsWith("\"")) {
+			// If-Range requires the strong comparison
+			return ifRange.equals(entry.etag);
+		}
+		Date date = DateFormatter.parseHttpDate(ifRange);
+		return date != null && date.getTime() == entry.lastModified;
+	}
+
+	static boolean isNotModified(HttpHeaders headers, StaticFileCache.Entry entry) {
+		String ifNoneMatch = headers.get(HttpHeaderNames.IF_NONE_MATCH);
+		if (ifNoneMatch != null) {
+			// If-Modified-Since is ignored when If-None-Match is present
+			for (String tag : ifNoneMatch.split(",")) {
+				tag = tag.trim();
+				if (tag.startsWith("W/")) {
+					// If-None-Match uses the weak comparison
+					tag = tag.substring(2);
+				}
+				if ("*".equals(tag) || entry.etag.equals(tag)) {
+					return true;
+				}
+			}
+			return false;
+		}
+		String ifModifiedSince = headers.get(HttpHeaderNames.IF_MODIFIED_SINCE);
+		if (ifModifiedSince != null) {
+			Date date = DateFormatter.parseHttpDate(ifModifiedSince);
+			return date != null && entry.lastModified <= date.getTime();
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the quality value of the encoding in the {@code Accept-Encoding} header, the encodings that are
+	 * not listed are not acceptable unless {@code *} is listed.
+	 *
+	 * @param acceptEncoding the {@code Accept-Encoding} header
+	 * @param encoding the encoding
+	 * @return the quality value of the encoding, {@code 0} when it is not acceptable
+	 */
+	static double quality(String acceptEncoding, String encoding) {
+		double wildcard = 0;
+		for (String coding : acceptEncoding.split(",")) {
+			int semicolon = coding.indexOf(';');
+			String name = (semicolon < 0 ? coding : coding.substring(0, semicolon)).trim();
+			double q = 1;
+			if (semicolon >= 0) {
+				String params = coding.substring(semicolon + 1).trim();
+				if (params.startsWith("q=")) {
+					try {
+						q = Double.parseDouble(params.substring(2).trim());
+					}
+					catch (NumberFormatException e) {
+						q = 0;
+					}
+				}
+			}
+			if (name.equalsIgnoreCase(encoding)) {
+				return q;
+			}
+			if ("*".equals(name)) {
+				wildcard = q;
+			}
+		}
+		return wildcard;
+	}
+
+	/**
+	 * Parses a single byte range, the multiple ranges are ignored and the full content is sent.
+	 *
+	 * @param range the {@code Range} header
+	 * @param size the size of the file
+	 * @return the first and the last position of the range, {@link #UNSATISFIABLE_RANGE} when the range
+	 * cannot be satisfied, {@code null} when the range is invalid or not supported
+	 */
+	@Nullable
+	static long[] parseRange(String range, long size) {
+		if (!range.regionMatches(true, 0, BYTES + "=", 0, BYTES.length() + 1) || range.indexOf(',') >= 0) {
+			return null;
+		}
+		String spec = range.substring(BYTES.length() + 1).trim();
+		int dash = spec.indexOf('-');
+		if (dash < 0) {
+			return null;
+		}
+		try {
+			if (dash == 0) {
+				// the last N bytes
+				long suffix = Long.parseLong(spec.substring(1));
+				if (suffix < 0) {
+					return null;
+				}
+				if (suffix == 0 || size == 0) {
+					return UNSATISFIABLE_RANGE;
+				}
+				return new long[]{Math.max(0, size - suffix), size - 1};
+			}
+			long first = Long.parseLong(spec.substring(0, dash));
+			long last = dash == spec.length() - 1 ? size - 1 : Long.parseLong(spec.substring(dash + 1));
+			if (first < 0 || last < first && dash != spec.length() - 1) {
+				return null;
+			}
+			if (first >= size) {
+				return UNSATISFIABLE_RANGE;
+			}
+			return new long[]{first, Math.min(last, size - 1)};
+		}
+		catch (NumberFormatException e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.server;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import reactor.util.annotation.Nullable;
+
+/**
+ * The path parameters captured while matching a request uri against a route template.
+ * The parameters are kept as offsets into the request uri and the {@link String} values are created
+ * only when they are requested.
+ *
+ * @since 1.1.3
+ */
+final class UriPathParams {
+
+	static final String[] NO_NAMES = new String[0];
+
+	static final UriPathParams EMPTY = new UriPathParams("", NO_NAMES, new int[0]);
+
+	final String uri;
+	final String[] names;
+	/**
+	 * Start and end offsets in the uri for each name, {@code -1} when the parameter was not captured.
+	 */
+	final int[] offsets;
+
+	String[] values;
+
+	UriPathParams(String uri, String[] names, int[] offsets) {
+		this.uri = uri;
+		this.names = names;
+		this.offsets = offsets;
+	}
+
+	/**
+	 * Return the value of the path parameter or {@code null} if there is no such parameter.
+	 *
+	 * @param name the parameter name
+	 * @return the value of the path parameter or {@code null} if there is no such parameter
+	 */
+	@Nullable
+	String get(CharSequence name) {
+		for (int i = 0; i < names.length; i++) {
+			if (names[i].contentEquals(name)) {
+				return value(i);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Return all path parameters, the returned {@link Map} is empty if the template does not define any.
+	 *
+	 * @return all path parameters
+	 */
+	Map<String, String> toMap() {
+		Map<String, String> params = new HashMap<>(names.length);
+		for (int i = 0; i < names.length; i++) {
+			params.put(names[i], value(i));
+		}
+		return params;
+	}
+
+	@Nullable
+	String value(int index) {
+		int start = offsets[index << 1];
+		if (start < 0) {
+			return null;
+		}
+		String[] values = this.values;
+		if (values == null) {
+			values = new String[names.length];
+			this.values = values;
+		}
+		String value = values[index];
+		if (value == null) {
+			value = uri.substring(start, offsets[(index << 1) + 1]);
+			values[index] = value;
+		}
+		return value;
+	}
+}
@@ -16,34 +16,63 @@
 package reactor.netty.http;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.net.SocketAddress;
 import java.nio.charset.Charset;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.decoder.BrotliInputStream;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.github.luben.zstd.ZstdInputStream;
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandler;
+import io.netty.handler.codec.compression.Brotli;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
 import io.netty.handler.ssl.util.SelfSignedCertificate;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 import reactor.netty.BaseHttpTest;
 import reactor.netty.DisposableServer;
+import reactor.netty.NettyPipeline;
 import reactor.netty.SocketUtils;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientMetricsRecorder;
+import reactor.netty.http.server.HttpCompressionSpec;
 import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerMetricsRecorder;
+import reactor.netty.resources.ConnectionProvider;
 import reactor.test.StepVerifier;
+import reactor.util.annotation.Nullable;
 import reactor.util.function.Tuple2;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 /**
  * @author mostroverkhov
@@ -99,7 +128,7 @@ class HttpCompressionClientServerTests extends BaseHttpTest {
 
 		client.port(disposableServer.port())
 		      .compress(true)
-		      .headers(h -> assertThat(h.contains("Accept-Encoding", "gzip", true)).isTrue())
+		      .headers(h -> assertThat(h.containsValue("Accept-Encoding", "gzip", true)).isTrue())
 		      .get()
 		      .uri("/test")
 		      .responseContent()
@@ -391,7 +420,8 @@ class HttpCompressionClientServerTests extends BaseHttpTest {
 		      .responseContent()
 		      .blockLast(Duration.ofSeconds(10));
 
-		assertThat(zip.get()).isEqualTo("gzip");
+		// brotli4j and zstd-jni are available in the tests
+		assertThat(zip.get()).isEqualTo("gzip, br, zstd");
 	}
 
 	@ParameterizedCompressionTest
@@ -582,4 +612,485 @@ class HttpCompressionClientServerTests extends BaseHttpTest {
 		    .expectComplete()
 		    .verify(Duration.ofSeconds(10));
 	}
+
+	@Test
+	void serverCompressionHandlerIsReusedOnPersistentConnection() throws Exception {
+		Set<ChannelHandler> compressionHandlers = ConcurrentHashMap.newKeySet();
+		String content = String.join("", Collections.nCopies(100, "reply"));
+		disposableServer =
+				createServer().compress((req, res) -> !req.uri().startsWith("/plain"))
+				              .doOnConnection(conn -> compressionHandlers.add(conn.channel().pipeline().get(NettyPipeline.CompressionHandler)))
+				              .route(r -> r.get("/plain", (in, out) -> out.sendString(Mono.just(content)))
+				                           .get("/disabled", (in, out) -> out.compression(false).sendString(Mono.just(content)))
+				                           .get("/compressed", (in, out) -> out.sendString(Mono.just(content))))
+				              .bindNow(Duration.ofSeconds(10));
+
+		ConnectionProvider provider = ConnectionProvider.create("serverCompressionHandlerIsReusedOnPersistentConnection", 1);
+		try {
+			//don't activate compression on the client options to avoid auto-handling (which removes the header)
+			HttpClient client = createClient(provider, disposableServer.port());
+			String[] uris = {"/compressed", "/plain", "/compressed", "/disabled", "/compressed"};
+			String[] encodings = {"gzip", "deflate", "deflate", "gzip", "gzip"};
+			for (int i = 0; i < uris.length; i++) {
+				String encoding = encodings[i];
+				Tuple2<HttpHeaders, byte[]> resp =
+						client.headers(h -> h.add("Accept-Encoding", encoding))
+						      .get()
+						      .uri(uris[i])
+						      .responseSingle((res, byteBufMono) -> Mono.just(res.responseHeaders())
+						                                                .zipWith(byteBufMono.asByteArray()))
+						      .block(Duration.ofSeconds(10));
+
+				assertThat(resp).isNotNull();
+				byte[] body = resp.getT2();
+				if ("/compressed".equals(uris[i])) {
+					assertThat(resp.getT1().get("content-encoding")).isEqualTo(encoding);
+					InputStream in = "gzip".equals(encoding) ?
+							new GZIPInputStream(new ByteArrayInputStream(body)) :
+							new InflaterInputStream(new ByteArrayInputStream(body));
+					ByteArrayOutputStream out = new ByteArrayOutputStream();
+					byte[] buffer = new byte[1024];
+					int read;
+					while ((read = in.read(buffer)) != -1) {
+						out.write(buffer, 0, read);
+					}
+					in.close();
+					body = out.toByteArray();
+				}
+				else {
+					assertThat(resp.getT1().get("content-encoding")).isNull();
+				}
+				assertThat(new String(body, Charset.defaultCharset())).isEqualTo(content);
+			}
+
+			// a single connection with a single compression handler served all the responses
+			assertThat(compressionHandlers).hasSize(1);
+			assertThat(compressionHandlers.iterator().next()).isNotNull();
+		}
+		finally {
+			provider.disposeLater()
+			        .block(Duration.ofSeconds(5));
+		}
+	}
+
+	@Test
+	void compressionSpecSelectsEncodingByQualityValue() throws Exception {
+		String content = String.join("", Collections.nCopies(100, "reply"));
+		disposableServer =
+				createServer().compress(spec -> spec.deflate(9, 15, 8)
+				                                    .gzip(1, 15, 8))
+				              .handle((req, res) -> res.sendString(Mono.just(content)))
+				              .bindNow(Duration.ofSeconds(10));
+
+		//don't activate compression on the client options to avoid auto-handling (which removes the header)
+		HttpClient client = createClient(disposableServer.port());
+		String[][] negotiations = {
+				{"gzip;q=0.5, deflate;q=0.8", "deflate"},
+				{"gzip, deflate;q=0.2", "gzip"},
+				{"gzip, deflate", "deflate"},
+				{"*;q=0.5, deflate;q=0", "gzip"},
+				{"br", null},
+				{"gzip;q=0, deflate;q=0", null},
+				{"gzip;q=0.1, identity", null},
+				{"gzip;q=0.5, identity;q=0.5", "gzip"}};
+		for (String[] negotiation : negotiations) {
+			Tuple2<HttpHeaders, byte[]> resp =
+					client.headers(h -> h.add("Accept-Encoding", negotiation[0]))
+					      .get()
+					      .uri("/")
+					      .responseSingle((res, byteBufMono) -> Mono.just(res.responseHeaders())
+					                                                .zipWith(byteBufMono.asByteArray()))
+					      .block(Duration.ofSeconds(10));
+
+			assertThat(resp).isNotNull();
+			assertThat(resp.getT1().get("content-encoding")).as(negotiation[0]).isEqualTo(negotiation[1]);
+			assertThat(uncompress(negotiation[1], resp.getT2())).isEqualTo(content);
+		}
+	}
+
+	@Test
+	void compressionSpecSelectsBrAndZstdByQualityValue() throws Exception {
+		String content = String.join("", Collections.nCopies(100, "reply"));
+		disposableServer =
+				createServer().compress(spec -> spec.brotli(4, 22)
+				                                    .zstd(3, 64 * 1024, 4 * 1024 * 1024)
+				                                    .gzip(6, 15, 8))
+				              .route(r -> r.get("/full", (req, res) -> res.sendString(Mono.just(content)))
+				                           .get("/chunked", (req, res) -> res.sendString(Flux.just(content, content))))
+				              .bindNow(Duration.ofSeconds(10));
+
+		HttpClient client = createClient(disposableServer.port());
+		String[][] negotiations = {
+				{"gzip, br, zstd", "br"},
+				{"gzip, zstd, br;q=0.8", "zstd"},
+				{"gzip;q=0.5, br;q=0.8, zstd;q=0.9", "zstd"},
+				{"gzip, br;q=0.5, zstd;q=0.9", "gzip"},
+				{"*;q=0.5, br;q=0", "zstd"},
+				{"br", "br"},
+				{"zstd", "zstd"}};
+		for (String[] negotiation : negotiations) {
+			for (String uri : new String[]{"/full", "/chunked"}) {
+				Tuple2<HttpHeaders, byte[]> resp =
+						client.headers(h -> h.add("Accept-Encoding", negotiation[0]))
+						      .get()
+						      .uri(uri)
+						      .responseSingle((res, byteBufMono) -> Mono.just(res.responseHeaders())
+						                                                .zipWith(byteBufMono.asByteArray()))
+						      .block(Duration.ofSeconds(10));
+
+				assertThat(resp).isNotNull();
+				assertThat(resp.getT1().get("content-encoding")).as(negotiation[0] + " " + uri).isEqualTo(negotiation[1]);
+				assertThat(uncompress(negotiation[1], resp.getT2()))
+						.isEqualTo("/full".equals(uri) ? content : content + content);
+			}
+		}
+	}
+
+	@Test
+	void compressionSpecContentTypes() throws Exception {
+		String content = String.join("", Collections.nCopies(100, "reply"));
+		disposableServer =
+				createServer().compress(spec -> spec.gzip(6, 15, 8)
+				                                    .contentTypes("text/*", "application/json"))
+				              .route(r -> r.get("/text", (req, res) -> res.header("Content-Type", "text/plain; charset=UTF-8")
+				                                                          .sendString(Mono.just(content)))
+				                           .get("/json", (req, res) -> res.header("Content-Type", "Application/JSON")
+				                                                          .sendString(Mono.just(content)))
+				                           .get("/binary", (req, res) -> res.header("Content-Type", "application/octet-stream")
+				                                                            .sendString(Mono.just(content)))
+				                           .get("/none", (req, res) -> res.sendString(Mono.just(content))))
+				              .bindNow(Duration.ofSeconds(10));
+
+		HttpClient client = createClient(disposableServer.port());
+		String[][] responses = {{"/text", "gzip"}, {"/json", "gzip"}, {"/binary", null}, {"/none", null}};
+		for (String[] response : responses) {
+			Tuple2<HttpHeaders, byte[]> resp =
+					client.headers(h -> h.add("Accept-Encoding", "gzip"))
+					      .get()
+					      .uri(response[0])
+					      .responseSingle((res, byteBufMono) -> Mono.just(res.responseHeaders())
+					                                                .zipWith(byteBufMono.asByteArray()))
+					      .block(Duration.ofSeconds(10));
+
+			assertThat(resp).isNotNull();
+			assertThat(resp.getT1().get("content-encoding")).as(response[0]).isEqualTo(response[1]);
+			assertThat(uncompress(response[1], resp.getT2())).isEqualTo(content);
+		}
+	}
+
+	@Test
+	void compressionSpecRecordsCompressionMetrics() throws Exception {
+		String content = String.join("", Collections.nCopies(1000, "reply"));
+		CompressionRecorder recorder = new CompressionRecorder();
+		disposableServer =
+				createServer().compress(spec -> spec.deflate(6, 15, 8))
+				              .metrics(true, () -> recorder)
+				              .route(r -> r.get("/full", (req, res) -> res.sendString(Mono.just(content)))
+				                           .get("/chunked", (req, res) -> res.sendString(Flux.just(content, content))))
+				              .bindNow(Duration.ofSeconds(10));
+
+		HttpClient client = createClient(disposableServer.port());
+		String[][] responses = {{"/full", content}, {"/chunked", content + content}};
+		for (String[] response : responses) {
+			byte[] body =
+					client.headers(h -> h.add("Accept-Encoding", "deflate"))
+					      .get()
+					      .uri(response[0])
+					      .responseSingle((res, byteBufMono) -> byteBufMono.asByteArray())
+					      .block(Duration.ofSeconds(10));
+
+			assertThat(body).isNotNull();
+			assertThat(uncompress("deflate", body)).isEqualTo(response[1]);
+
+			Object[] compression = recorder.compressions.poll(5, TimeUnit.SECONDS);
+			assertThat(compression).isNotNull();
+			assertThat(compression[0]).isEqualTo("deflate");
+			assertThat(compression[1]).isEqualTo((long) response[1].length());
+			assertThat(compression[2]).isEqualTo((long) body.length);
+			assertThat((Duration) compression[3]).isPositive();
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"br", "zstd"})
+	void compressionSpecRecordsBrAndZstdCompressionMetrics(String encoding) throws Exception {
+		String content = String.join("", Collections.nCopies(1000, "reply"));
+		CompressionRecorder recorder = new CompressionRecorder();
+		disposableServer =
+				createServer().compress(spec -> spec.brotli(4, 22)
+				                                    .zstd(3, 64 * 1024, 4 * 1024 * 1024))
+				              .metrics(true, () -> recorder)
+				              .route(r -> r.get("/full", (req, res) -> res.sendString(Mono.just(content)))
+				                           .get("/chunked", (req, res) -> res.sendString(Flux.just(content, content))))
+				              .bindNow(Duration.ofSeconds(10));
+
+		HttpClient client = createClient(disposableServer.port());
+		String[][] responses = {{"/full", content}, {"/chunked", content + content}};
+		for (String[] response : responses) {
+			byte[] body =
+					client.headers(h -> h.add("Accept-Encoding", encoding))
+					      .get()
+					      .uri(response[0])
+					      .responseSingle((res, byteBufMono) -> byteBufMono.asByteArray())
+					      .block(Duration.ofSeconds(10));
+
+			assertThat(body).isNotNull();
+			assertThat(uncompress(encoding, body)).isEqualTo(response[1]);
+
+			Object[] compression = recorder.compressions.poll(5, TimeUnit.SECONDS);
+			assertThat(compression).isNotNull();
+			assertThat(compression[0]).isEqualTo(encoding);
+			assertThat(compression[1]).isEqualTo((long) response[1].length());
+			assertThat(compression[2]).isEqualTo((long) body.length);
+			assertThat((Duration) compression[3]).isPositive();
+		}
+	}
+
+	@Test
+	void clientRecordsDecompressionMetrics() throws Exception {
+		String content = String.join("", Collections.nCopies(1000, "reply"));
+		DecompressionRecorder recorder = new DecompressionRecorder();
+		disposableServer =
+				createServer().compress(true)
+				              .route(r -> r.get("/", (req, res) -> res.sendString(Flux.just(content, content))))
+				              .bindNow(Duration.ofSeconds(10));
+
+		String body =
+				createClient(disposableServer.port())
+				          .compress(true)
+				          .metrics(true, () -> recorder)
+				          .get()
+				          .uri("/")
+				          .responseContent()
+				          .aggregate()
+				          .asString()
+				          .block(Duration.ofSeconds(10));
+
+		assertThat(body).isEqualTo(content + content);
+
+		Object[] decompression = recorder.decompressions.poll(5, TimeUnit.SECONDS);
+		assertThat(decompression).isNotNull();
+		assertThat(decompression[0]).isEqualTo("gzip");
+		assertThat((long) decompression[1]).isPositive().isLessThan(body.length());
+		assertThat(decompression[2]).isEqualTo((long) body.length());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"br", "zstd"})
+	void clientDecompressesBrAndZstd(String encoding) throws Throwable {
+		// The random part is split across several chunks, the repeated part is decompressed
+		// into several output buffers from a small input
+		StringBuilder sb = new StringBuilder();
+		Random random = new Random(0);
+		for (int i = 0; i < 64 * 1024; i++) {
+			sb.append((char) ('a' + random.nextInt(26)));
+		}
+		String content = sb.append(String.join("", Collections.nCopies(40_000, "reply"))).toString();
+		byte[] uncompressed = content.getBytes(Charset.defaultCharset());
+		byte[] compressed = "br".equals(encoding) ? brotli(uncompressed) : com.github.luben.zstd.Zstd.compress(uncompressed);
+		assertThat(compressed.length).isGreaterThan(4 * 4096);
+
+		DecompressionRecorder recorder = new DecompressionRecorder();
+		disposableServer =
+				createServer().route(r -> r.get("/", (req, res) -> {
+				                  List<ByteBuf> chunks = new ArrayList<>();
+				                  for (int i = 0; i < compressed.length; i += 4096) {
+				                      chunks.add(Unpooled.wrappedBuffer(compressed, i, Math.min(4096, compressed.length - i)));
+				                  }
+				                  return res.header(HttpHeaderNames.CONTENT_ENCODING, encoding)
+				                            .send(Flux.fromIterable(chunks), b -> true);
+				              }))
+				              .bindNow(Duration.ofSeconds(10));
+
+		AtomicReference<String> acceptEncoding = new AtomicReference<>();
+		String body =
+				createClient(disposableServer.port())
+				          .compress(true)
+				          .metrics(true, () -> recorder)
+				          .doOnRequest((req, conn) -> acceptEncoding.set(req.requestHeaders().get(HttpHeaderNames.ACCEPT_ENCODING)))
+				          .get()
+				          .uri("/")
+				          .responseContent()
+				          .aggregate()
+				          .asString()
+				          .block(Duration.ofSeconds(10));
+
+		assertThat(acceptEncoding.get()).isEqualTo("gzip, br, zstd");
+		assertThat(body).isEqualTo(content);
+
+		Object[] decompression = recorder.decompressions.poll(5, TimeUnit.SECONDS);
+		assertThat(decompression).isNotNull();
+		assertThat(decompression[0]).isEqualTo(encoding);
+		assertThat(decompression[1]).isEqualTo((long) compressed.length);
+		assertThat(decompression[2]).isEqualTo((long) uncompressed.length);
+	}
+
+	static byte[] brotli(byte[] uncompressed) throws Throwable {
+		Brotli.ensureAvailability();
+		return Encoder.compress(uncompressed);
+	}
+
+	@Test
+	void compressionSpecBadValues() {
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> HttpCompressionSpec.builder().gzip(10, 15, 8))
+				.withMessage("compressionLevel must be between 0 and 9, was: 10");
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> HttpCompressionSpec.builder().deflate(6, 16, 8))
+				.withMessage("windowBits must be between 9 and 15, was: 16");
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> HttpCompressionSpec.builder().brotli(12, 22))
+				.withMessage("quality must be between 0 and 11, was: 12");
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> HttpCompressionSpec.builder().zstd(3, 0, 1024))
+				.withMessage("blockSize must be strictly positive");
+
+		HttpCompressionSpec spec = HttpCompressionSpec.builder().build();
+		assertThat(spec.encodings()).containsExactly("gzip", "deflate");
+		assertThat(spec.contentTypes()).isEmpty();
+	}
+
+	static String uncompress(@Nullable String encoding, byte[] body) throws Exception {
+		if (encoding == null) {
+			return new String(body, Charset.defaultCharset());
+		}
+		InputStream in;
+		if ("gzip".equals(encoding)) {
+			in = new GZIPInputStream(new ByteArrayInputStream(body));
+		}
+		else if ("br".equals(encoding)) {
+			Brotli4jLoader.ensureAvailability();
+			in = new BrotliInputStream(new ByteArrayInputStream(body));
+		}
+		else if ("zstd".equals(encoding)) {
+			in = new ZstdInputStream(new ByteArrayInputStream(body));
+		}
+		else {
+			in = new InflaterInputStream(new ByteArrayInputStream(body));
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[1024];
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			out.write(buffer, 0, read);
+		}
+		in.close();
+		return new String(out.toByteArray(), Charset.defaultCharset());
+	}
+
+	static final class CompressionRecorder implements HttpServerMetricsRecorder {
+
+		final BlockingQueue<Object[]> compressions = new LinkedBlockingQueue<>();
+
+		@Override
+		public void recordCompression(String encoding, long uncompressedBytes, long compressedBytes, Duration time) {
+			compressions.add(new Object[]{encoding, uncompressedBytes, compressedBytes, time});
+		}
+
+		@Override
+		public void recordDataReceivedTime(String uri, String method, Duration time) {
+		}
+
+		@Override
+		public void recordDataSentTime(String uri, String method, String status, Duration time) {
+		}
+
+		@Override
+		public void recordResponseTime(String uri, String method, String status, Duration time) {
+		}
+
+		@Override
+		public void recordDataReceived(SocketAddress remoteAddress, String uri, long bytes) {
+		}
+
+		@Override
+		public void recordDataSent(SocketAddress remoteAddress, String uri, long bytes) {
+		}
+
+		@Override
+		public void incrementErrorsCount(SocketAddress remoteAddress, String uri) {
+		}
+
+		@Override
+		public void recordDataReceived(SocketAddress remoteAddress, long bytes) {
+		}
+
+		@Override
+		public void recordDataSent(SocketAddress remoteAddress, long bytes) {
+		}
+
+		@Override
+		public void incrementErrorsCount(SocketAddress remoteAddress) {
+		}
+
+		@Override
+		public void recordTlsHandshakeTime(SocketAddress remoteAddress, Duration time, String status) {
+		}
+
+		@Override
+		public void recordConnectTime(SocketAddress remoteAddress, Duration time, String status) {
+		}
+
+		@Override
+		public void recordResolveAddressTime(SocketAddress remoteAddress, Duration time, String status) {
+		}
+	}
+
+	static final class DecompressionRecorder implements HttpClientMetricsRecorder {
+
+		final BlockingQueue<Object[]> decompressions = new LinkedBlockingQueue<>();
+
+		@Override
+		public void recordDecompression(SocketAddress remoteAddress, String encoding, long compressedBytes, long decompressedBytes) {
+			decompressions.add(new Object[]{encoding, compressedBytes, decompressedBytes});
+		}
+
+		@Override
+		public void recordDataReceivedTime(SocketAddress remoteAddress, String uri, String method, String status, Duration time) {
+		}
+
+		@Override
+		public void recordDataSentTime(SocketAddress remoteAddress, String uri, String method, Duration time) {
+		}
+
+		@Override
+		public void recordResponseTime(SocketAddress remoteAddress, String uri, String method, String status, Duration time) {
+		}
+
+		@Override
+		public void recordDataReceived(SocketAddress remoteAddress, String uri, long bytes) {
+		}
+
+		@Override
+		public void recordDataSent(SocketAddress remoteAddress, String uri, long bytes) {
+		}
+
+		@Override
+		public void incrementErrorsCount(SocketAddress remoteAddress, String uri) {
+		}
+
+		@Override
+		public void recordDataReceived(SocketAddress remoteAddress, long bytes) {
+		}
+
+		@Override
+		public void recordDataSent(SocketAddress remoteAddress, long bytes) {
+		}
+
+		@Override
+		public void incrementErrorsCount(SocketAddress remoteAddress) {
+		}
+
+		@Override
+		public void recordTlsHandshakeTime(SocketAddress remoteAddress, Duration time, String status) {
+		}
+
+		@Override
+		public void recordConnectTime(SocketAddress remoteAddress, Duration time, String status) {
+		}
+
+		@Override
+		public void recordResolveAddressTime(SocketAddress remoteAddress, Duration time, String status) {
+		}
+	}
 }
@@ -851,6 +851,85 @@ class HttpMetricsHandlerTests extends BaseHttpTest {
 		checkCounter(CLIENT_ERRORS, summaryTags, true, 2);
 	}
 
+	@Test
+	void testMetersReusedAcrossRequestsOnSameConnection() throws Exception {
+		CountDownLatch responseSent = new CountDownLatch(4);
+		AtomicInteger requests = new AtomicInteger();
+		disposableServer =
+				createServer().host("127.0.0.1")
+				              .metrics(true, Function.identity())
+				              .doOnConnection(cnx -> {
+				                  // doOnConnection is invoked for every request on a persistent connection
+				                  if (cnx.channel().pipeline().get(ResponseSentHandler.HANDLER_NAME) == null) {
+				                      ResponseSentHandler.INSTANCE.register(responseSent, cnx.channel().pipeline());
+				                  }
+				              })
+				              .route(r -> r.get("/8", (req, res) -> res.status(requests.incrementAndGet() == 1 ? 200 : 201)
+				                                                       .sendString(Mono.just("8")))
+				                           .get("/9", (req, res) -> res.sendString(Mono.just("9"))))
+				              .bindNow();
+
+		Flux.just("/8", "/9", "/8", "/9")
+		    .concatMap(uri -> httpClient.get()
+		                                .uri(uri)
+		                                .responseContent()
+		                                .aggregate()
+		                                .asString())
+		    .as(StepVerifier::create)
+		    .expectNext("8", "9", "8", "9")
+		    .expectComplete()
+		    .verify(Duration.ofSeconds(30));
+
+		assertThat(responseSent.await(30, TimeUnit.SECONDS)).as("responseSent latch await").isTrue();
+
+		checkTimer(SERVER_DATA_RECEIVED_TIME, new String[] {URI, "/8", METHOD, "GET"}, 2);
+		checkTimer(SERVER_DATA_RECEIVED_TIME, new String[] {URI, "/9", METHOD, "GET"}, 2);
+		checkTimer(SERVER_DATA_SENT_TIME, new String[] {URI, "/8", METHOD, "GET", STATUS, "200"}, 1);
+		checkTimer(SERVER_DATA_SENT_TIME, new String[] {URI, "/8", METHOD, "GET", STATUS, "201"}, 1);
+		checkTimer(SERVER_DATA_SENT_TIME, new String[] {URI, "/9", METHOD, "GET", STATUS, "200"}, 2);
+		checkTimer(SERVER_RESPONSE_TIME, new String[] {URI, "/8", METHOD, "GET", STATUS, "201"}, 1);
+		checkTimer(SERVER_RESPONSE_TIME, new String[] {URI, "/9", METHOD, "GET", STATUS, "200"}, 2);
+		checkDistributionSummary(SERVER_DATA_SENT, new String[] {URI, "/8"}, 2, 2);
+		checkDistributionSummary(SERVER_DATA_SENT, new String[] {URI, "/9"}, 2, 2);
+	}
+
+	@ParameterizedTest
+	@MethodSource("httpCompatibleProtocols")
+	void testRouteTemplateAsUriTagValue(HttpProtocol[] serverProtocols, HttpProtocol[] clientProtocols,
+			@Nullable ProtocolSslContextSpec serverCtx, @Nullable ProtocolSslContextSpec clientCtx) throws Exception {
+		CountDownLatch responseSent = new CountDownLatch(4);
+		disposableServer =
+				customizeServerOptions(createServer().host("127.0.0.1").metrics(true), serverCtx, serverProtocols)
+				        .doOnConnection(cnx -> {
+				            // doOnConnection is invoked for every request on a persistent connection
+				            if (cnx.channel().pipeline().get(ResponseSentHandler.HANDLER_NAME) == null) {
+				                ResponseSentHandler.INSTANCE.register(responseSent, cnx.channel().pipeline());
+				            }
+				        })
+				        .route(r -> r.get("/users/{id}", (req, res) -> res.sendString(Mono.just(req.param("id")))))
+				        .bindNow();
+
+		Flux.just("/users/1", "/users/2", "/missing/1", "/missing/2")
+		    .concatMap(uri -> customizeClientOptions(httpClient, clientCtx, clientProtocols)
+		                              .get()
+		                              .uri(uri)
+		                              .responseSingle((res, bytes) -> bytes.asString().defaultIfEmpty(res.status().code() + "")))
+		    .as(StepVerifier::create)
+		    .expectNext("1", "2", "404", "404")
+		    .expectComplete()
+		    .verify(Duration.ofSeconds(30));
+
+		assertThat(responseSent.await(30, TimeUnit.SECONDS)).as("responseSent latch await").isTrue();
+
+		checkTimer(SERVER_DATA_RECEIVED_TIME, new String[] {URI, "/users/{id}", METHOD, "GET"}, 2);
+		checkTimer(SERVER_DATA_SENT_TIME, new String[] {URI, "/users/{id}", METHOD, "GET", STATUS, "200"}, 2);
+		checkTimer(SERVER_RESPONSE_TIME, new String[] {URI, "/users/{id}", METHOD, "GET", STATUS, "200"}, 2);
+		checkDistributionSummary(SERVER_DATA_SENT, new String[] {URI, "/users/{id}"}, 2, 2);
+		checkTimer(SERVER_RESPONSE_TIME, new String[] {URI, "UNKNOWN", METHOD, "GET", STATUS, "404"}, 2);
+		assertThat(registry.find(SERVER_DATA_RECEIVED_TIME).tags(URI, "/users/1").timer()).isNull();
+		assertThat(registry.find(SERVER_DATA_RECEIVED_TIME).tags(URI, "/missing/1").timer()).isNull();
+	}
+
 	// https://github.com/reactor/reactor-netty/issues/2145
 	@ParameterizedTest
 	@MethodSource("http11CompatibleProtocols")
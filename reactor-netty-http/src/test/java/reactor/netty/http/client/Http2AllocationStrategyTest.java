@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2022-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -58,6 +58,31 @@ class Http2AllocationStrategyTest {
 		assertThat(copy.permitMinimum()).isEqualTo(strategy.permitMinimum());
 	}
 
+	@Test
+	void watermarks() {
+		builder.highWatermark(0.8).lowWatermark(0.3);
+		Http2AllocationStrategy strategy = builder.build();
+		assertThat(strategy.highWatermark()).isEqualTo(0.8);
+		assertThat(strategy.lowWatermark()).isEqualTo(0.3);
+		assertThat(strategy.copy().highWatermark()).isEqualTo(0.8);
+		assertThat(strategy.copy().lowWatermark()).isEqualTo(0.3);
+	}
+
+	@Test
+	void watermarksBadValues() {
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> builder.highWatermark(1.5))
+				.withMessage("highWatermark must be between 0 and 1");
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> builder.lowWatermark(1))
+				.withMessage("lowWatermark must be between 0 (inclusive) and 1 (exclusive)");
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> builder.highWatermark(0.5).lowWatermark(0.5).build())
+				.withMessage("lowWatermark (0.5) must be less than highWatermark (0.5)");
+	}
+
 	@Test
 	void maxConcurrentStreams() {
 		builder.maxConcurrentStreams(2);
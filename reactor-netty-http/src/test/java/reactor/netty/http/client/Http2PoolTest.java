@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2021-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -1071,6 +1071,224 @@ class Http2PoolTest {
 		}
 	}
 
+	@Test
+	void highWatermarkAllocatesConnectionInBackground() {
+		List<EmbeddedChannel> channels = new ArrayList<>();
+		PoolBuilder<Connection, PoolConfig<Connection>> poolBuilder =
+				PoolBuilder.from(Mono.fromSupplier(() -> {
+				               EmbeddedChannel channel = new EmbeddedChannel(
+				                   new TestChannelId(),
+				                   Http2FrameCodecBuilder.forClient().build(),
+				                   new Http2MultiplexHandler(new ChannelHandlerAdapter() {}));
+				               channels.add(channel);
+				               return Connection.from(channel);
+				           }))
+				           .idleResourceReuseLruOrder()
+				           .maxPendingAcquireUnbounded()
+				           .sizeBetween(0, 2);
+		Http2AllocationStrategy strategy = Http2AllocationStrategy.builder()
+				.maxConnections(2)
+				.maxConcurrentStreams(2)
+				.highWatermark(0.5)
+				.build();
+		Http2Pool http2Pool = poolBuilder.build(config -> new Http2Pool(config, strategy));
+
+		try {
+			PooledRef<Connection> acquired = http2Pool.acquire().block(Duration.ofSeconds(1));
+
+			assertThat(acquired).isNotNull();
+			assertThat(http2Pool.activeStreams()).isEqualTo(1);
+			assertThat(channels).hasSize(2);
+			assertThat(http2Pool.connections.size()).isEqualTo(2);
+			assertThat(http2Pool.allocatedSize()).isEqualTo(2);
+			assertThat(http2Pool.totalMaxConcurrentStreams).isEqualTo(4);
+
+			acquired.invalidate().block(Duration.ofSeconds(1));
+
+			assertThat(http2Pool.activeStreams()).isEqualTo(0);
+			assertThat(http2Pool.connections.size()).isEqualTo(2);
+		}
+		finally {
+			for (EmbeddedChannel channel : channels) {
+				channel.finishAndReleaseAll();
+				Connection.from(channel).dispose();
+			}
+		}
+	}
+
+	@Test
+	void lowWatermarkRemovesSurplusConnections() {
+		List<EmbeddedChannel> channels = new ArrayList<>();
+		PoolBuilder<Connection, PoolConfig<Connection>> poolBuilder =
+				PoolBuilder.from(Mono.fromSupplier(() -> {
+				               EmbeddedChannel channel = new EmbeddedChannel(
+				                   new TestChannelId(),
+				                   Http2FrameCodecBuilder.forClient().build(),
+				                   new Http2MultiplexHandler(new ChannelHandlerAdapter() {}));
+				               channels.add(channel);
+				               return Connection.from(channel);
+				           }))
+				           .idleResourceReuseLruOrder()
+				           .maxPendingAcquireUnbounded()
+				           .sizeBetween(0, 2);
+		Http2AllocationStrategy strategy = Http2AllocationStrategy.builder()
+				.maxConnections(2)
+				.maxConcurrentStreams(2)
+				.lowWatermark(0.6)
+				.build();
+		Http2Pool http2Pool = poolBuilder.build(config -> new Http2Pool(config, strategy));
+
+		try {
+			List<PooledRef<Connection>> acquired = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				http2Pool.acquire().subscribe(acquired::add);
+				channels.forEach(EmbeddedChannel::runPendingTasks);
+			}
+
+			assertThat(acquired).hasSize(3);
+			assertThat(http2Pool.connections.size()).isEqualTo(2);
+			Connection first = acquired.get(0).poolable();
+
+			// 1 active stream and 2 max concurrent streams without the first connection
+			acquired.get(0).invalidate().block(Duration.ofSeconds(1));
+			acquired.get(1).invalidate().block(Duration.ofSeconds(1));
+
+			assertThat(http2Pool.activeStreams()).isEqualTo(1);
+			assertThat(http2Pool.connections.size()).isEqualTo(1);
+			assertThat(http2Pool.allocatedSize()).isEqualTo(1);
+			assertThat(first.channel().isActive()).isFalse();
+
+			// the last connection is kept
+			acquired.get(2).invalidate().block(Duration.ofSeconds(1));
+
+			assertThat(http2Pool.activeStreams()).isEqualTo(0);
+			assertThat(http2Pool.connections.size()).isEqualTo(1);
+			assertThat(http2Pool.allocatedSize()).isEqualTo(1);
+		}
+		finally {
+			for (EmbeddedChannel channel : channels) {
+				channel.finishAndReleaseAll();
+				Connection.from(channel).dispose();
+			}
+		}
+	}
+
+	@Test
+	void lowWatermarkDoesNotCloseTakenConnection() {
+		List<EmbeddedChannel> channels = new ArrayList<>();
+		PoolBuilder<Connection, PoolConfig<Connection>> poolBuilder =
+				PoolBuilder.from(Mono.fromSupplier(() -> {
+				               EmbeddedChannel channel = new EmbeddedChannel(
+				                   new TestChannelId(),
+				                   Http2FrameCodecBuilder.forClient().build(),
+				                   new Http2MultiplexHandler(new ChannelHandlerAdapter() {}));
+				               channels.add(channel);
+				               return Connection.from(channel);
+				           }))
+				           .idleResourceReuseLruOrder()
+				           .maxPendingAcquireUnbounded()
+				           .sizeBetween(0, 2);
+		Http2AllocationStrategy strategy = Http2AllocationStrategy.builder()
+				.maxConnections(2)
+				.maxConcurrentStreams(2)
+				.lowWatermark(0.6)
+				.build();
+		Http2Pool http2Pool = poolBuilder.build(config -> new Http2Pool(config, strategy));
+
+		try {
+			List<PooledRef<Connection>> acquired = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				http2Pool.acquire().subscribe(acquired::add);
+				channels.forEach(EmbeddedChannel::runPendingTasks);
+			}
+
+			assertThat(acquired).hasSize(3);
+			Connection first = acquired.get(0).poolable();
+			Http2Pool.Slot slot = ((Http2Pool.Http2PooledRef) acquired.get(0)).slot;
+
+			acquired.get(0).invalidate().block(Duration.ofSeconds(1));
+
+			// an acquire on another thread takes the connection before its last stream is released
+			assertThat(http2Pool.connections.take(slot)).isTrue();
+
+			acquired.get(1).invalidate().block(Duration.ofSeconds(1));
+
+			assertThat(first.channel().isActive()).isTrue();
+			assertThat(http2Pool.allocatedSize()).isEqualTo(2);
+		}
+		finally {
+			for (EmbeddedChannel channel : channels) {
+				channel.finishAndReleaseAll();
+				Connection.from(channel).dispose();
+			}
+		}
+	}
+
+	@Test
+	void leastLoadedConnectionIsSelected() {
+		List<EmbeddedChannel> channels = new ArrayList<>();
+		PoolBuilder<Connection, PoolConfig<Connection>> poolBuilder =
+				PoolBuilder.from(Mono.fromSupplier(() -> {
+				               EmbeddedChannel channel = new EmbeddedChannel(
+				                   new TestChannelId(),
+				                   Http2FrameCodecBuilder.forClient().build(),
+				                   new Http2MultiplexHandler(new ChannelHandlerAdapter() {}));
+				               channels.add(channel);
+				               return Connection.from(channel);
+				           }))
+				           .idleResourceReuseLruOrder()
+				           .maxPendingAcquireUnbounded()
+				           .sizeBetween(0, 2);
+		Http2AllocationStrategy strategy = Http2AllocationStrategy.builder()
+				.maxConnections(2)
+				.maxConcurrentStreams(2)
+				.build();
+		Http2Pool http2Pool = poolBuilder.build(config -> new Http2Pool(config, strategy));
+
+		try {
+			List<PooledRef<Connection>> acquired = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				http2Pool.acquire().subscribe(acquired::add);
+				channels.forEach(EmbeddedChannel::runPendingTasks);
+			}
+
+			assertThat(acquired).hasSize(3);
+			assertThat(channels).hasSize(2);
+			Connection first = acquired.get(0).poolable();
+			Connection second = acquired.get(2).poolable();
+			assertThat(acquired.get(1).poolable()).isSameAs(first);
+			assertThat(second).isNotSameAs(first);
+			assertThat(http2Pool.activeStreams()).isEqualTo(3);
+			assertThat(http2Pool.connections.size()).isEqualTo(2);
+			assertThat(http2Pool.totalMaxConcurrentStreams).isEqualTo(4);
+
+			// the first connection has 1 active stream, the second connection has none
+			acquired.remove(2).invalidate().block(Duration.ofSeconds(1));
+			acquired.remove(1).invalidate().block(Duration.ofSeconds(1));
+
+			http2Pool.acquire().subscribe(acquired::add);
+			channels.forEach(EmbeddedChannel::runPendingTasks);
+
+			assertThat(acquired).hasSize(2);
+			assertThat(acquired.get(1).poolable()).isSameAs(second);
+			assertThat(http2Pool.activeStreams()).isEqualTo(2);
+			assertThat(http2Pool.connections.size()).isEqualTo(2);
+
+			for (PooledRef<Connection> slot : acquired) {
+				slot.invalidate().block(Duration.ofSeconds(1));
+			}
+
+			assertThat(http2Pool.activeStreams()).isEqualTo(0);
+			assertThat(http2Pool.connections.size()).isEqualTo(2);
+		}
+		finally {
+			for (EmbeddedChannel channel : channels) {
+				channel.finishAndReleaseAll();
+				Connection.from(channel).dispose();
+			}
+		}
+	}
+
 	@Test
 	void minConnections() {
 		EmbeddedChannel channel = new EmbeddedChannel(new TestChannelId(),
@@ -17,6 +17,7 @@ package reactor.netty.http.client;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.net.URI;
@@ -63,7 +64,10 @@ import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerAdapter;
+import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelId;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.DefaultChannelGroup;
@@ -86,11 +90,14 @@ import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
 import io.netty.handler.ssl.util.SelfSignedCertificate;
 import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.resolver.AbstractAddressResolver;
+import io.netty.resolver.AddressResolver;
 import io.netty.resolver.AddressResolverGroup;
 import io.netty.resolver.dns.DnsAddressResolverGroup;
 import io.netty.util.CharsetUtil;
 import io.netty.util.concurrent.DefaultEventExecutor;
 import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Promise;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Disabled;
@@ -481,7 +488,8 @@ class HttpClientTest extends BaseHttpTest {
 	}
 
 	private void doTestGzip(boolean gzipEnabled) {
-		String expectedResponse = gzipEnabled ? "gzip" : "no gzip";
+		// brotli4j and zstd-jni are available in the tests
+		String expectedResponse = gzipEnabled ? "gzip, br, zstd" : "no gzip";
 		disposableServer =
 				createServer()
 				          .handle((req, res) -> res.sendString(Mono.just(req.requestHeaders()
@@ -2967,6 +2975,99 @@ class HttpClientTest extends BaseHttpTest {
 		assertThat(resolvers.get().get(0)).isSameAs(resolvers.get().get(1));
 	}
 
+	@Test
+	void testHappyEyeballsWithConnectionPool() throws Exception {
+		disposableServer =
+				createServer()
+				        .handle((req, res) -> res.sendString(Mono.just("testHappyEyeballsWithConnectionPool")))
+				        .bindNow();
+
+		InetSocketAddress reachable = new InetSocketAddress(InetAddress.getByName("127.0.0.1"), disposableServer.port());
+		// 2001:db8::/32 is reserved for documentation, the address is either blackholed or not reachable
+		InetSocketAddress blackholed = new InetSocketAddress(InetAddress.getByName("2001:db8::1"), disposableServer.port());
+
+		ConnectionProvider provider = ConnectionProvider.create("testHappyEyeballsWithConnectionPool", 1);
+		List<Channel> connected = new CopyOnWriteArrayList<>();
+		try {
+			HttpClient client =
+					HttpClient.create(provider)
+					          .resolver(new StaticAddressResolverGroup(Arrays.asList(reachable, blackholed)))
+					          .host("test.reactor.netty")
+					          .port(disposableServer.port())
+					          .happyEyeballs(Duration.ofMillis(50))
+					          // Delay the connect to the reachable address so that the attempt to the blackholed
+					          // address is started and its channel is initialized before the reachable one wins
+					          .doOnChannelInit((observer, channel, address) ->
+					              channel.pipeline()
+					                     .addFirst(new ChannelOutboundHandlerAdapter() {
+					                         @Override
+					                         public void connect(ChannelHandlerContext ctx, SocketAddress remoteAddress,
+					                                 @Nullable SocketAddress localAddress, ChannelPromise promise) {
+					                             if (reachable.equals(remoteAddress)) {
+					                                 ctx.executor().schedule(() -> ctx.connect(remoteAddress, localAddress, promise),
+					                                         500, TimeUnit.MILLISECONDS);
+					                             }
+					                             else {
+					                                 ctx.connect(remoteAddress, localAddress, promise);
+					                             }
+					                         }
+					                     }))
+					          .doOnConnected(conn -> connected.add(conn.channel()));
+
+			Flux.range(0, 2)
+			    .concatMap(i -> client.get()
+			                          .uri("/")
+			                          .responseContent()
+			                          .aggregate()
+			                          .asString())
+			    .as(StepVerifier::create)
+			    .expectNext("testHappyEyeballsWithConnectionPool", "testHappyEyeballsWithConnectionPool")
+			    .expectComplete()
+			    .verify(Duration.ofSeconds(10));
+
+			// The pool owns the winning connection and reuses it for the second request
+			assertThat(connected).hasSize(2);
+			assertThat(connected.get(0)).isSameAs(connected.get(1));
+			assertThat(connected.get(0).isActive()).isTrue();
+			assertThat(((InetSocketAddress) connected.get(0).remoteAddress()).getAddress())
+					.isEqualTo(reachable.getAddress());
+		}
+		finally {
+			provider.disposeLater()
+			        .block(Duration.ofSeconds(5));
+		}
+	}
+
+	static final class StaticAddressResolverGroup extends AddressResolverGroup<InetSocketAddress> {
+
+		final List<InetSocketAddress> addresses;
+
+		StaticAddressResolverGroup(List<InetSocketAddress> addresses) {
+			this.addresses = addresses;
+		}
+
+		@Override
+		protected AddressResolver<InetSocketAddress> newResolver(EventExecutor executor) {
+			return new AbstractAddressResolver<InetSocketAddress>(executor, InetSocketAddress.class) {
+
+				@Override
+				protected boolean doIsResolved(InetSocketAddress address) {
+					return !address.isUnresolved();
+				}
+
+				@Override
+				protected void doResolve(InetSocketAddress unresolvedAddress, Promise<InetSocketAddress> promise) {
+					promise.setSuccess(addresses.get(0));
+				}
+
+				@Override
+				protected void doResolveAll(InetSocketAddress unresolvedAddress, Promise<List<InetSocketAddress>> promise) {
+					promise.setSuccess(addresses);
+				}
+			};
+		}
+	}
+
 	@Test
 	void testIssue1547() throws Exception {
 		disposableServer =
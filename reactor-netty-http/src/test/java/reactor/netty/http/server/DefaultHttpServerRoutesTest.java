@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2021-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,21 +15,38 @@
  */
 package reactor.netty.http.server;
 
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultHttpRequest;
 import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.cookie.ServerCookieDecoder;
+import io.netty.handler.codec.http.cookie.ServerCookieEncoder;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.ConnectionObserver;
 import reactor.netty.NettyOutbound;
+import reactor.netty.ReactorNetty;
+import reactor.netty.http.logging.ReactorNettyHttpMessageLogFactory;
 import reactor.test.StepVerifier;
 
 import java.net.URISyntaxException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static reactor.netty.http.server.HttpServerFormDecoderProvider.DEFAULT_FORM_DECODER_SPEC;
 
 /**
  * Tests for {@link DefaultHttpServerRoutes}
@@ -77,4 +94,181 @@ class DefaultHttpServerRoutesTest {
 				.verify(Duration.ofMillis(200));
 
 	}
-}
\ No newline at end of file
+
+	@Test
+	void compiledRoutesInvokeSameHandlerAsDeclarationOrder() {
+		String[] templates = {"/", "/a", "/a/", "/a/b", "/a/{x}", "/a/{x}/c", "/a/b/**", "/a/**",
+				"/files/report.json", "/files/{name}.json", "/files/{name}.{ext}", "/files/{name}-{version}.tar.gz",
+				"/static/{path}**", "/regex/(foo|bar)", "/users/me", "/users/{id}", "/users/{id}/",
+				"http://localhost:8080/full/{id}", "/query?ignored", "/**"};
+		AtomicReference<String> invoked = new AtomicReference<>();
+		DefaultHttpServerRoutes linear = new DefaultHttpServerRoutes();
+		DefaultHttpServerRoutes compiled = new DefaultHttpServerRoutes();
+		compiled.compiled(true);
+		for (DefaultHttpServerRoutes routes : new DefaultHttpServerRoutes[]{linear, compiled}) {
+			for (int i = 0; i < templates.length; i++) {
+				String id = i + " GET " + templates[i];
+				routes.get(templates[i], (req, res) -> {
+					invoked.set(id);
+					return Mono.empty();
+				});
+				if (i == templates.length / 2) {
+					routes.route(req -> req.uri().startsWith("/users/m"), (req, res) -> {
+						invoked.set("predicate");
+						return Mono.empty();
+					});
+					routes.route(HttpPredicate.prefix("/static/"), (req, res) -> {
+						invoked.set("prefix");
+						return Mono.empty();
+					});
+				}
+			}
+			routes.post("/users/{id}", (req, res) -> {
+				invoked.set("POST /users/{id}");
+				return Mono.empty();
+			});
+			routes.route(HttpPredicate.http("/users/{id}", HttpVersion.HTTP_1_0, HttpMethod.DELETE), (req, res) -> {
+				invoked.set("DELETE HTTP/1.0 /users/{id}");
+				return Mono.empty();
+			});
+		}
+
+		String[] uris = {"/", "", "/a", "/a/", "/a/b", "/a/b/", "/a/x", "/a/x/c", "/a/x/c/d", "/a//c",
+				"/files/report.json", "/files/other.json", "/files/.json", "/files/archive.tar.gz",
+				"/files/lib-1.2.3.tar.gz", "/static", "/static/", "/static/css/site.css",
+				"/regex/foo", "/users/me", "/users/mike", "/users/42", "/users/42/", "/users/42?x=/y",
+				"http://localhost:8080/full/42", "https://example.com/users/42", "/query", "/query?ignored",
+				"/unknown/path"};
+		HttpMethod[] methods = {HttpMethod.GET, HttpMethod.POST, HttpMethod.DELETE, HttpMethod.PUT};
+		HttpVersion[] versions = {HttpVersion.HTTP_1_1, HttpVersion.HTTP_1_0};
+		for (String uri : uris) {
+			for (HttpMethod method : methods) {
+				for (HttpVersion version : versions) {
+					HttpServerRequest request = mockRequest(uri, method, version);
+					invoked.set(null);
+					linear.apply(request, Mockito.mock(HttpServerResponse.class));
+					String expected = invoked.getAndSet(null);
+					compiled.apply(request, Mockito.mock(HttpServerResponse.class));
+					assertThat(invoked.get()).as("%s %s %s", method, version, uri).isEqualTo(expected);
+				}
+			}
+		}
+	}
+
+	@Test
+	void compiledRoutesMatchLiteralCharacters() {
+		List<String> invoked = new ArrayList<>();
+		DefaultHttpServerRoutes routes = new DefaultHttpServerRoutes();
+		routes.compiled(true)
+		      .get("/v1.0/{id}", (req, res) -> {
+		          invoked.add("/v1.0/{id}");
+		          return Mono.empty();
+		      });
+
+		routes.apply(mockRequest("/v1.0/42", HttpMethod.GET, HttpVersion.HTTP_1_1), Mockito.mock(HttpServerResponse.class));
+		routes.apply(mockRequest("/v1x0/42", HttpMethod.GET, HttpVersion.HTTP_1_1), Mockito.mock(HttpServerResponse.class));
+
+		assertThat(invoked).containsExactly("/v1.0/{id}");
+	}
+
+	@Test
+	void compiledRoutesReflectRoutesChanges() {
+		List<String> invoked = new ArrayList<>();
+		DefaultHttpServerRoutes routes = new DefaultHttpServerRoutes();
+		routes.compiled(true)
+		      .get("/a/{x}", (req, res) -> {
+		          invoked.add("/a/{x}");
+		          return Mono.empty();
+		      })
+		      .get("/a/b", (req, res) -> {
+		          invoked.add("/a/b");
+		          return Mono.empty();
+		      });
+
+		HttpServerRequest request = mockRequest("/a/b", HttpMethod.GET, HttpVersion.HTTP_1_1);
+		routes.apply(request, Mockito.mock(HttpServerResponse.class));
+
+		routes.comparator((r1, r2) -> r1.getPath().compareTo(r2.getPath()));
+		routes.apply(request, Mockito.mock(HttpServerResponse.class));
+
+		routes.removeIf(metadata -> "/a/b".equals(metadata.getPath()));
+		routes.apply(request, Mockito.mock(HttpServerResponse.class));
+
+		routes.removeIf(metadata -> "/a/{x}".equals(metadata.getPath()));
+		routes.apply(request, Mockito.mock(HttpServerResponse.class));
+
+		assertThat(invoked).containsExactly("/a/{x}", "/a/b", "/a/{x}");
+	}
+
+	@Test
+	void pathParamsAreCapturedInBothModes() {
+		for (boolean compiled : new boolean[] {false, true}) {
+			Map<String, Map<String, String>> captured = new HashMap<>();
+			DefaultHttpServerRoutes routes = new DefaultHttpServerRoutes();
+			routes.compiled(compiled)
+			      .get("/users/{id}/files/{name}-{rev}", (req, res) -> {
+			          captured.put(req.param("id"), req.params());
+			          return Mono.empty();
+			      })
+			      .get("/static/{dir}/{path}**", (req, res) -> {
+			          captured.put(req.param("dir"), req.params());
+			          return Mono.empty();
+			      })
+			      .get("/health", (req, res) -> {
+			          captured.put("health", req.params());
+			          return Mono.empty();
+			      });
+
+			EmbeddedChannel channel = new EmbeddedChannel();
+			try {
+				routes.apply(serverOperations(channel, "/users/7/files/report-2023-01?download=true"), Mockito.mock(HttpServerResponse.class));
+				routes.apply(serverOperations(channel, "http://localhost:8080/static/css/a/b.css?v=2"), Mockito.mock(HttpServerResponse.class));
+				routes.apply(serverOperations(channel, "/health"), Mockito.mock(HttpServerResponse.class));
+			}
+			finally {
+				channel.finishAndReleaseAll();
+			}
+
+			assertThat(captured.get("7"))
+					.as("compiled %s", compiled)
+					.containsEntry("id", "7")
+					.containsEntry("name", "report-2023")
+					.containsEntry("rev", "01")
+					.hasSize(3);
+			assertThat(captured.get("css"))
+					.as("compiled %s", compiled)
+					.containsEntry("dir", "css")
+					.containsEntry("path", "a/b.css")
+					.hasSize(2);
+			// as before the path params were captured, a template without variables has no params
+			assertThat(captured)
+					.as("compiled %s", compiled)
+					.containsEntry("health", null);
+		}
+	}
+
+	static HttpServerOperations serverOperations(EmbeddedChannel channel, String uri) {
+		return new HttpServerOperations(
+				Connection.from(channel),
+				ConnectionObserver.emptyListener(),
+				new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, uri),
+				null,
+				null,
+				ServerCookieDecoder.STRICT,
+				ServerCookieEncoder.STRICT,
+				DEFAULT_FORM_DECODER_SPEC,
+				ReactorNettyHttpMessageLogFactory.INSTANCE,
+				null,
+				false,
+				ZonedDateTime.now(ReactorNetty.ZONE_ID_SYSTEM));
+	}
+
+	static HttpServerRequest mockRequest(String uri, HttpMethod method, HttpVersion version) {
+		HttpServerRequest request = Mockito.mock(HttpServerRequest.class);
+		Mockito.when(request.paramsResolver(Mockito.any())).thenReturn(request);
+		Mockito.when(request.uri()).thenReturn(uri);
+		Mockito.when(request.method()).thenReturn(method);
+		Mockito.when(request.version()).thenReturn(version);
+		return request;
+	}
+}
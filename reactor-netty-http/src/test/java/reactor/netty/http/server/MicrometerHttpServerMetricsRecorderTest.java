@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.server;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static reactor.netty.Metrics.OVERFLOW;
+
+class MicrometerHttpServerMetricsRecorderTest {
+
+	@Test
+	void uriTagValuesOverTheMaximumAreRecordedAsOverflow() {
+		MicrometerHttpServerMetricsRecorder recorder = new MicrometerHttpServerMetricsRecorder(2);
+
+		assertThat(recorder.uriTag("/users/{id}")).isEqualTo("/users/{id}");
+		assertThat(recorder.uriTag("/orders/{id}")).isEqualTo("/orders/{id}");
+		assertThat(recorder.uriTag("/items/{id}")).isEqualTo(OVERFLOW);
+		assertThat(recorder.uriTag("/carts/{id}")).isEqualTo(OVERFLOW);
+
+		// the URI tag values within the maximum are still recorded
+		assertThat(recorder.uriTag("/users/{id}")).isEqualTo("/users/{id}");
+		assertThat(recorder.uriTag("/orders/{id}")).isEqualTo("/orders/{id}");
+
+		MicrometerHttpServerMetricsRecorder.RouteMeters meters = recorder.getRouteMeters("/items/{id}", "GET");
+		assertThat(meters.uri).isEqualTo(OVERFLOW);
+		assertThat(recorder.getRouteMeters("/carts/{id}", "GET")).isSameAs(meters);
+		assertThat(recorder.getRouteMeters("/users/{id}", "GET").uri).isEqualTo("/users/{id}");
+	}
+}
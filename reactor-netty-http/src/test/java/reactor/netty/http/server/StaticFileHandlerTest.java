@@ -0,0 +1,372 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.server;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.BaseHttpTest;
+import reactor.netty.NettyOutbound;
+import reactor.test.StepVerifier;
+import reactor.util.function.Tuple3;
+import reactor.util.function.Tuples;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class StaticFileHandlerTest extends BaseHttpTest {
+
+	static final String CONTENT = "0123456789abcdefghijklmnopqrstuvwxyz";
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void conditionalRequests() throws Exception {
+		write("test.txt", CONTENT);
+		disposableServer = createServer().route(r -> r.directory("/static", directory)).bindNow();
+
+		Tuple3<Integer, HttpHeaders, String> response = get("/static/test.txt", h -> {});
+		assertThat(response.getT1()).isEqualTo(200);
+		assertThat(response.getT3()).isEqualTo(CONTENT);
+		String etag = response.getT2().get(HttpHeaderNames.ETAG);
+		String lastModified = response.getT2().get(HttpHeaderNames.LAST_MODIFIED);
+		assertThat(etag).isNotNull();
+		assertThat(lastModified).isNotNull();
+		assertThat(response.getT2().get(HttpHeaderNames.ACCEPT_RANGES)).isEqualTo("bytes");
+
+		response = get("/static/test.txt", h -> h.set(HttpHeaderNames.IF_NONE_MATCH, "\"other\", " + etag));
+		assertThat(response.getT1()).isEqualTo(304);
+		assertThat(response.getT3()).isEmpty();
+
+		response = get("/static/test.txt", h -> h.set(HttpHeaderNames.IF_NONE_MATCH, "\"other\""));
+		assertThat(response.getT1()).isEqualTo(200);
+
+		response = get("/static/test.txt", h -> h.set(HttpHeaderNames.IF_MODIFIED_SINCE, lastModified));
+		assertThat(response.getT1()).isEqualTo(304);
+
+		response = get("/static/test.txt", h -> h.set(HttpHeaderNames.IF_MODIFIED_SINCE, "Thu, 01 Jan 1970 00:00:00 GMT"));
+		assertThat(response.getT1()).isEqualTo(200);
+
+		response = get("/static/missing.txt", h -> {});
+		assertThat(response.getT1()).isEqualTo(404);
+	}
+
+	@Test
+	void rangeRequests() throws Exception {
+		doTestRangeRequests(null);
+	}
+
+	@Test
+	void rangeRequestsCachedContent() throws Exception {
+		doTestRangeRequests(StaticFileCache.create());
+	}
+
+	@Test
+	void rangeRequestsCachedMetadata() throws Exception {
+		doTestRangeRequests(StaticFileCache.builder().maxFileSize(0).build());
+	}
+
+	private void doTestRangeRequests(StaticFileCache cache) throws Exception {
+		write("test.txt", CONTENT);
+		disposableServer =
+				createServer().route(r -> {
+				                  if (cache != null) {
+				                      r.directory("/static", directory, null, cache);
+				                  }
+				                  else {
+				                      r.directory("/static", directory);
+				                  }
+				              })
+				              .bindNow();
+
+		Tuple3<Integer, HttpHeaders, String> response = get("/static/test.txt", h -> h.set(HttpHeaderNames.RANGE, "bytes=2-5"));
+		assertThat(response.getT1()).isEqualTo(206);
+		assertThat(response.getT2().get(HttpHeaderNames.CONTENT_RANGE)).isEqualTo("bytes 2-5/36");
+		assertThat(response.getT3()).isEqualTo("2345");
+
+		response = get("/static/test.txt", h -> h.set(HttpHeaderNames.RANGE, "bytes=-3"));
+		assertThat(response.getT1()).isEqualTo(206);
+		assertThat(response.getT3()).isEqualTo("xyz");
+
+		response = get("/static/test.txt", h -> h.set(HttpHeaderNames.RANGE, "bytes=30-"));
+		assertThat(response.getT1()).isEqualTo(206);
+		assertThat(response.getT3()).isEqualTo("uvwxyz");
+
+		response = get("/static/test.txt", h -> h.set(HttpHeaderNames.RANGE, "bytes=36-"));
+		assertThat(response.getT1()).isEqualTo(416);
+		assertThat(response.getT2().get(HttpHeaderNames.CONTENT_RANGE)).isEqualTo("bytes */36");
+
+		response = get("/static/test.txt", h -> h.set(HttpHeaderNames.RANGE, "bytes=0-1,4-5"));
+		assertThat(response.getT1()).isEqualTo(200);
+		assertThat(response.getT3()).isEqualTo(CONTENT);
+
+		response = get("/static/test.txt", h -> h.set(HttpHeaderNames.RANGE, "bytes=0-1")
+		                                         .set(HttpHeaderNames.IF_RANGE, "\"other\""));
+		assertThat(response.getT1()).isEqualTo(200);
+		assertThat(response.getT3()).isEqualTo(CONTENT);
+	}
+
+	@Test
+	void precompressedVariants() throws Exception {
+		doTestPrecompressedVariants(null);
+	}
+
+	@Test
+	void precompressedVariantsCached() throws Exception {
+		doTestPrecompressedVariants(StaticFileCache.create());
+	}
+
+	private void doTestPrecompressedVariants(StaticFileCache cache) throws Exception {
+		write("test.txt", CONTENT);
+		write("test.txt.gz", "gzip-variant");
+		write("test.txt.br", "br-variant");
+		write("other.txt", CONTENT);
+		disposableServer =
+				createServer().compress(true)
+				              .route(r -> {
+				                  if (cache != null) {
+				                      r.directory("/static", directory, null, cache);
+				                  }
+				                  else {
+				                      r.directory("/static", directory);
+				                  }
+				              })
+				              .bindNow();
+
+		Tuple3<Integer, HttpHeaders, String> response = get("/static/test.txt", h -> h.set(HttpHeaderNames.ACCEPT_ENCODING, "gzip"));
+		assertThat(response.getT1()).isEqualTo(200);
+		assertThat(response.getT2().get(HttpHeaderNames.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(response.getT2().get(HttpHeaderNames.VARY)).isEqualToIgnoringCase("accept-encoding");
+		assertThat(response.getT3()).isEqualTo("gzip-variant");
+		String etag = response.getT2().get(HttpHeaderNames.ETAG);
+
+		response = get("/static/test.txt", h -> h.set(HttpHeaderNames.ACCEPT_ENCODING, "gzip, deflate, br"));
+		assertThat(response.getT2().get(HttpHeaderNames.CONTENT_ENCODING)).isEqualTo("br");
+		assertThat(response.getT3()).isEqualTo("br-variant");
+		assertThat(response.getT2().get(HttpHeaderNames.ETAG)).isNotEqualTo(etag);
+
+		response = get("/static/test.txt", h -> h.set(HttpHeaderNames.ACCEPT_ENCODING, "br;q=0.5, gzip"));
+		assertThat(response.getT2().get(HttpHeaderNames.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(response.getT3()).isEqualTo("gzip-variant");
+
+		response = get("/static/test.txt", h -> h.set(HttpHeaderNames.ACCEPT_ENCODING, "gzip")
+		                                         .set(HttpHeaderNames.IF_NONE_MATCH, etag));
+		assertThat(response.getT1()).isEqualTo(304);
+
+		response = get("/static/test.txt", h -> h.set(HttpHeaderNames.ACCEPT_ENCODING, "identity"));
+		assertThat(response.getT2().get(HttpHeaderNames.CONTENT_ENCODING)).isNull();
+		assertThat(response.getT2().get(HttpHeaderNames.VARY)).isEqualToIgnoringCase("accept-encoding");
+		assertThat(response.getT3()).isEqualTo(CONTENT);
+
+		// the client prefers the original file
+		response = get("/static/test.txt", h -> h.set(HttpHeaderNames.ACCEPT_ENCODING, "gzip;q=0.1, identity"));
+		assertThat(response.getT2().get(HttpHeaderNames.CONTENT_ENCODING)).isNull();
+		assertThat(response.getT3()).isEqualTo(CONTENT);
+
+		response = get("/static/test.txt", h -> h.set(HttpHeaderNames.ACCEPT_ENCODING, "br;q=0.2, gzip;q=0.4, identity;q=0.5"));
+		assertThat(response.getT2().get(HttpHeaderNames.CONTENT_ENCODING)).isNull();
+		assertThat(response.getT3()).isEqualTo(CONTENT);
+
+		response = get("/static/test.txt", h -> h.set(HttpHeaderNames.ACCEPT_ENCODING, "br;q=0.2, gzip;q=0.5, *;q=0.5"));
+		assertThat(response.getT2().get(HttpHeaderNames.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(response.getT3()).isEqualTo("gzip-variant");
+
+		response = get("/static/test.txt", h -> h.set(HttpHeaderNames.ACCEPT_ENCODING, "br;q=0.5, identity;q=0.3"));
+		assertThat(response.getT2().get(HttpHeaderNames.CONTENT_ENCODING)).isEqualTo("br");
+		assertThat(response.getT3()).isEqualTo("br-variant");
+
+		response = get("/static/other.txt", h -> {});
+		assertThat(response.getT2().get(HttpHeaderNames.VARY)).isNull();
+		assertThat(response.getT3()).isEqualTo(CONTENT);
+	}
+
+	@Test
+	void quality() {
+		assertThat(StaticFileHandler.quality("gzip, br;q=0.8", "br")).isEqualTo(0.8);
+		assertThat(StaticFileHandler.quality("gzip, br;q=0.8", "gzip")).isEqualTo(1);
+		assertThat(StaticFileHandler.quality("gzip, br;q=0.8", "zstd")).isEqualTo(0);
+		assertThat(StaticFileHandler.quality("gzip;q=0, *;q=0.5", "gzip")).isEqualTo(0);
+		assertThat(StaticFileHandler.quality("gzip;q=0, *;q=0.5", "zstd")).isEqualTo(0.5);
+	}
+
+	@Test
+	void cachedFileIsRevalidated() throws Exception {
+		AtomicLong nanoTime = new AtomicLong();
+		StaticFileCache cache =
+				new StaticFileCache((StaticFileCache.Build) StaticFileCache.builder(), nanoTime::get, Schedulers.immediate());
+		Path file = write("test.txt", CONTENT);
+
+		StaticFileCache.Entry entry = cache.get(file);
+		assertThat(entry).isNotNull();
+		assertThat(entry.hasContent()).isTrue();
+		assertThat(cache.size()).isEqualTo(1);
+
+		Files.write(file, "modified".getBytes(StandardCharsets.UTF_8));
+		Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+		assertThat(cache.get(file)).isSameAs(entry);
+
+		nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		StaticFileCache.Entry newEntry = cache.get(file);
+		assertThat(newEntry).isNotSameAs(entry);
+		assertThat(newEntry.size).isEqualTo(8);
+		assertThat(entry.hasContent()).isFalse();
+
+		Files.delete(file);
+		nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		assertThat(cache.get(file)).isNull();
+		assertThat(cache.size()).isZero();
+		assertThat(newEntry.hasContent()).isFalse();
+	}
+
+	@Test
+	void leastRecentlyUsedFilesAreEvicted() throws Exception {
+		StaticFileCache cache =
+				new StaticFileCache((StaticFileCache.Build) StaticFileCache.builder().maxSize(2 * CONTENT.length()),
+						System::nanoTime, Schedulers.immediate());
+		Path a = write("a.txt", CONTENT);
+		Path b = write("b.txt", CONTENT);
+		Path c = write("c.txt", CONTENT);
+
+		StaticFileCache.Entry entryA = cache.get(a);
+		StaticFileCache.Entry entryB = cache.get(b);
+		cache.get(a);
+		cache.get(c);
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(entryA.hasContent()).isTrue();
+		assertThat(entryB.hasContent()).isFalse();
+
+		cache.clear();
+		assertThat(cache.size()).isZero();
+		assertThat(entryA.hasContent()).isFalse();
+	}
+
+	@Test
+	void contentIsLoadedOffTheCallerThread() throws Exception {
+		List<Runnable> tasks = new ArrayList<>();
+		AtomicLong nanoTime = new AtomicLong();
+		StaticFileCache cache =
+				new StaticFileCache((StaticFileCache.Build) StaticFileCache.builder(), nanoTime::get,
+						Schedulers.fromExecutor(tasks::add));
+		Path file = write("test.txt", CONTENT);
+
+		StaticFileCache.Entry entry = cache.get(file);
+		assertThat(entry).isNotNull();
+		assertThat(entry.hasContent()).isFalse();
+		assertThat(tasks).hasSize(1);
+
+		tasks.remove(0).run();
+		assertThat(entry.hasContent()).isTrue();
+		assertThat(cache.size).isEqualTo(CONTENT.length());
+
+		// the content of an entry that has been replaced in the meantime is not cached
+		Files.write(file, "modified".getBytes(StandardCharsets.UTF_8));
+		Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+		nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		StaticFileCache.Entry newEntry = cache.get(file);
+		assertThat(newEntry).isNotSameAs(entry);
+		cache.remove(file);
+
+		tasks.remove(0).run();
+		assertThat(newEntry.hasContent()).isFalse();
+		assertThat(cache.size).isZero();
+	}
+
+	@Test
+	void fileIsSentWhenTheContentIsNotCached() {
+		Path file = directory.resolve("test.txt");
+		HttpServerResponse response = Mockito.mock(HttpServerResponse.class);
+		Mockito.when(response.sendFile(file, 0, 10)).thenReturn(Mockito.mock(NettyOutbound.class, Mockito.CALLS_REAL_METHODS));
+
+		StaticFileCache.Entry entry = new StaticFileCache.Entry(10, 0, 0);
+		StepVerifier.create(StaticFileHandler.send(response, file, entry, 0, 10))
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(5));
+
+		// the cached content is smaller than the size the range was computed with, e.g. a file that shrank
+		entry.content(Unpooled.wrappedBuffer(new byte[5]));
+		StepVerifier.create(StaticFileHandler.send(response, file, entry, 0, 10))
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(5));
+
+		Mockito.verify(response, Mockito.times(2)).sendFile(file, 0, 10);
+		Mockito.verify(response, Mockito.never()).send(Mockito.any());
+		entry.release();
+	}
+
+	@Test
+	void parseRange() {
+		assertThat(StaticFileHandler.parseRange("bytes=0-9", 100)).containsExactly(0, 9);
+		assertThat(StaticFileHandler.parseRange("bytes=90-200", 100)).containsExactly(90, 99);
+		assertThat(StaticFileHandler.parseRange("bytes=-200", 100)).containsExactly(0, 99);
+		assertThat(StaticFileHandler.parseRange("bytes=100-", 100)).isSameAs(StaticFileHandler.UNSATISFIABLE_RANGE);
+		assertThat(StaticFileHandler.parseRange("bytes=-0", 100)).isSameAs(StaticFileHandler.UNSATISFIABLE_RANGE);
+		assertThat(StaticFileHandler.parseRange("bytes=9-0", 100)).isNull();
+		assertThat(StaticFileHandler.parseRange("bytes=a-b", 100)).isNull();
+		assertThat(StaticFileHandler.parseRange("items=0-9", 100)).isNull();
+	}
+
+	@Test
+	void builderBadValues() {
+		StaticFileCache.Builder builder = StaticFileCache.builder();
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> builder.maxEntries(0))
+				.withMessage("maxEntries must be strictly positive");
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> builder.maxFileSize(-1))
+				.withMessage("maxFileSize must be positive, was: -1");
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> builder.maxSize(-1))
+				.withMessage("maxSize must be positive, was: -1");
+
+		assertThatExceptionOfType(NullPointerException.class)
+				.isThrownBy(() -> builder.revalidateAfter(null));
+	}
+
+	Tuple3<Integer, HttpHeaders, String> get(String uri, Consumer<HttpHeaders> headers) {
+		return createClient(disposableServer.port())
+		        .headers(headers)
+		        .get()
+		        .uri(uri)
+		        .responseSingle((res, bytes) -> bytes.asString()
+		                                             .defaultIfEmpty("")
+		                                             .map(body -> Tuples.of(res.status().code(), res.responseHeaders(), body)))
+		        .block(Duration.ofSeconds(30));
+	}
+
+	Path write(String name, String content) throws IOException {
+		return Files.write(directory.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+	}
+}
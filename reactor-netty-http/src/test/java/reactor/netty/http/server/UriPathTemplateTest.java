@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017-2021 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2017-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -103,4 +103,23 @@ class UriPathTemplateTest {
         assertThat(template.match("/tags/v1.0.0").entrySet()).isEmpty();
     }
 
-}
\ No newline at end of file
+    @Test
+    void splatAndVariablesShouldBeCapturedByName() {
+        UriPathTemplate template = new UriPathTemplate("/{bucket}/{path}**");
+        assertThat(template.match("/images/2023/01/logo.png?size=small"))
+                .containsEntry("bucket", "images")
+                .containsEntry("path", "2023/01/logo.png")
+                .hasSize(2);
+    }
+
+    @Test
+    void pathParamsShouldBeCapturedFromAbsoluteUri() {
+        UriPathTemplate template = new UriPathTemplate("/comments/{id}");
+        UriPathParams pathParams = template.capture("http://localhost:8080/comments/1?sort=asc");
+        assertThat(pathParams).isNotNull();
+        assertThat(pathParams.get("id")).isEqualTo("1");
+        assertThat(pathParams.get("sort")).isNull();
+        assertThat(template.capture("http://localhost:8080/tags/1")).isNull();
+    }
+
+}
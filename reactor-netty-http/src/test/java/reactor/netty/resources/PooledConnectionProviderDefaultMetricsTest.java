@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2019-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -43,8 +43,10 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static reactor.netty.Metrics.ACTIVE_CONNECTIONS;
 import static reactor.netty.Metrics.ACTIVE_STREAMS;
+import static reactor.netty.Metrics.CONNECTION_LIMIT;
 import static reactor.netty.Metrics.MAX_CONNECTIONS;
 import static reactor.netty.Metrics.CONNECTION_PROVIDER_PREFIX;
 import static reactor.netty.Metrics.IDLE_CONNECTIONS;
@@ -297,6 +299,44 @@ class PooledConnectionProviderDefaultMetricsTest extends BaseHttpTest {
 		assertThat(getGaugeValue(CONNECTION_PROVIDER_PREFIX + PENDING_STREAMS, "http2.testConnectionPoolPendingAcquireSize")).isEqualTo(-1);
 	}
 
+	@Test
+	void testConnectionLimitWithAdaptiveAllocationStrategy() throws Exception {
+		disposableServer =
+				createServer().handle((req, res) -> res.sendString(Mono.just("testConnectionLimitWithAdaptiveAllocationStrategy")))
+				              .bindNow();
+		ConnectionProvider provider =
+				ConnectionProvider.builder("testConnectionLimitWithAdaptiveAllocationStrategy")
+				                  .allocationStrategy(AdaptiveAllocationStrategy.builder()
+				                                                                .maxConnections(10)
+				                                                                .initialLimit(4)
+				                                                                .build())
+				                  .metrics(true)
+				                  .build();
+		try {
+			createClient(provider, disposableServer::address)
+			        .get()
+			        .uri("/")
+			        .responseContent()
+			        .aggregate()
+			        .asString()
+			        .block(Duration.ofSeconds(5));
+
+			// the connection is released while the pool is under-used, the limit decreases
+			await().atMost(5, TimeUnit.SECONDS)
+			       .untilAsserted(() -> assertThat(getGaugeValue(CONNECTION_PROVIDER_PREFIX + CONNECTION_LIMIT,
+			               "testConnectionLimitWithAdaptiveAllocationStrategy")).isEqualTo(3));
+			assertThat(getGaugeValue(CONNECTION_PROVIDER_PREFIX + MAX_CONNECTIONS, "testConnectionLimitWithAdaptiveAllocationStrategy"))
+					.isEqualTo(10);
+		}
+		finally {
+			provider.disposeLater()
+			        .block(Duration.ofSeconds(5));
+		}
+		// deRegistered
+		assertThat(getGaugeValue(CONNECTION_PROVIDER_PREFIX + CONNECTION_LIMIT, "testConnectionLimitWithAdaptiveAllocationStrategy"))
+				.isEqualTo(-1);
+	}
+
 	private double getGaugeValue(String gaugeName, String poolName) {
 		Gauge gauge = registry.find(gaugeName).tag(NAME, poolName).gauge();
 		double result = -1;
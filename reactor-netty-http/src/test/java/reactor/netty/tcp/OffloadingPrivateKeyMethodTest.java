@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2023 VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.tcp;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.ssl.OpenSslAsyncPrivateKeyMethod;
+import io.netty.handler.ssl.util.SelfSignedCertificate;
+import io.netty.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import javax.net.ssl.SSLEngine;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffloadingPrivateKeyMethodTest {
+	static final SSLEngine ENGINE = null;
+	static final byte[] INPUT = "Hello World!".getBytes(StandardCharsets.UTF_8);
+
+	static SelfSignedCertificate ssc;
+
+	final List<Runnable> tasks = new ArrayList<>();
+
+	MeterRegistry registry;
+
+	@BeforeAll
+	static void createSelfSignedCertificate() throws Exception {
+		ssc = new SelfSignedCertificate();
+	}
+
+	@BeforeEach
+	void setUp() {
+		registry = new SimpleMeterRegistry();
+		Metrics.addRegistry(registry);
+	}
+
+	@AfterEach
+	void tearDown() {
+		Metrics.removeRegistry(registry);
+		registry.clear();
+		registry.close();
+	}
+
+	@Test
+	void signIsOffloaded() throws Exception {
+		OffloadingPrivateKeyMethod method = new OffloadingPrivateKeyMethod(ssc.key(), tasks::add, true);
+
+		Future<byte[]> future = method.sign(ENGINE, OpenSslAsyncPrivateKeyMethod.SSL_SIGN_RSA_PKCS1_SHA256, INPUT);
+		assertThat(future.isDone()).isFalse();
+		assertThat(method.pendingOperations()).isEqualTo(1);
+		assertThat(pendingOperations(method)).isEqualTo(1);
+
+		tasks.remove(0).run();
+		assertThat(method.pendingOperations()).isZero();
+
+		Signature signature = Signature.getInstance("SHA256withRSA");
+		signature.initVerify(ssc.cert().getPublicKey());
+		signature.update(INPUT);
+		assertThat(signature.verify(future.getNow())).isTrue();
+
+		Timer timer = registry.find("reactor.netty.tls.private.key.operation.time")
+		                      .tags("type", "SIGN", "status", "SUCCESS")
+		                      .timer();
+		assertThat(timer).isNotNull();
+		assertThat(timer.count()).isEqualTo(1);
+	}
+
+	@Test
+	void signRsaPss() throws Exception {
+		byte[] result = OffloadingPrivateKeyMethod.sign(ssc.key(), OpenSslAsyncPrivateKeyMethod.SSL_SIGN_RSA_PSS_RSAE_SHA256, INPUT);
+
+		Signature signature = Signature.getInstance("RSASSA-PSS");
+		signature.setParameter(new PSSParameterSpec("SHA-256", "MGF1", MGF1ParameterSpec.SHA256, 32, 1));
+		signature.initVerify(ssc.cert().getPublicKey());
+		signature.update(INPUT);
+		assertThat(signature.verify(result)).isTrue();
+	}
+
+	@Test
+	void signRsaMd5Sha1() throws Exception {
+		byte[] result = OffloadingPrivateKeyMethod.sign(ssc.key(), OpenSslAsyncPrivateKeyMethod.SSL_SIGN_RSA_PKCS1_MD5_SHA1, INPUT);
+
+		byte[] digest = new byte[36];
+		System.arraycopy(MessageDigest.getInstance("MD5").digest(INPUT), 0, digest, 0, 16);
+		System.arraycopy(MessageDigest.getInstance("SHA-1").digest(INPUT), 0, digest, 16, 20);
+		Signature signature = Signature.getInstance("NONEwithRSA");
+		signature.initVerify(ssc.cert().getPublicKey());
+		signature.update(digest);
+		assertThat(signature.verify(result)).isTrue();
+	}
+
+	@Test
+	void decrypt() throws Exception {
+		// the input of the raw RSA decryption is as long as the modulus
+		byte[] input = new byte[256];
+		System.arraycopy(INPUT, 0, input, input.length - INPUT.length, INPUT.length);
+		Cipher cipher = Cipher.getInstance("RSA/ECB/NoPadding");
+		cipher.init(Cipher.ENCRYPT_MODE, ssc.cert().getPublicKey());
+		byte[] encrypted = cipher.doFinal(input);
+
+		OffloadingPrivateKeyMethod method = new OffloadingPrivateKeyMethod(ssc.key(), Runnable::run, false);
+		assertThat(method.decrypt(ENGINE, encrypted).getNow()).isEqualTo(input);
+	}
+
+	@Test
+	void unsupportedSignatureAlgorithm() {
+		OffloadingPrivateKeyMethod method = new OffloadingPrivateKeyMethod(ssc.key(), Runnable::run, false);
+		assertThat(method.sign(ENGINE, -1, INPUT).cause()).isInstanceOf(SignatureException.class);
+	}
+
+	@Test
+	void rejectedOperationIsPerformedOnCallingThread() {
+		Executor executor = task -> {
+			throw new RejectedExecutionException();
+		};
+		OffloadingPrivateKeyMethod method = new OffloadingPrivateKeyMethod(ssc.key(), executor, false);
+
+		Future<byte[]> future = method.sign(ENGINE, OpenSslAsyncPrivateKeyMethod.SSL_SIGN_RSA_PKCS1_SHA256, INPUT);
+		assertThat(future.isSuccess()).isTrue();
+		assertThat(method.pendingOperations()).isZero();
+	}
+
+	double pendingOperations(OffloadingPrivateKeyMethod method) {
+		return registry.find("reactor.netty.tls.private.key.pending.operations")
+		               .tag("id", Integer.toHexString(System.identityHashCode(method)))
+		               .gauge()
+		               .value();
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018-2022 VMware, Inc. or its affiliates, All Rights Reserved.
+ * Copyright (c) 2018-2023 VMware, Inc. or its affiliates, All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,25 +20,35 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.handler.ssl.JdkSslContext;
 import io.netty.handler.ssl.OpenSsl;
 import io.netty.handler.ssl.OpenSslClientContext;
 import io.netty.handler.ssl.OpenSslContext;
 import io.netty.handler.ssl.OpenSslServerContext;
 import io.netty.handler.ssl.OpenSslSessionContext;
+import io.netty.handler.ssl.OpenSslContextOption;
 import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
 import io.netty.handler.ssl.util.SelfSignedCertificate;
 import io.netty.util.concurrent.GlobalEventExecutor;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.assertj.core.util.introspection.FieldSupport;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Mono;
 import reactor.netty.BaseHttpTest;
+import reactor.netty.NettyPipeline;
 import reactor.netty.http.Http11SslContextSpec;
 import reactor.netty.http.Http2SslContextSpec;
 import reactor.netty.http.HttpProtocol;
@@ -47,6 +57,7 @@ import reactor.test.StepVerifier;
 
 import javax.net.ssl.SNIHostName;
 import javax.net.ssl.SNIServerName;
+import javax.net.ssl.SSLException;
 import javax.net.ssl.SSLHandshakeException;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -370,6 +381,193 @@ class SslProviderTests extends BaseHttpTest {
 						.serverNames((SNIServerName[]) null));
 	}
 
+	@Test
+	void testSessionCache() throws Exception {
+		SslProvider provider =
+				SslProvider.builder()
+				           .sslContext(clientSslContextBuilder)
+				           .sessionCache(16, Duration.ofMinutes(5))
+				           .build();
+
+		assertThat(provider.getSslContext().sessionContext().getSessionCacheSize()).isEqualTo(16);
+		assertThat(provider.getSslContext().sessionContext().getSessionTimeout()).isEqualTo(300);
+	}
+
+	@Test
+	void testSessionCacheBadValues() throws Exception {
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> SslProvider.builder()
+						.sslContext(clientSslContextBuilder)
+						.sessionCache(0, Duration.ofMinutes(5)));
+
+		assertThatExceptionOfType(NullPointerException.class)
+				.isThrownBy(() -> SslProvider.builder()
+						.sslContext(clientSslContextBuilder)
+						.sessionCache(16, null));
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> SslProvider.builder()
+						.sslContext(clientSslContextBuilder)
+						.sessionCache(16, Duration.ofMillis(500)));
+	}
+
+	@Test
+	void testOffloadPrivateKeyOperations() {
+		List<Thread> threads = new CopyOnWriteArrayList<>();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			disposableServer =
+					server.secure(spec ->
+					          spec.sslContext(serverSslContextBuilder)
+					              .offloadPrivateKeyOperations(cert.key(), task -> {
+					                  threads.add(Thread.currentThread());
+					                  executor.execute(task);
+					              }, false))
+					      .handle((req, res) -> res.sendString(Mono.just("testOffloadPrivateKeyOperations")))
+					      .bindNow();
+
+			createClient(disposableServer.port())
+			        .secure(spec -> spec.sslContext(clientSslContextBuilder))
+			        .get()
+			        .uri("/")
+			        .responseContent()
+			        .aggregate()
+			        .asString()
+			        .as(StepVerifier::create)
+			        .expectNext("testOffloadPrivateKeyOperations")
+			        .expectComplete()
+			        .verify(Duration.ofSeconds(30));
+
+			// with other providers, the private key operations are performed by the provider
+			assertThat(threads.isEmpty()).isEqualTo(!"BoringSSL".equals(OpenSsl.versionString()));
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void testOffloadPrivateKeyOperationsDoNotModifyTheProvidedConfiguration() throws Exception {
+		OffloadingPrivateKeyMethod privateKeyMethod = new OffloadingPrivateKeyMethod(cert.key(), Runnable::run, false);
+
+		SslContextBuilder builder = SslContextBuilder.forServer(cert.certificate(), cert.privateKey());
+		SslProvider.sslContext(builder, privateKeyMethod);
+		assertThat(builder).extracting("options", InstanceOfAssertFactories.MAP)
+		                   .doesNotContainKey(OpenSslContextOption.ASYNC_PRIVATE_KEY_METHOD);
+
+		Http11SslContextSpec spec = Http11SslContextSpec.forServer(cert.certificate(), cert.privateKey());
+		SslProvider.sslContext(spec, privateKeyMethod);
+		assertThat(options(spec)).doesNotContainKey(OpenSslContextOption.ASYNC_PRIVATE_KEY_METHOD);
+
+		Http11SslContextSpec delegate = Http11SslContextSpec.forServer(cert.certificate(), cert.privateKey());
+		List<Object> privateKeyMethods = new ArrayList<>();
+		SslProvider.ProtocolSslContextSpec customSpec = new SslProvider.ProtocolSslContextSpec() {
+			@Override
+			public SslProvider.ProtocolSslContextSpec configure(Consumer<SslContextBuilder> sslCtxBuilder) {
+				delegate.configure(sslCtxBuilder);
+				return this;
+			}
+
+			@Override
+			public SslContext sslContext() throws SSLException {
+				privateKeyMethods.add(options(delegate).get(OpenSslContextOption.ASYNC_PRIVATE_KEY_METHOD));
+				return delegate.sslContext();
+			}
+		};
+		SslProvider.sslContext(customSpec, privateKeyMethod);
+		assertThat(privateKeyMethods).containsExactly(privateKeyMethod);
+		assertThat(options(delegate)).doesNotContainKey(OpenSslContextOption.ASYNC_PRIVATE_KEY_METHOD);
+	}
+
+	@SuppressWarnings("unchecked")
+	static Map<Object, Object> options(AbstractProtocolSslContextSpec<?> spec) {
+		return FieldSupport.EXTRACTION.fieldValue("options", Map.class, spec.sslContextBuilder);
+	}
+
+	@Test
+	void testOffloadPrivateKeyOperationsBadValues() throws Exception {
+		assertThatExceptionOfType(NullPointerException.class)
+				.isThrownBy(() -> SslProvider.builder()
+						.sslContext(serverSslContextBuilder)
+						.offloadPrivateKeyOperations(null, Runnable::run, false));
+
+		assertThatExceptionOfType(NullPointerException.class)
+				.isThrownBy(() -> SslProvider.builder()
+						.sslContext(serverSslContextBuilder)
+						.offloadPrivateKeyOperations(cert.key(), null, false));
+
+		SslContext serverSslContext = serverSslContextBuilder.sslContext();
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> SslProvider.builder()
+						.sslContext(serverSslContext)
+						.offloadPrivateKeyOperations(cert.key(), Runnable::run, false)
+						.build());
+	}
+
+	@Test
+	void testDynamicRecordSizing() {
+		List<Boolean> recordSizers = new CopyOnWriteArrayList<>();
+		disposableServer =
+				server.secure(spec -> spec.sslContext(serverSslContextBuilder).dynamicRecordSizing(true))
+				      .doOnConnection(conn -> recordSizers.add(conn.channel().pipeline().get(NettyPipeline.SslRecordSizer) != null))
+				      .handle((req, res) -> res.sendString(Mono.just("testDynamicRecordSizing")))
+				      .bindNow();
+
+		createClient(disposableServer.port())
+		        .secure(spec -> spec.sslContext(clientSslContextBuilder))
+		        .get()
+		        .uri("/")
+		        .responseContent()
+		        .aggregate()
+		        .asString()
+		        .as(StepVerifier::create)
+		        .expectNext("testDynamicRecordSizing")
+		        .expectComplete()
+		        .verify(Duration.ofSeconds(30));
+
+		assertThat(recordSizers).containsExactly(true);
+	}
+
+	@Test
+	void testDynamicRecordSizeHandler() throws Exception {
+		SslHandler sslHandler = clientSslContextBuilder.sslContext().newHandler(ByteBufAllocator.DEFAULT);
+		SslProvider.DynamicRecordSizeHandler handler = new SslProvider.DynamicRecordSizeHandler(sslHandler, 10, 0);
+		EmbeddedChannel channel = new EmbeddedChannel(handler);
+		try {
+			channel.write(Unpooled.wrappedBuffer(new byte[5]));
+			assertThat(handler.maxRecordSize).isFalse();
+
+			channel.write(Unpooled.wrappedBuffer(new byte[5]));
+			assertThat(handler.maxRecordSize).isTrue();
+
+			// the connection is idle as the idle timeout is 0
+			channel.write(Unpooled.wrappedBuffer(new byte[1]));
+			assertThat(handler.maxRecordSize).isFalse();
+			assertThat(handler.bytesWritten).isEqualTo(1);
+		}
+		finally {
+			channel.finishAndReleaseAll();
+		}
+	}
+
+	@Test
+	void testDynamicRecordSizingBadValues() {
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> SslProvider.builder()
+						.sslContext(serverSslContextBuilder)
+						.dynamicRecordSizing(-1, Duration.ofSeconds(1)));
+
+		assertThatExceptionOfType(NullPointerException.class)
+				.isThrownBy(() -> SslProvider.builder()
+						.sslContext(serverSslContextBuilder)
+						.dynamicRecordSizing(1024, null));
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> SslProvider.builder()
+						.sslContext(serverSslContextBuilder)
+						.dynamicRecordSizing(1024, Duration.ZERO));
+	}
+
 	@Test
 	void testDefaultClientProviderIsOpenSsl() {
 		final SslProvider clientProvider = SslProvider.defaultClientProvider();